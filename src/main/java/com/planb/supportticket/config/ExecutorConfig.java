@@ -0,0 +1,172 @@
+package com.planb.supportticket.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Thread pools of the application, one named bean per workload so a slow dependency (an object
+ * store, an SMS provider, a slow WebSocket client) can only exhaust its own pool. Spring initializes
+ * and shuts them down with the context; inject them by name with {@code @Qualifier}.
+ *
+ * Declaring any Executor bean makes Spring Boot back off from its default task executor, so it is
+ * declared here too, built from the {@code spring.task.execution} properties as Boot would, and
+ * stays the one used for {@code @Async} and MVC async requests.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Reserves ticket number blocks ahead of time, each on its own connection rather than one of a
+     * ticket-creating caller.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ticketNumberExecutor() {
+        return fixedPool("ticket-number-", 1);
+    }
+
+    /**
+     * Attachment uploads. When the queue is full, the request thread uploads itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor attachmentUploadExecutor(
+            @Value("${gcp.storage.upload.parallelism:4}") int parallelism,
+            @Value("${gcp.storage.upload.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = fixedPool("attachment-upload-", parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        finishTasksOnShutdown(executor);
+        return executor;
+    }
+
+    /**
+     * Bulk SMS job workers. When the queue is full, new jobs are refused.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkSmsExecutor(@Value("${sms.bulk.concurrency:20}") int concurrency,
+                                                  @Value("${sms.bulk.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = fixedPool("bulk-sms-", concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    /**
+     * Per-user role notification fan-out. Beyond one queued batch per thread, the publishing
+     * thread sends the batch itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor roleFanoutExecutor(@Value("${websocket.role-fanout.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = fixedPool("ws-role-fanout-", concurrency);
+        executor.setQueueCapacity(concurrency);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Writes to WebSocket clients, draining the per-session outbound queues. A client that stopped
+     * reading holds one of these threads until it is closed, so the size bounds how many stalled
+     * clients can be waited out at once.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor webSocketOutboundExecutor(
+            @Value("${websocket.outbound.sender-threads:16}") int senderThreads) {
+        return fixedPool("ws-outbound-", senderThreads);
+    }
+
+    /**
+     * Sends consultation reminders handed off by the timing wheel.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor consultationReminderExecutor() {
+        return fixedPool("consultation-reminder-", 2);
+    }
+
+    /**
+     * Handles AI provider responses; requests in flight do not hold a thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor aiHttpExecutor(@Value("${websocket.ai.http.executor-threads:4}") int threads) {
+        return fixedPool("ai-http-", threads);
+    }
+
+    /**
+     * Writes AI conversations to the database. One thread keeps each session's messages in the
+     * order they were added.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor aiConversationStoreExecutor() {
+        ThreadPoolTaskExecutor executor = fixedPool("ai-conversation-store-", 1);
+        finishTasksOnShutdown(executor);
+        return executor;
+    }
+
+    /**
+     * Runs notification outbox dispatch. A run queued behind the current one is enough.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor notificationDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = fixedPool("notification-dispatch-", 1);
+        executor.setQueueCapacity(1);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor notificationWebsocketExecutor(
+            @Value("${notifications.outbox.concurrency.websocket:8}") int concurrency,
+            @Value("${notifications.outbox.batch-size:100}") int batchSize) {
+        return notificationChannelPool("websocket", concurrency, batchSize);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor notificationEmailExecutor(
+            @Value("${notifications.outbox.concurrency.email:4}") int concurrency,
+            @Value("${notifications.outbox.batch-size:100}") int batchSize) {
+        return notificationChannelPool("email", concurrency, batchSize);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor notificationSmsExecutor(
+            @Value("${notifications.outbox.concurrency.sms:2}") int concurrency,
+            @Value("${notifications.outbox.batch-size:100}") int batchSize) {
+        return notificationChannelPool("sms", concurrency, batchSize);
+    }
+
+    /**
+     * Creates the delivery pool of one notification channel. The queue holds a full batch; beyond
+     * that the dispatcher thread delivers itself, which throttles leasing.
+     */
+    private static ThreadPoolTaskExecutor notificationChannelPool(String channel, int concurrency, int batchSize) {
+        ThreadPoolTaskExecutor executor = fixedPool("notification-" + channel + "-", Math.max(concurrency, 1));
+        executor.setQueueCapacity(batchSize);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        finishTasksOnShutdown(executor);
+        return executor;
+    }
+
+    private static ThreadPoolTaskExecutor fixedPool(String threadNamePrefix, int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        return executor;
+    }
+
+    private static void finishTasksOnShutdown(ThreadPoolTaskExecutor executor) {
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+    }
+}
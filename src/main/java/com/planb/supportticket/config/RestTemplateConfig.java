@@ -3,9 +3,12 @@ package com.planb.supportticket.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * Configuration class for RestTemplate.
  */
@@ -25,13 +28,16 @@ public class RestTemplateConfig {
 
     /**
      * Creates a ClientHttpRequestFactory with custom timeout settings.
+     * Backed by one shared JDK HttpClient, which keeps connections alive and reuses them per host.
      *
      * @return the configured ClientHttpRequestFactory
      */
     private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000); // 5 seconds
-        factory.setReadTimeout(30000);   // 30 seconds
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofSeconds(30));
         return factory;
     }
 }
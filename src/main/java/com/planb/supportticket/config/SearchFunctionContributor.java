@@ -0,0 +1,32 @@
+package com.planb.supportticket.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the Postgres full-text search functions used by ticket queries with Hibernate,
+ * so they can be used from HQL and Criteria queries.
+ * Discovered through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    /**
+     * ticket_fts_match(id, query): true if the search_vector of the ticket with that ID matches the
+     * to_tsquery('english', query) expression. search_vector is not mapped on Ticket, so entity loads
+     * never read the document; the semi-join is planned as a GIN index scan.
+     */
+    public static final String TICKET_FTS_MATCH = "ticket_fts_match";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+
+        functionContributions.getFunctionRegistry()
+                .registerPattern(TICKET_FTS_MATCH, "(?1 IN (SELECT fts.id FROM tickets fts "
+                        + "WHERE fts.search_vector @@ to_tsquery('english', ?2)))", booleanType);
+    }
+}
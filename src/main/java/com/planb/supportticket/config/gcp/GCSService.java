@@ -1,5 +1,6 @@
 package com.planb.supportticket.config.gcp;
 
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.*;
 import com.google.api.gax.paging.Page;
 import com.planb.supportticket.exception.GCPServiceException;
@@ -11,12 +12,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Service for interacting with Google Cloud Storage.
@@ -35,8 +39,16 @@ public class GCSService {
     @Value("${gcp.storage.signed-url-expiration:3600}")
     private long signedUrlExpirationSeconds;
 
+    @Value("${gcp.storage.upload.direct-max-bytes:1048576}")
+    private long directUploadMaxBytes;
+
+    @Value("${gcp.storage.upload.chunk-size:2097152}")
+    private int uploadChunkSize;
+
     /**
      * Uploads a file to GCS synchronously.
+     * Small files are sent in a single request; larger files are streamed from the multipart
+     * part through a resumable upload, so they are never held on the heap as a whole.
      *
      * @param file The file to upload
      * @param folder The folder to upload to (e.g., "tickets", "profiles")
@@ -52,7 +64,11 @@ public class GCSService {
                     .setContentType(file.getContentType())
                     .build();
 
-            storage.create(blobInfo, file.getBytes());
+            if (file.getSize() <= directUploadMaxBytes) {
+                storage.create(blobInfo, file.getBytes());
+            } else {
+                streamUpload(blobInfo, file);
+            }
             log.info("Successfully uploaded file to GCS: {}", objectName);
             return objectName;
         } catch (IOException e) {
@@ -141,6 +157,44 @@ public class GCSService {
         }
     }
 
+    /**
+     * Deletes multiple files from GCS in batch requests.
+     * Objects that no longer exist count as deleted.
+     *
+     * @param objectNames The GCS object names of the files
+     * @return The object names that could not be deleted
+     * @throws GCPServiceException if the batch request fails as a whole
+     */
+    public List<String> deleteFiles(List<String> objectNames) {
+        if (objectNames == null || objectNames.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            List<BlobId> blobIds = objectNames.stream()
+                    .map(objectName -> BlobId.of(bucketName, objectName))
+                    .collect(Collectors.toList());
+            List<Boolean> results = storage.delete(blobIds);
+
+            // false means "not found" as well as "failed", so check which objects are still there
+            List<String> failed = new ArrayList<>();
+            for (int i = 0; i < blobIds.size(); i++) {
+                if (!Boolean.TRUE.equals(results.get(i)) && storage.get(blobIds.get(i)) != null) {
+                    failed.add(objectNames.get(i));
+                }
+            }
+
+            log.info("Deleted {} of {} files from GCS", objectNames.size() - failed.size(), objectNames.size());
+            return failed;
+        } catch (StorageException e) {
+            log.error("GCS error during batch file deletion: {}", e.getMessage());
+            throw new GCPServiceException("GCS", "deleteFiles", e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Unexpected error during GCS batch file deletion: {}", e.getMessage());
+            throw new GCPServiceException("GCS", "deleteFiles", "Unexpected error during batch deletion", e);
+        }
+    }
+
     /**
      * Deletes a file from GCS asynchronously.
      *
@@ -242,6 +296,44 @@ public class GCSService {
         }
     }
 
+    /**
+     * Streams a file into a resumable upload, one chunk at a time.
+     * The object is only created when the channel is closed, and closing finalizes it with whatever
+     * was written, so the channel is only closed once the whole file is written. On failure it is
+     * left open for the upload session to expire, and the object is deleted in case finalizing
+     * itself failed after creating it.
+     *
+     * @param blobInfo The target object
+     * @param file The file to upload
+     * @throws IOException if reading the file or writing to GCS fails
+     */
+    private void streamUpload(BlobInfo blobInfo, MultipartFile file) throws IOException {
+        WriteChannel writer = storage.writer(blobInfo);
+        try (InputStream in = file.getInputStream()) {
+            writer.setChunkSize(uploadChunkSize);
+            in.transferTo(Channels.newOutputStream(writer));
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            deletePartialUpload(blobInfo.getBlobId());
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the object of a failed upload, if it was created.
+     *
+     * @param blobId The object
+     */
+    private void deletePartialUpload(BlobId blobId) {
+        try {
+            if (storage.delete(blobId)) {
+                log.warn("Deleted partially uploaded GCS object: {}", blobId.getName());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to delete partially uploaded GCS object {}: {}", blobId.getName(), e.getMessage());
+        }
+    }
+
     /**
      * Generates a unique object name for a file.
      *
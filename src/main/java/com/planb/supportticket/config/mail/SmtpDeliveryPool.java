@@ -0,0 +1,303 @@
+package com.planb.supportticket.config.mail;
+
+import com.planb.supportticket.dto.EmailDeliveryStats;
+import com.planb.supportticket.util.LatencyRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers email over a fixed set of persistent SMTP connections.
+ *
+ * JavaMailSender opens, authenticates (and negotiates TLS for) a new connection for every message,
+ * which costs several round trips before the message itself is sent. Here each worker thread owns one
+ * connection and sends message after message over it, reconnecting when the server drops an idle
+ * connection or after {@code email.delivery.max-messages-per-connection} messages, since providers
+ * cap the messages per session. Messages wait in a bounded queue; when it is full, submission fails
+ * fast instead of piling up memory. Sends across all connections are spaced to stay under the
+ * provider's rate limit.
+ *
+ * Connection settings come from the regular spring.mail properties, so pointing spring.mail.host
+ * and port at an in-process SMTP server (such as GreenMail) exercises the real delivery path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpDeliveryPool {
+
+    private final JavaMailSenderImpl mailSender;
+
+    @Value("${email.delivery.connections:4}")
+    private int connections;
+
+    @Value("${email.delivery.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${email.delivery.submit-timeout-ms:2000}")
+    private long submitTimeoutMs;
+
+    @Value("${email.delivery.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${email.delivery.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    @Value("${email.delivery.rate-per-second:10}")
+    private double ratePerSecond;
+
+    private BlockingQueue<Delivery> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    // Earliest time the next message may be sent, shared by all connections
+    private long nextSendNanos;
+    private long sendIntervalNanos;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyRecorder queueWaits = new LatencyRecorder();
+    private final LatencyRecorder sends = new LatencyRecorder();
+
+    @PostConstruct
+    public void init() {
+        if (connections < 1 || queueCapacity < 1 || maxMessagesPerConnection < 1) {
+            throw new IllegalStateException(
+                    "email.delivery connections, queue-capacity and max-messages-per-connection must be positive");
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sendIntervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+
+        running = true;
+        for (int i = 1; i <= connections; i++) {
+            Thread worker = new Thread(new Worker(), "smtp-delivery-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("SMTP delivery pool started with {} connections to {}:{}",
+                connections, mailSender.getHost(), mailSender.getPort());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        Delivery delivery;
+        while ((delivery = queue.poll()) != null) {
+            delivery.result.completeExceptionally(new MailSendException("Email delivery pool shut down"));
+        }
+    }
+
+    /**
+     * Creates an empty message bound to the configured mail session.
+     *
+     * @return the message
+     */
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Queues a message for delivery. Waits up to the submit timeout for room in the queue.
+     *
+     * @param message the message
+     * @return a future completed once the SMTP server accepted the message, or failed with a
+     *         MailException if it was rejected or could not be queued
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        Delivery delivery = new Delivery(message, System.nanoTime());
+        try {
+            if (!running || !queue.offer(delivery, submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new MailSendException("Email delivery queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new MailSendException("Interrupted while queueing email"));
+        }
+        return delivery.result;
+    }
+
+    /**
+     * Gets the queue depth and latency figures of this pool.
+     *
+     * @return the stats
+     */
+    public EmailDeliveryStats getStats() {
+        return EmailDeliveryStats.builder()
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .openConnections(openConnections.get())
+                .sent(sent.sum())
+                .failed(failed.sum())
+                .connectionsOpened(connectionsOpened.get())
+                .averageQueueWaitMillis(queueWaits.getAverageMillis())
+                .averageSendMillis(sends.getAverageMillis())
+                .maxSendMillis(sends.getMaxMillis())
+                .build();
+    }
+
+    /**
+     * Waits until the rate limit allows another message to be sent.
+     */
+    private void awaitSendSlot() {
+        if (sendIntervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSendNanos);
+            nextSendNanos = slot + sendIntervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    /**
+     * A queued message and the future reporting its outcome.
+     */
+    private static final class Delivery {
+        private final MimeMessage message;
+        private final long queuedAt;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Delivery(MimeMessage message, long queuedAt) {
+            this.message = message;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    /**
+     * Owns one SMTP connection and sends queued messages over it until shutdown.
+     */
+    private final class Worker implements Runnable {
+        private Transport transport;
+        private int sentOnConnection;
+
+        @Override
+        public void run() {
+            while (running) {
+                Delivery delivery;
+                try {
+                    delivery = queue.poll(idleTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (delivery == null) {
+                    // Let the server forget about us rather than have it time the connection out
+                    disconnect();
+                    continue;
+                }
+                handle(delivery);
+            }
+            disconnect();
+        }
+
+        private void handle(Delivery delivery) {
+            queueWaits.record(System.nanoTime() - delivery.queuedAt);
+            awaitSendSlot();
+
+            long start = System.nanoTime();
+            try {
+                try {
+                    send(delivery.message);
+                } catch (MessagingException e) {
+                    if (isRecipientRejection(e)) {
+                        // The connection itself is fine
+                        throw e;
+                    }
+                    // The server may have closed a reused connection; retry once on a fresh one
+                    log.debug("SMTP send failed, reconnecting: {}", e.getMessage());
+                    disconnect();
+                    send(delivery.message);
+                }
+                sent.increment();
+                delivery.result.complete(null);
+            } catch (MessagingException | RuntimeException e) {
+                if (!(e instanceof MessagingException me && isRecipientRejection(me))) {
+                    disconnect();
+                }
+                failed.increment();
+                delivery.result.completeExceptionally(new MailSendException("Failed to send email", e));
+            } finally {
+                sends.record(System.nanoTime() - start);
+            }
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            if (transport == null || sentOnConnection >= maxMessagesPerConnection) {
+                disconnect();
+                connect();
+            }
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            sentOnConnection++;
+        }
+
+        private void connect() throws MessagingException {
+            String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+            Transport connection = mailSender.getSession().getTransport(protocol);
+            connection.connect(mailSender.getHost(), mailSender.getPort(),
+                    emptyToNull(mailSender.getUsername()), emptyToNull(mailSender.getPassword()));
+            transport = connection;
+            sentOnConnection = 0;
+            openConnections.incrementAndGet();
+            connectionsOpened.incrementAndGet();
+        }
+
+        private void disconnect() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+            openConnections.decrementAndGet();
+        }
+
+        /**
+         * Tells a rejected recipient from a failed connection. A connection the server dropped can
+         * also surface as a SendFailedException, but one that names no invalid address.
+         */
+        private boolean isRecipientRejection(MessagingException e) {
+            return e instanceof SendFailedException sendFailed
+                    && sendFailed.getInvalidAddresses() != null
+                    && sendFailed.getInvalidAddresses().length > 0;
+        }
+
+        private String emptyToNull(String value) {
+            return value == null || value.isEmpty() ? null : value;
+        }
+    }
+}
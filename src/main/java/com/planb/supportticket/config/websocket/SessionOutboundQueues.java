@@ -0,0 +1,477 @@
+package com.planb.supportticket.config.websocket;
+
+import com.planb.supportticket.dto.WebSocketOutboundStats;
+import com.planb.supportticket.util.LatencyRecorder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every WebSocket session its own bounded outbound queue.
+ *
+ * Without it, the thread publishing a message writes to the client socket itself, so one slow
+ * browser holds a clientOutbound thread for up to the send time limit and everyone else's messages
+ * wait behind it. Here sending only appends to the session's queue; a small sender pool drains each
+ * queue, one session at a time per thread and a bounded batch per turn. When a queue passes the
+ * high-water mark, the policy degrades in steps: droppable messages (typing indicators by default)
+ * are discarded first, then messages on coalescing destinations (the presence feeds by default)
+ * replace the queued message for the same destination, and a queue that still reaches its hard limit
+ * closes the session so the client reconnects and resynchronizes. A destination listed as both
+ * droppable and coalescing is only ever dropped.
+ *
+ * A write to a client that stopped reading blocks its sender thread, so each send is timed: a session
+ * whose send runs past {@code websocket.send-time-limit} is closed, which fails the blocked write and
+ * frees the thread. A send that fails closes the session too. Until then the stalled client holds its
+ * thread, so with more stalled clients than sender threads every other session can wait up to the
+ * send time limit, unless traffic overflows the stalled queues and closes them sooner. The sender pool
+ * is sized for the clients expected to stall at once, not for the number of sessions.
+ *
+ * Counters are kept per destination pattern, with ID segments replaced by *, and are read through
+ * {@link #getStats()}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionOutboundQueues implements WebSocketHandlerDecoratorFactory {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "[0-9]+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    @Value("${websocket.outbound.enabled:true}")
+    private boolean enabled;
+
+    @Value("${websocket.outbound.high-water-messages:200}")
+    private int highWaterMessages;
+
+    @Value("${websocket.outbound.max-messages:1000}")
+    private int maxMessages;
+
+    @Value("${websocket.outbound.max-bytes:1048576}")
+    private int maxBytes;
+
+    @Value("${websocket.outbound.drain-batch-size:50}")
+    private int drainBatchSize;
+
+    @Value("${websocket.send-time-limit:15000}")
+    private long sendTimeLimitMs;
+
+    @Value("${websocket.outbound.droppable-destinations:/topic/room/*/typing}")
+    private List<String> droppableDestinations;
+
+    @Value("${websocket.outbound.coalesce-destinations:/topic/events,/topic/admin/events}")
+    private List<String> coalesceDestinations;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Set<QueuedSession> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<String, DestinationCounters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong slowConsumersDisconnected = new AtomicLong();
+
+    @Qualifier("webSocketOutboundExecutor")
+    private final ThreadPoolTaskExecutor senderExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (highWaterMessages < 1 || maxMessages < highWaterMessages || drainBatchSize < 1) {
+            throw new IllegalStateException(
+                    "websocket.outbound.max-messages must be at least high-water-messages, both positive");
+        }
+        for (String pattern : coalesceDestinations) {
+            if (droppableDestinations.stream().anyMatch(droppable -> droppable.trim().equals(pattern.trim()))) {
+                log.warn("Outbound destination {} is both droppable and coalescing; it will only be dropped",
+                        pattern.trim());
+            }
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        if (!enabled) {
+            return handler;
+        }
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                QueuedSession queued = new QueuedSession(session);
+                sessions.add(queued);
+                super.afterConnectionEstablished(queued);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.removeIf(queued -> queued.getId().equals(session.getId()) && queued.discard());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Closes the sessions whose current send has run past the send time limit.
+     */
+    @Scheduled(fixedDelayString = "${websocket.outbound.send-check-interval-ms:1000}")
+    public void closeStalledSessions() {
+        long now = System.nanoTime();
+        long limitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+        for (QueuedSession session : sessions) {
+            long started = session.sendStartedNanos;
+            if (started != 0 && now - started > limitNanos) {
+                session.closeStalled();
+            }
+        }
+    }
+
+    /**
+     * Gets the queue depths and per-destination counters on this node.
+     *
+     * @return the stats
+     */
+    public WebSocketOutboundStats getStats() {
+        long queuedMessages = 0;
+        long queuedBytes = 0;
+        int maxDepth = 0;
+        for (QueuedSession session : sessions) {
+            int depth = session.depth();
+            queuedMessages += depth;
+            queuedBytes += session.queuedBytes();
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        Map<String, WebSocketOutboundStats.DestinationStats> destinations = new TreeMap<>();
+        counters.forEach((pattern, c) -> destinations.put(pattern, WebSocketOutboundStats.DestinationStats.builder()
+                .sent(c.sends.getCount())
+                .dropped(c.dropped.sum())
+                .coalesced(c.coalesced.sum())
+                .averageSendMillis(c.sends.getAverageMillis())
+                .maxSendMillis(c.sends.getMaxMillis())
+                .build()));
+
+        return WebSocketOutboundStats.builder()
+                .sessions(sessions.size())
+                .queuedMessages(queuedMessages)
+                .queuedBytes(queuedBytes)
+                .maxSessionQueueDepth(maxDepth)
+                .slowConsumersDisconnected(slowConsumersDisconnected.get())
+                .destinations(destinations)
+                .build();
+    }
+
+    /**
+     * Reads the destination header of a STOMP MESSAGE frame.
+     *
+     * @param message the outgoing WebSocket message
+     * @return the destination, or null for other frames and heartbeats
+     */
+    private static String destinationOf(WebSocketMessage<?> message) {
+        String frame;
+        if (message instanceof TextMessage text) {
+            frame = text.getPayload();
+        } else if (message instanceof BinaryMessage binary) {
+            // Headers are all we need; they are ASCII and come first
+            int length = Math.min(binary.getPayloadLength(), 1024);
+            byte[] head = new byte[length];
+            binary.getPayload().duplicate().get(head);
+            frame = new String(head, StandardCharsets.UTF_8);
+        } else {
+            return null;
+        }
+        if (!frame.startsWith("MESSAGE\n")) {
+            return null;
+        }
+
+        int lineStart = "MESSAGE\n".length();
+        while (lineStart < frame.length()) {
+            int lineEnd = frame.indexOf('\n', lineStart);
+            if (lineEnd < 0 || lineEnd == lineStart) {
+                return null;
+            }
+            if (frame.startsWith("destination:", lineStart)) {
+                return frame.substring(lineStart + "destination:".length(), lineEnd).trim();
+            }
+            lineStart = lineEnd + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Collapses a destination to a pattern for the counters, so per-ticket or per-room
+     * destinations do not each get an entry.
+     *
+     * @param destination the destination
+     * @return the pattern
+     */
+    private static String patternOf(String destination) {
+        if (destination == null) {
+            return "(control)";
+        }
+        StringBuilder pattern = new StringBuilder();
+        for (String segment : destination.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            pattern.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "*" : segment);
+        }
+        return pattern.toString();
+    }
+
+    private boolean matchesAny(List<String> patterns, String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern.trim(), destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DestinationCounters countersFor(String pattern) {
+        return counters.computeIfAbsent(pattern, p -> new DestinationCounters());
+    }
+
+    /**
+     * Outbound counters for one destination pattern.
+     */
+    private static final class DestinationCounters {
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LatencyRecorder sends = new LatencyRecorder();
+    }
+
+    /**
+     * A message waiting in a session queue. The message of a coalescing destination is replaced
+     * in place by newer ones for the same destination.
+     */
+    private static final class Outbound {
+        private final String destination;
+        private final String pattern;
+        private final boolean droppable;
+        private final boolean coalescing;
+        private WebSocketMessage<?> message;
+        private int size;
+
+        private Outbound(WebSocketMessage<?> message, String destination, String pattern,
+                         boolean droppable, boolean coalescing) {
+            this.message = message;
+            this.size = message.getPayloadLength();
+            this.destination = destination;
+            this.pattern = pattern;
+            this.droppable = droppable;
+            this.coalescing = coalescing;
+        }
+    }
+
+    /**
+     * Session whose sends are queued and written by the sender pool.
+     */
+    private final class QueuedSession extends WebSocketSessionDecorator {
+        private final Deque<Outbound> queue = new ArrayDeque<>();
+        private int bytes;
+        private boolean draining;
+        private boolean closed;
+        // When the send in progress started, 0 while not sending
+        private volatile long sendStartedNanos;
+
+        private QueuedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            String destination = destinationOf(message);
+            String pattern = patternOf(destination);
+            Outbound outbound = new Outbound(message, destination, pattern,
+                    matchesAny(droppableDestinations, destination), matchesAny(coalesceDestinations, destination));
+
+            boolean overflow = false;
+            boolean startDrain = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= highWaterMessages) {
+                    if (outbound.droppable) {
+                        countersFor(pattern).dropped.increment();
+                        return;
+                    }
+                    dropQueuedDroppable();
+                    if (outbound.coalescing && replaceQueued(outbound)) {
+                        countersFor(pattern).coalesced.increment();
+                        return;
+                    }
+                }
+                if (queue.size() >= maxMessages || bytes + outbound.size > maxBytes) {
+                    closed = true;
+                    overflow = true;
+                } else {
+                    queue.add(outbound);
+                    bytes += outbound.size;
+                    if (!draining) {
+                        draining = true;
+                        startDrain = true;
+                    }
+                }
+            }
+
+            if (overflow) {
+                disconnectSlowConsumer();
+            } else if (startDrain) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Writes up to one batch of queued messages, then yields the thread to other sessions.
+         */
+        private void drain() {
+            for (int i = 0; i < drainBatchSize; i++) {
+                Outbound next;
+                synchronized (this) {
+                    next = closed ? null : queue.poll();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                    bytes -= next.size;
+                }
+
+                long start = System.nanoTime();
+                sendStartedNanos = start;
+                try {
+                    getDelegate().sendMessage(next.message);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("WebSocket send to session {} failed: {}", getId(), e.getMessage());
+                    discard();
+                    closeDelegate();
+                    return;
+                } finally {
+                    sendStartedNanos = 0;
+                }
+                countersFor(next.pattern).sends.record(System.nanoTime() - start);
+            }
+            senderExecutor.execute(this::drain);
+        }
+
+        /**
+         * Removes queued droppable messages to make room. Called with the lock held.
+         */
+        private void dropQueuedDroppable() {
+            Iterator<Outbound> it = queue.iterator();
+            while (it.hasNext()) {
+                Outbound queued = it.next();
+                if (queued.droppable) {
+                    it.remove();
+                    bytes -= queued.size;
+                    countersFor(queued.pattern).dropped.increment();
+                }
+            }
+        }
+
+        /**
+         * Replaces the last queued message for the same destination with a newer one, so it is not
+         * followed by older ones. Called with the lock held.
+         *
+         * @param outbound the newer message
+         * @return true if a queued message was replaced
+         */
+        private boolean replaceQueued(Outbound outbound) {
+            Iterator<Outbound> it = queue.descendingIterator();
+            while (it.hasNext()) {
+                Outbound queued = it.next();
+                if (queued.coalescing && queued.destination.equals(outbound.destination)) {
+                    bytes += outbound.size - queued.size;
+                    queued.message = outbound.message;
+                    queued.size = outbound.size;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void disconnectSlowConsumer() {
+            int depth = discardQueue();
+            slowConsumersDisconnected.incrementAndGet();
+            log.warn("Closing slow WebSocket session {} with {} queued messages", getId(), depth);
+            closeDelegate();
+        }
+
+        /**
+         * Closes a session whose send is stuck; the blocked write then fails and frees its thread.
+         */
+        private void closeStalled() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            int depth = discardQueue();
+            slowConsumersDisconnected.incrementAndGet();
+            log.warn("Closing WebSocket session {}: send blocked for over {} ms, {} messages queued",
+                    getId(), sendTimeLimitMs, depth);
+            closeDelegate();
+        }
+
+        private void closeDelegate() {
+            try {
+                getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Error closing WebSocket session {}: {}", getId(), e.getMessage());
+            }
+        }
+
+        /**
+         * Stops the queue, for a session that is closed or closing.
+         *
+         * @return always true, for use in removeIf
+         */
+        private boolean discard() {
+            discardQueue();
+            return true;
+        }
+
+        private synchronized int discardQueue() {
+            int depth = queue.size();
+            closed = true;
+            queue.clear();
+            bytes = 0;
+            return depth;
+        }
+
+        private synchronized int depth() {
+            return queue.size();
+        }
+
+        private synchronized int queuedBytes() {
+            return bytes;
+        }
+    }
+}
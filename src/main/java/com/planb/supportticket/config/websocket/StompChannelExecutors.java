@@ -0,0 +1,201 @@
+package com.planb.supportticket.config.websocket;
+
+import com.planb.supportticket.dto.StompExecutorStats;
+import com.planb.supportticket.util.LatencyRecorder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executors for the STOMP client inbound and outbound channels.
+ *
+ * Pool and queue sizes come from {@code websocket.channels.*}. When an executor is saturated, the
+ * message is not dropped: with the default caller-runs policy the submitting thread handles it
+ * itself, which for the inbound channel is the thread reading that client's socket, so a client
+ * flooding the server is slowed down at the TCP level; with the block policy the submitter waits up
+ * to {@code block-timeout-ms} for room in the queue. Only a message that still cannot be queued
+ * is rejected, and it is logged and counted.
+ *
+ * The executors are handed to the channel registrations in WebSocketConfig; Spring initializes and
+ * shuts them down as the clientInboundChannelExecutor and clientOutboundChannelExecutor beans.
+ */
+@Component
+@Slf4j
+public class StompChannelExecutors {
+
+    @Value("${websocket.channels.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${websocket.channels.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+
+    @Value("${websocket.channels.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.channels.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.channels.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.channels.outbound.queue-capacity:1000}")
+    private int outboundQueueCapacity;
+
+    @Value("${websocket.channels.keep-alive-seconds:60}")
+    private int keepAliveSeconds;
+
+    @Value("${websocket.channels.rejection-policy:caller-runs}")
+    private String rejectionPolicy;
+
+    @Value("${websocket.channels.block-timeout-ms:5000}")
+    private long blockTimeoutMs;
+
+    private InstrumentedExecutor inbound;
+    private InstrumentedExecutor outbound;
+
+    @PostConstruct
+    public void init() {
+        if (!"caller-runs".equals(rejectionPolicy) && !"block".equals(rejectionPolicy)) {
+            throw new IllegalStateException(
+                    "websocket.channels.rejection-policy must be caller-runs or block, was " + rejectionPolicy);
+        }
+        inbound = new InstrumentedExecutor("inbound",
+                inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity);
+        outbound = new InstrumentedExecutor("outbound",
+                outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity);
+    }
+
+    /**
+     * Gets the executor for messages from clients.
+     *
+     * @return the inbound executor, not yet initialized
+     */
+    public ThreadPoolTaskExecutor inbound() {
+        return inbound.executor;
+    }
+
+    /**
+     * Gets the executor for messages to clients.
+     *
+     * @return the outbound executor, not yet initialized
+     */
+    public ThreadPoolTaskExecutor outbound() {
+        return outbound.executor;
+    }
+
+    /**
+     * Gets the load and latency of both channel executors on this node.
+     *
+     * @return the stats
+     */
+    public StompExecutorStats getStats() {
+        return StompExecutorStats.builder()
+                .inbound(inbound.getStats())
+                .outbound(outbound.getStats())
+                .build();
+    }
+
+    /**
+     * A channel executor and its counters.
+     */
+    private final class InstrumentedExecutor {
+        private final String name;
+        private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        private final LongAdder saturated = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LatencyRecorder queueWaits = new LatencyRecorder();
+        private final LatencyRecorder runs = new LatencyRecorder();
+
+        private InstrumentedExecutor(String name, int corePoolSize, int maxPoolSize, int queueCapacity) {
+            this.name = name;
+            executor.setCorePoolSize(corePoolSize);
+            executor.setMaxPoolSize(maxPoolSize);
+            executor.setQueueCapacity(queueCapacity);
+            executor.setKeepAliveSeconds(keepAliveSeconds);
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setTaskDecorator(this::timed);
+            executor.setRejectedExecutionHandler(this::saturated);
+        }
+
+        /**
+         * Wraps a task to record how long it waited in the queue and how long it ran.
+         * Called on the submitting thread.
+         *
+         * @param task the task
+         * @return the timed task
+         */
+        private Runnable timed(Runnable task) {
+            long submitted = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                try {
+                    task.run();
+                } finally {
+                    queueWaits.record(started - submitted);
+                    runs.record(System.nanoTime() - started);
+                }
+            };
+        }
+
+        /**
+         * Rejection handler: applies the backpressure policy to a message the pool has no room for.
+         *
+         * @param task the task
+         * @param pool the underlying pool
+         */
+        private void saturated(Runnable task, ThreadPoolExecutor pool) {
+            saturated.increment();
+            if (pool.isShutdown()) {
+                reject(task, "executor is shut down");
+            }
+            if ("block".equals(rejectionPolicy)) {
+                try {
+                    if (!pool.getQueue().offer(task, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        reject(task, "queue stayed full for " + blockTimeoutMs + " ms");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    reject(task, "interrupted while waiting for queue space");
+                }
+            } else {
+                task.run();
+            }
+        }
+
+        private void reject(Runnable task, String reason) {
+            rejected.increment();
+            log.warn("STOMP {} channel rejected a message: {}", name, reason);
+            throw new RejectedExecutionException("STOMP " + name + " channel " + reason);
+        }
+
+        private StompExecutorStats.ExecutorStats getStats() {
+            StompExecutorStats.ExecutorStats.ExecutorStatsBuilder stats = StompExecutorStats.ExecutorStats.builder()
+                    .maxPoolSize(executor.getMaxPoolSize())
+                    .queueCapacity(executor.getQueueCapacity())
+                    .saturated(saturated.sum())
+                    .rejected(rejected.sum())
+                    .averageQueueWaitMillis(queueWaits.getAverageMillis())
+                    .maxQueueWaitMillis(queueWaits.getMaxMillis())
+                    .averageRunMillis(runs.getAverageMillis())
+                    .maxRunMillis(runs.getMaxMillis());
+            try {
+                ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+                stats.poolSize(pool.getPoolSize())
+                        .active(pool.getActiveCount())
+                        .queued(pool.getQueue().size())
+                        .completed(pool.getCompletedTaskCount());
+            } catch (IllegalStateException e) {
+                // Not initialized yet
+            }
+            return stats.build();
+        }
+    }
+}
@@ -7,8 +7,6 @@ import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
-import org.springframework.messaging.simp.config.ChannelRegistration;
-import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
@@ -48,9 +46,6 @@ public class StompConfig {
     @Value("${websocket.send-time-limit:15000}")
     private int sendTimeLimit;
 
-    @Value("${websocket.message.trace-enabled:false}")
-    private boolean traceEnabled;
-
     // Inject the interceptors
     private final StompHandshakeInterceptor stompHandshakeInterceptor;
     private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
@@ -69,65 +64,6 @@ public class StompConfig {
                 .addDecoratorFactory(new UserTrackingHandshakeInterceptor()); // Track user sessions
     }
 
-    /**
-     * Configures the client inbound channel.
-     * This channel handles messages from clients to the server.
-     *
-     * @return the configured ChannelRegistration
-     */
-    @Bean
-    public ChannelRegistration configureClientInboundChannel() {
-        ChannelRegistration registration = new ChannelRegistration();
-        // Add authentication interceptor to validate user tokens
-        registration.interceptors(stompAuthenticationInterceptor);
-
-        // Configure thread pool for processing incoming messages
-        registration.taskExecutor()
-                .corePoolSize(4)
-                .maxPoolSize(10)
-                .queueCapacity(100);
-
-        return registration;
-    }
-
-    /**
-     * Configures the client outbound channel.
-     * This channel handles messages from the server to clients.
-     *
-     * @return the configured ChannelRegistration
-     */
-    @Bean
-    public ChannelRegistration configureClientOutboundChannel() {
-        ChannelRegistration registration = new ChannelRegistration();
-        // Configure thread pool for sending messages to clients
-        registration.taskExecutor()
-                .corePoolSize(4)
-                .maxPoolSize(10)
-                .queueCapacity(100);
-
-        // Add tracing interceptor if enabled
-        if (traceEnabled) {
-            registration.interceptors(createTracingInterceptor());
-        }
-
-        return registration;
-    }
-
-    /**
-     * Creates a tracing interceptor for debugging WebSocket messages.
-     *
-     * @return the ChannelInterceptor for tracing
-     */
-    private ChannelInterceptor createTracingInterceptor() {
-        return new ChannelInterceptor() {
-            @Override
-            public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                log.debug("Outbound message: {}", message);
-                return message;
-            }
-        };
-    }
-
     /**
      * STOMP handshake interceptor for handling WebSocket handshakes.
      * Adds attributes to the WebSocket session during handshake.
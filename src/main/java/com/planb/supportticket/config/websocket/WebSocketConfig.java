@@ -1,8 +1,14 @@
 package com.planb.supportticket.config.websocket;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -14,8 +20,13 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SessionOutboundQueues sessionOutboundQueues;
+    private final StompChannelExecutors stompChannelExecutors;
+
     @Value("${websocket.allowed-origins:*}")
     private String[] allowedOrigins;
 
@@ -69,6 +80,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${websocket.message.buffer-size-per-session:1024}")
     private int bufferSizePerSession;
 
+    @Value("${websocket.message.trace-enabled:false}")
+    private boolean traceEnabled;
+
     /**
      * Configure the message broker for WebSocket communication.
      *
@@ -127,6 +141,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setClientLibraryUrl("https://cdn.jsdelivr.net/npm/sockjs-client@1/dist/sockjs.min.js");
     }
 
+    /**
+     * Configure the executor for messages from clients.
+     *
+     * @param registration the ChannelRegistration to configure
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(stompChannelExecutors.inbound());
+    }
+
+    /**
+     * Configure the executor for messages to clients.
+     *
+     * @param registration the ChannelRegistration to configure
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(stompChannelExecutors.outbound());
+
+        if (traceEnabled) {
+            registration.interceptors(new ChannelInterceptor() {
+                @Override
+                public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                    log.debug("Outbound message: {}", message);
+                    return message;
+                }
+            });
+        }
+    }
+
     /**
      * Configure WebSocket transport options.
      *
@@ -137,7 +181,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registration
             .setMessageSizeLimit(messageMaxSize) // Max incoming message size
             .setSendBufferSizeLimit(sendBufferSize) // Max outgoing buffer size
-            .setSendTimeLimit(sendTimeLimit); // Timeout for sending messages
+            .setSendTimeLimit(sendTimeLimit) // Timeout for sending messages
+            // Per-session outbound queues, so a slow client does not hold the outbound threads
+            .addDecoratorFactory(sessionOutboundQueues);
             // Commented out due to compatibility issues
             // .setMessageCountLimitPerConnection(bufferSizePerSession); // Max messages per session
     }
@@ -1,15 +1,21 @@
 package com.planb.supportticket.controller;
 
+import com.planb.supportticket.config.mail.SmtpDeliveryPool;
+import com.planb.supportticket.config.websocket.SessionOutboundQueues;
+import com.planb.supportticket.config.websocket.StompChannelExecutors;
 import com.planb.supportticket.dto.*;
 import com.planb.supportticket.entity.*;
 import com.planb.supportticket.entity.enums.TicketStatus;
 import com.planb.supportticket.entity.enums.UserRole;
 import com.planb.supportticket.enums.NotificationType;
 import com.planb.supportticket.service.*;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -37,6 +43,13 @@ public class AdminController {
     private final ExpertService expertService;
     private final ChatService chatService;
     private final NotificationService notificationService;
+    private final StorageCleanupService storageCleanupService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final SmtpDeliveryPool smtpDeliveryPool;
+    private final BulkSmsService bulkSmsService;
+    private final SessionOutboundQueues sessionOutboundQueues;
+    private final StompChannelExecutors stompChannelExecutors;
+    private final AIResponseCache aiResponseCache;
 
     /**
      * Gets system statistics.
@@ -65,6 +78,113 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Gets the backlog of object-store files waiting to be deleted.
+     *
+     * @return the deletion backlog
+     */
+    @GetMapping("/storage-cleanup")
+    public ResponseEntity<StorageCleanupBacklog> getStorageCleanupBacklog() {
+        return ResponseEntity.ok(storageCleanupService.getBacklog());
+    }
+
+    /**
+     * Gets the queue depths of the notification outbox per delivery channel.
+     *
+     * @return the outbox stats
+     */
+    @GetMapping("/notification-outbox")
+    public ResponseEntity<NotificationOutboxStats> getNotificationOutboxStats() {
+        return ResponseEntity.ok(notificationOutboxService.getStats());
+    }
+
+    /**
+     * Gets the queue depth and send latency of the SMTP delivery pool on this node.
+     *
+     * @return the email delivery stats
+     */
+    @GetMapping("/email-delivery")
+    public ResponseEntity<EmailDeliveryStats> getEmailDeliveryStats() {
+        return ResponseEntity.ok(smtpDeliveryPool.getStats());
+    }
+
+    /**
+     * Gets the outbound WebSocket queue depths, drops and send latency on this node.
+     *
+     * @return the WebSocket outbound stats
+     */
+    @GetMapping("/websocket-outbound")
+    public ResponseEntity<WebSocketOutboundStats> getWebSocketOutboundStats() {
+        return ResponseEntity.ok(sessionOutboundQueues.getStats());
+    }
+
+    /**
+     * Gets the load, saturation and latency of the STOMP channel executors on this node.
+     *
+     * @return the STOMP executor stats
+     */
+    @GetMapping("/websocket-executors")
+    public ResponseEntity<StompExecutorStats> getStompExecutorStats() {
+        return ResponseEntity.ok(stompChannelExecutors.getStats());
+    }
+
+    /**
+     * Gets the size and per-model hit rates of the AI response cache on this node.
+     *
+     * @return the AI response cache stats
+     */
+    @GetMapping("/ai-cache")
+    public ResponseEntity<AIResponseCacheStats> getAIResponseCacheStats() {
+        return ResponseEntity.ok(aiResponseCache.getStats());
+    }
+
+    /**
+     * Starts sending an SMS message to many recipients.
+     *
+     * @param request the recipients and message
+     * @return the job status, to be polled for progress
+     */
+    @PostMapping("/sms/broadcast")
+    public ResponseEntity<?> startSmsBroadcast(@Valid @RequestBody BulkSmsRequest request) {
+        try {
+            BulkSmsJobStatus status = bulkSmsService.startJob(request.getPhoneNumbers(), request.getMessage());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Gets the progress of an SMS broadcast.
+     *
+     * @param jobId the job ID
+     * @return the job status
+     */
+    @GetMapping("/sms/jobs/{jobId}")
+    public ResponseEntity<BulkSmsJobStatus> getSmsJob(@PathVariable UUID jobId) {
+        return bulkSmsService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancels a running SMS broadcast.
+     *
+     * @param jobId the job ID
+     * @return the job status after cancelling
+     */
+    @PostMapping("/sms/jobs/{jobId}/cancel")
+    public ResponseEntity<BulkSmsJobStatus> cancelSmsJob(@PathVariable UUID jobId) {
+        if (!bulkSmsService.cancelJob(jobId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return bulkSmsService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Gets all user profiles with pagination.
      *
@@ -116,9 +236,7 @@ public class AdminController {
      */
     @GetMapping("/tickets")
     public ResponseEntity<Page<TicketResponse>> getAllTickets(Pageable pageable) {
-        Page<Ticket> tickets = ticketService.getAllTicketsOrderByCreatedAtDesc(pageable);
-
-        Page<TicketResponse> response = tickets.map(this::convertToTicketResponse);
+        Page<TicketResponse> response = ticketService.filterTickets(new TicketFilter(), pageable);
         return ResponseEntity.ok(response);
     }
 
@@ -307,42 +425,6 @@ public class AdminController {
         return dto;
     }
 
-    /**
-     * Converts a Ticket entity to a TicketResponse DTO.
-     *
-     * @param ticket the ticket entity
-     * @return the ticket response DTO
-     */
-    private TicketResponse convertToTicketResponse(Ticket ticket) {
-        TicketResponse response = new TicketResponse();
-        response.setId(ticket.getId());
-        response.setTitle(ticket.getTitle());
-        response.setDescription(ticket.getDescription());
-        response.setStatus(ticket.getStatus());
-        response.setPriority(ticket.getPriority());
-        response.setClassification(ticket.getClassification());
-        response.setArea(ticket.getArea());
-        response.setCreatedAt(ticket.getCreatedAt());
-        response.setUpdatedAt(ticket.getUpdatedAt());
-        response.setDueDate(ticket.getDueDate());
-        response.setResolvedAt(ticket.getResolvedAt());
-        response.setClosedAt(ticket.getClosedAt());
-
-        if (ticket.getUser() != null) {
-            response.setUserId(ticket.getUser().getId());
-            response.setUserName(ticket.getUser().getDisplayName());
-        }
-
-        if (ticket.getAssignedExpert() != null) {
-            response.setExpertId(ticket.getAssignedExpert().getId());
-            response.setExpertName(ticket.getAssignedExpert().getUserProfile().getDisplayName());
-        }
-
-        response.setCommentCount(ticket.getCommentCount());
-
-        return response;
-    }
-
     /**
      * Converts an Expert entity to an ExpertResponse DTO.
      *
@@ -5,6 +5,8 @@ import com.planb.supportticket.dto.ChatGptResponse;
 import com.planb.supportticket.service.ChatGptService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,11 +26,14 @@ public class ChatGptController {
      * Sends a message to ChatGPT and returns the response.
      *
      * @param request the request containing the message
+     * @param userDetails the authenticated user, if any
      * @return the response from ChatGPT
      */
     @PostMapping("/send")
-    public ResponseEntity<ChatGptResponse> sendMessage(@RequestBody ChatGptRequest request) {
-        String response = chatGptService.sendMessage(request.getMessage());
+    public ResponseEntity<ChatGptResponse> sendMessage(@RequestBody ChatGptRequest request,
+                                                       @AuthenticationPrincipal UserDetails userDetails) {
+        String response = chatGptService.sendMessage(request.getMessage(),
+                userDetails != null ? userDetails.getUsername() : null);
         return ResponseEntity.ok(new ChatGptResponse(response));
     }
 }
@@ -0,0 +1,181 @@
+package com.planb.supportticket.controller;
+
+import com.planb.supportticket.dto.CursorSliceResponse;
+import com.planb.supportticket.dto.NotificationCursor;
+import com.planb.supportticket.dto.NotificationDTO;
+import com.planb.supportticket.dto.NotificationPreferenceDTO;
+import com.planb.supportticket.service.NotificationPreferenceService;
+import com.planb.supportticket.service.NotificationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Controller for the authenticated user's notification inbox.
+ */
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationController {
+
+    private static final int MAX_SLICE_SIZE = 100;
+
+    private final NotificationService notificationService;
+    private final NotificationPreferenceService preferenceService;
+
+    /**
+     * Gets a slice of the user's notifications, newest first, using keyset pagination.
+     *
+     * @param cursor the opaque cursor returned with the previous slice, omitted for the first slice
+     * @param size the slice size
+     * @param unreadOnly whether to return unread notifications only
+     * @param userDetails the authenticated user
+     * @return a cursor slice of notifications
+     */
+    @GetMapping
+    public ResponseEntity<?> getNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "size must be between 1 and " + MAX_SLICE_SIZE));
+        }
+
+        try {
+            NotificationCursor position = cursor == null || cursor.isEmpty() ? null : NotificationCursor.decode(cursor);
+            Slice<NotificationDTO> notifications = notificationService.getNotifications(
+                    getUserIdFromUserDetails(userDetails), unreadOnly, position, size);
+
+            String nextCursor = null;
+            if (notifications.hasNext()) {
+                NotificationDTO last = notifications.getContent().get(notifications.getNumberOfElements() - 1);
+                nextCursor = new NotificationCursor(last.getTimestamp(), last.getId()).encode();
+            }
+
+            CursorSliceResponse<NotificationDTO> response = CursorSliceResponse.<NotificationDTO>builder()
+                    .content(notifications.getContent())
+                    .size(size)
+                    .hasNext(notifications.hasNext())
+                    .nextCursor(nextCursor)
+                    .build();
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid notification cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Gets the number of unread notifications, for the notification badge.
+     *
+     * @param userDetails the authenticated user
+     * @return the unread count
+     */
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Integer>> getUnreadCount(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        int count = notificationService.getNotificationCount(getUserIdFromUserDetails(userDetails));
+        return ResponseEntity.ok(Map.of("unread", count));
+    }
+
+    /**
+     * Marks one notification as read.
+     *
+     * @param id the notification ID
+     * @param userDetails the authenticated user
+     * @return no content, or not found if the notification is not an unread notification of the user
+     */
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Void> markAsRead(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        boolean marked = notificationService.markNotificationAsRead(getUserIdFromUserDetails(userDetails), id);
+        return marked ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Marks all of the user's notifications as read.
+     *
+     * @param userDetails the authenticated user
+     * @return the number of notifications marked as read
+     */
+    @PostMapping("/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllAsRead(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        int updated = notificationService.markAllNotificationsAsRead(getUserIdFromUserDetails(userDetails));
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    /**
+     * Gets which notification types the user receives on each channel.
+     *
+     * @param userDetails the authenticated user
+     * @return one entry per notification type and channel
+     */
+    @GetMapping("/preferences")
+    public ResponseEntity<List<NotificationPreferenceDTO>> getPreferences(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(preferenceService.getPreferences(getUserIdFromUserDetails(userDetails)));
+    }
+
+    /**
+     * Turns notification types on or off per channel. Entries not given are left as they are.
+     *
+     * @param preferences the preferences to change
+     * @param userDetails the authenticated user
+     * @return the user's preferences after the change
+     */
+    @PutMapping("/preferences")
+    public ResponseEntity<?> updatePreferences(
+            @Valid @RequestBody List<@Valid NotificationPreferenceDTO> preferences,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(preferenceService.updatePreferences(
+                    getUserIdFromUserDetails(userDetails), preferences));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Gets the user ID from the user details.
+     *
+     * @param userDetails the user details
+     * @return the user ID
+     */
+    private UUID getUserIdFromUserDetails(UserDetails userDetails) {
+        return UUID.fromString(userDetails.getUsername());
+    }
+}
@@ -166,6 +166,7 @@ public class SupportController {
         }
 
         response.setCommentCount(ticket.getCommentCount());
+        response.setAttachmentCount(ticket.getAttachmentCount());
 
         return response;
     }
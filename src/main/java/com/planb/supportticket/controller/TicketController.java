@@ -1,20 +1,29 @@
 package com.planb.supportticket.controller;
 
+import com.planb.supportticket.dto.BulkTicketOperationRequest;
+import com.planb.supportticket.dto.CommentThreadQuery;
+import com.planb.supportticket.dto.CursorSliceResponse;
 import com.planb.supportticket.dto.TicketCommentDTO;
+import com.planb.supportticket.dto.TicketCursor;
 import com.planb.supportticket.dto.TicketDTO;
 import com.planb.supportticket.dto.TicketFilter;
 import com.planb.supportticket.dto.TicketResponse;
+import com.planb.supportticket.dto.TicketSearchResult;
 import com.planb.supportticket.entity.Attachment;
 import com.planb.supportticket.entity.Ticket;
 import com.planb.supportticket.entity.TicketComment;
 import com.planb.supportticket.entity.enums.TicketStatus;
 import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.service.CommentThreadService;
+import com.planb.supportticket.service.TicketBulkService;
+import com.planb.supportticket.service.TicketSearchService;
 import com.planb.supportticket.service.TicketService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,8 +31,10 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,6 +48,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TicketController {
     private final TicketService ticketService;
+    private final TicketSearchService ticketSearchService;
+    private final CommentThreadService commentThreadService;
+    private final TicketBulkService ticketBulkService;
 
     /**
      * Creates a new ticket.
@@ -67,42 +81,79 @@ public class TicketController {
 
     /**
      * Gets tickets with filtering and pagination.
+     * When a cursor parameter is present (an empty value requests the first slice), keyset pagination
+     * is used and a slice with the next cursor is returned instead of a page; only the page size of
+     * the pageable applies in that mode.
      *
      * @param filter the ticket filter
      * @param pageable the pagination information
+     * @param cursor the opaque cursor returned with the previous slice
      * @param userDetails the authenticated user
-     * @return a page of tickets
+     * @return a page of tickets, or a cursor slice of tickets
      */
     @GetMapping
-    public ResponseEntity<Page<TicketResponse>> getTickets(
+    public ResponseEntity<?> getTickets(
             TicketFilter filter,
             Pageable pageable,
+            @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal UserDetails userDetails) {
 
-        Page<Ticket> tickets;
-
-        if (filter != null) {
-            if (filter.getUserId() != null) {
-                tickets = ticketService.getTicketsByUserIdOrderByCreatedAtDesc(filter.getUserId(), pageable);
-            } else if (filter.getExpertId() != null) {
-                tickets = ticketService.getTicketsByExpertIdOrderByCreatedAtDesc(filter.getExpertId(), pageable);
-            } else if (filter.getStatus() != null) {
-                tickets = ticketService.getTicketsByStatusOrderByCreatedAtDesc(filter.getStatus(), pageable);
-            } else if (filter.getPriority() != null) {
-                tickets = ticketService.getTicketsByPriorityOrderByCreatedAtDesc(filter.getPriority(), pageable);
-            } else if (filter.getKeyword() != null && !filter.getKeyword().isEmpty()) {
-                tickets = ticketService.searchTickets(filter.getKeyword(), pageable);
-            } else {
-                tickets = ticketService.getAllTicketsOrderByCreatedAtDesc(pageable);
-            }
-        } else {
-            tickets = ticketService.getAllTicketsOrderByCreatedAtDesc(pageable);
+        if (cursor != null) {
+            return getTicketsByCursor(filter, cursor, pageable.getPageSize());
         }
 
-        Page<TicketResponse> response = tickets.map(this::convertToResponse);
+        // All filter criteria are combined into one projected query
+        Page<TicketResponse> response = ticketService.filterTickets(filter, pageable);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Gets a slice of tickets using keyset pagination.
+     *
+     * @param filter the ticket filter
+     * @param cursor the encoded cursor, empty for the first slice
+     * @param size the slice size
+     * @return a cursor slice of tickets
+     */
+    private ResponseEntity<?> getTicketsByCursor(TicketFilter filter, String cursor, int size) {
+        try {
+            TicketCursor position = cursor.isEmpty() ? null : TicketCursor.decode(cursor);
+            Slice<TicketResponse> tickets = ticketService.getTicketsAfterCursor(filter, position, size);
+
+            String nextCursor = null;
+            if (tickets.hasNext()) {
+                TicketResponse last = tickets.getContent().get(tickets.getNumberOfElements() - 1);
+                nextCursor = new TicketCursor(last.getCreatedAt(), last.getId()).encode();
+            }
+
+            CursorSliceResponse<TicketResponse> response = CursorSliceResponse.<TicketResponse>builder()
+                    .content(tickets.getContent())
+                    .size(size)
+                    .hasNext(tickets.hasNext())
+                    .nextCursor(nextCursor)
+                    .build();
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid cursor request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Searches tickets by relevance across numbers, titles, descriptions and comments.
+     *
+     * @param q the search query
+     * @param pageable the pagination information
+     * @return a page of search results with highlighted snippets
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<TicketSearchResult>> searchTickets(
+            @RequestParam String q,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(ticketSearchService.search(q, pageable));
+    }
+
     /**
      * Gets a ticket by ID.
      *
@@ -355,6 +406,22 @@ public class TicketController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Applies status, priority and assignment changes to many tickets at once.
+     * Owners and experts of the changed tickets receive one notification each.
+     *
+     * @param request the bulk operation
+     * @return the outcome of the operation
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> applyBulkOperation(@Valid @RequestBody BulkTicketOperationRequest request) {
+        try {
+            return ResponseEntity.ok(ticketBulkService.applyBulkOperation(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Adds a comment to a ticket.
      *
@@ -393,6 +460,50 @@ public class TicketController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Gets a page of a ticket's top-level comments, each with its replies up to the given depth.
+     * Each reply level is loaded with one query in its own short transaction, with the replies per
+     * comment and per response capped, and the JSON is written once the last level is loaded.
+     * Comments with replies below the depth are marked with hasMoreReplies and can be expanded
+     * through the comment's own thread endpoint.
+     *
+     * @param id the ticket ID
+     * @param page the zero-based page number
+     * @param size the number of top-level comments per page
+     * @param depth the number of reply levels to include
+     * @return the streamed comment thread
+     */
+    @GetMapping("/{id}/comments/thread")
+    public ResponseEntity<?> getCommentThread(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Integer depth) {
+
+        return streamCommentThread(id, null, page, size, depth);
+    }
+
+    /**
+     * Gets a page of the replies to a comment, each with its own replies up to the given depth.
+     *
+     * @param id the ticket ID
+     * @param commentId the comment ID
+     * @param page the zero-based page number
+     * @param size the number of replies per page
+     * @param depth the number of further reply levels to include
+     * @return the streamed reply thread
+     */
+    @GetMapping("/{id}/comments/{commentId}/thread")
+    public ResponseEntity<?> getReplyThread(
+            @PathVariable UUID id,
+            @PathVariable UUID commentId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Integer depth) {
+
+        return streamCommentThread(id, commentId, page, size, depth);
+    }
+
     /**
      * Adds a reply to a comment.
      *
@@ -523,11 +634,36 @@ public class TicketController {
             response.setExpertName(ticket.getAssignedExpert().getUserProfile().getDisplayName());
         }
 
-        response.setCommentCount(ticket.getCommentCount() != null ? ticket.getCommentCount() : 0);
+        response.setCommentCount(ticket.getCommentCount());
+        response.setAttachmentCount(ticket.getAttachmentCount());
 
         return response;
     }
 
+    /**
+     * Validates a thread request and streams the thread.
+     *
+     * @param ticketId the ticket ID
+     * @param parentId the parent comment ID, or null for top-level comments
+     * @param page the page number
+     * @param size the page size
+     * @param depth the reply depth
+     * @return the streamed thread, or a bad request response for invalid paging
+     */
+    private ResponseEntity<?> streamCommentThread(UUID ticketId, UUID parentId, int page, Integer size, Integer depth) {
+        CommentThreadQuery query;
+        try {
+            query = commentThreadService.createQuery(ticketId, parentId, page, size, depth);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> commentThreadService.writeThread(query, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /**
      * Converts a TicketComment entity to a TicketCommentDTO.
      *
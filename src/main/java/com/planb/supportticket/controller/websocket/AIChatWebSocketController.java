@@ -1,9 +1,13 @@
 package com.planb.supportticket.controller.websocket;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.planb.supportticket.dto.websocket.AIModelType;
 import com.planb.supportticket.dto.websocket.ChatMessage;
 import com.planb.supportticket.dto.websocket.ChatRoom;
+import com.planb.supportticket.exception.UnauthorizedException;
 import com.planb.supportticket.service.AIService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -14,12 +18,13 @@ import org.springframework.stereotype.Controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import jakarta.annotation.PostConstruct;
 import java.security.Principal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -36,11 +41,22 @@ public class AIChatWebSocketController {
     // AI service for model interactions
     private final AIService aiService;
 
-    // In-memory store of active AI chat rooms (in a real app, use a persistent store)
-    private final Map<String, ChatRoom> aiChatRooms = new ConcurrentHashMap<>();
+    @Value("${ai.sessions.maximum-size:10000}")
+    private long roomsMaximumSize;
 
-    // Map of session IDs to room IDs
-    private final Map<String, String> sessionToRoomMap = new ConcurrentHashMap<>();
+    @Value("${ai.sessions.idle-timeout-minutes:30}")
+    private long roomIdleTimeoutMinutes;
+
+    // Active AI chat rooms, evicted when idle like the AI sessions answering in them
+    private Cache<String, ChatRoom> aiChatRooms;
+
+    @PostConstruct
+    public void init() {
+        aiChatRooms = Caffeine.newBuilder()
+                .maximumSize(roomsMaximumSize)
+                .expireAfterAccess(Duration.ofMinutes(roomIdleTimeoutMinutes))
+                .build();
+    }
 
     /**
      * Handles requests to chat with an AI model.
@@ -90,6 +106,16 @@ public class AIChatWebSocketController {
         if (message.getId() == null) {
             message.setId(java.util.UUID.randomUUID().toString());
         }
+        message.setSender(username);
+
+        // One AI session per room, so the conversation survives reconnects
+        String sessionId;
+        try {
+            sessionId = aiService.getOrCreateRoomSession(roomId, username, message.getAiModelType());
+        } catch (UnauthorizedException e) {
+            sendErrorMessage(username, "Not allowed to chat in room: " + roomId);
+            return;
+        }
 
         // Send the user message to the room
         messagingTemplate.convertAndSend(
@@ -97,12 +123,6 @@ public class AIChatWebSocketController {
             message
         );
 
-        // Generate a session ID if not exists
-        String sessionId = headerAccessor.getSessionId();
-        if (!sessionToRoomMap.containsKey(sessionId)) {
-            sessionToRoomMap.put(sessionId, roomId);
-        }
-
         // Process the AI request asynchronously using the service
         aiService.processMessageAsync(message, sessionId)
             .exceptionally(ex -> {
@@ -171,14 +191,10 @@ public class AIChatWebSocketController {
         log.debug("User {} requested to clear conversation history for room {}", username, roomId);
 
         // Find the session ID for this room
-        String sessionId = sessionToRoomMap.entrySet().stream()
-                .filter(entry -> roomId.equals(entry.getValue()))
-                .map(Map.Entry::getKey)
-                .findFirst()
-                .orElse(null);
+        Optional<String> sessionId = aiService.findSessionByRoom(roomId, username);
 
-        if (sessionId != null) {
-            aiService.clearConversationHistory(sessionId);
+        if (sessionId.isPresent()) {
+            aiService.clearConversationHistory(sessionId.get());
 
             // Send confirmation message
             ChatMessage systemMessage = new ChatMessage();
@@ -209,17 +225,12 @@ public class AIChatWebSocketController {
         log.debug("User {} requested to end AI session for room {}", username, roomId);
 
         // Find the session ID for this room
-        String sessionId = sessionToRoomMap.entrySet().stream()
-                .filter(entry -> roomId.equals(entry.getValue()))
-                .map(Map.Entry::getKey)
-                .findFirst()
-                .orElse(null);
+        Optional<String> sessionId = aiService.findSessionByRoom(roomId, username);
 
-        if (sessionId != null) {
+        if (sessionId.isPresent()) {
             // End the session
-            aiService.endSession(sessionId);
-            sessionToRoomMap.remove(sessionId);
-            aiChatRooms.remove(roomId);
+            aiService.endSession(sessionId.get());
+            aiChatRooms.invalidate(roomId);
 
             // Send confirmation message
             ChatMessage systemMessage = new ChatMessage();
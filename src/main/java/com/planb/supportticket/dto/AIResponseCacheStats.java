@@ -0,0 +1,47 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the AI response cache on one node.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIResponseCacheStats {
+
+    /**
+     * Cached responses.
+     */
+    private long size;
+
+    /**
+     * Cached responses that can also be found by similarity.
+     */
+    private int similarityIndexSize;
+
+    /**
+     * Lookups per model ID.
+     */
+    private Map<String, ModelStats> models;
+
+    /**
+     * Lookup counters for one model.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModelStats {
+        private long exactHits;
+        private long similarHits;
+        private long misses;
+        private double hitRate;
+    }
+}
@@ -0,0 +1,62 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk SMS job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSmsJobStatus {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+
+    private UUID jobId;
+    private State state;
+
+    /**
+     * Distinct recipients to send to.
+     */
+    private int total;
+
+    /**
+     * Numbers dropped because they were duplicates or empty.
+     */
+    private int skipped;
+
+    private int sent;
+    private int failed;
+
+    /**
+     * Recipients not yet sent to or given up on.
+     */
+    private int pending;
+
+    /**
+     * Send attempts repeated after a rate limit or transient error.
+     */
+    private int retries;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    /**
+     * Error per failed number; only the first failures are kept.
+     */
+    @Builder.Default
+    private Map<String, String> failures = new LinkedHashMap<>();
+}
@@ -0,0 +1,29 @@
+package com.planb.supportticket.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for sending one SMS message to many recipients.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSmsRequest {
+
+    /**
+     * Recipient phone numbers with country code. Duplicates are sent once.
+     */
+    @NotEmpty(message = "At least one phone number is required")
+    private List<String> phoneNumbers;
+
+    @NotBlank(message = "Message is required")
+    private String message;
+}
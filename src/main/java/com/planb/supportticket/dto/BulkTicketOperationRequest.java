@@ -0,0 +1,49 @@
+package com.planb.supportticket.dto;
+
+import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.entity.enums.TicketStatus;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for bulk ticket operations.
+ * Every change that is set is applied to every listed ticket; closing tickets is a status change to CLOSED.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTicketOperationRequest {
+
+    @NotEmpty(message = "At least one ticket ID is required")
+    private List<UUID> ticketIds;
+
+    private TicketStatus status;
+
+    private TicketPriority priority;
+
+    /**
+     * Expert to assign the tickets to.
+     */
+    private UUID expertId;
+
+    /**
+     * Removes the assigned expert when true. Cannot be combined with expertId.
+     */
+    private Boolean unassign;
+
+    /**
+     * Checks whether the request changes anything.
+     *
+     * @return true if at least one change is set
+     */
+    public boolean hasChanges() {
+        return status != null || priority != null || expertId != null || Boolean.TRUE.equals(unassign);
+    }
+}
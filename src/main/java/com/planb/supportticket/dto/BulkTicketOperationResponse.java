@@ -0,0 +1,44 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for bulk ticket operations.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTicketOperationResponse {
+
+    /**
+     * Number of distinct tickets in the request.
+     */
+    private int requested;
+
+    /**
+     * Number of tickets that were changed.
+     */
+    private int updated;
+
+    /**
+     * Number of tickets that already matched the requested changes.
+     */
+    private int unchanged;
+
+    @Builder.Default
+    private List<UUID> notFound = new ArrayList<>();
+
+    /**
+     * Tickets whose chunk could not be committed, e.g. because of a concurrent update.
+     */
+    @Builder.Default
+    private List<UUID> failed = new ArrayList<>();
+}
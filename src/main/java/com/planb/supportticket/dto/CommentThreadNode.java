@@ -0,0 +1,40 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One comment of a comment thread, as a flat row.
+ * A thread is loaded one reply level at a time and assembled by parentId.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentThreadNode {
+
+    private UUID id;
+    private UUID parentId;
+
+    /**
+     * Reply level relative to the requested thread root, 0 for the paged comments themselves.
+     */
+    private int depth;
+
+    private String content;
+    private boolean internalNote;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private UUID userId;
+    private String userName;
+
+    /**
+     * Number of direct replies, including replies beyond the requested depth that were not loaded.
+     */
+    private long replyCount;
+}
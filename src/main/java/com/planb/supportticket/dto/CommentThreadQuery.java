@@ -0,0 +1,33 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A validated request for one page of a comment thread.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentThreadQuery {
+
+    private UUID ticketId;
+
+    /**
+     * The comment whose replies are paged, or null to page the ticket's top-level comments.
+     */
+    private UUID parentId;
+
+    private int page;
+    private int size;
+
+    /**
+     * Number of reply levels loaded below each paged comment.
+     */
+    private int depth;
+}
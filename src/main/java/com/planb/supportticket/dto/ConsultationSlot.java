@@ -0,0 +1,14 @@
+package com.planb.supportticket.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a consultation's ID and time, for scheduling reminders without loading the entity.
+ */
+public interface ConsultationSlot {
+
+    UUID getId();
+
+    LocalDateTime getScheduledAt();
+}
@@ -0,0 +1,30 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for cursor-paginated listings.
+ * Unlike a page, a slice carries no total count, so no COUNT query is needed to build it.
+ *
+ * @param <T> the element type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+
+    /**
+     * Cursor to pass back to fetch the next slice, or null on the last slice.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk email send.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailBatchResult {
+
+    private int sent;
+
+    /**
+     * Error message per message reference, for the messages that were not accepted by the SMTP server.
+     */
+    @Builder.Default
+    private Map<String, String> failed = new LinkedHashMap<>();
+}
@@ -0,0 +1,47 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Queue depth and latency of the SMTP delivery pool on this node, since startup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDeliveryStats {
+
+    /**
+     * Messages waiting for a connection.
+     */
+    private int queueDepth;
+
+    private int queueCapacity;
+
+    /**
+     * SMTP connections currently open.
+     */
+    private int openConnections;
+
+    private long sent;
+    private long failed;
+
+    /**
+     * Connections opened so far; much lower than {@link #sent} when connections are reused.
+     */
+    private long connectionsOpened;
+
+    /**
+     * Average time from submission until a connection picked the message up.
+     */
+    private double averageQueueWaitMillis;
+
+    /**
+     * Average and maximum time spent in the SMTP exchange of one message.
+     */
+    private double averageSendMillis;
+    private double maxSendMillis;
+}
@@ -0,0 +1,30 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single email in a bulk send.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailMessage {
+
+    /**
+     * Caller-chosen reference used to report failures; defaults to the recipient address.
+     */
+    private String reference;
+
+    private String to;
+    private String subject;
+    private String body;
+
+    /**
+     * Whether the body is HTML rather than plain text.
+     */
+    private boolean html;
+}
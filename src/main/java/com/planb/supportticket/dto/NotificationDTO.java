@@ -14,7 +14,7 @@ import java.util.UUID;
  * Data Transfer Object for notifications.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class NotificationDTO {
@@ -0,0 +1,67 @@
+package com.planb.supportticket.dto;
+
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Queue depths of the notification outbox, per delivery channel.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxStats {
+
+    /**
+     * Stats for each channel.
+     */
+    @Builder.Default
+    private Map<NotificationChannel, ChannelStats> channels = new EnumMap<>(NotificationChannel.class);
+
+    /**
+     * When the oldest undelivered notification was recorded, null if there is none.
+     */
+    private LocalDateTime oldestPendingAt;
+
+    /**
+     * Queue depths of one channel.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChannelStats {
+
+        /**
+         * Notifications recorded but not yet delivered.
+         */
+        private long pending;
+
+        /**
+         * Pending notifications whose delivery has failed at least once.
+         */
+        private long retrying;
+
+        /**
+         * Notifications that ran out of attempts.
+         */
+        private long failed;
+
+        /**
+         * Deliveries running on this node right now.
+         */
+        private int activeDeliveries;
+
+        /**
+         * Deliveries waiting for a worker on this node.
+         */
+        private int queuedDeliveries;
+    }
+}
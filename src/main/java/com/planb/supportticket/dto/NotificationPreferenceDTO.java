@@ -0,0 +1,27 @@
+package com.planb.supportticket.dto;
+
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import com.planb.supportticket.enums.NotificationType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for whether a user receives one notification type on one channel.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreferenceDTO {
+
+    @NotNull(message = "Notification type is required")
+    private NotificationType type;
+
+    @NotNull(message = "Channel is required")
+    private NotificationChannel channel;
+
+    private boolean enabled;
+}
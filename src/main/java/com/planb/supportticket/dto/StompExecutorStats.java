@@ -0,0 +1,50 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the STOMP client inbound and outbound channel executors on one node.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StompExecutorStats {
+
+    private ExecutorStats inbound;
+    private ExecutorStats outbound;
+
+    /**
+     * Counters for one channel executor.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExecutorStats {
+        private int poolSize;
+        private int maxPoolSize;
+        private int active;
+        private int queued;
+        private int queueCapacity;
+        private long completed;
+
+        /**
+         * Messages that found the pool and queue full and were handled by the rejection policy.
+         */
+        private long saturated;
+
+        /**
+         * Messages that could not be handled at all and were dropped with an error.
+         */
+        private long rejected;
+
+        private double averageQueueWaitMillis;
+        private double maxQueueWaitMillis;
+        private double averageRunMillis;
+        private double maxRunMillis;
+    }
+}
@@ -0,0 +1,33 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Size of the storage deletion outbox.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageCleanupBacklog {
+
+    /**
+     * Files waiting to be deleted.
+     */
+    private long pending;
+
+    /**
+     * Files whose deletion has failed at least once.
+     */
+    private long retrying;
+
+    /**
+     * When the oldest waiting file was scheduled, null if the outbox is empty.
+     */
+    private LocalDateTime oldestScheduledAt;
+}
@@ -0,0 +1,21 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A file that has been written to object storage but not necessarily recorded in the database yet.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    private String objectName;
+    private String fileName;
+    private long fileSize;
+    private String contentType;
+}
@@ -0,0 +1,54 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a ticket listing ordered by (createdAt DESC, id DESC).
+ * Clients only ever see the opaque encoded form.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime createdAt;
+    private UUID id;
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe token.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token produced by {@link #encode()}.
+     *
+     * @param token the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static TicketCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new TicketCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -6,11 +6,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Filter for ticket queries.
+ * All criteria that are set are combined with AND; multi-valued criteria match any of their values.
  */
 @Data
 @Builder
@@ -24,4 +30,65 @@ public class TicketFilter {
     private TicketPriority priority;
     private String classification;
     private String keyword;
+
+    /**
+     * Statuses to match, e.g. statuses=OPEN,IN_PROGRESS. Combined with status if both are set.
+     */
+    private List<TicketStatus> statuses;
+
+    /**
+     * Priorities to match, e.g. priorities=HIGH,URGENT. Combined with priority if both are set.
+     */
+    private List<TicketPriority> priorities;
+
+    private String area;
+
+    /**
+     * Only tickets without an assigned expert when true.
+     */
+    private Boolean unassigned;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueTo;
+
+    /**
+     * Gets the union of status and statuses.
+     *
+     * @return the statuses to match, empty if not filtering on status
+     */
+    public Set<TicketStatus> getEffectiveStatuses() {
+        Set<TicketStatus> result = EnumSet.noneOf(TicketStatus.class);
+        if (status != null) {
+            result.add(status);
+        }
+        if (statuses != null) {
+            result.addAll(statuses);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the union of priority and priorities.
+     *
+     * @return the priorities to match, empty if not filtering on priority
+     */
+    public Set<TicketPriority> getEffectivePriorities() {
+        Set<TicketPriority> result = EnumSet.noneOf(TicketPriority.class);
+        if (priority != null) {
+            result.add(priority);
+        }
+        if (priorities != null) {
+            result.addAll(priorities);
+        }
+        return result;
+    }
 }
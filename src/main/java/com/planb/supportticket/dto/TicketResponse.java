@@ -38,4 +38,5 @@ public class TicketResponse {
     private UUID expertId;
     private String expertName;
     private int commentCount;
+    private int attachmentCount;
 }
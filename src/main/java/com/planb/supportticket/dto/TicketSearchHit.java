@@ -0,0 +1,29 @@
+package com.planb.supportticket.dto;
+
+import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.entity.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a ticket search row as returned by the native search queries.
+ */
+public interface TicketSearchHit {
+
+    UUID getId();
+
+    String getTicketNumber();
+
+    String getTitle();
+
+    TicketStatus getStatus();
+
+    TicketPriority getPriority();
+
+    LocalDateTime getCreatedAt();
+
+    Double getRank();
+
+    String getSnippet();
+}
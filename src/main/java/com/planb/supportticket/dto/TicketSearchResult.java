@@ -0,0 +1,49 @@
+package com.planb.supportticket.dto;
+
+import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.entity.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for ticket search results.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSearchResult {
+
+    private UUID id;
+    private String ticketNumber;
+    private String title;
+    private TicketStatus status;
+    private TicketPriority priority;
+    private LocalDateTime createdAt;
+
+    /**
+     * Relevance score; only comparable between results of the same match type.
+     */
+    private double rank;
+
+    /**
+     * HTML-escaped excerpt of the field that matched, with matched terms wrapped in &lt;mark&gt;
+     * tags; null for fuzzy matches.
+     */
+    private String snippet;
+
+    private MatchType matchType;
+
+    /**
+     * How a search result was matched.
+     */
+    public enum MatchType {
+        FULL_TEXT,
+        FUZZY
+    }
+}
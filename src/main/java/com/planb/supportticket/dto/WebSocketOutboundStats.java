@@ -0,0 +1,63 @@
+package com.planb.supportticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the per-session outbound WebSocket queues on one node.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketOutboundStats {
+
+    /**
+     * Open sessions.
+     */
+    private int sessions;
+
+    /**
+     * Messages waiting in all session queues.
+     */
+    private long queuedMessages;
+
+    /**
+     * Bytes waiting in all session queues.
+     */
+    private long queuedBytes;
+
+    /**
+     * Deepest session queue right now.
+     */
+    private int maxSessionQueueDepth;
+
+    /**
+     * Sessions closed because their queue overflowed.
+     */
+    private long slowConsumersDisconnected;
+
+    /**
+     * Counters per destination pattern, with IDs in the destination replaced by *.
+     */
+    private Map<String, DestinationStats> destinations;
+
+    /**
+     * Outbound counters for one destination pattern.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DestinationStats {
+        private long sent;
+        private long dropped;
+        private long coalesced;
+        private double averageSendMillis;
+        private double maxSendMillis;
+    }
+}
@@ -29,6 +29,7 @@ public class ChatMessage {
         TYPING,     // User is typing notification
         AI_REQUEST, // Request to AI model
         AI_RESPONSE, // Response from AI model
+        AI_RESPONSE_DELTA, // Part of a streamed AI response, followed by the complete AI_RESPONSE
         ERROR,      // Error message
         SYSTEM,     // System notification
         USER_JOINED, // User joined notification (for compatibility)
@@ -157,6 +158,24 @@ public class ChatMessage {
         return message;
     }
 
+    /**
+     * Factory method to create a partial AI response message, carrying the text generated since the
+     * previous part of the same stream.
+     */
+    public static ChatMessage createAIResponseDeltaMessage(String roomId, String delta, AIModelType modelType,
+                                                           String requestId, String streamId, int sequence) {
+        return ChatMessage.builder()
+                .id(java.util.UUID.randomUUID().toString())
+                .roomId(roomId)
+                .type(MessageType.AI_RESPONSE_DELTA)
+                .content(delta)
+                .sender(modelType.getDisplayName())
+                .aiModelType(modelType)
+                .timestamp(LocalDateTime.now())
+                .metadata(Map.of("requestId", requestId, "streamId", streamId, "sequence", sequence))
+                .build();
+    }
+
     /**
      * Factory method to create an error message.
      */
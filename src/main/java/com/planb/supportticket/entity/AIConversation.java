@@ -0,0 +1,48 @@
+package com.planb.supportticket.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an AI chat conversation, kept so it can be restored after a restart or on
+ * another node. Its messages are AIConversationMessage rows with the same session ID.
+ */
+@Entity
+@Table(name = "ai_conversations",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_ai_conversations_session", columnNames = {"session_id"}),
+           @UniqueConstraint(name = "uk_ai_conversations_room", columnNames = {"room_id"})
+       },
+       indexes = {
+           @Index(name = "idx_ai_conversations_last_activity", columnList = "last_activity_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIConversation extends BaseEntity {
+
+    /**
+     * The AI session ID used by AIServiceImpl.
+     */
+    @Column(name = "session_id", nullable = false, length = 64)
+    private String sessionId;
+
+    /**
+     * The chat room the conversation takes place in, if any.
+     */
+    @Column(name = "room_id", length = 64)
+    private String roomId;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "model_id", nullable = false, length = 50)
+    private String modelId;
+
+    @Column(name = "last_activity_at", nullable = false)
+    private LocalDateTime lastActivityAt;
+}
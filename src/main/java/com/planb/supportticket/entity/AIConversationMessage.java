@@ -0,0 +1,32 @@
+package com.planb.supportticket.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entity representing one message of an AI chat conversation.
+ */
+@Entity
+@Table(name = "ai_conversation_messages",
+       indexes = {
+           @Index(name = "idx_ai_conversation_messages_session", columnList = "session_id, created_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIConversationMessage extends BaseEntity {
+
+    @Column(name = "session_id", nullable = false, length = 64)
+    private String sessionId;
+
+    /**
+     * The role, "user" or "assistant".
+     */
+    @Column(name = "role", nullable = false, length = 20)
+    private String role;
+
+    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+}
@@ -0,0 +1,44 @@
+package com.planb.supportticket.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity recording that a consultation reminder was sent.
+ * Rows are claimed by ConsultationReminderScheduler before sending, so each reminder goes out once
+ * across all nodes.
+ */
+@Entity
+@Table(name = "consultation_reminders",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_consultation_reminders_slot",
+                             columnNames = {"consultation_id", "offset_minutes", "scheduled_at"})
+       },
+       indexes = {
+           @Index(name = "idx_consultation_reminders_scheduled_at", columnList = "scheduled_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConsultationReminder extends BaseEntity {
+
+    @Column(name = "consultation_id", nullable = false)
+    private UUID consultationId;
+
+    /**
+     * How long before the consultation the reminder was due.
+     */
+    @Column(name = "offset_minutes", nullable = false)
+    private int offsetMinutes;
+
+    /**
+     * The consultation time the reminder was for.
+     */
+    @Column(name = "scheduled_at", nullable = false)
+    private LocalDateTime scheduledAt;
+}
@@ -0,0 +1,58 @@
+package com.planb.supportticket.entity;
+
+import com.planb.supportticket.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity representing a notification in a user's inbox.
+ * The user's unread count is kept in notification_unread_counts and must be adjusted
+ * whenever the read flag changes (see NotificationRepository).
+ */
+@Entity
+@Table(name = "notifications")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Notification extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserProfile user;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", nullable = false, length = 50)
+    private NotificationType notificationType;
+
+    @Column(name = "reference_id")
+    private UUID referenceId;
+
+    @Column(name = "reference_type", length = 50)
+    private String referenceType;
+
+    @Column(name = "ticket_id")
+    private UUID ticketId;
+
+    @Column(name = "read", nullable = false)
+    private boolean read;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    /**
+     * When the notification was included in an email digest, null if it has not been.
+     */
+    @Column(name = "digested_at")
+    private LocalDateTime digestedAt;
+}
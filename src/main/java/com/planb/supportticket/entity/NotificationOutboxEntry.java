@@ -0,0 +1,65 @@
+package com.planb.supportticket.entity;
+
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a notification waiting to be delivered (notification outbox).
+ * Rows are written in the same transaction as the change they announce and are delivered
+ * after commit by NotificationOutboxService.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutboxEntry extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false)
+    private NotificationChannel channel;
+
+    /**
+     * The WebSocket destination, email address or phone number.
+     */
+    @Column(name = "recipient", nullable = false, length = 512)
+    private String recipient;
+
+    /**
+     * The email subject, null for other channels.
+     */
+    @Column(name = "subject")
+    private String subject;
+
+    /**
+     * The notification as JSON for WebSocket, otherwise the message body.
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * Entries with the same key that fall due together are merged into one delivery; null for never.
+     */
+    @Column(name = "coalesce_key", length = 512)
+    private String coalesceKey;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * When the last attempt was used up, null while the notification is still being delivered.
+     */
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
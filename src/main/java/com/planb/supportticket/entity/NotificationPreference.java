@@ -0,0 +1,40 @@
+package com.planb.supportticket.entity;
+
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import com.planb.supportticket.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Entity representing a user's choice to receive, or not, one notification type on one channel.
+ * Types and channels without a row are enabled.
+ */
+@Entity
+@Table(name = "notification_preferences",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_notification_preferences_user_type_channel",
+                             columnNames = {"user_id", "notification_type", "channel"})
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationPreference extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", nullable = false)
+    private NotificationType notificationType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false)
+    private NotificationChannel channel;
+
+    @Column(name = "enabled", nullable = false)
+    private boolean enabled;
+}
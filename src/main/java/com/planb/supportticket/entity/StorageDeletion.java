@@ -0,0 +1,41 @@
+package com.planb.supportticket.entity;
+
+import com.planb.supportticket.entity.enums.StorageProvider;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an object-store file waiting to be deleted (deletion outbox).
+ * Rows are written in the same transaction that removes the owning attachment and are
+ * drained in batches by StorageCleanupService.
+ */
+@Entity
+@Table(name = "storage_deletion_outbox",
+       indexes = {
+           @Index(name = "idx_storage_deletion_next_attempt", columnList = "next_attempt_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageDeletion extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_provider", nullable = false)
+    private StorageProvider storageProvider;
+
+    @Column(name = "object_key", nullable = false, length = 1024)
+    private String objectKey;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -4,7 +4,6 @@ import com.planb.supportticket.entity.enums.TicketPriority;
 import com.planb.supportticket.entity.enums.TicketStatus;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -82,10 +81,25 @@ public class Ticket extends BaseEntity {
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Consultation> consultations = new ArrayList<>();
 
-    @Formula("(select count(c.id) from ticket_comments c where c.ticket_id = id)")
-    private Integer commentCount;
+    // Denormalized counters, only written through TicketRepository's atomic counter updates
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private int commentCount;
+
+    @Column(name = "attachment_count", nullable = false, insertable = false, updatable = false)
+    private int attachmentCount;
 
     // Helper methods
+    public void changeStatus(TicketStatus newStatus) {
+        status = newStatus;
+
+        // Set resolved or closed time if applicable
+        if (newStatus == TicketStatus.RESOLVED && resolvedAt == null) {
+            resolvedAt = LocalDateTime.now();
+        } else if (newStatus == TicketStatus.CLOSED && closedAt == null) {
+            closedAt = LocalDateTime.now();
+        }
+    }
+
     public void addComment(TicketComment comment) {
         comments.add(comment);
         comment.setTicket(this);
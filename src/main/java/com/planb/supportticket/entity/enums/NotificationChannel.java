@@ -0,0 +1,7 @@
+package com.planb.supportticket.entity.enums;
+
+public enum NotificationChannel {
+    WEBSOCKET,
+    EMAIL,
+    SMS
+}
@@ -0,0 +1,6 @@
+package com.planb.supportticket.entity.enums;
+
+public enum StorageProvider {
+    GCS,
+    S3
+}
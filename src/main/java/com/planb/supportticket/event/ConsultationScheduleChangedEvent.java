@@ -0,0 +1,17 @@
+package com.planb.supportticket.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when a consultation is scheduled, moved or leaves the scheduled state,
+ * so its pending reminders can be rescheduled.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ConsultationScheduleChangedEvent {
+
+    private final UUID consultationId;
+}
@@ -0,0 +1,16 @@
+package com.planb.supportticket.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when a user's notification preferences change, so cached copies can be dropped.
+ */
+@Getter
+@RequiredArgsConstructor
+public class NotificationPreferencesChangedEvent {
+
+    private final UUID userId;
+}
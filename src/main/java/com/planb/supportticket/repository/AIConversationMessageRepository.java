@@ -0,0 +1,39 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.entity.AIConversationMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for AIConversationMessage entities.
+ */
+@Repository
+public interface AIConversationMessageRepository extends JpaRepository<AIConversationMessage, UUID> {
+
+    /**
+     * Finds the latest messages of a conversation.
+     *
+     * @param sessionId the AI session ID
+     * @param pageSize the maximum number of messages
+     * @return the messages, newest first
+     */
+    @Query(value = "SELECT * FROM ai_conversation_messages WHERE session_id = :sessionId " +
+                   "ORDER BY created_at DESC LIMIT :pageSize",
+           nativeQuery = true)
+    List<AIConversationMessage> findLatest(String sessionId, int pageSize);
+
+    /**
+     * Deletes the messages of a conversation.
+     *
+     * @param sessionId the AI session ID
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ai_conversation_messages WHERE session_id = :sessionId", nativeQuery = true)
+    int deleteBySessionId(String sessionId);
+}
@@ -0,0 +1,85 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.entity.AIConversation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for AIConversation entities.
+ */
+@Repository
+public interface AIConversationRepository extends JpaRepository<AIConversation, UUID> {
+
+    /**
+     * Finds a conversation by its AI session ID.
+     *
+     * @param sessionId the AI session ID
+     * @return the conversation, if any
+     */
+    Optional<AIConversation> findBySessionId(String sessionId);
+
+    /**
+     * Finds the conversation in a chat room.
+     *
+     * @param roomId the room ID
+     * @return the conversation, if any
+     */
+    Optional<AIConversation> findByRoomId(String roomId);
+
+    /**
+     * Inserts a conversation for a chat room unless the room already has one. If another
+     * transaction is inserting one for the same room, waits for it to commit or roll back.
+     *
+     * @param id the row ID
+     * @param sessionId the AI session ID
+     * @param roomId the room ID
+     * @param userId the user
+     * @param modelId the model ID
+     * @param now the current time
+     * @return 1 if inserted, 0 if the room already had a conversation
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ai_conversations (id, session_id, room_id, user_id, model_id, last_activity_at, "
+            + "created_at, version) "
+            + "VALUES (:id, :sessionId, :roomId, :userId, :modelId, :now, :now, 0) "
+            + "ON CONFLICT (room_id) DO NOTHING", nativeQuery = true)
+    int insertUnlessRoomTaken(UUID id, String sessionId, String roomId, String userId, String modelId,
+                              LocalDateTime now);
+
+    /**
+     * Records activity on a conversation.
+     *
+     * @param sessionId the AI session ID
+     * @param now the current time
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE AIConversation c SET c.lastActivityAt = :now WHERE c.sessionId = :sessionId")
+    int touch(String sessionId, LocalDateTime now);
+
+    /**
+     * Deletes a conversation; its messages are deleted with it.
+     *
+     * @param sessionId the AI session ID
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ai_conversations WHERE session_id = :sessionId", nativeQuery = true)
+    int deleteBySessionId(String sessionId);
+
+    /**
+     * Deletes conversations without activity since a cutoff, with their messages.
+     *
+     * @param cutoff the cutoff
+     * @return the number of deleted conversations
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ai_conversations WHERE last_activity_at < :cutoff", nativeQuery = true)
+    int deleteIdleBefore(LocalDateTime cutoff);
+}
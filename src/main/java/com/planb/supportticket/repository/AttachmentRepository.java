@@ -2,6 +2,7 @@ package com.planb.supportticket.repository;
 
 import com.planb.supportticket.entity.Attachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -44,4 +45,29 @@ public interface AttachmentRepository extends JpaRepository<Attachment, UUID> {
      * @return a list of attachments
      */
     List<Attachment> findByUserId(UUID userId);
+
+    /**
+     * Finds the storage keys of all files attached to a ticket or to any of its comments.
+     *
+     * @param ticketId the ticket ID
+     * @return the storage keys
+     */
+    @Query("SELECT a.s3Key FROM Attachment a LEFT JOIN a.comment c " +
+           "WHERE a.ticket.id = :ticketId OR c.ticket.id = :ticketId")
+    List<String> findObjectKeysByTicketId(UUID ticketId);
+
+    /**
+     * Finds the storage keys of all files attached to a comment or to any reply below it.
+     *
+     * @param commentId the comment ID
+     * @return the storage keys
+     */
+    @Query(value = "WITH RECURSIVE thread AS ( " +
+                   "    SELECT c.id FROM ticket_comments c WHERE c.id = :commentId " +
+                   "    UNION ALL " +
+                   "    SELECT c.id FROM ticket_comments c JOIN thread t ON c.parent_id = t.id " +
+                   ") " +
+                   "SELECT a.s3_key FROM attachments a JOIN thread t ON a.comment_id = t.id",
+           nativeQuery = true)
+    List<String> findObjectKeysByCommentThread(UUID commentId);
 }
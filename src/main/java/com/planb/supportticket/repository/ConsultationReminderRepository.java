@@ -0,0 +1,46 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.entity.ConsultationReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Repository for ConsultationReminder entities.
+ */
+@Repository
+public interface ConsultationReminderRepository extends JpaRepository<ConsultationReminder, UUID> {
+
+    /**
+     * Claims a reminder for sending. If another transaction holds the same claim, waits for it and
+     * fails to claim if it commits.
+     *
+     * @param id the ID of the new row
+     * @param consultationId the consultation ID
+     * @param offsetMinutes how long before the consultation the reminder is due
+     * @param scheduledAt the consultation time
+     * @param now the current time
+     * @return 1 if claimed, 0 if the reminder was already sent
+     */
+    @Modifying
+    @Query(value = "INSERT INTO consultation_reminders " +
+                   "(id, consultation_id, offset_minutes, scheduled_at, created_at, version) " +
+                   "VALUES (:id, :consultationId, :offsetMinutes, :scheduledAt, :now, 0) " +
+                   "ON CONFLICT (consultation_id, offset_minutes, scheduled_at) DO NOTHING",
+           nativeQuery = true)
+    int claim(UUID id, UUID consultationId, int offsetMinutes, LocalDateTime scheduledAt, LocalDateTime now);
+
+    /**
+     * Deletes the records of reminders for consultations before a cutoff.
+     *
+     * @param cutoff the cutoff
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM consultation_reminders WHERE scheduled_at < :cutoff", nativeQuery = true)
+    int deleteScheduledBefore(LocalDateTime cutoff);
+}
@@ -1,5 +1,6 @@
 package com.planb.supportticket.repository;
 
+import com.planb.supportticket.dto.ConsultationSlot;
 import com.planb.supportticket.entity.Consultation;
 import com.planb.supportticket.entity.enums.ConsultationStatus;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -64,4 +66,29 @@ public interface ConsultationRepository extends JpaRepository<Consultation, UUID
      */
     @Query("SELECT c FROM Consultation c WHERE c.user.id = :userId AND c.scheduledAt > :now AND c.status = 'SCHEDULED' ORDER BY c.scheduledAt ASC")
     List<Consultation> findUpcomingConsultationsForUser(UUID userId, LocalDateTime now);
+
+    /**
+     * Finds the scheduled consultations in a time range whose reminder at an offset has not been
+     * sent yet, as a range scan on the scheduled_at index checked against the reminder claims.
+     *
+     * @param offsetMinutes how long before the consultation the reminder is due
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the IDs and times of the consultations
+     */
+    @Query("SELECT c.id AS id, c.scheduledAt AS scheduledAt FROM Consultation c " +
+           "WHERE c.scheduledAt >= :from AND c.scheduledAt < :to AND c.status = 'SCHEDULED' " +
+           "AND NOT EXISTS (SELECT r.id FROM ConsultationReminder r WHERE r.consultationId = c.id " +
+           "AND r.offsetMinutes = :offsetMinutes AND r.scheduledAt = c.scheduledAt)")
+    List<ConsultationSlot> findUnremindedSlotsBetween(int offsetMinutes, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Finds the time of a consultation if it is still scheduled.
+     *
+     * @param id the consultation ID
+     * @return the ID and time of the consultation, empty if it is not scheduled
+     */
+    @Query("SELECT c.id AS id, c.scheduledAt AS scheduledAt FROM Consultation c " +
+           "WHERE c.id = :id AND c.status = 'SCHEDULED'")
+    Optional<ConsultationSlot> findScheduledSlotById(UUID id);
 }
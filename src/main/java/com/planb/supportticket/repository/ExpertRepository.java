@@ -24,6 +24,15 @@ public interface ExpertRepository extends JpaRepository<Expert, UUID> {
      */
     Optional<Expert> findByUserProfileId(UUID userProfileId);
 
+    /**
+     * Finds the user profile ID of an expert without loading the expert.
+     *
+     * @param expertId the expert ID
+     * @return the user profile ID, if the expert exists
+     */
+    @Query("SELECT e.userProfile.id FROM Expert e WHERE e.id = :expertId")
+    Optional<UUID> findUserProfileIdById(UUID expertId);
+
     /**
      * Finds available experts with pagination.
      *
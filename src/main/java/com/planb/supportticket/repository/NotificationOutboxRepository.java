@@ -0,0 +1,84 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.entity.NotificationOutboxEntry;
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for NotificationOutboxEntry entities (the notification outbox).
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, UUID> {
+
+    /**
+     * Locks the next batch of due notifications. Rows locked by another worker are skipped,
+     * so several nodes can deliver from the outbox concurrently. The batch is made of whole coalesce
+     * keys: after the first {@code limit} due rows, every other due row sharing one of their keys is
+     * locked too, so a burst is never split between two batches and delivered as two messages.
+     *
+     * @param now the current time
+     * @param limit the number of due rows that start the batch; the batch may hold more rows
+     * @return the due notifications, oldest first and grouped by coalesce key
+     */
+    @Query(value = "WITH first_due AS ( " +
+                   "    SELECT id, coalesce_key FROM notification_outbox " +
+                   "    WHERE failed_at IS NULL AND next_attempt_at <= :now " +
+                   "    ORDER BY next_attempt_at, coalesce_key, created_at " +
+                   "    LIMIT :limit " +
+                   "    FOR UPDATE SKIP LOCKED " +
+                   ") " +
+                   "SELECT n.* FROM notification_outbox n " +
+                   "WHERE n.id IN (SELECT id FROM first_due) " +
+                   "   OR (n.coalesce_key IN (SELECT coalesce_key FROM first_due) " +
+                   "       AND n.failed_at IS NULL AND n.next_attempt_at <= :now) " +
+                   "ORDER BY n.next_attempt_at, n.coalesce_key, n.created_at " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationOutboxEntry> lockDueBatch(LocalDateTime now, int limit);
+
+    /**
+     * Counts notifications of a channel that are still being delivered.
+     *
+     * @param channel the channel
+     * @return the number of pending notifications
+     */
+    long countByChannelAndFailedAtIsNull(NotificationChannel channel);
+
+    /**
+     * Counts pending notifications of a channel that have failed at least once.
+     *
+     * @param channel the channel
+     * @param attempts the attempt count to exceed
+     * @return the number of retrying notifications
+     */
+    long countByChannelAndAttemptsGreaterThanAndFailedAtIsNull(NotificationChannel channel, int attempts);
+
+    /**
+     * Counts notifications of a channel that ran out of attempts.
+     *
+     * @param channel the channel
+     * @return the number of failed notifications
+     */
+    long countByChannelAndFailedAtIsNotNull(NotificationChannel channel);
+
+    /**
+     * Counts notifications that are still being delivered.
+     *
+     * @return the number of pending notifications
+     */
+    long countByFailedAtIsNull();
+
+    /**
+     * Finds the oldest notification that is still being delivered.
+     *
+     * @return the oldest pending notification, if any
+     */
+    Optional<NotificationOutboxEntry> findFirstByFailedAtIsNullOrderByCreatedAtAsc();
+}
@@ -0,0 +1,23 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.entity.NotificationPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for NotificationPreference entities.
+ */
+@Repository
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, UUID> {
+
+    /**
+     * Finds all preferences a user has set.
+     *
+     * @param userId the user ID
+     * @return the user's preferences
+     */
+    List<NotificationPreference> findByUserId(UUID userId);
+}
@@ -0,0 +1,174 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.entity.Notification;
+import com.planb.supportticket.enums.NotificationType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for Notification entities and the per-user unread counters.
+ * Listings are keyset-paginated in (createdAt DESC, id DESC) order; pass a pageable of
+ * the slice size plus one to find out whether another slice follows.
+ */
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+    /**
+     * Finds the newest notifications of a user.
+     *
+     * @param userId the user ID
+     * @param pageable the slice size
+     * @return the notifications, newest first
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstSlice(UUID userId, Pageable pageable);
+
+    /**
+     * Finds the notifications of a user that come after a keyset position.
+     *
+     * @param userId the user ID
+     * @param createdAt the creation time of the last notification of the previous slice
+     * @param id the ID of the last notification of the previous slice
+     * @param pageable the slice size
+     * @return the notifications, newest first
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findSliceAfter(UUID userId, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    /**
+     * Finds the newest unread notifications of a user.
+     * The literal read = false lets Postgres use the partial unread index.
+     *
+     * @param userId the user ID
+     * @param pageable the slice size
+     * @return the unread notifications, newest first
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.read = false " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstUnreadSlice(UUID userId, Pageable pageable);
+
+    /**
+     * Finds the unread notifications of a user that come after a keyset position.
+     *
+     * @param userId the user ID
+     * @param createdAt the creation time of the last notification of the previous slice
+     * @param id the ID of the last notification of the previous slice
+     * @param pageable the slice size
+     * @return the unread notifications, newest first
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.read = false " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadSliceAfter(UUID userId, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    /**
+     * Marks one of a user's notifications as read, if it is still unread.
+     *
+     * @param userId the owning user ID
+     * @param id the notification ID
+     * @param readAt the time it was read
+     * @return 1 if the notification changed from unread to read, otherwise 0
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true, n.readAt = :readAt, n.updatedAt = :readAt " +
+           "WHERE n.id = :id AND n.user.id = :userId AND n.read = false")
+    int markRead(UUID userId, UUID id, LocalDateTime readAt);
+
+    /**
+     * Marks all unread notifications of a user as read with one set-based update.
+     *
+     * @param userId the user ID
+     * @param readAt the time they were read
+     * @return the number of notifications that changed from unread to read
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true, n.readAt = :readAt, n.updatedAt = :readAt " +
+           "WHERE n.user.id = :userId AND n.read = false")
+    int markAllRead(UUID userId, LocalDateTime readAt);
+
+    /**
+     * Finds the next users, in ID order, with unread ticket notifications not yet covered by a digest.
+     *
+     * @param afterId the last user ID of the previous batch
+     * @param cutoff only notifications created at or before this time are considered
+     * @param pageable the batch size
+     * @return the user IDs
+     */
+    @Query("SELECT DISTINCT n.user.id FROM Notification n " +
+           "WHERE n.read = false AND n.digestedAt IS NULL AND n.ticketId IS NOT NULL " +
+           "AND n.createdAt <= :cutoff AND n.user.id > :afterId " +
+           "ORDER BY n.user.id")
+    List<UUID> findUserIdsAwaitingDigest(UUID afterId, LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Finds the tickets a user has unread notifications about that are not yet covered by a digest,
+     * with the type of each notification, so every entry can be checked against its own preference.
+     *
+     * @param userId the user ID
+     * @param cutoff only notifications created at or before this time are considered
+     * @return one entry per ticket and notification type
+     */
+    @Query("SELECT DISTINCT n.ticketId AS ticketId, n.notificationType AS notificationType FROM Notification n " +
+           "WHERE n.user.id = :userId AND n.read = false AND n.digestedAt IS NULL AND n.ticketId IS NOT NULL " +
+           "AND n.createdAt <= :cutoff")
+    List<DigestEntry> findDigestEntries(UUID userId, LocalDateTime cutoff);
+
+    /**
+     * Records that a user's unread ticket notifications have been covered by a digest.
+     *
+     * @param userId the user ID
+     * @param cutoff only notifications created at or before this time are marked
+     * @param digestedAt the time of the digest
+     * @return the number of marked notifications
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.digestedAt = :digestedAt " +
+           "WHERE n.user.id = :userId AND n.read = false AND n.digestedAt IS NULL AND n.ticketId IS NOT NULL " +
+           "AND n.createdAt <= :cutoff")
+    int markDigested(UUID userId, LocalDateTime cutoff, LocalDateTime digestedAt);
+
+    /**
+     * Atomically adds to a user's unread counter, creating it on first use.
+     *
+     * @param userId the user ID
+     * @param delta the amount to add, may be negative
+     * @return the number of affected rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counts (user_id, unread_count) " +
+                   "VALUES (:userId, GREATEST(:delta, 0)) " +
+                   "ON CONFLICT (user_id) DO UPDATE " +
+                   "SET unread_count = GREATEST(notification_unread_counts.unread_count + :delta, 0)",
+           nativeQuery = true)
+    int adjustUnreadCount(UUID userId, int delta);
+
+    /**
+     * Reads a user's unread counter.
+     *
+     * @param userId the user ID
+     * @return the unread count, empty if the user never had a notification
+     */
+    @Query(value = "SELECT unread_count FROM notification_unread_counts WHERE user_id = :userId",
+           nativeQuery = true)
+    Optional<Integer> findUnreadCount(UUID userId);
+
+    /**
+     * A ticket a user has an undigested notification about, and the type of that notification.
+     */
+    interface DigestEntry {
+        UUID getTicketId();
+
+        NotificationType getNotificationType();
+    }
+}
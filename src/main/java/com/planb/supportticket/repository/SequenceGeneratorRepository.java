@@ -3,6 +3,7 @@ package com.planb.supportticket.repository;
 import com.planb.supportticket.entity.SequenceGenerator;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
@@ -20,4 +21,13 @@ public interface SequenceGeneratorRepository extends JpaRepository<SequenceGener
      * @return true if the sequence exists, false otherwise
      */
     boolean existsById(String sequenceName);
+
+    /**
+     * Draws the next value from the native ticket number sequence.
+     * nextval() is non-transactional and never blocks concurrent callers.
+     *
+     * @return the next ticket number value
+     */
+    @Query(value = "SELECT nextval('ticket_number_seq')", nativeQuery = true)
+    Long nextTicketNumberValue();
 }
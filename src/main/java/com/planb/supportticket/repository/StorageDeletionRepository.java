@@ -0,0 +1,49 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.entity.StorageDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for StorageDeletion entities (the storage deletion outbox).
+ */
+@Repository
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, UUID> {
+
+    /**
+     * Locks the next batch of due deletions. Rows locked by another worker are skipped,
+     * so several nodes can drain the outbox concurrently.
+     *
+     * @param now the current time
+     * @param limit the batch size
+     * @return the due deletions, oldest first
+     */
+    @Query(value = "SELECT * FROM storage_deletion_outbox " +
+                   "WHERE next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<StorageDeletion> lockDueBatch(LocalDateTime now, int limit);
+
+    /**
+     * Counts deletions that have failed at least once.
+     *
+     * @param attempts the attempt count to exceed
+     * @return the number of deletions with more failed attempts
+     */
+    long countByAttemptsGreaterThan(int attempts);
+
+    /**
+     * Finds the oldest pending deletion.
+     *
+     * @return the oldest deletion, if any
+     */
+    Optional<StorageDeletion> findFirstByOrderByCreatedAtAsc();
+}
@@ -11,7 +11,7 @@ import java.util.UUID;
  * Repository for TicketComment entities.
  */
 @Repository
-public interface TicketCommentRepository extends JpaRepository<TicketComment, UUID> {
+public interface TicketCommentRepository extends JpaRepository<TicketComment, UUID>, TicketCommentRepositoryCustom {
     
     /**
      * Finds comments by ticket ID.
@@ -36,4 +36,29 @@ public interface TicketCommentRepository extends JpaRepository<TicketComment, UU
      * @return a list of replies
      */
     List<TicketComment> findByParentId(UUID parentId);
+
+    /**
+     * Counts a ticket's top-level comments.
+     *
+     * @param ticketId the ticket ID
+     * @return the number of comments without a parent
+     */
+    long countByTicketIdAndParentIsNull(UUID ticketId);
+
+    /**
+     * Counts the direct replies to a comment.
+     *
+     * @param parentId the parent comment ID
+     * @return the number of replies
+     */
+    long countByParentId(UUID parentId);
+
+    /**
+     * Checks whether a comment belongs to a ticket.
+     *
+     * @param id the comment ID
+     * @param ticketId the ticket ID
+     * @return true if the comment exists on the ticket
+     */
+    boolean existsByIdAndTicketId(UUID id, UUID ticketId);
 }
@@ -0,0 +1,35 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.dto.CommentThreadNode;
+import com.planb.supportticket.dto.CommentThreadQuery;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom ticket comment queries that cannot be expressed as derived or annotated queries.
+ */
+public interface TicketCommentRepositoryCustom {
+
+    /**
+     * Finds one page of a thread's root comments: the ticket's top-level comments, or the direct
+     * replies of {@code query.getParentId()}, oldest first.
+     *
+     * @param query the thread query
+     * @return the root comments, at depth 0
+     */
+    List<CommentThreadNode> findThreadRoots(CommentThreadQuery query);
+
+    /**
+     * Finds the replies of a set of comments, at most {@code perParent} of each, oldest first
+     * within each parent.
+     *
+     * @param parentIds the parent comment IDs
+     * @param depth the depth to assign to the replies
+     * @param perParent the maximum number of replies per parent
+     * @param limit the maximum number of replies in total
+     * @return the replies, grouped by parent
+     */
+    List<CommentThreadNode> findReplies(Collection<UUID> parentIds, int depth, int perParent, int limit);
+}
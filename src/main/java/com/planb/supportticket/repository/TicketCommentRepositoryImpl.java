@@ -0,0 +1,115 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.dto.CommentThreadNode;
+import com.planb.supportticket.dto.CommentThreadQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Native SQL implementation of {@link TicketCommentRepositoryCustom}.
+ */
+public class TicketCommentRepositoryImpl implements TicketCommentRepositoryCustom {
+
+    private static final String NODE_COLUMNS =
+            "c.id AS id, c.parent_id AS parent_id, c.content AS content, " +
+            "c.is_internal_note AS internal_note, c.created_at AS created_at, c.updated_at AS updated_at, " +
+            "c.user_id AS user_id, u.display_name AS user_name, " +
+            "(SELECT count(*) FROM ticket_comments r WHERE r.parent_id = c.id) AS reply_count ";
+
+    private static final String ROOTS_SQL =
+            "SELECT " + NODE_COLUMNS +
+            "FROM ticket_comments c " +
+            "LEFT JOIN user_profiles u ON u.id = c.user_id " +
+            "WHERE c.ticket_id = :ticketId AND %s " +
+            "ORDER BY c.created_at, c.id " +
+            "LIMIT :pageSize OFFSET :pageOffset";
+
+    /**
+     * The oldest replies of each parent, read through the parent_id index one parent at a time.
+     */
+    private static final String REPLIES_SQL =
+            "SELECT " + NODE_COLUMNS +
+            "FROM ticket_comments p " +
+            "CROSS JOIN LATERAL ( " +
+            "    SELECT * FROM ticket_comments r WHERE r.parent_id = p.id " +
+            "    ORDER BY r.created_at, r.id LIMIT :perParent " +
+            ") c " +
+            "LEFT JOIN user_profiles u ON u.id = c.user_id " +
+            "WHERE p.id IN (:parentIds) " +
+            "ORDER BY p.created_at, p.id, c.created_at, c.id " +
+            "LIMIT :pageSize";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CommentThreadNode> findThreadRoots(CommentThreadQuery query) {
+        String rootCondition = query.getParentId() != null ? "c.parent_id = :parentId" : "c.parent_id IS NULL";
+
+        NativeQuery<Object[]> nativeQuery = nodeQuery(String.format(ROOTS_SQL, rootCondition));
+        nativeQuery.setParameter("ticketId", query.getTicketId());
+        if (query.getParentId() != null) {
+            nativeQuery.setParameter("parentId", query.getParentId());
+        }
+        nativeQuery.setParameter("pageSize", query.getSize());
+        nativeQuery.setParameter("pageOffset", (long) query.getPage() * query.getSize());
+
+        return nativeQuery.getResultStream().map(row -> toNode(row, 0)).toList();
+    }
+
+    @Override
+    public List<CommentThreadNode> findReplies(Collection<UUID> parentIds, int depth, int perParent, int limit) {
+        if (parentIds.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        NativeQuery<Object[]> nativeQuery = nodeQuery(REPLIES_SQL);
+        nativeQuery.setParameterList("parentIds", parentIds);
+        nativeQuery.setParameter("perParent", perParent);
+        nativeQuery.setParameter("pageSize", limit);
+
+        return nativeQuery.getResultStream().map(row -> toNode(row, depth)).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> nodeQuery(String sql) {
+        NativeQuery<Object[]> nativeQuery = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        return nativeQuery.addScalar("id", UUID.class)
+                .addScalar("parent_id", UUID.class)
+                .addScalar("content", String.class)
+                .addScalar("internal_note", Boolean.class)
+                .addScalar("created_at", LocalDateTime.class)
+                .addScalar("updated_at", LocalDateTime.class)
+                .addScalar("user_id", UUID.class)
+                .addScalar("user_name", String.class)
+                .addScalar("reply_count", Long.class);
+    }
+
+    /**
+     * Maps a thread row to a node.
+     *
+     * @param row the row, in the column order of NODE_COLUMNS
+     * @param depth the reply level of the row
+     * @return the thread node
+     */
+    private CommentThreadNode toNode(Object[] row, int depth) {
+        return CommentThreadNode.builder()
+                .id((UUID) row[0])
+                .parentId((UUID) row[1])
+                .depth(depth)
+                .content((String) row[2])
+                .internalNote(Boolean.TRUE.equals(row[3]))
+                .createdAt((LocalDateTime) row[4])
+                .updatedAt((LocalDateTime) row[5])
+                .userId((UUID) row[6])
+                .userName((String) row[7])
+                .replyCount((Long) row[8])
+                .build();
+    }
+}
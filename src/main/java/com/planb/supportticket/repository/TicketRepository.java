@@ -1,20 +1,28 @@
 package com.planb.supportticket.repository;
 
+import com.planb.supportticket.dto.TicketSearchHit;
 import com.planb.supportticket.entity.Ticket;
 import com.planb.supportticket.entity.enums.TicketPriority;
 import com.planb.supportticket.entity.enums.TicketStatus;
+import com.planb.supportticket.util.FullTextQueries;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Repository for Ticket entities.
  */
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, UUID> {
+public interface TicketRepository extends JpaRepository<Ticket, UUID>, JpaSpecificationExecutor<Ticket>,
+        TicketRepositoryCustom {
 
     /**
      * Finds tickets by user ID with pagination.
@@ -88,17 +96,6 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
      */
     Page<Ticket> findByPriorityOrderByCreatedAtDesc(TicketPriority priority, Pageable pageable);
 
-    /**
-     * Searches for tickets by title or description with pagination.
-     *
-     * @param title the title to search for
-     * @param description the description to search for
-     * @param pageable the pagination information
-     * @return a page of tickets
-     */
-    Page<Ticket> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-            String title, String description, Pageable pageable);
-
     /**
      * Finds all tickets ordered by creation date in descending order (newest first).
      *
@@ -114,4 +111,132 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
      * @return an optional containing the ticket if found
      */
     java.util.Optional<Ticket> findByTicketNumber(String ticketNumber);
+
+    /**
+     * Finds tickets by ID together with their creator and assigned expert, in one query.
+     *
+     * @param ids the ticket IDs
+     * @return the tickets that exist
+     */
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.user " +
+           "LEFT JOIN FETCH t.assignedExpert e LEFT JOIN FETCH e.userProfile " +
+           "WHERE t.id IN :ids")
+    List<Ticket> findAllWithParticipantsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Searches tickets with the full-text index, ranked by relevance.
+     * Each row carries a snippet of the first field that matched: the description, the detailed
+     * description, the oldest matching comment that is not an internal note, or else the title.
+     * Matched terms are delimited with FullTextQueries.HIGHLIGHT_START and HIGHLIGHT_STOP, and the
+     * snippet is otherwise the raw, unescaped text.
+     *
+     * @param tsQuery a to_tsquery expression (see FullTextQueries)
+     * @param pageable the pagination information, must be unsorted
+     * @return a page of search hits
+     */
+    @Query(value = "SELECT t.id AS id, t.ticket_number AS ticketNumber, t.title AS title, " +
+                   "t.status AS status, t.priority AS priority, t.created_at AS createdAt, " +
+                   "ts_rank_cd(t.search_vector, q) AS rank, " +
+                   "ts_headline('english', translate(coalesce(CASE " +
+                   "WHEN to_tsvector('english', coalesce(t.description, '')) @@ q THEN t.description " +
+                   "WHEN to_tsvector('english', coalesce(t.detailed_description, '')) @@ q THEN t.detailed_description " +
+                   "END, (SELECT c.content FROM ticket_comments c WHERE c.ticket_id = t.id " +
+                   "AND NOT c.is_internal_note AND to_tsvector('english', c.content) @@ q " +
+                   "ORDER BY c.created_at LIMIT 1), t.title, ''), " +
+                   "'" + FullTextQueries.HIGHLIGHT_START + FullTextQueries.HIGHLIGHT_STOP + "', ''), q, " +
+                   "'StartSel=" + FullTextQueries.HIGHLIGHT_START + ", StopSel=" + FullTextQueries.HIGHLIGHT_STOP +
+                   ", MaxFragments=2, MaxWords=25, MinWords=8') AS snippet " +
+                   "FROM tickets t, to_tsquery('english', :tsQuery) q " +
+                   "WHERE t.search_vector @@ q " +
+                   "ORDER BY rank DESC, t.created_at DESC",
+           countQuery = "SELECT count(*) FROM tickets t WHERE t.search_vector @@ to_tsquery('english', :tsQuery)",
+           nativeQuery = true)
+    Page<TicketSearchHit> searchByFullText(String tsQuery, Pageable pageable);
+
+    /**
+     * Fuzzy-matches a term against ticket numbers and titles using trigram similarity.
+     *
+     * @param term the search term
+     * @param pageable the pagination information, must be unsorted
+     * @return a page of search hits, most similar first
+     */
+    @Query(value = "SELECT t.id AS id, t.ticket_number AS ticketNumber, t.title AS title, " +
+                   "t.status AS status, t.priority AS priority, t.created_at AS createdAt, " +
+                   "GREATEST(similarity(t.ticket_number, :term), similarity(t.title, :term)) AS rank, " +
+                   "CAST(NULL AS TEXT) AS snippet " +
+                   "FROM tickets t " +
+                   "WHERE t.ticket_number % :term OR t.title % :term " +
+                   "ORDER BY rank DESC, t.created_at DESC",
+           countQuery = "SELECT count(*) FROM tickets t WHERE t.ticket_number % :term OR t.title % :term",
+           nativeQuery = true)
+    Page<TicketSearchHit> searchBySimilarity(String term, Pageable pageable);
+
+    /**
+     * Atomically adds to a ticket's comment counter.
+     * Runs as a single UPDATE so concurrent comments never lose an increment.
+     *
+     * @param ticketId the ticket ID
+     * @param delta the amount to add, may be negative
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query(value = "UPDATE tickets SET comment_count = GREATEST(comment_count + :delta, 0) WHERE id = :ticketId",
+           nativeQuery = true)
+    int adjustCommentCount(UUID ticketId, int delta);
+
+    /**
+     * Atomically adds to a ticket's attachment counter.
+     *
+     * @param ticketId the ticket ID
+     * @param delta the amount to add, may be negative
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query(value = "UPDATE tickets SET attachment_count = GREATEST(attachment_count + :delta, 0) WHERE id = :ticketId",
+           nativeQuery = true)
+    int adjustAttachmentCount(UUID ticketId, int delta);
+
+    /**
+     * Recomputes a ticket's comment and attachment counters from the source tables.
+     * Pending changes are flushed first so deletes cascaded by the persistence context are counted.
+     *
+     * @param ticketId the ticket ID
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE tickets t " +
+                   "SET comment_count = (SELECT count(*) FROM ticket_comments c WHERE c.ticket_id = t.id), " +
+                   "attachment_count = (SELECT count(*) FROM attachments a WHERE a.ticket_id = t.id) " +
+                   "WHERE t.id = :ticketId",
+           nativeQuery = true)
+    int recountCounters(UUID ticketId);
+
+    /**
+     * Finds the next batch of ticket IDs in ID order, for batch jobs walking the whole table.
+     *
+     * @param afterId the last ID of the previous batch
+     * @param limit the batch size
+     * @return up to {@code limit} IDs greater than {@code afterId}
+     */
+    @Query(value = "SELECT t.id FROM tickets t WHERE t.id > :afterId ORDER BY t.id LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findIdBatchAfter(UUID afterId, int limit);
+
+    /**
+     * Repairs the counters of the given tickets that have drifted from the source tables.
+     * Rows whose counters are already correct are left untouched.
+     *
+     * @param ticketIds the ticket IDs to check
+     * @return the number of repaired tickets
+     */
+    @Modifying
+    @Query(value = "UPDATE tickets t SET comment_count = s.comments, attachment_count = s.attachments " +
+                   "FROM (SELECT b.id, " +
+                   "(SELECT count(*) FROM ticket_comments c WHERE c.ticket_id = b.id) AS comments, " +
+                   "(SELECT count(*) FROM attachments a WHERE a.ticket_id = b.id) AS attachments " +
+                   "FROM tickets b WHERE b.id IN (:ticketIds)) s " +
+                   "WHERE t.id = s.id " +
+                   "AND (t.comment_count <> s.comments OR t.attachment_count <> s.attachments)",
+           nativeQuery = true)
+    int reconcileCounters(List<UUID> ticketIds);
 }
@@ -0,0 +1,35 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.dto.TicketResponse;
+import com.planb.supportticket.entity.Ticket;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom query methods for ticket listings that project straight into response rows
+ * instead of loading Ticket entities and their associations.
+ */
+public interface TicketRepositoryCustom {
+
+    /**
+     * Finds ticket summaries matching a specification with offset pagination.
+     * Defaults to ordering by creation date, newest first, when the pageable is unsorted.
+     *
+     * @param spec the filter specification
+     * @param pageable the pagination information
+     * @return a page of ticket summaries
+     */
+    Page<TicketResponse> findTicketSummaries(Specification<Ticket> spec, Pageable pageable);
+
+    /**
+     * Finds a slice of ticket summaries matching a specification, ordered by (createdAt, id) descending.
+     * No count query is issued.
+     *
+     * @param spec the filter specification, including any keyset cursor predicate
+     * @param size the maximum number of tickets to return
+     * @return a slice of ticket summaries
+     */
+    Slice<TicketResponse> findTicketSummarySlice(Specification<Ticket> spec, int size);
+}
@@ -0,0 +1,179 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.dto.TicketResponse;
+import com.planb.supportticket.entity.Expert;
+import com.planb.supportticket.entity.Ticket;
+import com.planb.supportticket.entity.UserProfile;
+import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.entity.enums.TicketStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Criteria-based implementation of {@link TicketRepositoryCustom}.
+ * Selects only the listing columns (detailed_description is left out) and resolves the
+ * creator and expert names through joins in the same statement. Comment and attachment
+ * counts are read from the denormalized counter columns, so a page always costs the same
+ * number of statements (the rows and, for pages, the total) whatever its size.
+ */
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TicketResponse> findTicketSummaries(Specification<Ticket> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ticket> root = summaryQuery(cb, query, spec);
+
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : NEWEST_FIRST;
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<TicketResponse> content = typedQuery.getResultList().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<TicketResponse> findTicketSummarySlice(Specification<Ticket> spec, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ticket> root = summaryQuery(cb, query, spec);
+        query.orderBy(QueryUtils.toOrders(NEWEST_FIRST, root, cb));
+
+        // Fetch one extra row to learn whether another slice follows
+        List<TicketResponse> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+
+        boolean hasNext = rows.size() > size;
+        List<TicketResponse> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Builds the projection and filter of a ticket summary query.
+     *
+     * @param cb the criteria builder
+     * @param query the tuple query to populate
+     * @param spec the filter specification
+     * @return the ticket root
+     */
+    private Root<Ticket> summaryQuery(CriteriaBuilder cb, CriteriaQuery<Tuple> query, Specification<Ticket> spec) {
+        Root<Ticket> root = query.from(Ticket.class);
+        Join<Ticket, UserProfile> user = root.join("user", JoinType.LEFT);
+        Join<Ticket, Expert> expert = root.join("assignedExpert", JoinType.LEFT);
+        Join<Expert, UserProfile> expertProfile = expert.join("userProfile", JoinType.LEFT);
+
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("ticketNumber").alias("ticketNumber"),
+                root.get("title").alias("title"),
+                root.get("description").alias("description"),
+                root.get("status").alias("status"),
+                root.get("priority").alias("priority"),
+                root.get("classification").alias("classification"),
+                root.get("area").alias("area"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("updatedAt").alias("updatedAt"),
+                root.get("dueDate").alias("dueDate"),
+                root.get("resolvedAt").alias("resolvedAt"),
+                root.get("closedAt").alias("closedAt"),
+                user.get("id").alias("userId"),
+                user.get("displayName").alias("userName"),
+                expert.get("id").alias("expertId"),
+                expertProfile.get("displayName").alias("expertName"),
+                root.get("commentCount").alias("commentCount"),
+                root.get("attachmentCount").alias("attachmentCount"));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return root;
+    }
+
+    /**
+     * Counts the tickets matching a specification.
+     *
+     * @param spec the filter specification
+     * @return the number of matching tickets
+     */
+    private long count(Specification<Ticket> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ticket> root = query.from(Ticket.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Maps a summary row to a response DTO.
+     *
+     * @param row the tuple row
+     * @return the ticket response
+     */
+    private TicketResponse toResponse(Tuple row) {
+        return TicketResponse.builder()
+                .id(row.get("id", UUID.class))
+                .ticketNumber(row.get("ticketNumber", String.class))
+                .title(row.get("title", String.class))
+                .description(row.get("description", String.class))
+                .status(row.get("status", TicketStatus.class))
+                .priority(row.get("priority", TicketPriority.class))
+                .classification(row.get("classification", String.class))
+                .area(row.get("area", String.class))
+                .createdAt(row.get("createdAt", LocalDateTime.class))
+                .updatedAt(row.get("updatedAt", LocalDateTime.class))
+                .dueDate(row.get("dueDate", LocalDateTime.class))
+                .resolvedAt(row.get("resolvedAt", LocalDateTime.class))
+                .closedAt(row.get("closedAt", LocalDateTime.class))
+                .userId(row.get("userId", UUID.class))
+                .userName(row.get("userName", String.class))
+                .expertId(row.get("expertId", UUID.class))
+                .expertName(row.get("expertName", String.class))
+                .commentCount(row.get("commentCount", Integer.class))
+                .attachmentCount(row.get("attachmentCount", Integer.class))
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.config.SearchFunctionContributor;
+import com.planb.supportticket.dto.TicketCursor;
+import com.planb.supportticket.dto.TicketFilter;
+import com.planb.supportticket.entity.Ticket;
+import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.entity.enums.TicketStatus;
+import com.planb.supportticket.util.FullTextQueries;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Composable JPA specifications for ticket queries.
+ */
+public final class TicketSpecifications {
+
+    private TicketSpecifications() {
+    }
+
+    /**
+     * Builds a single specification from every criterion set on the filter.
+     * Predicates are added most selective first: equality on indexed foreign keys, then
+     * status/priority sets, then the remaining equality and range criteria, and the
+     * full-text keyword match last.
+     *
+     * @param filter the ticket filter, may be null
+     * @return the combined specification
+     */
+    public static Specification<Ticket> fromFilter(TicketFilter filter) {
+        Specification<Ticket> spec = Specification.where(null);
+        if (filter == null) {
+            return spec;
+        }
+
+        if (filter.getUserId() != null) {
+            spec = spec.and(hasUser(filter.getUserId()));
+        }
+        if (filter.getExpertId() != null) {
+            spec = spec.and(hasAssignedExpert(filter.getExpertId()));
+        } else if (Boolean.TRUE.equals(filter.getUnassigned())) {
+            spec = spec.and(isUnassigned());
+        }
+        if (!filter.getEffectiveStatuses().isEmpty()) {
+            spec = spec.and(statusIn(filter.getEffectiveStatuses()));
+        }
+        if (!filter.getEffectivePriorities().isEmpty()) {
+            spec = spec.and(priorityIn(filter.getEffectivePriorities()));
+        }
+        if (hasText(filter.getClassification())) {
+            spec = spec.and(hasClassification(filter.getClassification()));
+        }
+        if (hasText(filter.getArea())) {
+            spec = spec.and(hasArea(filter.getArea()));
+        }
+        if (filter.getCreatedFrom() != null || filter.getCreatedTo() != null) {
+            spec = spec.and(createdBetween(filter.getCreatedFrom(), filter.getCreatedTo()));
+        }
+        if (filter.getDueFrom() != null || filter.getDueTo() != null) {
+            spec = spec.and(dueBetween(filter.getDueFrom(), filter.getDueTo()));
+        }
+        if (hasText(filter.getKeyword())) {
+            spec = spec.and(keywordMatches(filter.getKeyword()));
+        }
+
+        return spec;
+    }
+
+    public static Specification<Ticket> hasUser(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Ticket> hasAssignedExpert(UUID expertId) {
+        return (root, query, cb) -> cb.equal(root.get("assignedExpert").get("id"), expertId);
+    }
+
+    public static Specification<Ticket> isUnassigned() {
+        return (root, query, cb) -> cb.isNull(root.get("assignedExpert"));
+    }
+
+    public static Specification<Ticket> statusIn(Collection<TicketStatus> statuses) {
+        return (root, query, cb) -> statuses.size() == 1
+                ? cb.equal(root.get("status"), statuses.iterator().next())
+                : root.get("status").in(statuses);
+    }
+
+    public static Specification<Ticket> priorityIn(Collection<TicketPriority> priorities) {
+        return (root, query, cb) -> priorities.size() == 1
+                ? cb.equal(root.get("priority"), priorities.iterator().next())
+                : root.get("priority").in(priorities);
+    }
+
+    public static Specification<Ticket> hasClassification(String classification) {
+        return (root, query, cb) -> cb.equal(root.get("classification"), classification);
+    }
+
+    public static Specification<Ticket> hasArea(String area) {
+        return (root, query, cb) -> cb.equal(root.get("area"), area);
+    }
+
+    public static Specification<Ticket> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> between(cb, root.<LocalDateTime>get("createdAt"), from, to);
+    }
+
+    public static Specification<Ticket> dueBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> between(cb, root.<LocalDateTime>get("dueDate"), from, to);
+    }
+
+    /**
+     * Matches the keyword against the full-text search document (number, title, descriptions and
+     * comments) using the GIN-indexed search_vector column. Every term matches as a prefix.
+     * Input without any searchable terms falls back to a case-insensitive title match.
+     *
+     * @param keyword the search keyword
+     * @return the specification
+     */
+    public static Specification<Ticket> keywordMatches(String keyword) {
+        String tsQuery = FullTextQueries.toPrefixQuery(keyword);
+        if (tsQuery.isEmpty()) {
+            String pattern = "%" + keyword.toLowerCase() + "%";
+            return (root, query, cb) -> cb.like(cb.lower(root.get("title")), pattern);
+        }
+        return (root, query, cb) -> cb.isTrue(cb.function(SearchFunctionContributor.TICKET_FTS_MATCH,
+                Boolean.class, root.get("id"), cb.literal(tsQuery)));
+    }
+
+    /**
+     * Matches tickets that come after the cursor in (createdAt DESC, id DESC) order.
+     * Written as a bounded range on created_at so the composite (filter, created_at, id) indexes can seek.
+     *
+     * @param cursor the keyset position
+     * @return the specification
+     */
+    public static Specification<Ticket> afterCursor(TicketCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.<LocalDateTime>get("createdAt"), cursor.getCreatedAt()),
+                cb.or(
+                        cb.lessThan(root.<LocalDateTime>get("createdAt"), cursor.getCreatedAt()),
+                        cb.lessThan(root.<UUID>get("id"), cursor.getId())));
+    }
+
+    private static Predicate between(CriteriaBuilder cb, Path<LocalDateTime> path,
+                                     LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            return cb.between(path, from, to);
+        }
+        return from != null ? cb.greaterThanOrEqualTo(path, from) : cb.lessThanOrEqualTo(path, to);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
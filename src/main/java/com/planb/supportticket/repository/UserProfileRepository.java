@@ -3,6 +3,7 @@ package com.planb.supportticket.repository;
 import com.planb.supportticket.entity.UserProfile;
 import com.planb.supportticket.entity.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -38,4 +39,18 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, UUID>
      * @return a list of user profiles with the specified role
      */
     List<UserProfile> findByRolesContaining(UserRole role);
+
+    /**
+     * Finds the next batch of IDs of users with a role, in ID order.
+     * Reads only the role index, so fan-out to large roles never loads profiles.
+     *
+     * @param role the role name
+     * @param afterId the last ID of the previous batch
+     * @param pageSize the batch size
+     * @return up to {@code pageSize} user IDs greater than {@code afterId}
+     */
+    @Query(value = "SELECT ur.user_id FROM user_roles ur WHERE ur.role = :role AND ur.user_id > :afterId " +
+                   "ORDER BY ur.user_id LIMIT :pageSize",
+           nativeQuery = true)
+    List<UUID> findIdBatchByRoleAfter(String role, UUID afterId, int pageSize);
 }
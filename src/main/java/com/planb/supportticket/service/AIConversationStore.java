@@ -0,0 +1,231 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.entity.AIConversation;
+import com.planb.supportticket.entity.AIConversationMessage;
+import com.planb.supportticket.repository.AIConversationMessageRepository;
+import com.planb.supportticket.repository.AIConversationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persistence backend for AI chat sessions, selected with {@code ai.sessions.persistence}:
+ * <ul>
+ *     <li>{@code none} (default) - nothing is stored; a session lives only in the memory of the node
+ *     it was created on, until it is evicted.</li>
+ *     <li>{@code database} - conversations and their messages are stored in ai_conversations and
+ *     ai_conversation_messages, so a session evicted from memory, lost in a restart or continued on
+ *     another node is restored from its latest {@code ai.sessions.restore-messages} messages.</li>
+ * </ul>
+ * Writes happen on one owned thread, in the order they were made, so the AI response path never
+ * waits on the database; reads happen on the caller's thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AIConversationStore {
+    private static final String DATABASE_PERSISTENCE = "database";
+
+    private final AIConversationRepository conversationRepository;
+    private final AIConversationMessageRepository messageRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Qualifier("aiConversationStoreExecutor")
+    private final ThreadPoolTaskExecutor writeExecutor;
+
+    @Value("${ai.sessions.persistence:none}")
+    private String persistence;
+
+    @Value("${ai.sessions.restore-messages:50}")
+    private int restoreMessages;
+
+    @Value("${ai.sessions.retention-days:30}")
+    private long retentionDays;
+
+    private boolean enabled;
+    private TransactionTemplate writeTemplate;
+
+    @PostConstruct
+    public void init() {
+        enabled = DATABASE_PERSISTENCE.equalsIgnoreCase(persistence);
+        log.info("AI session persistence: {}", enabled ? DATABASE_PERSISTENCE : "none");
+        if (!enabled) {
+            return;
+        }
+        writeTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Checks whether sessions are persisted.
+     *
+     * @return true if sessions are persisted
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a new conversation.
+     *
+     * @param sessionId the AI session ID
+     * @param roomId the chat room, or null
+     * @param userId the user
+     * @param modelId the model ID
+     */
+    public void create(String sessionId, String roomId, String userId, String modelId) {
+        write("create", sessionId, () -> conversationRepository.save(AIConversation.builder()
+                .sessionId(sessionId)
+                .roomId(roomId)
+                .userId(userId)
+                .modelId(modelId)
+                .lastActivityAt(LocalDateTime.now())
+                .build()));
+    }
+
+    /**
+     * Records a new conversation for a chat room, unless the room already has one, which another
+     * node may have created at the same time. Unlike the other writes this runs on the caller's
+     * thread, so the caller can go on with whichever conversation the room ended up with.
+     *
+     * @param sessionId the AI session ID
+     * @param roomId the chat room
+     * @param userId the user
+     * @param modelId the model ID
+     * @return the conversation of the room: the new one, or the one that was there first
+     */
+    public AIConversation createForRoom(String sessionId, String roomId, String userId, String modelId) {
+        if (!enabled) {
+            return AIConversation.builder()
+                    .sessionId(sessionId)
+                    .roomId(roomId)
+                    .userId(userId)
+                    .modelId(modelId)
+                    .build();
+        }
+        return writeTemplate.execute(status -> {
+            if (conversationRepository.insertUnlessRoomTaken(UUID.randomUUID(), sessionId, roomId, userId, modelId,
+                    LocalDateTime.now()) == 0) {
+                log.debug("Room {} already has an AI conversation; not creating session {}", roomId, sessionId);
+            }
+            return conversationRepository.findByRoomId(roomId)
+                    .orElseThrow(() -> new IllegalStateException("No AI conversation for room " + roomId));
+        });
+    }
+
+    /**
+     * Appends a message to a conversation.
+     *
+     * @param sessionId the AI session ID
+     * @param role the role, "user" or "assistant"
+     * @param content the content
+     */
+    public void append(String sessionId, String role, String content) {
+        write("append to", sessionId, () -> {
+            messageRepository.save(AIConversationMessage.builder()
+                    .sessionId(sessionId)
+                    .role(role)
+                    .content(content)
+                    .build());
+            conversationRepository.touch(sessionId, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Deletes the messages of a conversation but keeps the conversation.
+     *
+     * @param sessionId the AI session ID
+     */
+    public void clear(String sessionId) {
+        write("clear", sessionId, () -> messageRepository.deleteBySessionId(sessionId));
+    }
+
+    /**
+     * Deletes a conversation with its messages.
+     *
+     * @param sessionId the AI session ID
+     */
+    public void delete(String sessionId) {
+        write("delete", sessionId, () -> conversationRepository.deleteBySessionId(sessionId));
+    }
+
+    /**
+     * Loads a conversation with its latest messages.
+     *
+     * @param sessionId the AI session ID
+     * @return the conversation, or empty if not stored
+     */
+    public Optional<StoredConversation> load(String sessionId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return conversationRepository.findBySessionId(sessionId).map(conversation -> {
+            List<AIConversationMessage> messages =
+                    new ArrayList<>(messageRepository.findLatest(sessionId, restoreMessages));
+            Collections.reverse(messages);
+            return new StoredConversation(conversation, messages);
+        });
+    }
+
+    /**
+     * Finds the conversation in a chat room.
+     *
+     * @param roomId the room ID
+     * @return the conversation, or empty if not stored
+     */
+    public Optional<AIConversation> findByRoom(String roomId) {
+        return enabled ? conversationRepository.findByRoomId(roomId) : Optional.empty();
+    }
+
+    /**
+     * Deletes conversations without activity for longer than the retention period.
+     */
+    @Scheduled(cron = "${ai.sessions.purge-cron:0 15 4 * * *}")
+    public void purgeIdle() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = writeTemplate.execute(status ->
+                conversationRepository.deleteIdleBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} AI conversations idle for more than {} days", deleted, retentionDays);
+        }
+    }
+
+    private void write(String action, String sessionId, Runnable write) {
+        if (!enabled) {
+            return;
+        }
+        writeExecutor.execute(() -> {
+            try {
+                writeTemplate.executeWithoutResult(status -> write.run());
+            } catch (Exception e) {
+                log.warn("Failed to {} AI conversation {}: {}", action, sessionId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * A stored conversation with its latest messages, oldest first.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class StoredConversation {
+        private final AIConversation conversation;
+        private final List<AIConversationMessage> messages;
+    }
+}
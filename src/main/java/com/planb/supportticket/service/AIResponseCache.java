@@ -0,0 +1,327 @@
+package com.planb.supportticket.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.planb.supportticket.dto.AIResponseCacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of AI responses, so a question that was already answered does not cost another provider
+ * round trip.
+ *
+ * Entries belong to a scope, such as the user the conversation belongs to, and are never shared
+ * across scopes. With {@code ai.cache.shared-opening-questions} on, opening questions with no earlier
+ * context, whose answer depends on nothing but the question, share one scope across users, so the
+ * same question asked by many users is answered once per model; see {@link #scopeOf}.
+ *
+ * The exact tier is keyed by scope, model, temperature and the whole prompt sent to the model,
+ * summary included, normalized for case, whitespace and trailing punctuation. The optional
+ * similarity tier only applies to the opening question of a conversation, where the answer does not
+ * depend on earlier turns: each cached question gets a feature-hashed vector of its words and word
+ * pairs, and a new question is answered from the closest cached one in the same scope if their
+ * cosine similarity reaches {@code ai.cache.similarity.threshold}. The vectors are computed locally
+ * and scanned in memory, which at the default cache size takes a few milliseconds.
+ *
+ * Entries expire after {@code ai.cache.expire-after-write-minutes} and the cache holds at most
+ * {@code ai.cache.maximum-size} of them. Models listed in {@code ai.cache.disabled-models} are never
+ * cached.
+ */
+@Service
+@Slf4j
+public class AIResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.]+$");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Scope of shared opening questions; user IDs are never empty
+    private static final String SHARED_SCOPE = "";
+
+    @Value("${ai.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ai.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${ai.cache.expire-after-write-minutes:1440}")
+    private long expireAfterWriteMinutes;
+
+    @Value("${ai.cache.shared-opening-questions:false}")
+    private boolean sharedOpeningQuestions;
+
+    @Value("${ai.cache.disabled-models:}")
+    private Set<String> disabledModels;
+
+    @Value("${ai.cache.similarity.enabled:false}")
+    private boolean similarityEnabled;
+
+    @Value("${ai.cache.similarity.threshold:0.92}")
+    private double similarityThreshold;
+
+    @Value("${ai.cache.similarity.dimensions:512}")
+    private int dimensions;
+
+    private Cache<String, CachedResponse> responses;
+
+    // Cached opening questions with their vectors; entries leave when they leave the cache
+    private final Map<String, CachedResponse> similarityIndex = new ConcurrentHashMap<>();
+
+    private final Map<String, ModelCounters> counters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .<String, CachedResponse>removalListener((key, value, cause) -> {
+                    if (key != null && value != null) {
+                        similarityIndex.remove(key, value);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Picks the scope to cache a conversation under: the user's own, or the scope shared by all users
+     * when {@code ai.cache.shared-opening-questions} is on and the conversation is an opening question
+     * with no earlier context.
+     *
+     * @param userId the user the conversation belongs to; null is never cached
+     * @param conversation the messages sent to the model, as passed to {@link #get}
+     * @param priorContext whether the messages carry context beyond the conversation itself, such as
+     *                     a summary of earlier messages
+     * @return the scope, or null if the conversation is not cached
+     */
+    public String scopeOf(String userId, List<String> conversation, boolean priorContext) {
+        if (userId == null) {
+            return null;
+        }
+        return sharedOpeningQuestions && conversation.size() == 1 && !priorContext ? SHARED_SCOPE : userId;
+    }
+
+    /**
+     * Looks up a cached response for a conversation.
+     *
+     * @param scope who the conversation belongs to, such as the user ID or {@link #scopeOf}; null is
+     *              never cached
+     * @param model the model ID
+     * @param temperature the sampling temperature
+     * @param conversation the messages sent to the model, oldest first, each prefixed with its role;
+     *                     the last one is the question to answer
+     * @return the cached response, or empty if none matches
+     */
+    public Optional<String> get(String scope, String model, double temperature, List<String> conversation) {
+        if (!isEnabled(scope, model) || conversation.isEmpty()) {
+            return Optional.empty();
+        }
+        ModelCounters c = counters.computeIfAbsent(model, m -> new ModelCounters());
+        List<String> prompt = normalized(conversation);
+
+        CachedResponse exact = responses.getIfPresent(key(scope, model, temperature, prompt));
+        if (exact != null) {
+            c.exactHits.increment();
+            return Optional.of(exact.response);
+        }
+
+        if (similarityEnabled && prompt.size() == 1) {
+            float[] vector = embed(prompt.get(0));
+            CachedResponse best = null;
+            double bestScore = similarityThreshold;
+            for (CachedResponse candidate : similarityIndex.values()) {
+                if (!candidate.scope.equals(scope) || !candidate.model.equals(model)
+                        || candidate.temperature != temperature) {
+                    continue;
+                }
+                double score = dot(vector, candidate.vector);
+                if (score >= bestScore) {
+                    best = candidate;
+                    bestScore = score;
+                }
+            }
+            // The index may briefly hold entries that just expired
+            if (best != null && responses.getIfPresent(best.key) == best) {
+                c.similarHits.increment();
+                log.debug("Answered {} question from a cached one with similarity {}", model, bestScore);
+                return Optional.of(best.response);
+            }
+        }
+
+        c.misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Caches a response for a conversation.
+     *
+     * @param scope who the conversation belongs to, as passed to {@link #get}
+     * @param model the model ID
+     * @param temperature the sampling temperature
+     * @param conversation the conversation the response answers, as passed to {@link #get}
+     * @param response the response
+     */
+    public void put(String scope, String model, double temperature, List<String> conversation, String response) {
+        if (!isEnabled(scope, model) || conversation.isEmpty() || response == null || response.isBlank()) {
+            return;
+        }
+        List<String> prompt = normalized(conversation);
+        String key = key(scope, model, temperature, prompt);
+        boolean indexed = similarityEnabled && prompt.size() == 1;
+        CachedResponse cached = new CachedResponse(key, scope, model, temperature, response,
+                indexed ? embed(prompt.get(0)) : null);
+
+        responses.put(key, cached);
+        if (indexed) {
+            similarityIndex.put(key, cached);
+        }
+    }
+
+    /**
+     * Gets the size and hit rates of the cache on this node.
+     *
+     * @return the stats
+     */
+    public AIResponseCacheStats getStats() {
+        Map<String, AIResponseCacheStats.ModelStats> models = new TreeMap<>();
+        counters.forEach((model, c) -> {
+            long exactHits = c.exactHits.sum();
+            long similarHits = c.similarHits.sum();
+            long lookups = exactHits + similarHits + c.misses.sum();
+            models.put(model, AIResponseCacheStats.ModelStats.builder()
+                    .exactHits(exactHits)
+                    .similarHits(similarHits)
+                    .misses(lookups - exactHits - similarHits)
+                    .hitRate(lookups > 0 ? (double) (exactHits + similarHits) / lookups : 0)
+                    .build());
+        });
+
+        return AIResponseCacheStats.builder()
+                .size(responses.estimatedSize())
+                .similarityIndexSize(similarityIndex.size())
+                .models(models)
+                .build();
+    }
+
+    private boolean isEnabled(String scope, String model) {
+        return enabled && scope != null && model != null && !disabledModels.contains(model);
+    }
+
+    private List<String> normalized(List<String> conversation) {
+        List<String> prompt = new ArrayList<>(conversation.size());
+        for (String message : conversation) {
+            String normalized = WHITESPACE.matcher(message.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+            prompt.add(TRAILING_PUNCTUATION.matcher(normalized).replaceAll(""));
+        }
+        return prompt;
+    }
+
+    private String key(String scope, String model, double temperature, List<String> prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((scope + '\u0000' + model + '\u0000' + temperature).getBytes(StandardCharsets.UTF_8));
+            for (String message : prompt) {
+                digest.update((byte) 1);
+                digest.update(message.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Maps a question to a unit vector by hashing its words and word pairs into a fixed number of
+     * dimensions, with a hash-derived sign so collisions tend to cancel out.
+     *
+     * @param text the normalized question
+     * @return the vector
+     */
+    private float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        String previous = null;
+        for (String word : NON_WORD.split(text)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            addFeature(vector, word);
+            if (previous != null) {
+                addFeature(vector, previous + ' ' + word);
+            }
+            previous = word;
+        }
+
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    private void addFeature(float[] vector, String feature) {
+        int hash = feature.hashCode() * 0x9E3779B1;
+        vector[Math.floorMod(hash, dimensions)] += (hash >>> 31) == 0 ? 1 : -1;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * A cached response, with the question's vector if it is in the similarity index.
+     */
+    private static final class CachedResponse {
+        private final String key;
+        private final String scope;
+        private final String model;
+        private final double temperature;
+        private final String response;
+        private final float[] vector;
+
+        private CachedResponse(String key, String scope, String model, double temperature, String response,
+                               float[] vector) {
+            this.key = key;
+            this.scope = scope;
+            this.model = model;
+            this.temperature = temperature;
+            this.response = response;
+            this.vector = vector;
+        }
+    }
+
+    /**
+     * Lookup counters for one model.
+     */
+    private static final class ModelCounters {
+        private final LongAdder exactHits = new LongAdder();
+        private final LongAdder similarHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
@@ -5,6 +5,7 @@ import com.planb.supportticket.dto.websocket.ChatMessage;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -16,7 +17,7 @@ public interface AIService {
     /**
      * Processes a chat message and generates an AI response asynchronously.
      *
-     * @param message the chat message to process
+     * @param message the chat message to process; its sender must be the user the session belongs to
      * @param sessionId the session ID for tracking conversation history
      * @return a CompletableFuture that will complete with the AI response message
      */
@@ -54,6 +55,26 @@ public interface AIService {
      */
     String createSession(String userId, AIModelType modelType);
     
+    /**
+     * Gets the chat session answering in a chat room, creating it if the room has none.
+     *
+     * @param roomId the room ID
+     * @param userId the user ID
+     * @param modelType the AI model type
+     * @return the session ID
+     * @throws com.planb.supportticket.exception.UnauthorizedException if the room's session belongs to another user
+     */
+    String getOrCreateRoomSession(String roomId, String userId, AIModelType modelType);
+    
+    /**
+     * Finds the chat session answering in a chat room for the user it belongs to.
+     *
+     * @param roomId the room ID
+     * @param userId the user ID
+     * @return the session ID, or empty if the room has none or it belongs to another user
+     */
+    Optional<String> findSessionByRoom(String roomId, String userId);
+    
     /**
      * Ends a chat session and cleans up resources.
      *
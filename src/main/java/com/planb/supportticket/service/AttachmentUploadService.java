@@ -0,0 +1,43 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.StoredFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * Service interface for uploading attachment files to object storage.
+ * Uploads are meant to run outside of database transactions; the caller records the
+ * returned files afterwards and discards them if that fails.
+ */
+public interface AttachmentUploadService {
+
+    /**
+     * Uploads a single file.
+     *
+     * @param file the file to upload
+     * @param folder the storage folder
+     * @return the stored file
+     * @throws com.planb.supportticket.exception.GCPServiceException if the upload fails
+     */
+    StoredFile upload(MultipartFile file, String folder);
+
+    /**
+     * Uploads several files in parallel on the bounded upload executor and waits for all of them.
+     * Empty parts are skipped. A file that fails to upload is logged and left out of the result,
+     * the other files are still uploaded.
+     *
+     * @param files the files to upload
+     * @param folder the storage folder
+     * @return the stored files, in the order of the input
+     */
+    List<StoredFile> uploadAll(List<MultipartFile> files, String folder);
+
+    /**
+     * Deletes stored files whose metadata could not be recorded. Files that cannot be deleted
+     * right away are handed to the storage deletion outbox. Failures are logged, not thrown.
+     *
+     * @param files the files to delete
+     */
+    void discard(List<StoredFile> files);
+}
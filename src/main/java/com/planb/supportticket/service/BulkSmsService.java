@@ -0,0 +1,51 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.BulkSmsJobStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service interface for sending one SMS message to many recipients.
+ * Jobs run in the background with bounded concurrency under the provider's rate limit;
+ * callers get a job handle and poll its progress.
+ */
+public interface BulkSmsService {
+
+    /**
+     * Starts sending a message to every distinct number.
+     *
+     * @param phoneNumbers the recipient phone numbers, with country code
+     * @param message the message
+     * @return the initial status of the job
+     * @throws IllegalStateException if SMS sending is disabled
+     * @throws org.springframework.core.task.TaskRejectedException if too many jobs are waiting to start
+     */
+    BulkSmsJobStatus startJob(List<String> phoneNumbers, String message);
+
+    /**
+     * Sends a message to every distinct number and waits until the job is done.
+     *
+     * @param phoneNumbers the recipient phone numbers, with country code
+     * @param message the message
+     * @return the final status of the job
+     */
+    BulkSmsJobStatus sendAndWait(List<String> phoneNumbers, String message);
+
+    /**
+     * Gets the progress of a job. Finished jobs are kept for a limited time.
+     *
+     * @param jobId the job ID
+     * @return the job status, if the job is known on this node
+     */
+    Optional<BulkSmsJobStatus> getJob(UUID jobId);
+
+    /**
+     * Stops a running job. Messages already handed to the provider are not recalled.
+     *
+     * @param jobId the job ID
+     * @return true if a running job was cancelled
+     */
+    boolean cancelJob(UUID jobId);
+}
@@ -14,6 +14,7 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for interacting with the ChatGPT API.
@@ -22,8 +23,11 @@ import java.util.Map;
 @Slf4j
 public class ChatGptService {
 
+    private static final double TEMPERATURE = 0.7;
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final AIResponseCache responseCache;
 
     @Value("${openai.api.key:}")
     private String apiKey;
@@ -34,18 +38,37 @@ public class ChatGptService {
     @Value("${openai.api.model:gpt-4o}")
     private String model;
 
-    public ChatGptService(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public ChatGptService(RestTemplate restTemplate, ObjectMapper objectMapper, AIResponseCache responseCache) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
     }
 
     /**
-     * Sends a message to the ChatGPT API and returns the response.
+     * Sends a message to the ChatGPT API and returns the response, without caching it.
      *
      * @param message the message to send
      * @return the response from ChatGPT
      */
     public String sendMessage(String message) {
+        return sendMessage(message, null);
+    }
+
+    /**
+     * Sends a message to the ChatGPT API and returns the response.
+     *
+     * @param message the message to send
+     * @param userId the user sending it, whose earlier answers may be reused; null to skip the cache
+     * @return the response from ChatGPT
+     */
+    public String sendMessage(String message, String userId) {
+        List<String> conversation = List.of("user: " + message);
+        String scope = responseCache.scopeOf(userId, conversation, false);
+        Optional<String> cached = responseCache.get(scope, model, TEMPERATURE, conversation);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -58,7 +81,7 @@ public class ChatGptService {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("model", model);
             requestBody.put("messages", List.of(messageObj));
-            requestBody.put("temperature", 0.7);
+            requestBody.put("temperature", TEMPERATURE);
 
             HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, headers);
 
@@ -67,6 +90,7 @@ public class ChatGptService {
             JsonNode rootNode = objectMapper.readTree(response.getBody());
             String content = rootNode.path("choices").path(0).path("message").path("content").asText();
 
+            responseCache.put(scope, model, TEMPERATURE, conversation, content);
             return content;
         } catch (Exception e) {
             log.error("Error calling ChatGPT API", e);
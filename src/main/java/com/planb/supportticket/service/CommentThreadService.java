@@ -0,0 +1,40 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.CommentThreadQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/**
+ * Service interface for reading ticket comment threads.
+ * Threads are paged by their top-level comments (or by the replies of one comment), each
+ * loaded with a bounded number of reply levels, and written straight to the response.
+ */
+public interface CommentThreadService {
+
+    /**
+     * Validates a thread request and applies the configured defaults and limits.
+     *
+     * @param ticketId the ticket ID
+     * @param parentId the comment whose replies to page, or null for the top-level comments
+     * @param page the zero-based page number
+     * @param size the page size, or null for the default
+     * @param depth the reply levels to load, or null for the default
+     * @return the thread query
+     * @throws IllegalArgumentException if the page or size is out of range
+     * @throws com.planb.supportticket.exception.ResourceNotFoundException if the ticket or comment does not exist
+     */
+    CommentThreadQuery createQuery(UUID ticketId, UUID parentId, int page, Integer size, Integer depth);
+
+    /**
+     * Writes one page of a comment thread as JSON. Each reply level is loaded in its own short
+     * read-only transaction, with the number of replies per comment and per response capped, and the
+     * JSON is written after the last one ends, so a slow client never holds a transaction open.
+     *
+     * @param query the thread query
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    void writeThread(CommentThreadQuery query, OutputStream out) throws IOException;
+}
@@ -0,0 +1,283 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.ConsultationSlot;
+import com.planb.supportticket.entity.Consultation;
+import com.planb.supportticket.entity.enums.ConsultationStatus;
+import com.planb.supportticket.event.ConsultationScheduleChangedEvent;
+import com.planb.supportticket.repository.ConsultationReminderRepository;
+import com.planb.supportticket.repository.ConsultationRepository;
+import com.planb.supportticket.util.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends consultation reminders at fixed offsets before each consultation (by default 24 hours,
+ * 1 hour and 10 minutes).
+ *
+ * Every refresh, for each offset, the consultations whose reminder at that offset falls due within
+ * the next {@code consultations.reminders.window-minutes} and has not been sent yet are read with a
+ * range query on scheduled_at and put on an in-memory hashed timing wheel. Scheduling, moving or
+ * cancelling a consultation publishes a ConsultationScheduleChangedEvent, which replaces just that
+ * consultation's timers. When a timer fires, the consultation is re-read and the reminder is claimed
+ * with an insert into consultation_reminders in the same transaction that queues the notification, so
+ * with several nodes each reminder is sent once. Reminders missed while no node was running are still
+ * sent if they are at most {@code consultations.reminders.grace-minutes} late.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConsultationReminderScheduler {
+    private final ConsultationRepository consultationRepository;
+    private final ConsultationReminderRepository reminderRepository;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Qualifier("consultationReminderExecutor")
+    private final ThreadPoolTaskExecutor sendExecutor;
+
+    @Value("${consultations.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${consultations.reminders.offsets-minutes:1440,60,10}")
+    private int[] offsetsMinutes;
+
+    @Value("${consultations.reminders.email-offsets-minutes:1440,60}")
+    private int[] emailOffsetsMinutes;
+
+    @Value("${consultations.reminders.window-minutes:15}")
+    private long windowMinutes;
+
+    @Value("${consultations.reminders.grace-minutes:15}")
+    private long graceMinutes;
+
+    @Value("${consultations.reminders.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${consultations.reminders.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${consultations.reminders.wheel-size:1024}")
+    private int wheelSize;
+
+    private HashedTimingWheel wheel;
+    private TransactionTemplate reminderTemplate;
+
+    // Timers on the wheel, keyed by consultation ID and offset
+    private final Map<String, PendingReminder> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (offsetsMinutes.length == 0 || windowMinutes < 1) {
+            throw new IllegalStateException("consultations.reminders offsets and window must be set");
+        }
+        reminderTemplate = new TransactionTemplate(transactionManager);
+        if (!enabled) {
+            log.info("Consultation reminders are disabled");
+            return;
+        }
+
+        wheel = new HashedTimingWheel(tickMs, TimeUnit.MILLISECONDS, wheelSize, "consultation-reminder-wheel");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    /**
+     * Puts the reminders due within the next window on the wheel. Runs more often than the window
+     * is long, so every reminder is on the wheel well before it is due.
+     */
+    @Scheduled(fixedDelayString = "${consultations.reminders.refresh-interval-ms:300000}", initialDelay = 10000)
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime earliest = now.minusMinutes(graceMinutes);
+        // Timers that fired and are past the grace period cannot be scheduled again, so forget them
+        pending.values().removeIf(reminder -> reminder.dueAt.isBefore(earliest));
+
+        // Only the consultations a reminder at this offset is due for, not everything up to the largest offset
+        int scheduled = 0;
+        for (int offset : offsetsMinutes) {
+            LocalDateTime from = max(now, earliest.plusMinutes(offset));
+            LocalDateTime to = now.plusMinutes(windowMinutes + offset);
+            for (ConsultationSlot slot : consultationRepository.findUnremindedSlotsBetween(offset, from, to)) {
+                if (schedule(slot.getId(), slot.getScheduledAt(), offset, now)) {
+                    scheduled++;
+                }
+            }
+        }
+        if (scheduled > 0) {
+            log.debug("Put {} consultation reminders on the wheel ({} pending)", scheduled, pending.size());
+        }
+
+        reminderTemplate.executeWithoutResult(
+                status -> reminderRepository.deleteScheduledBefore(now.minusDays(retentionDays)));
+    }
+
+    /**
+     * Replaces the timers of a consultation after its schedule changed.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScheduleChanged(ConsultationScheduleChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        UUID consultationId = event.getConsultationId();
+        for (int offset : offsetsMinutes) {
+            cancel(pending.remove(key(consultationId, offset)));
+        }
+        consultationRepository.findScheduledSlotById(consultationId)
+                .ifPresent(slot -> schedule(slot.getId(), slot.getScheduledAt(), LocalDateTime.now()));
+    }
+
+    /**
+     * Puts a consultation's reminders that fall due within the window on the wheel.
+     *
+     * @param consultationId the consultation ID
+     * @param scheduledAt the consultation time
+     * @param now the current time
+     * @return the number of timers added
+     */
+    private int schedule(UUID consultationId, LocalDateTime scheduledAt, LocalDateTime now) {
+        int added = 0;
+        for (int offset : offsetsMinutes) {
+            if (schedule(consultationId, scheduledAt, offset, now)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Puts one reminder of a consultation on the wheel if it falls due within the window.
+     *
+     * @param consultationId the consultation ID
+     * @param scheduledAt the consultation time
+     * @param offset how long before the consultation the reminder is due, in minutes
+     * @param now the current time
+     * @return true if a timer was added
+     */
+    private boolean schedule(UUID consultationId, LocalDateTime scheduledAt, int offset, LocalDateTime now) {
+        LocalDateTime dueAt = scheduledAt.minusMinutes(offset);
+        if (dueAt.isBefore(now.minusMinutes(graceMinutes)) || !dueAt.isBefore(now.plusMinutes(windowMinutes))
+                || !scheduledAt.isAfter(now)) {
+            return false;
+        }
+        String key = key(consultationId, offset);
+        PendingReminder existing = pending.get(key);
+        if (existing != null && existing.scheduledAt.equals(scheduledAt)) {
+            return false;
+        }
+
+        // A stray timer left by a concurrent change is harmless: send() re-checks the time and the claim
+        PendingReminder reminder = new PendingReminder(scheduledAt, dueAt);
+        cancel(pending.put(key, reminder));
+        long delayMs = Math.max(Duration.between(now, dueAt).toMillis(), 0);
+        reminder.timer = wheel.schedule(() -> fire(key, reminder, consultationId, offset),
+                delayMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Runs on the wheel thread; hands the send off to the executor.
+     *
+     * @param key the pending timer key
+     * @param reminder the pending timer
+     * @param consultationId the consultation ID
+     * @param offset how long before the consultation the reminder is due, in minutes
+     */
+    private void fire(String key, PendingReminder reminder, UUID consultationId, int offset) {
+        // Stays in the pending map until past the grace period, so refreshes do not schedule it again
+        sendExecutor.execute(() -> {
+            try {
+                reminderTemplate.executeWithoutResult(status -> send(consultationId, offset, reminder.scheduledAt));
+            } catch (Exception e) {
+                // Left unclaimed; the next refresh puts it back on the wheel while within the grace period
+                pending.remove(key, reminder);
+                log.error("Failed to send {} minute reminder for consultation {}: {}",
+                        offset, consultationId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Sends one reminder if the consultation is still at the expected time and no node sent it yet.
+     *
+     * @param consultationId the consultation ID
+     * @param offset how long before the consultation the reminder is due, in minutes
+     * @param scheduledAt the consultation time the reminder was scheduled for
+     */
+    private void send(UUID consultationId, int offset, LocalDateTime scheduledAt) {
+        Consultation consultation = consultationRepository.findById(consultationId).orElse(null);
+        if (consultation == null || consultation.getStatus() != ConsultationStatus.SCHEDULED
+                || !scheduledAt.equals(consultation.getScheduledAt())) {
+            return;
+        }
+        int claimed = reminderRepository.claim(UUID.randomUUID(), consultationId, offset, scheduledAt,
+                LocalDateTime.now());
+        if (claimed == 0) {
+            return;
+        }
+
+        notificationService.sendConsultationReminderNotification(consultation);
+        if (Arrays.stream(emailOffsetsMinutes).anyMatch(o -> o == offset)) {
+            notificationService.sendConsultationReminderEmail(consultation);
+        }
+        log.info("Sent {} minute reminder for consultation {}", offset, consultationId);
+    }
+
+    private void cancel(PendingReminder reminder) {
+        if (reminder != null && reminder.timer != null) {
+            reminder.timer.cancel();
+        }
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private String key(UUID consultationId, int offset) {
+        return consultationId + ":" + offset;
+    }
+
+    /**
+     * A timer on the wheel and the consultation time it was computed from.
+     */
+    private static final class PendingReminder {
+        private final LocalDateTime scheduledAt;
+        private final LocalDateTime dueAt;
+        private volatile HashedTimingWheel.Timer timer;
+
+        private PendingReminder(LocalDateTime scheduledAt, LocalDateTime dueAt) {
+            this.scheduledAt = scheduledAt;
+            this.dueAt = dueAt;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.planb.supportticket.service;
 
+import com.planb.supportticket.dto.EmailBatchResult;
+import com.planb.supportticket.dto.EmailMessage;
+
 import java.util.List;
 
 /**
@@ -56,4 +59,13 @@ public interface EmailService {
      * @param body the email body
      */
     void sendEmailToMultipleRecipients(List<String> to, String subject, String body);
+
+    /**
+     * Sends many individual emails at once. All messages are queued before waiting, so they are
+     * spread over the pooled SMTP connections; one failed message does not stop the others.
+     *
+     * @param messages the messages
+     * @return how many were sent, and the error of each failed message by reference
+     */
+    EmailBatchResult sendEmail(List<EmailMessage> messages);
 }
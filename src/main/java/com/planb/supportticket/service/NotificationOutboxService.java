@@ -0,0 +1,64 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.NotificationDTO;
+import com.planb.supportticket.dto.NotificationOutboxStats;
+
+/**
+ * Service interface for delivering notifications through a transactional outbox.
+ * Callers record notifications as part of their own transaction, so nothing is sent for a change
+ * that rolls back, and slow WebSocket, SMTP or SMS calls never run inside a request transaction.
+ * Recorded notifications are delivered by a background worker once the transaction commits.
+ */
+public interface NotificationOutboxService {
+
+    /**
+     * Records a real-time notification. Joins the caller's transaction.
+     *
+     * @param destination the WebSocket destination
+     * @param notification the notification
+     */
+    void enqueueWebSocket(String destination, NotificationDTO notification);
+
+    /**
+     * Records a real-time notification that may be merged with others. Notifications with the same
+     * coalesce key recorded within one coalescing window are delivered as a single message that
+     * carries every update. Joins the caller's transaction.
+     *
+     * @param destination the WebSocket destination
+     * @param notification the notification
+     * @param coalesceKey the coalesce key, or null to deliver the notification on its own
+     */
+    void enqueueWebSocket(String destination, NotificationDTO notification, String coalesceKey);
+
+    /**
+     * Records a plain-text email. Joins the caller's transaction.
+     *
+     * @param to the recipient email address
+     * @param subject the subject
+     * @param body the body
+     */
+    void enqueueEmail(String to, String subject, String body);
+
+    /**
+     * Records an SMS message. Joins the caller's transaction.
+     *
+     * @param phoneNumber the recipient phone number, with country code
+     * @param message the message
+     */
+    void enqueueSms(String phoneNumber, String message);
+
+    /**
+     * Delivers due notifications in batches until none are left.
+     * Failed deliveries are retried later with backoff, up to the configured number of attempts.
+     *
+     * @return the number of notifications delivered
+     */
+    int dispatch();
+
+    /**
+     * Gets the current queue depths of the outbox.
+     *
+     * @return the outbox stats
+     */
+    NotificationOutboxStats getStats();
+}
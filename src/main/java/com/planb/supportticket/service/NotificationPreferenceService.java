@@ -0,0 +1,43 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.NotificationPreferenceDTO;
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import com.planb.supportticket.enums.NotificationType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for users' notification channel preferences.
+ * Every notification type is delivered on every channel unless the user turned it off.
+ */
+public interface NotificationPreferenceService {
+
+    /**
+     * Checks whether a user receives a notification type on a channel.
+     * Answered from memory once the user's preferences are cached.
+     *
+     * @param userId the user ID
+     * @param type the notification type
+     * @param channel the delivery channel
+     * @return true if the notification should be delivered on the channel
+     */
+    boolean isEnabled(UUID userId, NotificationType type, NotificationChannel channel);
+
+    /**
+     * Gets a user's preferences for every notification type and channel.
+     *
+     * @param userId the user ID
+     * @return one entry per notification type and channel
+     */
+    List<NotificationPreferenceDTO> getPreferences(UUID userId);
+
+    /**
+     * Turns notification types on or off per channel. Entries not given are left as they are.
+     *
+     * @param userId the user ID
+     * @param preferences the preferences to change
+     * @return the user's preferences after the change
+     */
+    List<NotificationPreferenceDTO> updatePreferences(UUID userId, List<NotificationPreferenceDTO> preferences);
+}
@@ -1,9 +1,11 @@
 package com.planb.supportticket.service;
 
+import com.planb.supportticket.dto.NotificationCursor;
 import com.planb.supportticket.dto.NotificationDTO;
 import com.planb.supportticket.entity.*;
 import com.planb.supportticket.entity.enums.TicketStatus;
 import com.planb.supportticket.enums.NotificationType;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.UUID;
@@ -90,6 +92,30 @@ public interface NotificationService {
      */
     void sendTicketUnassignedNotification(Ticket ticket, Expert previousExpert);
 
+    /**
+     * Sends one notification to a ticket owner covering a bulk change to several of their tickets.
+     * Joins the caller's transaction. Pushes of one bulk operation to the same owner are coalesced,
+     * so an operation applied in several transactions still arrives as one message.
+     *
+     * @param userId the ticket owner's user ID
+     * @param change a description of the change
+     * @param ticketNumbers the numbers of the changed tickets
+     * @param operationId identifies the bulk operation
+     */
+    void sendBulkTicketUpdateNotification(UUID userId, String change, List<String> ticketNumbers, String operationId);
+
+    /**
+     * Sends one notification to an expert covering a bulk change to several tickets they are involved in.
+     * Joins the caller's transaction, and coalesces like
+     * {@link #sendBulkTicketUpdateNotification(UUID, String, List, String)}.
+     *
+     * @param expertId the expert ID
+     * @param change a description of the change
+     * @param ticketNumbers the numbers of the changed tickets
+     * @param operationId identifies the bulk operation
+     */
+    void sendBulkExpertTicketNotification(UUID expertId, String change, List<String> ticketNumbers, String operationId);
+
     /**
      * Sends a comment added notification.
      *
@@ -199,32 +225,47 @@ public interface NotificationService {
     void sendConsultationReminderEmail(Consultation consultation);
 
     /**
-     * Gets unread notifications for a user.
+     * Gets the newest unread notifications for a user.
+     * The list is capped; use {@link #getNotifications} to page through a large inbox.
      *
      * @param userId the user ID
-     * @return a list of unread notifications
+     * @return a list of unread notifications, newest first
      */
     List<NotificationDTO> getUnreadNotifications(UUID userId);
 
     /**
-     * Marks a notification as read.
+     * Gets a slice of a user's notifications using keyset pagination, newest first.
+     *
+     * @param userId the user ID
+     * @param unreadOnly whether to return unread notifications only
+     * @param cursor the position after which to continue, or null for the first slice
+     * @param size the maximum number of notifications in the slice
+     * @return a slice of notifications
+     */
+    Slice<NotificationDTO> getNotifications(UUID userId, boolean unreadOnly, NotificationCursor cursor, int size);
+
+    /**
+     * Marks one of a user's notifications as read.
      *
+     * @param userId the user ID owning the notification
      * @param notificationId the notification ID
+     * @return true if the notification was unread, false if it was already read or is not the user's
      */
-    void markNotificationAsRead(UUID notificationId);
+    boolean markNotificationAsRead(UUID userId, UUID notificationId);
 
     /**
      * Marks all notifications as read for a user.
      *
      * @param userId the user ID
+     * @return the number of notifications that were unread
      */
-    void markAllNotificationsAsRead(UUID userId);
+    int markAllNotificationsAsRead(UUID userId);
 
     /**
-     * Gets notification count for a user.
+     * Gets the number of unread notifications for a user, from the per-user counter.
      *
      * @param userId the user ID
-     * @return the notification count
+     * @return the unread notification count
      */
     int getNotificationCount(UUID userId);
 }
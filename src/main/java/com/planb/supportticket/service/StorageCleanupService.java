@@ -0,0 +1,36 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.StorageCleanupBacklog;
+import com.planb.supportticket.entity.enums.StorageProvider;
+
+import java.util.Collection;
+
+/**
+ * Service interface for deleting object-store files in the background.
+ * Callers record files to purge as part of their own transaction (a deletion outbox), so the
+ * files are only deleted once the owning rows are gone, and never while a transaction is open.
+ */
+public interface StorageCleanupService {
+
+    /**
+     * Records files to delete. Joins the caller's transaction, so nothing is scheduled if it rolls back.
+     *
+     * @param provider the storage holding the files
+     * @param objectKeys the object keys
+     */
+    void scheduleDeletion(StorageProvider provider, Collection<String> objectKeys);
+
+    /**
+     * Deletes due files in batches until none are left. Failed deletions are retried later with backoff.
+     *
+     * @return the number of files deleted
+     */
+    int drain();
+
+    /**
+     * Gets the current size of the deletion backlog.
+     *
+     * @return the backlog
+     */
+    StorageCleanupBacklog getBacklog();
+}
@@ -0,0 +1,23 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.BulkTicketOperationRequest;
+import com.planb.supportticket.dto.BulkTicketOperationResponse;
+
+/**
+ * Service interface for applying one change to many tickets at once.
+ */
+public interface TicketBulkService {
+
+    /**
+     * Applies the requested status, priority and assignment changes to every listed ticket.
+     * Tickets are processed in chunks, each committed in its own transaction, so a failing
+     * chunk does not roll back the others. Affected users and experts receive one notification
+     * each, after all chunks have been processed.
+     *
+     * @param request the bulk operation
+     * @return the outcome per ticket group
+     * @throws IllegalArgumentException if the request has no changes, conflicting changes or too many tickets
+     * @throws com.planb.supportticket.exception.ResourceNotFoundException if the expert does not exist
+     */
+    BulkTicketOperationResponse applyBulkOperation(BulkTicketOperationRequest request);
+}
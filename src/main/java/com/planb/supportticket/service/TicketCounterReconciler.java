@@ -0,0 +1,87 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repairs drift in the denormalized ticket comment_count and attachment_count columns.
+ *
+ * The counters are kept up to date by TicketServiceImpl, but rows written outside of it
+ * (manual fixes, cascaded deletes, older application versions) can leave them off. This job
+ * walks the tickets table in ID order and recounts one batch per short transaction, so it
+ * never holds locks on more than {@code ticket.counters.reconcile.batch-size} tickets at once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketCounterReconciler {
+    private final TicketRepository ticketRepository;
+    private final PlatformTransactionManager transactionManager;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Value("${ticket.counters.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ticket.counters.reconcile.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate batchTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (batchSize < 1) {
+            throw new IllegalStateException("ticket.counters.reconcile.batch-size must be positive");
+        }
+        batchTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs the reconciliation on the configured schedule.
+     */
+    @Scheduled(cron = "${ticket.counters.reconcile.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        if (enabled) {
+            reconcileAll();
+        }
+    }
+
+    /**
+     * Recounts the counters of every ticket, batch by batch.
+     *
+     * @return the number of tickets whose counters were repaired
+     */
+    public int reconcileAll() {
+        UUID afterId = FIRST_ID;
+        int checked = 0;
+        int repaired = 0;
+
+        while (true) {
+            List<UUID> ids = ticketRepository.findIdBatchAfter(afterId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer fixed = batchTemplate.execute(status -> ticketRepository.reconcileCounters(ids));
+            repaired += fixed != null ? fixed : 0;
+            checked += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        if (repaired > 0) {
+            log.warn("Repaired comment/attachment counters on {} of {} tickets", repaired, checked);
+        } else {
+            log.debug("Ticket counters consistent across {} tickets", checked);
+        }
+        return repaired;
+    }
+}
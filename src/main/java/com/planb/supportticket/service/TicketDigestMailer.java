@@ -0,0 +1,15 @@
+package com.planb.supportticket.service;
+
+/**
+ * Service interface for ticket digest emails: each user gets one email listing the tickets they have
+ * unread notifications about, instead of an email per ticket event (digest mode).
+ */
+public interface TicketDigestMailer {
+
+    /**
+     * Sends a digest to every user with undigested unread ticket notifications.
+     *
+     * @return the number of digests sent
+     */
+    int sendDigests();
+}
@@ -2,36 +2,188 @@ package com.planb.supportticket.service;
 
 import com.planb.supportticket.entity.SequenceGenerator;
 import com.planb.supportticket.repository.SequenceGeneratorRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates human-readable ticket numbers ("TK-n").
+ *
+ * Two backends are supported, selected with {@code ticket.number.backend}:
+ * <ul>
+ *     <li>{@code block} (default) - reserves a range of numbers from the TICKET_SEQUENCE row in
+ *     sequence_generators in one short, independent transaction and hands them out from memory.
+ *     The row is only locked once per block instead of once per ticket. The next block is reserved
+ *     in the background once the current one is {@code ticket.number.prefetch-threshold} used, so
+ *     callers, which already hold a pooled connection for their ticket transaction, never need a
+ *     second one.</li>
+ *     <li>{@code sequence} - draws each number from the native ticket_number_seq Postgres sequence,
+ *     which never takes a row lock.</li>
+ * </ul>
+ * Both backends leave gaps (unused numbers of a block are lost on restart) and numbers are only
+ * roughly ordered across nodes. The two backends do not share their high-water mark, so the
+ * sequence has to be re-seeded before switching backends on a live database.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TicketNumberService {
     private final SequenceGeneratorRepository sequenceGeneratorRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Qualifier("ticketNumberExecutor")
+    private final ThreadPoolTaskExecutor reservationExecutor;
+
     private static final String TICKET_SEQUENCE = "TICKET_SEQUENCE";
     private static final String TICKET_PREFIX = "TK-";
+    private static final String SEQUENCE_BACKEND = "sequence";
+
+    @Value("${ticket.number.backend:block}")
+    private String backend;
+
+    @Value("${ticket.number.block-size:500}")
+    private int blockSize;
+
+    @Value("${ticket.number.prefetch-threshold:0.8}")
+    private double prefetchThreshold;
+
+    private final AtomicReference<NumberBlock> currentBlock = new AtomicReference<>(NumberBlock.EMPTY);
+
+    // The reservation of the block that follows the current one, once it has been started
+    private final AtomicReference<CompletableFuture<NumberBlock>> nextBlock = new AtomicReference<>();
+
+    private TransactionTemplate reservationTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (blockSize < 1) {
+            throw new IllegalStateException("ticket.number.block-size must be positive");
+        }
+        if (prefetchThreshold < 0 || prefetchThreshold >= 1) {
+            throw new IllegalStateException("ticket.number.prefetch-threshold must be at least 0 and below 1");
+        }
+
+        // Reservations commit on their own so the sequence row is never held for the
+        // duration of the caller's ticket transaction
+        reservationTemplate = new TransactionTemplate(transactionManager);
+        reservationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        log.info("Ticket number backend: {} (block size {})", backend, blockSize);
+        if (!SEQUENCE_BACKEND.equalsIgnoreCase(backend)) {
+            prefetch();
+        }
+    }
 
-    @Transactional
     public String generateTicketNumber() {
-        // Try to find the sequence with a pessimistic write lock
-        SequenceGenerator sequence = sequenceGeneratorRepository.findBySequenceName(TICKET_SEQUENCE)
-                .orElse(null);
+        if (SEQUENCE_BACKEND.equalsIgnoreCase(backend)) {
+            return TICKET_PREFIX + sequenceGeneratorRepository.nextTicketNumberValue();
+        }
 
-        if (sequence == null) {
-            // Initialize the sequence if it doesn't exist
-            sequence = new SequenceGenerator(TICKET_SEQUENCE, 2L); // Start with 2 since we already have TK-1
-            sequenceGeneratorRepository.save(sequence);
-            return TICKET_PREFIX + "1";
-        } else {
-            // Increment the sequence
-            Long nextValue = sequence.getNextValue();
-            sequence.setNextValue(nextValue + 1);
+        while (true) {
+            NumberBlock block = currentBlock.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                if (value == block.prefetchAt) {
+                    prefetch();
+                }
+                return TICKET_PREFIX + value;
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Starts reserving the next block on the reservation executor, unless a reservation is
+     * already under way or done.
+     */
+    private void prefetch() {
+        CompletableFuture<NumberBlock> reservation = new CompletableFuture<>();
+        if (!nextBlock.compareAndSet(null, reservation)) {
+            return;
+        }
+        try {
+            reservationExecutor.execute(() -> {
+                try {
+                    reservation.complete(reserveBlock());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to reserve ticket numbers: {}", e.getMessage());
+                    reservation.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            reservation.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Replaces an exhausted block with the reserved one. Only threads that ran out of numbers get
+     * here; they wait for the reservation if it has not finished yet, which only happens when the
+     * rest of the block went faster than one reservation.
+     *
+     * @param exhausted the block the caller found exhausted
+     */
+    private synchronized void refill(NumberBlock exhausted) {
+        if (currentBlock.get() != exhausted) {
+            // Another thread already switched to a fresh block
+            return;
+        }
+        prefetch();
+        CompletableFuture<NumberBlock> reservation = nextBlock.getAndSet(null);
+        try {
+            currentBlock.set(reservation.join());
+        } catch (CompletionException e) {
+            // The next caller starts a new reservation
+            throw new IllegalStateException("Could not reserve ticket numbers", e.getCause());
+        }
+    }
+
+    /**
+     * Reserves the next {@code blockSize} numbers from sequence_generators.
+     *
+     * @return the reserved block
+     */
+    private NumberBlock reserveBlock() {
+        NumberBlock block = reservationTemplate.execute(status -> {
+            SequenceGenerator sequence = sequenceGeneratorRepository.findBySequenceName(TICKET_SEQUENCE)
+                    .orElseGet(() -> new SequenceGenerator(TICKET_SEQUENCE, 1L));
+
+            long start = sequence.getNextValue();
+            sequence.setNextValue(start + blockSize);
             sequenceGeneratorRepository.save(sequence);
-            return TICKET_PREFIX + nextValue;
+            return new NumberBlock(start, start + blockSize, start + (long) (blockSize * prefetchThreshold));
+        });
+
+        log.debug("Reserved ticket numbers [{}, {})", block.next.get(), block.end);
+        return block;
+    }
+
+    /**
+     * A half-open range [next, end) of ticket numbers owned by this node.
+     */
+    private static final class NumberBlock {
+        private static final NumberBlock EMPTY = new NumberBlock(0, 0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+        // Handing out this number starts reserving the next block
+        private final long prefetchAt;
+
+        private NumberBlock(long start, long end, long prefetchAt) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = prefetchAt;
         }
     }
 }
@@ -0,0 +1,24 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.dto.TicketSearchResult;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service interface for ticket search.
+ * Searches ticket numbers, titles, descriptions and comments through the Postgres full-text index,
+ * with a trigram-based fuzzy fallback for ticket numbers and titles.
+ */
+public interface TicketSearchService {
+
+    /**
+     * Searches tickets, most relevant first.
+     * Terms match as prefixes. If the full-text search finds nothing at all, ticket numbers
+     * and titles are matched by trigram similarity instead, which tolerates typos and partial numbers.
+     *
+     * @param query the free-text query
+     * @param pageable the pagination information; any sort is ignored in favour of relevance
+     * @return a page of search results
+     */
+    Page<TicketSearchResult> search(String query, Pageable pageable);
+}
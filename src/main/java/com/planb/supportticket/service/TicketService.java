@@ -2,6 +2,9 @@ package com.planb.supportticket.service;
 
 import com.planb.supportticket.dto.TicketDTO;
 import com.planb.supportticket.dto.TicketCommentDTO;
+import com.planb.supportticket.dto.TicketCursor;
+import com.planb.supportticket.dto.TicketFilter;
+import com.planb.supportticket.dto.TicketResponse;
 import com.planb.supportticket.entity.Attachment;
 import com.planb.supportticket.entity.Ticket;
 import com.planb.supportticket.entity.TicketComment;
@@ -9,6 +12,7 @@ import com.planb.supportticket.entity.enums.TicketStatus;
 import com.planb.supportticket.entity.enums.TicketPriority;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -158,6 +162,28 @@ public interface TicketService {
      */
     Page<Ticket> getTicketsByPriorityOrderByCreatedAtDesc(TicketPriority priority, Pageable pageable);
 
+    /**
+     * Filters tickets on every criterion set in the filter, combined into a single query.
+     * Returns listing rows only (without the detailed description).
+     *
+     * @param filter the ticket filter, may be null
+     * @param pageable the pagination information
+     * @return a page of ticket listing rows
+     */
+    Page<TicketResponse> filterTickets(TicketFilter filter, Pageable pageable);
+
+    /**
+     * Filters tickets like {@link #filterTickets(TicketFilter, Pageable)} using keyset pagination,
+     * ordered by creation date in descending order (newest first).
+     * No count query is issued and the cost of a slice does not grow with its depth in the listing.
+     *
+     * @param filter the ticket filter, may be null
+     * @param cursor the position after which to continue, or null for the first slice
+     * @param size the maximum number of tickets to return
+     * @return a slice of ticket listing rows
+     */
+    Slice<TicketResponse> getTicketsAfterCursor(TicketFilter filter, TicketCursor cursor, int size);
+
     /**
      * Updates the status of a ticket.
      *
@@ -317,7 +343,8 @@ public interface TicketService {
     Ticket reopenTicket(UUID ticketId, String reason, UUID userId);
 
     /**
-     * Searches for tickets by keyword.
+     * Searches for tickets by keyword using the full-text index.
+     * See TicketSearchService for relevance-ranked results with snippets.
      *
      * @param keyword the search keyword
      * @param pageable the pagination information
@@ -1,8 +1,10 @@
 package com.planb.supportticket.service;
 
+import com.planb.supportticket.dto.BulkSmsJobStatus;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -14,9 +16,12 @@ import java.util.List;
  * Service for sending SMS messages using Twilio.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class TwilioSMSService {
 
+    private final BulkSmsService bulkSmsService;
+
     @Value("${twilio.account-sid}")
     private String accountSid;
     
@@ -44,6 +49,15 @@ public class TwilioSMSService {
         }
     }
     
+    /**
+     * Checks whether SMS sending is enabled.
+     *
+     * @return true if messages are sent, false if they are dropped
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
     /**
      * Sends an SMS message.
      *
@@ -74,6 +88,7 @@ public class TwilioSMSService {
     
     /**
      * Sends an SMS message to multiple recipients.
+     * Duplicate numbers get one message; sending runs concurrently under the provider's rate limit.
      *
      * @param toNumbers The list of recipient phone numbers (with country code)
      * @param body The message body
@@ -84,25 +99,9 @@ public class TwilioSMSService {
             log.warn("Twilio SMS service is disabled. Bulk message not sent to {} recipients", toNumbers.size());
             return 0;
         }
-        
-        int successCount = 0;
-        
-        for (String to : toNumbers) {
-            try {
-                Message message = Message.creator(
-                        new PhoneNumber(to),
-                        new PhoneNumber(twilioPhoneNumber),
-                        body
-                ).create();
-                
-                log.info("SMS sent successfully to {}, SID: {}", to, message.getSid());
-                successCount++;
-            } catch (Exception e) {
-                log.error("Failed to send SMS to {}: {}", to, e.getMessage());
-            }
-        }
-        
-        log.info("Bulk SMS: sent {} out of {} messages successfully", successCount, toNumbers.size());
-        return successCount;
+
+        BulkSmsJobStatus status = bulkSmsService.sendAndWait(toNumbers, body);
+        log.info("Bulk SMS: sent {} out of {} messages successfully", status.getSent(), status.getTotal());
+        return status.getSent();
     }
 }
@@ -21,6 +21,7 @@ public interface WebSocketService {
 
     /**
      * Sends a notification to all users with a specific role via WebSocket.
+     * Published once to {@code /topic/role/{role}} unless per-user fan-out is configured.
      *
      * @param role the role
      * @param notification the notification to send
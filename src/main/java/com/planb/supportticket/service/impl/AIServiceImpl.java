@@ -2,27 +2,43 @@ package com.planb.supportticket.service.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.planb.supportticket.dto.websocket.AIModelType;
 import com.planb.supportticket.dto.websocket.ChatMessage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.planb.supportticket.entity.AIConversation;
+import com.planb.supportticket.entity.AIConversationMessage;
+import com.planb.supportticket.exception.UnauthorizedException;
+import com.planb.supportticket.service.AIConversationStore;
+import com.planb.supportticket.service.AIResponseCache;
 import com.planb.supportticket.service.AIService;
+import com.planb.supportticket.util.ConversationWindow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import lombok.extern.slf4j.Slf4j;
 
 import jakarta.annotation.PostConstruct;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -39,10 +55,17 @@ public class AIServiceImpl implements AIService {
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private AIResponseCache responseCache;
+
+    @Autowired
+    private AIConversationStore conversationStore;
+
+    @Autowired
+    @Qualifier("aiHttpExecutor")
+    private ThreadPoolTaskExecutor httpExecutor;
 
     // AI model configuration
     @Value("${websocket.ai.enabled:true}")
@@ -60,6 +83,34 @@ public class AIServiceImpl implements AIService {
     @Value("${websocket.ai.temperature:0.7}")
     private double temperature;
 
+    // Streaming configuration
+    @Value("${websocket.ai.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${websocket.ai.streaming.flush-interval-ms:50}")
+    private long streamFlushIntervalMs;
+
+    // Conversation context configuration
+    @Value("${websocket.ai.context.summarize.enabled:false}")
+    private boolean summarizeEnabled;
+
+    @Value("${websocket.ai.context.summarize.after-tokens:1000}")
+    private int summarizeAfterTokens;
+
+    @Value("${websocket.ai.context.summarize.max-words:150}")
+    private int summaryMaxWords;
+
+    // Provider HTTP client configuration
+    @Value("${websocket.ai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    // Session store
+    @Value("${ai.sessions.maximum-size:10000}")
+    private long sessionsMaximumSize;
+
+    @Value("${ai.sessions.idle-timeout-minutes:30}")
+    private long sessionIdleTimeoutMinutes;
+
     // API keys for different providers
     @Value("${ai.openai.api-key:}")
     private String openaiApiKey;
@@ -86,8 +137,12 @@ public class AIServiceImpl implements AIService {
     @Value("${ai.deepseek.endpoint:https://api.deepseek.com/v1/chat/completions}")
     private String deepseekEndpoint;
 
-    // Session management
-    private final Map<String, AISession> sessions = new ConcurrentHashMap<>();
+    // Session management: bounded and evicted when idle; an evicted session is restored from the
+    // conversation store on its next message when persistence is enabled
+    private Cache<String, AISession> sessions;
+
+    // Chat room ID to the AI session answering in it and the user it belongs to
+    private final Map<String, RoomSession> roomSessions = new ConcurrentHashMap<>();
 
     // Available models
     private final Map<String, AIModelType> availableModels = new ConcurrentHashMap<>();
@@ -95,8 +150,29 @@ public class AIServiceImpl implements AIService {
     // Model configuration
     private final Map<AIModelType, ModelConfig> modelConfigs = new ConcurrentHashMap<>();
 
+    // Non-blocking client for all provider calls: a request holds no thread while the provider
+    // generates, and connections (multiplexed where the provider speaks HTTP/2) are reused per host
+    private HttpClient httpClient;
+
     @PostConstruct
     public void init() {
+        sessions = Caffeine.newBuilder()
+                .maximumSize(sessionsMaximumSize)
+                .expireAfterAccess(Duration.ofMinutes(sessionIdleTimeoutMinutes))
+                .<String, AISession>evictionListener((id, session, cause) -> {
+                    if (session != null && session.getRoomId() != null) {
+                        forgetRoomSession(session.getRoomId(), id);
+                    }
+                })
+                .build();
+
+        // Only runs response handling, which does not block, so a few threads serve any number of requests
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(httpExecutor)
+                .build();
+
         // Initialize available models
         for (AIModelType modelType : AIModelType.values()) {
             availableModels.put(modelType.getModelId(), modelType);
@@ -111,7 +187,9 @@ public class AIServiceImpl implements AIService {
                     true,
                     4096,
                     this::formatOpenAIRequest,
-                    this::parseOpenAIResponse));
+                    this::parseOpenAIResponse,
+                    openaiEndpoint,
+                    this::parseOpenAIDelta));
 
             modelConfigs.put(AIModelType.GPT_4, new ModelConfig(
                     "openai",
@@ -120,7 +198,9 @@ public class AIServiceImpl implements AIService {
                     true,
                     8192,
                     this::formatOpenAIRequest,
-                    this::parseOpenAIResponse));
+                    this::parseOpenAIResponse,
+                    openaiEndpoint,
+                    this::parseOpenAIDelta));
         } else {
             log.warn("OpenAI API key not configured. GPT models will not be available.");
         }
@@ -134,7 +214,9 @@ public class AIServiceImpl implements AIService {
                     true,
                     4096,
                     this::formatAnthropicRequest,
-                    this::parseAnthropicResponse));
+                    this::parseAnthropicResponse,
+                    anthropicEndpoint,
+                    this::parseAnthropicDelta));
 
             modelConfigs.put(AIModelType.CLAUDE_2, new ModelConfig(
                     "anthropic",
@@ -143,7 +225,9 @@ public class AIServiceImpl implements AIService {
                     true,
                     8192,
                     this::formatAnthropicRequest,
-                    this::parseAnthropicResponse));
+                    this::parseAnthropicResponse,
+                    anthropicEndpoint,
+                    this::parseAnthropicDelta));
         } else {
             log.warn("Anthropic API key not configured. Claude models will not be available.");
         }
@@ -157,6 +241,9 @@ public class AIServiceImpl implements AIService {
                     true,
                     4096,
                     this::formatGoogleRequest,
+                    this::parseGoogleResponse,
+                    googleEndpoint.replace(":generateContent", ":streamGenerateContent")
+                            + "?alt=sse&key=" + googleApiKey,
                     this::parseGoogleResponse));
         } else {
             log.warn("Google API key not configured. Gemini models will not be available.");
@@ -171,7 +258,9 @@ public class AIServiceImpl implements AIService {
                     true,
                     4096,
                     this::formatDeepseekRequest,
-                    this::parseDeepseekResponse));
+                    this::parseDeepseekResponse,
+                    deepseekEndpoint,
+                    this::parseOpenAIDelta));
         }
 
         log.info("AI Service initialized with {} available models", modelConfigs.size());
@@ -199,15 +288,31 @@ public class AIServiceImpl implements AIService {
         final String finalSessionId = sessionId.toString();
         final String finalSender = message.getSender().toString();
         final AIModelType finalModelType = modelType;
-        AISession session = sessions.computeIfAbsent(finalSessionId,
-                id -> new AISession(id, finalSender, finalModelType));
+        final String finalRoomId = message.getRoomId();
+        AISession session = sessions.get(finalSessionId,
+                id -> restoreOrCreateSession(id, finalRoomId, finalSender, finalModelType));
+        if (!Objects.equals(session.getUserId(), finalSender)) {
+            return CompletableFuture.failedFuture(
+                    new UnauthorizedException("AI session " + finalSessionId + " belongs to another user"));
+        }
 
         // Add user message to conversation history
-        session.addMessage("user", message.getContent());
+        record(session, "user", message.getContent());
 
         // Get model configuration
         ModelConfig config = modelConfigs.get(modelType);
 
+        // Answer from the cache when the user asked the same question in the same context before
+        List<String> conversation = conversationOf(session);
+        String cacheScope = responseCache.scopeOf(session.getUserId(), conversation,
+                session.getContext().getSummary() != null);
+        Optional<String> cachedResponse = responseCache.get(cacheScope, modelType.getModelId(), temperature,
+                conversation);
+        if (cachedResponse.isPresent()) {
+            ChatMessage responseMessage = sendCachedResponse(message, session, modelType, cachedResponse.get());
+            return CompletableFuture.completedFuture(responseMessage);
+        }
+
         // Create response CompletableFuture
         CompletableFuture<ChatMessage> responseFuture = new CompletableFuture<>();
 
@@ -218,49 +323,50 @@ public class AIServiceImpl implements AIService {
             // Format request based on model provider
             HttpEntity<String> requestEntity = config.requestFormatter.apply(session, config);
 
-            // Make API call asynchronously
-            CompletableFuture.supplyAsync(() -> {
-                try {
-                    ResponseEntity<String> response = restTemplate.postForEntity(
-                            config.endpoint, requestEntity, String.class);
-                    return response.getBody();
-                } catch (Exception e) {
-                    throw new RuntimeException("Error calling AI API: " + e.getMessage(), e);
-                }
-            })
-            .orTimeout(aiTimeout, TimeUnit.MILLISECONDS)
-            .thenApply(responseBody -> {
-                try {
-                    // Parse response based on model provider
-                    String aiResponse = config.responseParser.apply(responseBody);
-
-                    // Add AI response to conversation history
-                    session.addMessage("assistant", aiResponse);
-
-                    // Create response message
-                    final String finalRoomId = message.getRoomId().toString();
-                    final AIModelType finalModelType2 = finalModelType;
-                    final String finalMessageId = message.getId().toString();
-                    ChatMessage responseMessage = ChatMessage.createAIResponseMessage(
-                            finalRoomId,
-                            aiResponse,
-                            finalModelType2,
-                            finalMessageId
-                    );
-
-                    // Send response via WebSocket
-                    final String destination = "/topic/room/" + finalRoomId;
-                    messagingTemplate.convertAndSend(
-                            destination,
-                            responseMessage
-                    );
+            CompletableFuture<ChatMessage> exchange;
+            if (streamingEnabled) {
+                // Push the response to the room as it is generated
+                exchange = streamResponse(message, config, finalModelType, requestEntity)
+                        .thenApply(responseMessage -> {
+                            record(session, "assistant", responseMessage.getContent());
+                            return responseMessage;
+                        });
+            } else {
+                // Make API call asynchronously
+                exchange = sendRequest(config, requestEntity)
+                .thenApply(responseBody -> {
+                    try {
+                        // Parse response based on model provider
+                        String aiResponse = config.responseParser.apply(responseBody);
+
+                        // Add AI response to conversation history
+                        record(session, "assistant", aiResponse);
+
+                        // Create response message
+                        final AIModelType finalModelType2 = finalModelType;
+                        final String finalMessageId = message.getId().toString();
+                        ChatMessage responseMessage = ChatMessage.createAIResponseMessage(
+                                finalRoomId,
+                                aiResponse,
+                                finalModelType2,
+                                finalMessageId
+                        );
+
+                        // Send response via WebSocket
+                        final String destination = "/topic/room/" + finalRoomId;
+                        messagingTemplate.convertAndSend(
+                                destination,
+                                responseMessage
+                        );
+
+                        return responseMessage;
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error parsing AI response: " + e.getMessage(), e);
+                    }
+                });
+            }
 
-                    return responseMessage;
-                } catch (Exception e) {
-                    throw new RuntimeException("Error parsing AI response: " + e.getMessage(), e);
-                }
-            })
-            .whenComplete((result, error) -> {
+            exchange.whenComplete((result, error) -> {
                 if (error != null) {
                     log.error("Error processing AI request", error);
 
@@ -280,6 +386,9 @@ public class AIServiceImpl implements AIService {
 
                     responseFuture.completeExceptionally(error);
                 } else {
+                    responseCache.put(cacheScope, finalModelType.getModelId(), temperature, conversation,
+                            result.getContent());
+                    summarizeTrimmed(session, config);
                     responseFuture.complete(result);
                 }
             });
@@ -326,22 +435,44 @@ public class AIServiceImpl implements AIService {
 
     @Override
     public String createSession(String userId, AIModelType modelType) {
-        String sessionId = UUID.randomUUID().toString();
-        sessions.put(sessionId, new AISession(sessionId, userId, modelType));
-        return sessionId;
+        return createSession(null, userId, modelType);
+    }
+
+    @Override
+    public String getOrCreateRoomSession(String roomId, String userId, AIModelType modelType) {
+        RoomSession room = roomSessions.computeIfAbsent(roomId, id -> conversationStore.findByRoom(id)
+                .map(conversation -> new RoomSession(conversation.getSessionId(), conversation.getUserId()))
+                .orElseGet(() -> createRoomSession(id, userId, modelType)));
+        if (!Objects.equals(room.userId, userId)) {
+            throw new UnauthorizedException("The AI session of room " + roomId + " belongs to another user");
+        }
+        return room.sessionId;
+    }
+
+    @Override
+    public Optional<String> findSessionByRoom(String roomId, String userId) {
+        RoomSession room = roomSessions.get(roomId);
+        Optional<RoomSession> found = room != null ? Optional.of(room) : conversationStore.findByRoom(roomId)
+                .map(conversation -> new RoomSession(conversation.getSessionId(), conversation.getUserId()));
+        return found.filter(r -> Objects.equals(r.userId, userId)).map(r -> r.sessionId);
     }
 
     @Override
     public void endSession(String sessionId) {
-        sessions.remove(sessionId);
+        AISession session = sessions.asMap().remove(sessionId);
+        if (session != null && session.getRoomId() != null) {
+            forgetRoomSession(session.getRoomId(), sessionId);
+        }
+        conversationStore.delete(sessionId);
     }
 
     @Override
     public void clearConversationHistory(String sessionId) {
-        AISession session = sessions.get(sessionId);
+        AISession session = sessions.getIfPresent(sessionId);
         if (session != null) {
             session.clearHistory();
         }
+        conversationStore.clear(sessionId);
     }
 
     @Override
@@ -356,6 +487,290 @@ public class AIServiceImpl implements AIService {
                 .orElseThrow(() -> new IllegalStateException("No AI models available"));
     }
 
+    /**
+     * Sends a request with streaming turned on and pushes the response to the room as it arrives:
+     * AI_RESPONSE_DELTA messages with the text generated so far, at most one per flush interval
+     * except for the first, then an AI_RESPONSE with the complete text.
+     *
+     * @param message the user's message
+     * @param config the model configuration
+     * @param modelType the AI model type
+     * @param requestEntity the request as formatted for a complete response
+     * @return the final response message, completed once the stream ends
+     */
+    private CompletableFuture<ChatMessage> streamResponse(ChatMessage message, ModelConfig config,
+                                                          AIModelType modelType, HttpEntity<String> requestEntity) {
+        String body = requestEntity.getBody();
+        if (!"google".equals(config.provider)) {
+            // Google streams from a separate endpoint; the others take a flag in the body
+            try {
+                ObjectNode json = (ObjectNode) objectMapper.readTree(body);
+                json.put("stream", true);
+                body = objectMapper.writeValueAsString(json);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        HttpRequest request = buildRequest(config.streamEndpoint, requestEntity, body, "text/event-stream");
+        ResponseStream stream = new ResponseStream(message, modelType, config.deltaParser);
+        httpClient.sendAsync(request, response -> response.statusCode() == 200
+                        ? HttpResponse.BodySubscribers.fromLineSubscriber(stream)
+                        : failedResponse(config.provider, response.statusCode()))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        stream.result.completeExceptionally(error);
+                    }
+                });
+        return stream.result.orTimeout(aiTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends a request for a complete response without holding a thread while waiting for it.
+     *
+     * @param config the model configuration
+     * @param requestEntity the formatted request
+     * @return the response body
+     */
+    private CompletableFuture<String> sendRequest(ModelConfig config, HttpEntity<String> requestEntity) {
+        HttpRequest request = buildRequest(
+                config.endpoint, requestEntity, requestEntity.getBody(), "application/json");
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException(
+                                config.provider + " API returned HTTP " + response.statusCode() + ": " + response.body());
+                    }
+                    return response.body();
+                })
+                .orTimeout(aiTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Builds a provider request from a formatted request entity.
+     *
+     * @param endpoint the endpoint
+     * @param requestEntity the formatted request, for its headers
+     * @param body the request body
+     * @param accept the expected response type
+     * @return the request
+     */
+    private HttpRequest buildRequest(String endpoint, HttpEntity<String> requestEntity, String body, String accept) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(endpoint))
+                .timeout(Duration.ofMillis(aiTimeout))
+                .header("Accept", accept)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        requestEntity.getHeaders().forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+        return request.build();
+    }
+
+    /**
+     * Reads the body of an error response and fails with it.
+     *
+     * @param provider the AI provider
+     * @param status the HTTP status
+     * @return a body subscriber that always fails
+     */
+    private HttpResponse.BodySubscriber<Void> failedResponse(String provider, int status) {
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                body -> {
+                    throw new IllegalStateException(provider + " API returned HTTP " + status + ": " + body);
+                });
+    }
+
+    /**
+     * Creates a session whose context fits the model's context size, less room for the response.
+     *
+     * @param id the session ID
+     * @param userId the user ID
+     * @param modelType the AI model type
+     * @return the session
+     */
+    private AISession newSession(String id, String roomId, String userId, AIModelType modelType) {
+        ModelConfig config = modelConfigs.get(modelType);
+        int contextTokens = config != null ? config.maxTokens : 4096;
+        int budget = Math.max(contextTokens - maxTokens, contextTokens / 2);
+        // Trimmed messages waiting for a summary are bounded too, in case summarizing keeps failing
+        return new AISession(id, roomId, userId, modelType,
+                new ConversationWindow(budget, summarizeEnabled, summarizeAfterTokens * 4));
+    }
+
+    /**
+     * Creates a session and records it in the conversation store.
+     *
+     * @param roomId the chat room ID, or null
+     * @param userId the user ID
+     * @param modelType the AI model type
+     * @return the session ID
+     */
+    private String createSession(String roomId, String userId, AIModelType modelType) {
+        String sessionId = UUID.randomUUID().toString();
+        sessions.put(sessionId, newSession(sessionId, roomId, userId, modelType));
+        conversationStore.create(sessionId, roomId, userId, modelType.getModelId());
+        return sessionId;
+    }
+
+    /**
+     * Creates the session of a chat room. If another node created one for the room at the same time,
+     * the room keeps that one and the session created here is dropped.
+     *
+     * @param roomId the chat room ID
+     * @param userId the user ID
+     * @param modelType the AI model type
+     * @return the room's session
+     */
+    private RoomSession createRoomSession(String roomId, String userId, AIModelType modelType) {
+        String sessionId = UUID.randomUUID().toString();
+        AIConversation conversation =
+                conversationStore.createForRoom(sessionId, roomId, userId, modelType.getModelId());
+        if (sessionId.equals(conversation.getSessionId())) {
+            sessions.put(sessionId, newSession(sessionId, roomId, userId, modelType));
+        }
+        return new RoomSession(conversation.getSessionId(), conversation.getUserId());
+    }
+
+    /**
+     * Removes a room's entry if it still points to the given session.
+     *
+     * @param roomId the chat room ID
+     * @param sessionId the session ID
+     */
+    private void forgetRoomSession(String roomId, String sessionId) {
+        roomSessions.computeIfPresent(roomId, (id, room) -> room.sessionId.equals(sessionId) ? null : room);
+    }
+
+    /**
+     * Restores a session that is not in memory from the conversation store, replaying its latest
+     * messages into a new context window, or creates it if it was never stored.
+     *
+     * @param id the session ID
+     * @param roomId the chat room ID, or null
+     * @param userId the user ID
+     * @param modelType the AI model type
+     * @return the session
+     */
+    private AISession restoreOrCreateSession(String id, String roomId, String userId, AIModelType modelType) {
+        Optional<AIConversationStore.StoredConversation> stored = conversationStore.load(id);
+        AISession session;
+        if (stored.isPresent()) {
+            AIModelType storedModelType = AIModelType.findByModelId(stored.get().getConversation().getModelId());
+            session = newSession(id, stored.get().getConversation().getRoomId(),
+                    stored.get().getConversation().getUserId(),
+                    storedModelType != null ? storedModelType : modelType);
+            for (AIConversationMessage storedMessage : stored.get().getMessages()) {
+                session.addMessage(storedMessage.getRole(), storedMessage.getContent());
+            }
+            log.debug("Restored AI session {} with {} messages", id, stored.get().getMessages().size());
+        } else {
+            session = newSession(id, roomId, userId, modelType);
+            conversationStore.create(id, roomId, userId, modelType.getModelId());
+        }
+        if (session.getRoomId() != null) {
+            roomSessions.putIfAbsent(session.getRoomId(), new RoomSession(id, session.getUserId()));
+        }
+        return session;
+    }
+
+    /**
+     * Adds a message to a session and to the conversation store.
+     *
+     * @param session the AI session
+     * @param role the role, "user" or "assistant"
+     * @param content the content
+     */
+    private void record(AISession session, String role, String content) {
+        session.addMessage(role, content);
+        conversationStore.append(session.getId(), role, content);
+    }
+
+    /**
+     * Folds the messages trimmed from a session's context into its rolling summary, once enough
+     * have accumulated. The summary is made by the session's own model, off the response path; until
+     * it arrives the trimmed messages are simply left out.
+     *
+     * @param session the AI session
+     * @param config the model configuration
+     */
+    private void summarizeTrimmed(AISession session, ModelConfig config) {
+        if (!summarizeEnabled) {
+            return;
+        }
+        ConversationWindow context = session.getContext();
+        ConversationWindow.Trimmed trimmed = context.takeTrimmed(summarizeAfterTokens);
+        if (trimmed.isEmpty()) {
+            return;
+        }
+
+        StringBuilder prompt = new StringBuilder("Summarize this support conversation in at most ")
+                .append(summaryMaxWords)
+                .append(" words. Keep names, ticket numbers, settings, decisions and open questions. ")
+                .append("Reply with the summary only.\n\n");
+        String summary = context.getSummary();
+        if (summary != null) {
+            prompt.append("Summary so far: ").append(summary).append("\n\n");
+        }
+        for (ConversationWindow.Turn turn : trimmed.getTurns()) {
+            prompt.append(turn.getRole()).append(": ").append(turn.getContent()).append('\n');
+        }
+
+        CompletableFuture<String> request;
+        try {
+            AISession summaryRequest = newSession(session.getId() + ":summary", null, session.getUserId(),
+                    session.getModelType());
+            summaryRequest.addMessage("user", prompt.toString());
+            request = sendRequest(config, config.requestFormatter.apply(summaryRequest, config))
+                    .thenApply(config.responseParser::apply);
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        request.whenComplete((newSummary, error) -> {
+            if (error == null && newSummary != null && !newSummary.isBlank()) {
+                context.setSummary(trimmed, newSummary.trim());
+            } else {
+                context.summaryFailed(trimmed);
+                log.warn("Could not summarize AI session {}: {}", session.getId(),
+                        error != null ? error.getMessage() : "empty summary");
+            }
+        });
+    }
+
+    /**
+     * Lists the messages of a session for the response cache, as they are sent to the model.
+     *
+     * @param session the AI session
+     * @return the messages, oldest first, each prefixed with its role, the summary leading the first
+     */
+    private List<String> conversationOf(AISession session) {
+        List<String> conversation = new ArrayList<>(session.getHistory().size());
+        for (AISession.Message msg : session.getHistory()) {
+            conversation.add(msg.getRole() + ": " + msg.getContent());
+        }
+        return conversation;
+    }
+
+    /**
+     * Sends a cached response to the room as if the model had just produced it.
+     *
+     * @param message the user's message
+     * @param session the AI session
+     * @param modelType the AI model type
+     * @param response the cached response
+     * @return the response message
+     */
+    private ChatMessage sendCachedResponse(ChatMessage message, AISession session, AIModelType modelType,
+                                           String response) {
+        record(session, "assistant", response);
+
+        ChatMessage responseMessage = ChatMessage.createAIResponseMessage(
+                message.getRoomId(), response, modelType, message.getId());
+        Map<String, Object> metadata = new HashMap<>(responseMessage.getMetadata());
+        metadata.put("cached", true);
+        responseMessage.setMetadata(metadata);
+
+        messagingTemplate.convertAndSend("/topic/room/" + message.getRoomId(), responseMessage);
+        return responseMessage;
+    }
+
     /**
      * Sends a typing indicator via WebSocket.
      *
@@ -430,6 +845,25 @@ public class AIServiceImpl implements AIService {
         }
     }
 
+    /**
+     * Parses one streamed event from the OpenAI API. Also used for Deepseek, whose API is compatible.
+     *
+     * @param eventData the data of the event
+     * @return the text added by the event, or null if none
+     */
+    private String parseOpenAIDelta(String eventData) {
+        if ("[DONE]".equals(eventData)) {
+            return null;
+        }
+        try {
+            JsonNode deltaNode = objectMapper.readTree(eventData).path("choices").path(0).path("delta");
+            JsonNode contentNode = deltaNode.path("content");
+            return contentNode.isTextual() ? contentNode.asText() : null;
+        } catch (Exception e) {
+            throw new RuntimeException("Error parsing OpenAI stream event", e);
+        }
+    }
+
     /**
      * Formats a request for the Anthropic API.
      *
@@ -484,6 +918,26 @@ public class AIServiceImpl implements AIService {
         }
     }
 
+    /**
+     * Parses one streamed event from the Anthropic API.
+     *
+     * @param eventData the data of the event
+     * @return the text added by the event, or null if none
+     */
+    private String parseAnthropicDelta(String eventData) {
+        JsonNode rootNode;
+        try {
+            rootNode = objectMapper.readTree(eventData);
+        } catch (Exception e) {
+            throw new RuntimeException("Error parsing Anthropic stream event", e);
+        }
+        String type = rootNode.path("type").asText();
+        if ("error".equals(type)) {
+            throw new RuntimeException("Anthropic stream error: " + rootNode.path("error").path("message").asText());
+        }
+        return "content_block_delta".equals(type) ? rootNode.path("delta").path("text").asText(null) : null;
+    }
+
     /**
      * Formats a request for the Google API.
      *
@@ -601,21 +1055,29 @@ public class AIServiceImpl implements AIService {
      */
     private static class AISession {
         private final String id;
+        private final String roomId;
         private final String userId;
         private final AIModelType modelType;
-        private final List<Message> history = new ArrayList<>();
-        private LocalDateTime lastActivity = LocalDateTime.now();
+        private final ConversationWindow context;
+        private volatile LocalDateTime lastActivity = LocalDateTime.now();
 
-        public AISession(String id, String userId, AIModelType modelType) {
+        public AISession(String id, String roomId, String userId, AIModelType modelType,
+                         ConversationWindow context) {
             this.id = id;
+            this.roomId = roomId;
             this.userId = userId;
             this.modelType = modelType;
+            this.context = context;
         }
 
         public String getId() {
             return id;
         }
 
+        public String getRoomId() {
+            return roomId;
+        }
+
         public String getUserId() {
             return userId;
         }
@@ -624,7 +1086,28 @@ public class AIServiceImpl implements AIService {
             return modelType;
         }
 
+        public ConversationWindow getContext() {
+            return context;
+        }
+
+        /**
+         * Gets the messages to send to the model: the context window, with the summary of older
+         * messages leading the first one.
+         *
+         * @return the messages, oldest first
+         */
         public List<Message> getHistory() {
+            List<ConversationWindow.Turn> turns = context.getTurns();
+            List<Message> history = new ArrayList<>(turns.size());
+            for (ConversationWindow.Turn turn : turns) {
+                history.add(new Message(turn.getRole(), turn.getContent()));
+            }
+            String summary = context.getSummary();
+            if (summary != null && !history.isEmpty()) {
+                Message first = history.get(0);
+                history.set(0, new Message(first.getRole(),
+                        "Summary of the earlier conversation: " + summary + "\n\n" + first.getContent()));
+            }
             return history;
         }
 
@@ -633,12 +1116,12 @@ public class AIServiceImpl implements AIService {
         }
 
         public void addMessage(String role, String content) {
-            history.add(new Message(role, content));
+            context.add(role, content);
             lastActivity = LocalDateTime.now();
         }
 
         public void clearHistory() {
-            history.clear();
+            context.clear();
             lastActivity = LocalDateTime.now();
         }
 
@@ -664,6 +1147,146 @@ public class AIServiceImpl implements AIService {
         }
     }
 
+    /**
+     * Reads a provider's server-sent events line by line and pushes the text to the room as it
+     * arrives. Lines are delivered one at a time, so the buffers need no locking.
+     */
+    private class ResponseStream implements Flow.Subscriber<String> {
+        private final ChatMessage request;
+        private final AIModelType modelType;
+        private final ResponseParser deltaParser;
+        private final String streamId = UUID.randomUUID().toString();
+        private final long startNanos = System.nanoTime();
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder pending = new StringBuilder();
+        private final StringBuilder eventData = new StringBuilder();
+        private final CompletableFuture<ChatMessage> result = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+        private long firstTokenNanos;
+        private long lastFlushNanos;
+        private int sequence;
+
+        ResponseStream(ChatMessage request, AIModelType modelType, ResponseParser deltaParser) {
+            this.request = request;
+            this.modelType = modelType;
+            this.deltaParser = deltaParser;
+            // Stop reading once the caller gives up, for example on timeout
+            result.whenComplete((response, error) -> {
+                if (error != null && subscription != null) {
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                if (line.isEmpty()) {
+                    dispatch();
+                } else if (line.startsWith("data:")) {
+                    if (eventData.length() > 0) {
+                        eventData.append('\n');
+                    }
+                    eventData.append(line.substring("data:".length()).trim());
+                }
+                // Event names, IDs and comments are not needed; the data says what the event is
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            result.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                dispatch();
+                finish();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void dispatch() {
+            if (eventData.length() == 0 || result.isDone()) {
+                return;
+            }
+            String delta = deltaParser.apply(eventData.toString());
+            eventData.setLength(0);
+            if (delta == null || delta.isEmpty()) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            if (firstTokenNanos == 0) {
+                firstTokenNanos = now;
+            }
+            text.append(delta);
+            pending.append(delta);
+            // The first text goes out at once; after that, deltas are batched per flush interval
+            if (sequence == 0 || now - lastFlushNanos >= TimeUnit.MILLISECONDS.toNanos(streamFlushIntervalMs)) {
+                flush(now);
+            }
+        }
+
+        private void flush(long now) {
+            if (pending.length() == 0) {
+                return;
+            }
+            messagingTemplate.convertAndSend("/topic/room/" + request.getRoomId(),
+                    ChatMessage.createAIResponseDeltaMessage(request.getRoomId(), pending.toString(), modelType,
+                            request.getId(), streamId, sequence++));
+            pending.setLength(0);
+            lastFlushNanos = now;
+        }
+
+        private void finish() {
+            if (result.isDone()) {
+                return;
+            }
+            if (text.length() == 0) {
+                throw new RuntimeException("Empty streamed response from " + modelType.getDisplayName());
+            }
+            flush(System.nanoTime());
+
+            long firstTokenMillis = TimeUnit.NANOSECONDS.toMillis(firstTokenNanos - startNanos);
+            ChatMessage responseMessage = ChatMessage.createAIResponseMessage(
+                    request.getRoomId(), text.toString(), modelType, request.getId());
+            Map<String, Object> metadata = new HashMap<>(responseMessage.getMetadata());
+            metadata.put("streamId", streamId);
+            metadata.put("timeToFirstTokenMs", firstTokenMillis);
+            responseMessage.setMetadata(metadata);
+
+            messagingTemplate.convertAndSend("/topic/room/" + request.getRoomId(), responseMessage);
+            log.debug("Streamed {} response to room {}: first token after {} ms, {} parts, complete after {} ms",
+                    modelType.getModelId(), request.getRoomId(), firstTokenMillis, sequence,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            result.complete(responseMessage);
+        }
+    }
+
+    /**
+     * The AI session answering in a chat room and the user it belongs to.
+     */
+    private static final class RoomSession {
+        private final String sessionId;
+        private final String userId;
+
+        private RoomSession(String sessionId, String userId) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+        }
+    }
+
     /**
      * Inner class representing an AI model configuration.
      */
@@ -675,9 +1298,12 @@ public class AIServiceImpl implements AIService {
         private final int maxTokens;
         private final RequestFormatter requestFormatter;
         private final ResponseParser responseParser;
+        private final String streamEndpoint;
+        private final ResponseParser deltaParser;
 
         public ModelConfig(String provider, String endpoint, String apiKey, boolean enabled,
-                          int maxTokens, RequestFormatter requestFormatter, ResponseParser responseParser) {
+                          int maxTokens, RequestFormatter requestFormatter, ResponseParser responseParser,
+                          String streamEndpoint, ResponseParser deltaParser) {
             this.provider = provider;
             this.endpoint = endpoint;
             this.apiKey = apiKey;
@@ -685,6 +1311,8 @@ public class AIServiceImpl implements AIService {
             this.maxTokens = maxTokens;
             this.requestFormatter = requestFormatter;
             this.responseParser = responseParser;
+            this.streamEndpoint = streamEndpoint;
+            this.deltaParser = deltaParser;
         }
     }
 
@@ -0,0 +1,93 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.config.gcp.GCSService;
+import com.planb.supportticket.dto.StoredFile;
+import com.planb.supportticket.entity.enums.StorageProvider;
+import com.planb.supportticket.service.AttachmentUploadService;
+import com.planb.supportticket.service.StorageCleanupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the AttachmentUploadService interface.
+ * Uploads run on a dedicated, bounded pool so slow object-store I/O cannot exhaust the request
+ * threads or the shared task executor. When the queue is full, the request thread uploads itself.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentUploadServiceImpl implements AttachmentUploadService {
+
+    private final GCSService gcsService;
+    private final StorageCleanupService storageCleanupService;
+
+    @Qualifier("attachmentUploadExecutor")
+    private final ThreadPoolTaskExecutor uploadExecutor;
+
+    @Override
+    public StoredFile upload(MultipartFile file, String folder) {
+        String objectName = gcsService.uploadFile(file, folder);
+        return StoredFile.builder()
+                .objectName(objectName)
+                .fileName(file.getOriginalFilename())
+                .fileSize(file.getSize())
+                .contentType(file.getContentType())
+                .build();
+    }
+
+    @Override
+    public List<StoredFile> uploadAll(List<MultipartFile> files, String folder) {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+
+        List<CompletableFuture<StoredFile>> uploads = files.stream()
+                .filter(file -> file != null && !file.isEmpty())
+                .map(file -> CompletableFuture.supplyAsync(() -> upload(file, folder), uploadExecutor)
+                        .exceptionally(e -> {
+                            log.error("Error uploading file {} to GCS: {}", file.getOriginalFilename(), e.getMessage());
+                            return null;
+                        }))
+                .collect(Collectors.toList());
+
+        CompletableFuture.allOf(uploads.toArray(CompletableFuture<?>[]::new)).join();
+
+        return uploads.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void discard(List<StoredFile> files) {
+        List<String> objectNames = files.stream()
+                .map(StoredFile::getObjectName)
+                .collect(Collectors.toList());
+
+        // Delete right away; whatever cannot be deleted now goes to the deletion outbox
+        List<String> remaining;
+        try {
+            remaining = gcsService.deleteFiles(objectNames);
+        } catch (Exception e) {
+            log.error("Error deleting orphaned GCS objects: {}", e.getMessage());
+            remaining = objectNames;
+        }
+
+        if (!remaining.isEmpty()) {
+            try {
+                storageCleanupService.scheduleDeletion(StorageProvider.GCS, remaining);
+            } catch (Exception e) {
+                log.error("Could not schedule deletion of orphaned GCS objects {}: {}", remaining, e.getMessage());
+            }
+        }
+    }
+}
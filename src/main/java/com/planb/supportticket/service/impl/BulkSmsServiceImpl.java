@@ -0,0 +1,428 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.dto.BulkSmsJobStatus;
+import com.planb.supportticket.dto.BulkSmsJobStatus.State;
+import com.planb.supportticket.service.BulkSmsService;
+import com.planb.supportticket.util.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of the BulkSmsService interface.
+ *
+ * Messages are posted straight to the Twilio Messages REST endpoint, so the base URL can point at a
+ * mock server for load tests. Every job starts up to {@code sms.bulk.concurrency} workers on a shared
+ * bounded pool; the workers take numbers from the job's queue and each send waits for a token from a
+ * bucket shared by all jobs, sized to the account's per-second limit. A POST that may have reached
+ * Twilio is never repeated, since that could text the number twice: only refused connections, connect
+ * timeouts, rate limits (429) and 503 Service Unavailable are retried, with exponential backoff and
+ * jitter, honouring Retry-After. Any other error fails that number only. When the pool's queue is
+ * full, new jobs are refused rather than queued. Jobs live in memory on the node that started them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkSmsServiceImpl implements BulkSmsService {
+
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    @Value("${twilio.enabled:false}")
+    private boolean enabled;
+
+    @Value("${twilio.account-sid}")
+    private String accountSid;
+
+    @Value("${twilio.auth-token}")
+    private String authToken;
+
+    @Value("${twilio.phone-number}")
+    private String fromNumber;
+
+    @Value("${twilio.base-url:https://api.twilio.com}")
+    private String baseUrl;
+
+    @Value("${sms.bulk.concurrency:20}")
+    private int concurrency;
+
+    @Value("${sms.bulk.rate-per-second:10}")
+    private double ratePerSecond;
+
+    @Value("${sms.bulk.burst:10}")
+    private int burst;
+
+    @Value("${sms.bulk.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${sms.bulk.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${sms.bulk.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${sms.bulk.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    @Value("${sms.bulk.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    private HttpClient httpClient;
+    private TokenBucket rateLimiter;
+    private String messagesUrl;
+    private String authorization;
+
+    @Qualifier("bulkSmsExecutor")
+    private final ThreadPoolTaskExecutor senderExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (concurrency < 1 || maxAttempts < 1) {
+            throw new IllegalStateException("sms.bulk.concurrency and max-attempts must be positive");
+        }
+        rateLimiter = new TokenBucket(ratePerSecond, Math.max(burst, 1));
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        messagesUrl = baseUrl.replaceAll("/+$", "") + "/2010-04-01/Accounts/" + accountSid + "/Messages.json";
+        authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((accountSid + ":" + authToken).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+    }
+
+    @Override
+    public BulkSmsJobStatus startJob(List<String> phoneNumbers, String message) {
+        if (!enabled) {
+            throw new IllegalStateException("SMS sending is disabled");
+        }
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("Message is required");
+        }
+
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String number : phoneNumbers) {
+            String normalized = normalize(number);
+            if (!normalized.isEmpty()) {
+                distinct.add(normalized);
+            }
+        }
+
+        Job job = new Job(message, distinct, phoneNumbers.size() - distinct.size());
+        jobs.put(job.id, job);
+        log.info("Bulk SMS job {} started for {} recipients ({} skipped)", job.id, job.total, job.skipped);
+
+        // Held by this thread until the workers are submitted, so the job cannot finish early
+        job.activeWorkers.set(1);
+        int workers = Math.min(concurrency, Math.max(job.total, 1));
+        int started = 0;
+        while (started < workers) {
+            job.activeWorkers.incrementAndGet();
+            try {
+                senderExecutor.execute(() -> runWorker(job));
+            } catch (TaskRejectedException e) {
+                job.activeWorkers.decrementAndGet();
+                break;
+            }
+            started++;
+        }
+        if (started == 0) {
+            jobs.remove(job.id);
+            throw new TaskRejectedException("Too many bulk SMS jobs are waiting; try again later");
+        }
+        // A partly started job runs with fewer workers, all taking from the same queue
+        workerFinished(job);
+        return job.toStatus();
+    }
+
+    @Override
+    public BulkSmsJobStatus sendAndWait(List<String> phoneNumbers, String message) {
+        BulkSmsJobStatus started = startJob(phoneNumbers, message);
+        Job job = jobs.get(started.getJobId());
+        job.done.join();
+        return job.toStatus();
+    }
+
+    @Override
+    public Optional<BulkSmsJobStatus> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toStatus);
+    }
+
+    @Override
+    public boolean cancelJob(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || job.done.isDone()) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Forgets finished jobs once the retention period has passed.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    /**
+     * Sends to numbers from the job's queue until it is empty or the job is cancelled.
+     *
+     * @param job the job
+     */
+    private void runWorker(Job job) {
+        try {
+            String number;
+            while (!job.cancelled && (number = job.remaining.poll()) != null) {
+                sendWithRetry(job, number);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.cancelled = true;
+        } finally {
+            workerFinished(job);
+        }
+    }
+
+    /**
+     * Marks one worker of a job as finished and completes the job after the last one.
+     *
+     * @param job the job
+     */
+    private void workerFinished(Job job) {
+        if (job.activeWorkers.decrementAndGet() == 0) {
+            job.finishedAt = LocalDateTime.now();
+            job.done.complete(null);
+            log.info("Bulk SMS job {} {}: {} sent, {} failed, {} retries", job.id,
+                    job.cancelled ? "cancelled" : "completed", job.sent.get(), job.failed.get(), job.retries.get());
+        }
+    }
+
+    /**
+     * Sends one message, retrying rate limits and failures that cannot have sent it, with backoff.
+     *
+     * @param job the job
+     * @param number the recipient phone number
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void sendWithRetry(Job job, String number) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire();
+            SendResult result = send(number, job.message);
+            if (result.delivered) {
+                job.sent.incrementAndGet();
+                return;
+            }
+            if (!result.retryable || attempt >= maxAttempts || job.cancelled) {
+                job.fail(number, result.error);
+                return;
+            }
+
+            job.retries.incrementAndGet();
+            Thread.sleep(result.retryAfterMs > 0 ? result.retryAfterMs : backoffMs(attempt));
+        }
+    }
+
+    /**
+     * Posts one message to the Messages endpoint.
+     *
+     * @param number the recipient phone number
+     * @param body the message
+     * @return the outcome
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    private SendResult send(String number, String body) throws InterruptedException {
+        String form = "To=" + encode(number) + "&From=" + encode(fromNumber) + "&Body=" + encode(body);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(messagesUrl))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                return SendResult.ok();
+            }
+            if (status == 429) {
+                // Everyone backs off, not just this worker
+                rateLimiter.drain();
+            }
+            // Twilio has not accepted the message on these; any other 5xx may have sent it
+            boolean retryable = status == 429 || status == 503;
+            long retryAfterMs = response.headers().firstValue("Retry-After")
+                    .map(this::parseRetryAfter)
+                    .orElse(0L);
+            return SendResult.failed("HTTP " + status + ": " + truncate(response.body()), retryable, retryAfterMs);
+        } catch (IOException e) {
+            // Only a failed connect means the request never left; after a read timeout or reset it may have
+            boolean retryable = e instanceof ConnectException || e instanceof HttpConnectTimeoutException;
+            return SendResult.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(),
+                    retryable, 0);
+        }
+    }
+
+    /**
+     * Computes the delay before the next attempt: doubling from the initial backoff, capped at
+     * the maximum, with full jitter so retrying workers do not fire together.
+     *
+     * @param attempt the number of attempts made so far
+     * @return the delay in milliseconds
+     */
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(initialBackoffMs << Math.min(attempt - 1, 20), maxBackoffMs);
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private long parseRetryAfter(String value) {
+        try {
+            return Math.min(Long.parseLong(value.trim()) * 1000, maxBackoffMs);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Normalizes a phone number for deduplication: keeps a leading + and the digits.
+     *
+     * @param number the phone number as entered
+     * @return the normalized number, empty if there are no digits
+     */
+    private String normalize(String number) {
+        if (number == null) {
+            return "";
+        }
+        String digits = number.replaceAll("\\D", "");
+        if (digits.isEmpty()) {
+            return "";
+        }
+        return number.trim().startsWith("+") ? "+" + digits : digits;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value != null ? value : "", StandardCharsets.UTF_8);
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= 300) {
+            return value;
+        }
+        return value.substring(0, 300);
+    }
+
+    /**
+     * Outcome of one send attempt.
+     */
+    private static final class SendResult {
+        private final boolean delivered;
+        private final String error;
+        private final boolean retryable;
+        private final long retryAfterMs;
+
+        private SendResult(boolean delivered, String error, boolean retryable, long retryAfterMs) {
+            this.delivered = delivered;
+            this.error = error;
+            this.retryable = retryable;
+            this.retryAfterMs = retryAfterMs;
+        }
+
+        private static SendResult ok() {
+            return new SendResult(true, null, false, 0);
+        }
+
+        private static SendResult failed(String error, boolean retryable, long retryAfterMs) {
+            return new SendResult(false, error, retryable, retryAfterMs);
+        }
+    }
+
+    /**
+     * State of one bulk job.
+     */
+    private static final class Job {
+        private final UUID id = UUID.randomUUID();
+        private final String message;
+        private final Queue<String> remaining;
+        private final int total;
+        private final int skipped;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger retries = new AtomicInteger();
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        private final Map<String, String> failures = new ConcurrentHashMap<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile boolean cancelled;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String message, Set<String> numbers, int skipped) {
+            this.message = message;
+            this.remaining = new ConcurrentLinkedQueue<>(numbers);
+            this.total = numbers.size();
+            this.skipped = skipped;
+        }
+
+        private void fail(String number, String error) {
+            failed.incrementAndGet();
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.put(number, error != null ? error : "Unknown error");
+            }
+        }
+
+        private BulkSmsJobStatus toStatus() {
+            State state = finishedAt == null ? State.RUNNING : cancelled ? State.CANCELLED : State.COMPLETED;
+            return BulkSmsJobStatus.builder()
+                    .jobId(id)
+                    .state(state)
+                    .total(total)
+                    .skipped(skipped)
+                    .sent(sent.get())
+                    .failed(failed.get())
+                    .pending(total - sent.get() - failed.get())
+                    .retries(retries.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .failures(new LinkedHashMap<>(failures))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.planb.supportticket.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planb.supportticket.dto.CommentThreadNode;
+import com.planb.supportticket.dto.CommentThreadQuery;
+import com.planb.supportticket.exception.ResourceNotFoundException;
+import com.planb.supportticket.repository.TicketCommentRepository;
+import com.planb.supportticket.repository.TicketRepository;
+import com.planb.supportticket.service.CommentThreadService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation of the CommentThreadService interface.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommentThreadServiceImpl implements CommentThreadService {
+
+    private final TicketRepository ticketRepository;
+    private final TicketCommentRepository commentRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${ticket.comments.thread.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${ticket.comments.thread.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${ticket.comments.thread.default-depth:2}")
+    private int defaultDepth;
+
+    @Value("${ticket.comments.thread.max-depth:10}")
+    private int maxDepth;
+
+    @Value("${ticket.comments.thread.max-replies-per-comment:50}")
+    private int maxRepliesPerComment;
+
+    @Value("${ticket.comments.thread.max-comments:1000}")
+    private int maxComments;
+
+    private TransactionTemplate levelTemplate;
+
+    @PostConstruct
+    public void init() {
+        levelTemplate = new TransactionTemplate(transactionManager);
+        levelTemplate.setReadOnly(true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommentThreadQuery createQuery(UUID ticketId, UUID parentId, int page, Integer size, Integer depth) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxPageSize);
+        }
+        int replyDepth = depth != null ? Math.max(0, Math.min(depth, maxDepth)) : defaultDepth;
+
+        if (!ticketRepository.existsById(ticketId)) {
+            throw new ResourceNotFoundException("Ticket not found with id: " + ticketId);
+        }
+        if (parentId != null && !commentRepository.existsByIdAndTicketId(parentId, ticketId)) {
+            throw new ResourceNotFoundException("Comment not found with id: " + parentId);
+        }
+
+        return CommentThreadQuery.builder()
+                .ticketId(ticketId)
+                .parentId(parentId)
+                .page(page)
+                .size(pageSize)
+                .depth(replyDepth)
+                .build();
+    }
+
+    @Override
+    public void writeThread(CommentThreadQuery query, OutputStream out) throws IOException {
+        long total = levelTemplate.execute(status -> query.getParentId() != null
+                ? commentRepository.countByParentId(query.getParentId())
+                : commentRepository.countByTicketIdAndParentIsNull(query.getTicketId()));
+        List<CommentThreadNode> roots = levelTemplate.execute(status -> commentRepository.findThreadRoots(query));
+
+        // Load level by level, each in its own transaction, until the depth or the response cap is reached
+        Map<UUID, List<CommentThreadNode>> replies = new HashMap<>();
+        List<CommentThreadNode> level = roots;
+        int loaded = roots.size();
+        for (int depth = 1; depth <= query.getDepth() && !level.isEmpty() && loaded < maxComments; depth++) {
+            List<UUID> parentIds = level.stream()
+                    .filter(node -> node.getReplyCount() > 0)
+                    .map(CommentThreadNode::getId)
+                    .toList();
+            int replyDepth = depth;
+            int limit = maxComments - loaded;
+            level = levelTemplate.execute(status ->
+                    commentRepository.findReplies(parentIds, replyDepth, maxRepliesPerComment, limit));
+            for (CommentThreadNode reply : level) {
+                replies.computeIfAbsent(reply.getParentId(), id -> new ArrayList<>()).add(reply);
+            }
+            loaded += level.size();
+        }
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.writeStartObject();
+            json.writeStringField("ticketId", query.getTicketId().toString());
+            if (query.getParentId() != null) {
+                json.writeStringField("parentId", query.getParentId().toString());
+            }
+            json.writeNumberField("page", query.getPage());
+            json.writeNumberField("size", query.getSize());
+            json.writeNumberField("depth", query.getDepth());
+            json.writeNumberField("totalElements", total);
+            json.writeBooleanField("hasNext", (long) (query.getPage() + 1) * query.getSize() < total);
+
+            json.writeArrayFieldStart("comments");
+            for (CommentThreadNode root : roots) {
+                writeComment(json, root, replies);
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes a comment with its loaded replies as a nested JSON object.
+     *
+     * @param json the generator
+     * @param node the comment
+     * @param replies the loaded replies, by parent ID
+     * @throws IOException if writing fails
+     */
+    private void writeComment(JsonGenerator json, CommentThreadNode node,
+                              Map<UUID, List<CommentThreadNode>> replies) throws IOException {
+        List<CommentThreadNode> children = replies.getOrDefault(node.getId(), List.of());
+
+        json.writeStartObject();
+        json.writeStringField("id", node.getId().toString());
+        if (node.getParentId() != null) {
+            json.writeStringField("parentId", node.getParentId().toString());
+        }
+        json.writeStringField("content", node.getContent());
+        json.writeBooleanField("internalNote", node.isInternalNote());
+        json.writeObjectField("createdAt", node.getCreatedAt());
+        json.writeObjectField("updatedAt", node.getUpdatedAt());
+        if (node.getUserId() != null) {
+            json.writeStringField("userId", node.getUserId().toString());
+        }
+        json.writeStringField("userName", node.getUserName());
+        json.writeNumberField("replyCount", node.getReplyCount());
+        // Replies below the requested depth or beyond the caps are fetched on demand through the
+        // comment's own thread
+        json.writeBooleanField("hasMoreReplies", children.size() < node.getReplyCount());
+
+        if (!children.isEmpty()) {
+            json.writeArrayFieldStart("replies");
+            for (CommentThreadNode child : children) {
+                writeComment(json, child, replies);
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+}
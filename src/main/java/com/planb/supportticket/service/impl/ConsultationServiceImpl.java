@@ -6,6 +6,7 @@ import com.planb.supportticket.entity.Expert;
 import com.planb.supportticket.entity.Ticket;
 import com.planb.supportticket.entity.UserProfile;
 import com.planb.supportticket.entity.enums.ConsultationStatus;
+import com.planb.supportticket.event.ConsultationScheduleChangedEvent;
 import com.planb.supportticket.exception.ResourceNotFoundException;
 import com.planb.supportticket.repository.ConsultationRepository;
 import com.planb.supportticket.service.ConsultationService;
@@ -15,6 +16,7 @@ import com.planb.supportticket.service.TicketService;
 import com.planb.supportticket.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -38,6 +40,7 @@ public class ConsultationServiceImpl implements ConsultationService {
     private final ExpertService expertService;
     private final TicketService ticketService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -62,6 +65,7 @@ public class ConsultationServiceImpl implements ConsultationService {
                 .build();
 
         Consultation savedConsultation = consultationRepository.save(consultation);
+        eventPublisher.publishEvent(new ConsultationScheduleChangedEvent(savedConsultation.getId()));
 
         // Send notification
         notificationService.sendConsultationScheduledNotification(savedConsultation);
@@ -91,7 +95,9 @@ public class ConsultationServiceImpl implements ConsultationService {
             consultation.setTicket(ticket);
         }
 
-        return consultationRepository.save(consultation);
+        Consultation updatedConsultation = consultationRepository.save(consultation);
+        eventPublisher.publishEvent(new ConsultationScheduleChangedEvent(id));
+        return updatedConsultation;
     }
 
     @Override
@@ -102,6 +108,7 @@ public class ConsultationServiceImpl implements ConsultationService {
         
         consultation.cancel(reason, user.getDisplayName());
         Consultation cancelledConsultation = consultationRepository.save(consultation);
+        eventPublisher.publishEvent(new ConsultationScheduleChangedEvent(id));
         
         // Send notification
         notificationService.sendConsultationCancelledNotification(cancelledConsultation);
@@ -115,7 +122,9 @@ public class ConsultationServiceImpl implements ConsultationService {
         Consultation consultation = getConsultationById(id);
         
         consultation.startConsultation();
-        return consultationRepository.save(consultation);
+        Consultation startedConsultation = consultationRepository.save(consultation);
+        eventPublisher.publishEvent(new ConsultationScheduleChangedEvent(id));
+        return startedConsultation;
     }
 
     @Override
@@ -125,6 +134,7 @@ public class ConsultationServiceImpl implements ConsultationService {
         
         consultation.complete(notes);
         Consultation completedConsultation = consultationRepository.save(consultation);
+        eventPublisher.publishEvent(new ConsultationScheduleChangedEvent(id));
         
         // Send notification
         notificationService.sendConsultationCompletedNotification(completedConsultation);
@@ -138,7 +148,9 @@ public class ConsultationServiceImpl implements ConsultationService {
         Consultation consultation = getConsultationById(id);
         
         consultation.updateStatus(ConsultationStatus.NO_SHOW);
-        return consultationRepository.save(consultation);
+        Consultation noShowConsultation = consultationRepository.save(consultation);
+        eventPublisher.publishEvent(new ConsultationScheduleChangedEvent(id));
+        return noShowConsultation;
     }
 
     @Override
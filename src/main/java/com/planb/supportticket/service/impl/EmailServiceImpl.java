@@ -1,5 +1,8 @@
 package com.planb.supportticket.service.impl;
 
+import com.planb.supportticket.config.mail.SmtpDeliveryPool;
+import com.planb.supportticket.dto.EmailBatchResult;
+import com.planb.supportticket.dto.EmailMessage;
 import com.planb.supportticket.service.EmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -7,24 +10,27 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Implementation of the EmailService interface.
- * Handles email sending via SMTP/Gmail.
+ * Handles email sending via SMTP/Gmail. Messages are sent over the pooled, persistent
+ * connections of SmtpDeliveryPool; the single-message methods wait for the outcome.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender emailSender;
+    private final SmtpDeliveryPool deliveryPool;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -32,13 +38,7 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendEmail(String to, String subject, String body) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-
-            emailSender.send(message);
+            deliver(createMessage(to, subject, body, false));
             log.info("Email sent to {}: {}", to, subject);
         } catch (Exception e) {
             log.error("Failed to send email to {}: {}", to, e.getMessage());
@@ -50,7 +50,7 @@ public class EmailServiceImpl implements EmailService {
     public void sendEmail(List<String> toAddresses, List<String> ccAddresses,
                           List<String> bccAddresses, String subject, String htmlBody) {
         try {
-            MimeMessage message = emailSender.createMimeMessage();
+            MimeMessage message = deliveryPool.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
             helper.setFrom(fromEmail);
@@ -67,7 +67,7 @@ public class EmailServiceImpl implements EmailService {
             helper.setSubject(subject);
             helper.setText(htmlBody, true);
 
-            emailSender.send(message);
+            deliver(message);
             log.info("Email sent successfully to {}", toAddresses);
         } catch (Exception e) {
             log.error("Failed to send email", e);
@@ -78,7 +78,7 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendHtmlEmail(String to, String subject, String htmlBody) {
         try {
-            MimeMessage message = emailSender.createMimeMessage();
+            MimeMessage message = deliveryPool.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
             helper.setFrom(fromEmail);
@@ -86,7 +86,7 @@ public class EmailServiceImpl implements EmailService {
             helper.setSubject(subject);
             helper.setText(htmlBody, true);
 
-            emailSender.send(message);
+            deliver(message);
             log.info("HTML email sent to {}: {}", to, subject);
         } catch (MessagingException e) {
             log.error("Failed to send HTML email to {}: {}", to, e.getMessage());
@@ -97,7 +97,7 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendEmailWithAttachment(String to, String subject, String body, String attachmentPath, String attachmentName) {
         try {
-            MimeMessage message = emailSender.createMimeMessage();
+            MimeMessage message = deliveryPool.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
             helper.setFrom(fromEmail);
@@ -108,7 +108,7 @@ public class EmailServiceImpl implements EmailService {
             FileSystemResource file = new FileSystemResource(new File(attachmentPath));
             helper.addAttachment(attachmentName, file);
 
-            emailSender.send(message);
+            deliver(message);
             log.info("Email with attachment sent to {}: {}", to, subject);
         } catch (MessagingException e) {
             log.error("Failed to send email with attachment to {}: {}", to, e.getMessage());
@@ -119,17 +119,83 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendEmailToMultipleRecipients(List<String> to, String subject, String body) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to.toArray(new String[0]));
-            message.setSubject(subject);
-            message.setText(body);
+            MimeMessage message = deliveryPool.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(to.toArray(new String[0]));
+            helper.setSubject(subject);
+            helper.setText(body);
 
-            emailSender.send(message);
+            deliver(message);
             log.info("Email sent to multiple recipients: {}", to);
         } catch (Exception e) {
             log.error("Failed to send email to multiple recipients: {}", e.getMessage());
             throw new RuntimeException("Failed to send email to multiple recipients", e);
         }
     }
+
+    @Override
+    public EmailBatchResult sendEmail(List<EmailMessage> messages) {
+        EmailBatchResult result = new EmailBatchResult();
+        List<String> references = new ArrayList<>(messages.size());
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(messages.size());
+
+        // Queue everything first so all pooled connections work on the batch at once
+        for (EmailMessage email : messages) {
+            references.add(email.getReference() != null ? email.getReference() : email.getTo());
+            try {
+                deliveries.add(deliveryPool.submit(
+                        createMessage(email.getTo(), email.getSubject(), email.getBody(), email.isHtml())));
+            } catch (MessagingException | RuntimeException e) {
+                deliveries.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        for (int i = 0; i < deliveries.size(); i++) {
+            try {
+                deliveries.get(i).join();
+                result.setSent(result.getSent() + 1);
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                result.getFailed().put(references.get(i), cause.getMessage());
+            }
+        }
+
+        log.info("Bulk email: sent {} of {} messages", result.getSent(), messages.size());
+        return result;
+    }
+
+    /**
+     * Builds a single-recipient message from the configured sender address.
+     *
+     * @param to the recipient email address
+     * @param subject the subject
+     * @param body the body
+     * @param html whether the body is HTML
+     * @return the message
+     * @throws MessagingException if an address or header is invalid
+     */
+    private MimeMessage createMessage(String to, String subject, String body, boolean html) throws MessagingException {
+        MimeMessage message = deliveryPool.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(body, html);
+        return message;
+    }
+
+    /**
+     * Sends a message through the delivery pool and waits until the SMTP server accepted it.
+     *
+     * @param message the message
+     * @throws org.springframework.mail.MailException if the message could not be delivered
+     */
+    private void deliver(MimeMessage message) {
+        try {
+            deliveryPool.submit(message).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 }
@@ -0,0 +1,493 @@
+package com.planb.supportticket.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planb.supportticket.dto.NotificationDTO;
+import com.planb.supportticket.dto.NotificationOutboxStats;
+import com.planb.supportticket.dto.NotificationOutboxStats.ChannelStats;
+import com.planb.supportticket.entity.NotificationOutboxEntry;
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import com.planb.supportticket.repository.NotificationOutboxRepository;
+import com.planb.supportticket.service.EmailService;
+import com.planb.supportticket.service.NotificationOutboxService;
+import com.planb.supportticket.service.TwilioSMSService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of the NotificationOutboxService interface.
+ *
+ * Recording a notification registers an after-commit hook that wakes a single dispatcher thread;
+ * a scheduled poll picks up anything the hook missed (other nodes, restarts, retries). Each batch
+ * is leased in a short transaction, delivered outside of any transaction on one bounded pool per
+ * channel, so a slow SMTP server cannot hold up WebSocket pushes, and completed in a second short
+ * transaction that removes delivered rows and reschedules failures with exponential backoff.
+ *
+ * Notifications with a coalesce key are held until the end of a fixed window (tumbling, not
+ * sliding, so a busy ticket cannot postpone delivery indefinitely). Everything recorded for the
+ * key within the window falls due at the same instant, is leased in the same batch and is
+ * delivered as one merged message. Because the grouping is decided by the stored due time,
+ * it works the same with several nodes writing and delivering.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxServiceImpl implements NotificationOutboxService {
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final EmailService emailService;
+    private final TwilioSMSService twilioSMSService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Qualifier("notificationDispatchExecutor")
+    private final ThreadPoolTaskExecutor dispatcher;
+
+    @Qualifier("notificationWebsocketExecutor")
+    private final ThreadPoolTaskExecutor websocketExecutor;
+
+    @Qualifier("notificationEmailExecutor")
+    private final ThreadPoolTaskExecutor emailExecutor;
+
+    @Qualifier("notificationSmsExecutor")
+    private final ThreadPoolTaskExecutor smsExecutor;
+
+    @Value("${notifications.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notifications.outbox.initial-backoff-seconds:10}")
+    private long initialBackoffSeconds;
+
+    @Value("${notifications.outbox.max-backoff-seconds:1800}")
+    private long maxBackoffSeconds;
+
+    @Value("${notifications.outbox.backlog-warn-threshold:5000}")
+    private long backlogWarnThreshold;
+
+    @Value("${notifications.coalescing.window-ms:5000}")
+    private long coalescingWindowMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<NotificationChannel, ThreadPoolTaskExecutor> channelExecutors =
+            new EnumMap<>(NotificationChannel.class);
+
+    // Set while a dispatch run is queued, so a burst of commits triggers a single run
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
+    // Ends of coalescing windows with a wake-up already scheduled
+    private final Set<Long> scheduledWakeups = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        if (batchSize < 1) {
+            throw new IllegalStateException("notifications.outbox.batch-size must be positive");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalStateException("notifications.outbox.max-attempts must be positive");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        channelExecutors.put(NotificationChannel.WEBSOCKET, websocketExecutor);
+        channelExecutors.put(NotificationChannel.EMAIL, emailExecutor);
+        channelExecutors.put(NotificationChannel.SMS, smsExecutor);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueWebSocket(String destination, NotificationDTO notification) {
+        enqueueWebSocket(destination, notification, null);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueWebSocket(String destination, NotificationDTO notification, String coalesceKey) {
+        try {
+            enqueue(NotificationChannel.WEBSOCKET, destination, null,
+                    objectMapper.writeValueAsString(notification), coalesceKey);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Notification could not be serialized", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void enqueueEmail(String to, String subject, String body) {
+        enqueue(NotificationChannel.EMAIL, to, subject, body, null);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueSms(String phoneNumber, String message) {
+        enqueue(NotificationChannel.SMS, phoneNumber, null, message, null);
+    }
+
+    /**
+     * Polls the outbox on the configured schedule, for retries and notifications recorded elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:5000}")
+    public void scheduledDispatch() {
+        requestDispatch();
+    }
+
+    @Override
+    public int dispatch() {
+        int delivered = 0;
+        while (true) {
+            List<NotificationOutboxEntry> batch = transactionTemplate.execute(status -> leaseBatch());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+
+            Set<UUID> succeeded = ConcurrentHashMap.newKeySet();
+            Map<UUID, String> failed = new ConcurrentHashMap<>();
+            List<CompletableFuture<Void>> deliveries = new ArrayList<>(batch.size());
+            for (List<NotificationOutboxEntry> group : groupByCoalesceKey(batch)) {
+                NotificationChannel channel = group.get(0).getChannel();
+                deliveries.add(CompletableFuture
+                        .runAsync(() -> deliver(group), channelExecutors.get(channel))
+                        .whenComplete((result, error) -> group.forEach(entry -> {
+                            if (error == null) {
+                                succeeded.add(entry.getId());
+                            } else {
+                                failed.put(entry.getId(), errorMessage(error));
+                            }
+                        })));
+            }
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture<?>[]::new))
+                    .exceptionally(error -> null)
+                    .join();
+
+            transactionTemplate.executeWithoutResult(status -> complete(succeeded, failed));
+            delivered += succeeded.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (delivered > 0) {
+            log.debug("Delivered {} notifications from the outbox", delivered);
+        }
+        warnOnBacklog();
+        return delivered;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationOutboxStats getStats() {
+        NotificationOutboxStats stats = NotificationOutboxStats.builder()
+                .oldestPendingAt(notificationOutboxRepository.findFirstByFailedAtIsNullOrderByCreatedAtAsc()
+                        .map(NotificationOutboxEntry::getCreatedAt)
+                        .orElse(null))
+                .build();
+
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            ThreadPoolExecutor executor = channelExecutors.get(channel).getThreadPoolExecutor();
+            stats.getChannels().put(channel, ChannelStats.builder()
+                    .pending(notificationOutboxRepository.countByChannelAndFailedAtIsNull(channel))
+                    .retrying(notificationOutboxRepository.countByChannelAndAttemptsGreaterThanAndFailedAtIsNull(channel, 0))
+                    .failed(notificationOutboxRepository.countByChannelAndFailedAtIsNotNull(channel))
+                    .activeDeliveries(executor.getActiveCount())
+                    .queuedDeliveries(executor.getQueue().size())
+                    .build());
+        }
+        return stats;
+    }
+
+    /**
+     * Saves a notification and wakes the dispatcher once the surrounding transaction commits.
+     *
+     * @param channel the channel
+     * @param recipient the destination, email address or phone number
+     * @param subject the subject, may be null
+     * @param payload the payload
+     * @param coalesceKey the coalesce key, may be null
+     */
+    private void enqueue(NotificationChannel channel, String recipient, String subject, String payload,
+                         String coalesceKey) {
+        if (recipient == null || recipient.isBlank()) {
+            log.warn("Dropping {} notification without a recipient", channel);
+            return;
+        }
+
+        boolean coalesce = coalesceKey != null && coalescingWindowMs > 0;
+        long dueAt = System.currentTimeMillis();
+        if (coalesce) {
+            // Every entry of a key recorded in the same window falls due at the window's end
+            dueAt = (dueAt / coalescingWindowMs + 1) * coalescingWindowMs;
+        }
+
+        notificationOutboxRepository.save(NotificationOutboxEntry.builder()
+                .channel(channel)
+                .recipient(recipient)
+                .subject(subject)
+                .payload(payload != null ? payload : "")
+                .coalesceKey(coalesce ? coalesceKey : null)
+                .nextAttemptAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(dueAt), ZoneId.systemDefault()))
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            long wakeAt = dueAt;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDispatchAt(wakeAt);
+                }
+            });
+        }
+    }
+
+    /**
+     * Requests a dispatch run at the given time, at most once per distinct time.
+     *
+     * @param dueAt the epoch millisecond at which the recorded notifications fall due
+     */
+    private void requestDispatchAt(long dueAt) {
+        long delay = dueAt - System.currentTimeMillis();
+        if (delay <= 0) {
+            requestDispatch();
+        } else if (scheduledWakeups.add(dueAt)) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> {
+                scheduledWakeups.remove(dueAt);
+                requestDispatch();
+            });
+        }
+    }
+
+    /**
+     * Queues a dispatch run unless one is already waiting to start.
+     */
+    private void requestDispatch() {
+        if (!enabled || !dispatchRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                dispatchRequested.set(false);
+                try {
+                    dispatch();
+                } catch (Exception e) {
+                    log.error("Error dispatching notification outbox: {}", e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Shutting down; the next node or restart picks the rows up
+            dispatchRequested.set(false);
+        }
+    }
+
+    /**
+     * Locks the next due batch and leases it to this worker.
+     *
+     * @return the leased notifications
+     */
+    private List<NotificationOutboxEntry> leaseBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxEntry> batch = notificationOutboxRepository.lockDueBatch(now, batchSize);
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        batch.forEach(entry -> entry.setNextAttemptAt(leaseUntil));
+        return batch;
+    }
+
+    /**
+     * Splits a batch into deliveries: entries sharing a coalesce key form one delivery,
+     * every other entry is delivered on its own. Batch order is kept within each delivery.
+     *
+     * @param batch the leased notifications
+     * @return the deliveries
+     */
+    private Collection<List<NotificationOutboxEntry>> groupByCoalesceKey(List<NotificationOutboxEntry> batch) {
+        Map<Object, List<NotificationOutboxEntry>> groups = new LinkedHashMap<>();
+        for (NotificationOutboxEntry entry : batch) {
+            Object key = entry.getCoalesceKey() != null ? entry.getCoalesceKey() : entry.getId();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+        return groups.values();
+    }
+
+    /**
+     * Delivers a group of notifications, merging coalesced WebSocket notifications into one message.
+     *
+     * @param group the notifications, oldest first
+     * @throws IllegalStateException if the channel did not accept the notification
+     */
+    private void deliver(List<NotificationOutboxEntry> group) {
+        if (group.size() == 1) {
+            deliver(group.get(0));
+            return;
+        }
+
+        List<NotificationDTO> notifications = group.stream()
+                .map(this::readNotification)
+                .toList();
+        messagingTemplate.convertAndSend(group.get(0).getRecipient(), merge(notifications));
+    }
+
+    /**
+     * Delivers one notification through its channel.
+     *
+     * @param entry the notification
+     * @throws IllegalStateException if the channel did not accept the notification
+     */
+    private void deliver(NotificationOutboxEntry entry) {
+        switch (entry.getChannel()) {
+            case WEBSOCKET -> messagingTemplate.convertAndSend(entry.getRecipient(), readNotification(entry));
+            case EMAIL -> emailService.sendEmail(entry.getRecipient(), entry.getSubject(), entry.getPayload());
+            case SMS -> {
+                // A disabled SMS service drops messages by design, so there is nothing to retry
+                if (twilioSMSService.isEnabled()
+                        && twilioSMSService.sendSMS(entry.getRecipient(), entry.getPayload()) == null) {
+                    throw new IllegalStateException("SMS was not accepted");
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the notification stored in a WebSocket entry.
+     *
+     * @param entry the outbox entry
+     * @return the notification
+     */
+    private NotificationDTO readNotification(NotificationOutboxEntry entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), NotificationDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored notification could not be read", e);
+        }
+    }
+
+    /**
+     * Merges notifications into one message: the latest notification, with every update
+     * listed under "updates" in its data.
+     *
+     * @param notifications the notifications, oldest first
+     * @return the merged notification
+     */
+    private NotificationDTO merge(List<NotificationDTO> notifications) {
+        List<Map<String, Object>> updates = new ArrayList<>(notifications.size());
+        for (NotificationDTO notification : notifications) {
+            Map<String, Object> update = new LinkedHashMap<>();
+            update.put("id", notification.getId());
+            update.put("type", notification.getType());
+            update.put("content", notification.getContent());
+            update.put("timestamp", notification.getTimestamp());
+            updates.add(update);
+        }
+
+        NotificationDTO latest = notifications.get(notifications.size() - 1);
+        Map<String, Object> data = latest.getData() != null ? new LinkedHashMap<>(latest.getData()) : new LinkedHashMap<>();
+        data.put("updates", updates);
+        latest.setData(data);
+        latest.setContent(latest.getContent() + " (and " + (notifications.size() - 1) + " earlier updates)");
+        return latest;
+    }
+
+    /**
+     * Removes delivered notifications from the outbox and reschedules failed ones.
+     * A notification that used up its attempts is kept, marked as failed.
+     *
+     * @param succeeded the IDs of delivered notifications
+     * @param failed the IDs and errors of failed notifications
+     */
+    private void complete(Set<UUID> succeeded, Map<UUID, String> failed) {
+        if (!succeeded.isEmpty()) {
+            notificationOutboxRepository.deleteAllByIdInBatch(succeeded);
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int exhausted = 0;
+        for (NotificationOutboxEntry entry : notificationOutboxRepository.findAllById(failed.keySet())) {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError(truncate(failed.get(entry.getId())));
+            if (attempts >= maxAttempts) {
+                entry.setFailedAt(now);
+                exhausted++;
+            } else {
+                entry.setNextAttemptAt(now.plus(backoff(attempts)));
+            }
+        }
+        log.warn("{} notification deliveries failed, {} of them gave up after {} attempts",
+                failed.size(), exhausted, maxAttempts);
+    }
+
+    /**
+     * Computes the delay before the next attempt: doubling from the initial backoff, capped at the maximum.
+     *
+     * @param attempts the number of failed attempts so far
+     * @return the delay
+     */
+    private Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+    }
+
+    /**
+     * Logs a warning when the backlog is larger than the configured threshold.
+     */
+    private void warnOnBacklog() {
+        long pending = notificationOutboxRepository.countByFailedAtIsNull();
+        if (pending > backlogWarnThreshold) {
+            log.warn("Notification outbox backlog is {} notifications (threshold {})", pending, backlogWarnThreshold);
+        }
+    }
+
+    private String errorMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= 1000) {
+            return message;
+        }
+        return message.substring(0, 1000);
+    }
+}
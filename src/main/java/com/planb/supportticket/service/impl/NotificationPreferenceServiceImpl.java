@@ -0,0 +1,163 @@
+package com.planb.supportticket.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.planb.supportticket.dto.NotificationPreferenceDTO;
+import com.planb.supportticket.entity.NotificationPreference;
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import com.planb.supportticket.enums.NotificationType;
+import com.planb.supportticket.event.NotificationPreferencesChangedEvent;
+import com.planb.supportticket.repository.NotificationPreferenceRepository;
+import com.planb.supportticket.service.NotificationPreferenceService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the NotificationPreferenceService interface.
+ *
+ * Routing a notification checks the recipient's preferences on every send, so they are kept in a
+ * read-through Caffeine cache holding, per user, the channels turned off for each type. A change
+ * publishes a NotificationPreferencesChangedEvent, and the cached entry is dropped once the change
+ * has committed. Other nodes pick changes up when their entry expires after
+ * {@code notifications.preferences.cache.expire-after-write-seconds}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPreferenceServiceImpl implements NotificationPreferenceService {
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${notifications.preferences.cache.maximum-size:100000}")
+    private long cacheMaximumSize;
+
+    @Value("${notifications.preferences.cache.expire-after-write-seconds:600}")
+    private long cacheExpireAfterWriteSeconds;
+
+    // Channels each user turned off, per notification type; empty for users who changed nothing
+    private LoadingCache<UUID, Map<NotificationType, Set<NotificationChannel>>> disabledChannels;
+
+    @PostConstruct
+    public void init() {
+        disabledChannels = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheExpireAfterWriteSeconds))
+                .build(this::loadDisabledChannels);
+    }
+
+    @Override
+    public boolean isEnabled(UUID userId, NotificationType type, NotificationChannel channel) {
+        if (userId == null || type == null) {
+            return true;
+        }
+        Set<NotificationChannel> disabled = disabledChannels.get(userId).get(type);
+        return disabled == null || !disabled.contains(channel);
+    }
+
+    @Override
+    public List<NotificationPreferenceDTO> getPreferences(UUID userId) {
+        return toDTOs(disabledChannels.get(userId));
+    }
+
+    @Override
+    @Transactional
+    public List<NotificationPreferenceDTO> updatePreferences(UUID userId, List<NotificationPreferenceDTO> preferences) {
+        Map<String, NotificationPreference> existing = preferenceRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(p -> key(p.getNotificationType(), p.getChannel()), Function.identity()));
+
+        for (NotificationPreferenceDTO preference : preferences) {
+            if (preference.getType() == null || preference.getChannel() == null) {
+                throw new IllegalArgumentException("Notification type and channel are required");
+            }
+            NotificationPreference entity = existing.get(key(preference.getType(), preference.getChannel()));
+            if (entity == null) {
+                entity = NotificationPreference.builder()
+                        .userId(userId)
+                        .notificationType(preference.getType())
+                        .channel(preference.getChannel())
+                        .build();
+                existing.put(key(preference.getType(), preference.getChannel()), entity);
+            }
+            entity.setEnabled(preference.isEnabled());
+            preferenceRepository.save(entity);
+        }
+
+        eventPublisher.publishEvent(new NotificationPreferencesChangedEvent(userId));
+        log.info("Updated {} notification preferences for user {}", preferences.size(), userId);
+
+        // Built from what was just written, since the cached entry is only dropped after commit
+        return toDTOs(toDisabledChannels(existing.values()));
+    }
+
+    /**
+     * Drops a user's cached preferences once the change that triggered the event is committed,
+     * or right away when published outside a transaction.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPreferencesChanged(NotificationPreferencesChangedEvent event) {
+        disabledChannels.invalidate(event.getUserId());
+    }
+
+    /**
+     * Lists every notification type and channel with whether it is enabled.
+     *
+     * @param disabled the channels turned off per type
+     * @return one entry per notification type and channel
+     */
+    private List<NotificationPreferenceDTO> toDTOs(Map<NotificationType, Set<NotificationChannel>> disabled) {
+        List<NotificationPreferenceDTO> preferences = new ArrayList<>();
+        for (NotificationType type : NotificationType.values()) {
+            Set<NotificationChannel> disabledForType = disabled.getOrDefault(type, Collections.emptySet());
+            for (NotificationChannel channel : NotificationChannel.values()) {
+                preferences.add(NotificationPreferenceDTO.builder()
+                        .type(type)
+                        .channel(channel)
+                        .enabled(!disabledForType.contains(channel))
+                        .build());
+            }
+        }
+        return preferences;
+    }
+
+    private Map<NotificationType, Set<NotificationChannel>> loadDisabledChannels(UUID userId) {
+        return toDisabledChannels(preferenceRepository.findByUserId(userId));
+    }
+
+    private Map<NotificationType, Set<NotificationChannel>> toDisabledChannels(
+            Iterable<NotificationPreference> preferences) {
+        Map<NotificationType, Set<NotificationChannel>> disabled = new EnumMap<>(NotificationType.class);
+        for (NotificationPreference preference : preferences) {
+            if (!preference.isEnabled()) {
+                disabled.computeIfAbsent(preference.getNotificationType(),
+                        type -> EnumSet.noneOf(NotificationChannel.class)).add(preference.getChannel());
+            }
+        }
+        return disabled.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(disabled);
+    }
+
+    private String key(NotificationType type, NotificationChannel channel) {
+        return type + ":" + channel;
+    }
+}
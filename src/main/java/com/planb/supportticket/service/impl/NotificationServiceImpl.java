@@ -1,32 +1,55 @@
 package com.planb.supportticket.service.impl;
 
 
+import com.planb.supportticket.dto.NotificationCursor;
 import com.planb.supportticket.dto.NotificationDTO;
 import com.planb.supportticket.entity.*;
+import com.planb.supportticket.entity.enums.NotificationChannel;
 import com.planb.supportticket.entity.enums.TicketStatus;
 import com.planb.supportticket.enums.NotificationType;
+import com.planb.supportticket.repository.ExpertRepository;
+import com.planb.supportticket.repository.NotificationRepository;
+import com.planb.supportticket.repository.UserProfileRepository;
+import com.planb.supportticket.service.NotificationOutboxService;
+import com.planb.supportticket.service.NotificationPreferenceService;
 import com.planb.supportticket.service.NotificationService;
-import com.planb.supportticket.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Implementation of the NotificationService interface.
  * Handles email notifications via SMTP/Gmail, real-time notifications via WebSocket, and status updates.
+ * Messages are recorded in the notification outbox as part of the caller's transaction and delivered after commit.
+ * Notifications addressed to a single user are also stored in that user's inbox, and are pushed or
+ * emailed only on the channels the user has not turned off for the notification type.
+ * Account emails (welcome, password reset, verification) are always sent.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional
 public class NotificationServiceImpl implements NotificationService {
-    private final SimpMessagingTemplate messagingTemplate;
-    private final EmailService emailService;
+    private final NotificationOutboxService notificationOutbox;
+    private final NotificationRepository notificationRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final ExpertRepository expertRepository;
+    private final NotificationPreferenceService preferenceService;
+
+    // Ticket numbers spelled out in a bulk change notification before summarizing the rest
+    private static final int BULK_TICKETS_LISTED = 10;
+
+    // Unread notifications returned by getUnreadNotifications; older ones are reached through the keyset listing
+    private static final int UNREAD_LIST_LIMIT = 50;
 
     // Simple implementation for now - we'll add the full implementation later
 
@@ -39,14 +62,20 @@ public class NotificationServiceImpl implements NotificationService {
                 .title(notificationDTO.getTitle())
                 .content(notificationDTO.getContent())
                 .type(convertNotificationType(notificationDTO.getType()))
+                .entityId(notificationDTO.getEntityId())
+                .entityType(notificationDTO.getEntityType())
+                .ticketId(notificationDTO.getTicketId())
                 .timestamp(LocalDateTime.now())
                 .build();
+        store(userId, notification);
 
         // Send real-time notification via WebSocket
-        String destination = String.format("/queue/notifications/%s", notification.getUserId());
-        messagingTemplate.convertAndSend(destination, notification);
+        if (wants(userId, notification.getType(), NotificationChannel.WEBSOCKET)) {
+            String destination = String.format("/queue/notifications/%s", notification.getUserId());
+            notificationOutbox.enqueueWebSocket(destination, notification);
+        }
 
-        log.info("Notification sent to user {}: {}", userId, notification.getMessage());
+        log.info("Notification queued for user {}: {}", userId, notification.getMessage());
     }
 
     @Override
@@ -67,8 +96,8 @@ public class NotificationServiceImpl implements NotificationService {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/role/" + role, notification);
-        log.info("Notification sent to role {}: {}", role, notification.getMessage());
+        notificationOutbox.enqueueWebSocket("/topic/role/" + role, notification);
+        log.info("Notification queued for role {}: {}", role, notification.getMessage());
     }
 
     @Override
@@ -85,27 +114,31 @@ public class NotificationServiceImpl implements NotificationService {
                 .ticketId(ticket.getId().toString())
                 .timestamp(LocalDateTime.now())
                 .build();
+        store(notification.getUserId(), notification);
 
-        String destination = String.format("/queue/notifications/%s", notification.getUserId().toString());
-        messagingTemplate.convertAndSend(destination, notification);
+        if (wants(notification.getUserId(), NotificationType.TICKET_CREATED, NotificationChannel.WEBSOCKET)) {
+            String destination = String.format("/queue/notifications/%s", notification.getUserId().toString());
+            notificationOutbox.enqueueWebSocket(destination, notification);
+        }
 
         // Also notify support staff
-        messagingTemplate.convertAndSend("/topic/role/SUPPORT", notification);
+        notificationOutbox.enqueueWebSocket("/topic/role/SUPPORT", notification);
 
-        log.info("Ticket created notification sent: {}", message);
+        log.info("Ticket created notification queued: {}", message);
     }
 
     @Override
     public void sendTicketUpdatedNotification(Ticket ticket) {
         // Simple implementation
         notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
-                "Ticket updated: " + ticket.getTitle());
+                NotificationType.TICKET_UPDATED, "Ticket updated: " + ticket.getTitle());
     }
 
     @Override
     public void sendTicketStatusChangedNotification(Ticket ticket, TicketStatus oldStatus) {
         // Simple implementation
         notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
+                NotificationType.TICKET_UPDATED,
                 "Ticket status changed from " + oldStatus + " to " + ticket.getStatus() + ": " + ticket.getTitle());
     }
 
@@ -113,6 +146,7 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendTicketPriorityChangedNotification(Ticket ticket) {
         // Simple implementation
         notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
+                NotificationType.TICKET_UPDATED,
                 "Ticket priority changed to " + ticket.getPriority() + ": " + ticket.getTitle());
     }
 
@@ -120,10 +154,11 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendTicketAssignedNotification(Ticket ticket) {
         // Simple implementation
         if (ticket.getAssignedExpert() != null) {
-            notifyExpert(ticket.getAssignedExpert().getId().toString(),
-                    "Ticket assigned to you: " + ticket.getTitle());
+            notifyExpert(ticket.getAssignedExpert().getId().toString(), ticket.getId().toString(),
+                    NotificationType.TICKET_ASSIGNED, "Ticket assigned to you: " + ticket.getTitle());
 
             notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
+                    NotificationType.TICKET_ASSIGNED,
                     "Ticket assigned to " + ticket.getAssignedExpert().getUserProfile().getDisplayName());
         }
     }
@@ -132,25 +167,66 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendTicketUnassignedNotification(Ticket ticket, Expert previousExpert) {
         // Simple implementation
         if (previousExpert != null) {
-            notifyExpert(previousExpert.getId().toString(),
-                    "Ticket unassigned from you: " + ticket.getTitle());
+            notifyExpert(previousExpert.getId().toString(), ticket.getId().toString(),
+                    NotificationType.TICKET_ASSIGNED, "Ticket unassigned from you: " + ticket.getTitle());
 
             notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
+                    NotificationType.TICKET_ASSIGNED,
                     "Ticket unassigned from " + previousExpert.getUserProfile().getDisplayName());
         }
     }
 
+    @Override
+    public void sendBulkTicketUpdateNotification(UUID userId, String change, List<String> ticketNumbers,
+                                                  String operationId) {
+        NotificationDTO notification = NotificationDTO.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .title("Tickets Updated")
+                .content(describeBulkChange(change, ticketNumbers))
+                .type(NotificationType.TICKET_UPDATED)
+                .timestamp(LocalDateTime.now())
+                .build();
+        store(userId, notification);
+
+        if (wants(userId, NotificationType.TICKET_UPDATED, NotificationChannel.WEBSOCKET)) {
+            String destination = String.format("/queue/notifications/%s", userId);
+            notificationOutbox.enqueueWebSocket(destination, notification, bulkCoalesceKey(destination, operationId));
+        }
+        log.info("Bulk ticket update notification queued for {} for {} tickets", userId, ticketNumbers.size());
+    }
+
+    @Override
+    public void sendBulkExpertTicketNotification(UUID expertId, String change, List<String> ticketNumbers,
+                                                 String operationId) {
+        NotificationDTO notification = NotificationDTO.builder()
+                .id(UUID.randomUUID())
+                .userId(expertId)
+                .title("Expert Notification")
+                .content(describeBulkChange(change, ticketNumbers))
+                .type(NotificationType.TICKET_ASSIGNED)
+                .timestamp(LocalDateTime.now())
+                .build();
+        Optional<UUID> userId = storeForExpert(expertId, notification);
+
+        if (userId.isEmpty() || wants(userId.get(), NotificationType.TICKET_ASSIGNED, NotificationChannel.WEBSOCKET)) {
+            String destination = String.format("/queue/expert-notifications/%s", expertId);
+            notificationOutbox.enqueueWebSocket(destination, notification, bulkCoalesceKey(destination, operationId));
+        }
+        log.info("Bulk ticket notification queued for expert {} for {} tickets", expertId, ticketNumbers.size());
+    }
+
     @Override
     public void sendCommentAddedNotification(TicketComment comment) {
         // Simple implementation
         Ticket ticket = comment.getTicket();
         notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
-                "New comment added to ticket: " + ticket.getTitle());
+                NotificationType.COMMENT_ADDED, "New comment added to ticket: " + ticket.getTitle());
 
         // If assigned to an expert, notify them too
         if (ticket.getAssignedExpert() != null) {
-            notifyExpert(ticket.getAssignedExpert().getId().toString(),
-                    "New comment added to ticket: " + ticket.getTitle());
+            notifyExpert(ticket.getAssignedExpert().getId().toString(), ticket.getId().toString(),
+                    NotificationType.COMMENT_ADDED, "New comment added to ticket: " + ticket.getTitle());
         }
     }
 
@@ -160,6 +236,7 @@ public class NotificationServiceImpl implements NotificationService {
         if (reply.getParent() != null) {
             UserProfile parentAuthor = reply.getParent().getUser();
             notifyTicketUpdate(reply.getTicket().getId().toString(), parentAuthor.getId().toString(),
+                    NotificationType.COMMENT_ADDED,
                     "New reply to your comment on ticket: " + reply.getTicket().getTitle());
         }
     }
@@ -168,19 +245,19 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendTicketResolvedNotification(Ticket ticket) {
         // Simple implementation
         notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
-                "Ticket resolved: " + ticket.getTitle());
+                NotificationType.TICKET_RESOLVED, "Ticket resolved: " + ticket.getTitle());
     }
 
     @Override
     public void sendTicketReopenedNotification(Ticket ticket) {
         // Simple implementation
         notifyTicketUpdate(ticket.getId().toString(), ticket.getUser().getId().toString(),
-                "Ticket reopened: " + ticket.getTitle());
+                NotificationType.TICKET_UPDATED, "Ticket reopened: " + ticket.getTitle());
 
         // If assigned to an expert, notify them too
         if (ticket.getAssignedExpert() != null) {
-            notifyExpert(ticket.getAssignedExpert().getId().toString(),
-                    "Ticket reopened: " + ticket.getTitle());
+            notifyExpert(ticket.getAssignedExpert().getId().toString(), ticket.getId().toString(),
+                    NotificationType.TICKET_UPDATED, "Ticket reopened: " + ticket.getTitle());
         }
     }
 
@@ -188,11 +265,11 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendConsultationScheduledNotification(Consultation consultation) {
         // Simple implementation - to be expanded later
         // Notify user
-        notifyUser(consultation.getUser().getId().toString(),
+        notifyUser(consultation.getUser().getId().toString(), NotificationType.CONSULTATION_SCHEDULED,
                 "Consultation scheduled with " + consultation.getExpert().getUserProfile().getDisplayName());
 
         // Notify expert
-        notifyExpert(consultation.getExpert().getId().toString(),
+        notifyExpert(consultation.getExpert().getId().toString(), null, NotificationType.CONSULTATION_SCHEDULED,
                 "Consultation scheduled with " + consultation.getUser().getDisplayName());
     }
 
@@ -200,11 +277,11 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendConsultationCancelledNotification(Consultation consultation) {
         // Simple implementation - to be expanded later
         // Notify user
-        notifyUser(consultation.getUser().getId().toString(),
+        notifyUser(consultation.getUser().getId().toString(), NotificationType.CONSULTATION_CANCELLED,
                 "Consultation cancelled with " + consultation.getExpert().getUserProfile().getDisplayName());
 
         // Notify expert
-        notifyExpert(consultation.getExpert().getId().toString(),
+        notifyExpert(consultation.getExpert().getId().toString(), null, NotificationType.CONSULTATION_CANCELLED,
                 "Consultation cancelled with " + consultation.getUser().getDisplayName());
     }
 
@@ -212,11 +289,11 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendConsultationReminderNotification(Consultation consultation) {
         // Simple implementation - to be expanded later
         // Notify user
-        notifyUser(consultation.getUser().getId().toString(),
+        notifyUser(consultation.getUser().getId().toString(), NotificationType.CONSULTATION_SCHEDULED,
                 "Reminder: Upcoming consultation with " + consultation.getExpert().getUserProfile().getDisplayName());
 
         // Notify expert
-        notifyExpert(consultation.getExpert().getId().toString(),
+        notifyExpert(consultation.getExpert().getId().toString(), null, NotificationType.CONSULTATION_SCHEDULED,
                 "Reminder: Upcoming consultation with " + consultation.getUser().getDisplayName());
     }
 
@@ -224,11 +301,11 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendConsultationCompletedNotification(Consultation consultation) {
         // Simple implementation - to be expanded later
         // Notify user
-        notifyUser(consultation.getUser().getId().toString(),
+        notifyUser(consultation.getUser().getId().toString(), NotificationType.INFO,
                 "Consultation completed with " + consultation.getExpert().getUserProfile().getDisplayName());
 
         // Notify expert
-        notifyExpert(consultation.getExpert().getId().toString(),
+        notifyExpert(consultation.getExpert().getId().toString(), null, NotificationType.INFO,
                 "Consultation completed with " + consultation.getUser().getDisplayName());
     }
 
@@ -238,15 +315,15 @@ public class NotificationServiceImpl implements NotificationService {
         // Notify recipient
         UserProfile recipient = message.getChatSession().getUser();
         if (!message.getSender().getId().equals(recipient.getId())) {
-            notifyUser(recipient.getId().toString(),
+            notifyUser(recipient.getId().toString(), NotificationType.NEW_MESSAGE,
                     "New message from " + message.getSender().getDisplayName());
         }
 
         // If it's a chat with an expert, notify the expert
         if (message.getChatSession().getExpert() != null &&
                 !message.getSender().getId().equals(message.getChatSession().getExpert().getUserProfile().getId())) {
-            notifyExpert(message.getChatSession().getExpert().getId().toString(),
-                    "New message from " + message.getSender().getDisplayName());
+            notifyExpert(message.getChatSession().getExpert().getId().toString(), null,
+                    NotificationType.NEW_MESSAGE, "New message from " + message.getSender().getDisplayName());
         }
     }
 
@@ -254,7 +331,7 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendWelcomeEmail(UserProfile user) {
         // Simple implementation - to be expanded later
         try {
-            emailService.sendEmail(
+            notificationOutbox.enqueueEmail(
                 user.getEmail(),
                 "Welcome to Support Ticket System",
                 "Hello " + user.getDisplayName() + ",\n\n" +
@@ -263,7 +340,7 @@ public class NotificationServiceImpl implements NotificationService {
                 "Support Team"
             );
         } catch (Exception e) {
-            log.error("Failed to send welcome email to {}", user.getEmail(), e);
+            log.error("Failed to queue welcome email to {}", user.getEmail(), e);
         }
     }
 
@@ -271,7 +348,7 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendPasswordResetEmail(UserProfile user, String resetToken) {
         // Simple implementation - to be expanded later
         try {
-            emailService.sendEmail(
+            notificationOutbox.enqueueEmail(
                 user.getEmail(),
                 "Password Reset Request",
                 "Hello " + user.getDisplayName() + ",\n\n" +
@@ -281,7 +358,7 @@ public class NotificationServiceImpl implements NotificationService {
                 "Support Team"
             );
         } catch (Exception e) {
-            log.error("Failed to send password reset email to {}", user.getEmail(), e);
+            log.error("Failed to queue password reset email to {}", user.getEmail(), e);
         }
     }
 
@@ -289,7 +366,7 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendEmailVerificationEmail(UserProfile user, String verificationToken) {
         // Simple implementation - to be expanded later
         try {
-            emailService.sendEmail(
+            notificationOutbox.enqueueEmail(
                 user.getEmail(),
                 "Email Verification",
                 "Hello " + user.getDisplayName() + ",\n\n" +
@@ -298,41 +375,51 @@ public class NotificationServiceImpl implements NotificationService {
                 "Support Team"
             );
         } catch (Exception e) {
-            log.error("Failed to send email verification to {}", user.getEmail(), e);
+            log.error("Failed to queue email verification to {}", user.getEmail(), e);
         }
     }
 
     @Override
     public void sendTicketSummaryEmail(UserProfile user, List<Ticket> tickets) {
-        // Simple implementation - to be expanded later
+        if (!wants(user.getId(), NotificationType.TICKET_UPDATED, NotificationChannel.EMAIL)) {
+            log.debug("Ticket summary email turned off by user {}", user.getId());
+            return;
+        }
         try {
             StringBuilder summary = new StringBuilder();
             summary.append("Hello ").append(user.getDisplayName()).append(",\n\n");
             summary.append("Here's a summary of your tickets:\n\n");
 
             for (Ticket ticket : tickets) {
-                summary.append("- ").append(ticket.getTitle())
+                summary.append("- ");
+                if (ticket.getTicketNumber() != null) {
+                    summary.append(ticket.getTicketNumber()).append(" ");
+                }
+                summary.append(ticket.getTitle())
                        .append(" (").append(ticket.getStatus()).append(")\n");
             }
 
             summary.append("\nBest regards,\n");
             summary.append("Support Team");
 
-            emailService.sendEmail(
+            notificationOutbox.enqueueEmail(
                 user.getEmail(),
                 "Your Ticket Summary",
                 summary.toString()
             );
         } catch (Exception e) {
-            log.error("Failed to send ticket summary email to {}", user.getEmail(), e);
+            log.error("Failed to queue ticket summary email to {}", user.getEmail(), e);
         }
     }
 
     @Override
     public void sendConsultationConfirmationEmail(Consultation consultation) {
-        // Simple implementation - to be expanded later
+        UserProfile user = consultation.getUser();
+        if (!wants(user.getId(), NotificationType.CONSULTATION_SCHEDULED, NotificationChannel.EMAIL)) {
+            log.debug("Consultation confirmation email turned off by user {}", user.getId());
+            return;
+        }
         try {
-            UserProfile user = consultation.getUser();
             Expert expert = consultation.getExpert();
 
             String message = "Hello " + user.getDisplayName() + ",\n\n" +
@@ -341,21 +428,24 @@ public class NotificationServiceImpl implements NotificationService {
                 "Best regards,\n" +
                 "Support Team";
 
-            emailService.sendEmail(
+            notificationOutbox.enqueueEmail(
                 user.getEmail(),
                 "Consultation Confirmation",
                 message
             );
         } catch (Exception e) {
-            log.error("Failed to send consultation confirmation email", e);
+            log.error("Failed to queue consultation confirmation email", e);
         }
     }
 
     @Override
     public void sendConsultationReminderEmail(Consultation consultation) {
-        // Simple implementation - to be expanded later
+        UserProfile user = consultation.getUser();
+        if (!wants(user.getId(), NotificationType.CONSULTATION_SCHEDULED, NotificationChannel.EMAIL)) {
+            log.debug("Consultation reminder email turned off by user {}", user.getId());
+            return;
+        }
         try {
-            UserProfile user = consultation.getUser();
             Expert expert = consultation.getExpert();
 
             String message = "Hello " + user.getDisplayName() + ",\n\n" +
@@ -365,42 +455,71 @@ public class NotificationServiceImpl implements NotificationService {
                 "Best regards,\n" +
                 "Support Team";
 
-            emailService.sendEmail(
+            notificationOutbox.enqueueEmail(
                 user.getEmail(),
                 "Consultation Reminder",
                 message
             );
         } catch (Exception e) {
-            log.error("Failed to send consultation reminder email", e);
+            log.error("Failed to queue consultation reminder email", e);
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getUnreadNotifications(UUID userId) {
-        // Placeholder implementation - to be expanded later
-        // In a real implementation, we would fetch from a database
-        return new ArrayList<>();
+        return notificationRepository.findFirstUnreadSlice(userId, PageRequest.of(0, UNREAD_LIST_LIMIT)).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<NotificationDTO> getNotifications(UUID userId, boolean unreadOnly, NotificationCursor cursor, int size) {
+        // One extra row tells whether another slice follows, without a count query
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Notification> rows;
+        if (cursor == null) {
+            rows = unreadOnly
+                    ? notificationRepository.findFirstUnreadSlice(userId, limit)
+                    : notificationRepository.findFirstSlice(userId, limit);
+        } else {
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadSliceAfter(userId, cursor.getCreatedAt(), cursor.getId(), limit)
+                    : notificationRepository.findSliceAfter(userId, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<NotificationDTO> content = (hasNext ? rows.subList(0, size) : rows).stream()
+                .map(this::toDTO)
+                .toList();
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
     }
 
     @Override
-    public void markNotificationAsRead(UUID notificationId) {
-        // Placeholder implementation - to be expanded later
-        // In a real implementation, we would update the database
-        log.info("Marking notification as read: {}", notificationId);
+    public boolean markNotificationAsRead(UUID userId, UUID notificationId) {
+        if (notificationRepository.markRead(userId, notificationId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        notificationRepository.adjustUnreadCount(userId, -1);
+        return true;
     }
 
     @Override
-    public void markAllNotificationsAsRead(UUID userId) {
-        // Placeholder implementation - to be expanded later
-        // In a real implementation, we would update the database
-        log.info("Marking all notifications as read for user: {}", userId);
+    public int markAllNotificationsAsRead(UUID userId) {
+        int updated = notificationRepository.markAllRead(userId, LocalDateTime.now());
+        if (updated > 0) {
+            // Subtract exactly what was marked, so notifications arriving meanwhile stay counted
+            notificationRepository.adjustUnreadCount(userId, -updated);
+        }
+        log.debug("Marked {} notifications as read for user {}", updated, userId);
+        return updated;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int getNotificationCount(UUID userId) {
-        // Placeholder implementation - to be expanded later
-        // In a real implementation, we would query the database
-        return 0;
+        return notificationRepository.findUnreadCount(userId).orElse(0);
     }
 
     // Additional methods to support the simplified interface
@@ -421,8 +540,8 @@ public class NotificationServiceImpl implements NotificationService {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/system-notifications", notification);
-        log.info("System notification sent: {}", message);
+        notificationOutbox.enqueueWebSocket("/topic/system-notifications", notification);
+        log.info("System notification queued: {}", message);
     }
 
     /**
@@ -432,62 +551,232 @@ public class NotificationServiceImpl implements NotificationService {
      * @param message the notification message
      */
     public void notifyExpert(String expertId, String message) {
+        notifyExpert(expertId, null, NotificationType.INFO, message);
+    }
+
+    /**
+     * Notifies an expert about an event on a ticket.
+     * Updates on the same ticket within one coalescing window reach the expert as a single message.
+     *
+     * @param expertId the expert ID
+     * @param ticketId the ticket ID, or null if the event is not about a ticket
+     * @param type the notification type, which decides whether the expert wants it pushed
+     * @param message the notification message
+     */
+    public void notifyExpert(String expertId, String ticketId, NotificationType type, String message) {
         NotificationDTO notification = NotificationDTO.builder()
                 .id(UUID.randomUUID())
                 .userId(UUID.fromString(expertId))
                 .title("Expert Notification")
                 .content(message)
-                .type(NotificationType.INFO)
+                .type(type)
+                .ticketId(ticketId)
                 .timestamp(LocalDateTime.now())
                 .build();
+        Optional<UUID> userId = storeForExpert(notification.getUserId(), notification);
 
+        if (userId.isPresent() && !wants(userId.get(), type, NotificationChannel.WEBSOCKET)) {
+            return;
+        }
         String destination = String.format("/queue/expert-notifications/%s", expertId);
-        messagingTemplate.convertAndSend(destination, notification);
-        log.info("Expert notification sent to {}: {}", expertId, message);
+        notificationOutbox.enqueueWebSocket(destination, notification, ticketCoalesceKey(destination, ticketId));
+        log.info("Expert notification queued for {}: {}", expertId, message);
     }
 
     /**
      * Notifies a user about an event.
      *
      * @param userId the user ID
+     * @param type the notification type
      * @param message the notification message
      */
-    private void notifyUser(String userId, String message) {
+    private void notifyUser(String userId, NotificationType type, String message) {
         NotificationDTO notification = NotificationDTO.builder()
                 .id(UUID.randomUUID())
                 .userId(UUID.fromString(userId))
                 .title("User Notification")
                 .content(message)
-                .type(NotificationType.INFO)
+                .type(type)
                 .timestamp(LocalDateTime.now())
                 .build();
+        store(notification.getUserId(), notification);
 
+        if (!wants(notification.getUserId(), type, NotificationChannel.WEBSOCKET)) {
+            return;
+        }
         String destination = String.format("/queue/notifications/%s", userId);
-        messagingTemplate.convertAndSend(destination, notification);
-        log.info("User notification sent to {}: {}", userId, message);
+        notificationOutbox.enqueueWebSocket(destination, notification);
+        log.info("User notification queued for {}: {}", userId, message);
     }
 
     /**
      * Notifies a user about a ticket update.
+     * Updates on the same ticket within one coalescing window reach the user as a single message.
      *
      * @param ticketId the ticket ID
      * @param userId the user ID
      * @param message the notification message
      */
     public void notifyTicketUpdate(String ticketId, String userId, String message) {
+        notifyTicketUpdate(ticketId, userId, NotificationType.INFO, message);
+    }
+
+    /**
+     * Notifies a user about a ticket event of a given type.
+     * Updates on the same ticket within one coalescing window reach the user as a single message.
+     *
+     * @param ticketId the ticket ID
+     * @param userId the user ID
+     * @param type the notification type, which decides whether the user wants it pushed
+     * @param message the notification message
+     */
+    public void notifyTicketUpdate(String ticketId, String userId, NotificationType type, String message) {
         NotificationDTO notification = NotificationDTO.builder()
                 .id(UUID.randomUUID())
                 .userId(UUID.fromString(userId))
                 .title("Ticket Update")
                 .content(message)
-                .type(NotificationType.INFO)
+                .type(type)
                 .ticketId(ticketId)
                 .timestamp(LocalDateTime.now())
                 .build();
+        store(notification.getUserId(), notification);
 
+        if (!wants(notification.getUserId(), type, NotificationChannel.WEBSOCKET)) {
+            return;
+        }
         String destination = String.format("/queue/notifications/%s", userId);
-        messagingTemplate.convertAndSend(destination, notification);
-        log.info("Ticket update notification sent to {}: {}", userId, message);
+        notificationOutbox.enqueueWebSocket(destination, notification, ticketCoalesceKey(destination, ticketId));
+        log.info("Ticket update notification queued for {}: {}", userId, message);
+    }
+
+    /**
+     * Builds the key under which pushes about one ticket to one destination are coalesced.
+     *
+     * @param destination the WebSocket destination
+     * @param ticketId the ticket ID, may be null
+     * @return the coalesce key, or null if the notification is not about a ticket
+     */
+    private String ticketCoalesceKey(String destination, String ticketId) {
+        return ticketId != null ? destination + "#ticket:" + ticketId : null;
+    }
+
+    /**
+     * Builds the key under which pushes about one bulk operation to one destination are coalesced.
+     *
+     * @param destination the WebSocket destination
+     * @param operationId the bulk operation ID
+     * @return the coalesce key
+     */
+    private String bulkCoalesceKey(String destination, String operationId) {
+        return destination + "#bulk:" + operationId;
+    }
+
+    /**
+     * Stores a notification in a user's inbox and counts it as unread.
+     * The stored ID and time are copied back, so the pushed message matches the inbox entry.
+     *
+     * @param userId the recipient user ID
+     * @param notification the notification to store
+     */
+    private void store(UUID userId, NotificationDTO notification) {
+        Notification saved = notificationRepository.save(Notification.builder()
+                .user(userProfileRepository.getReferenceById(userId))
+                .title(notification.getTitle() != null ? notification.getTitle() : "Notification")
+                .content(notification.getContent() != null ? notification.getContent() : "")
+                .notificationType(convertNotificationType(notification.getType()))
+                .referenceId(notification.getEntityId())
+                .referenceType(notification.getEntityType())
+                .ticketId(parseTicketId(notification.getTicketId()))
+                .build());
+        notificationRepository.adjustUnreadCount(userId, 1);
+
+        notification.setId(saved.getId());
+        notification.setTimestamp(saved.getCreatedAt());
+    }
+
+    /**
+     * Stores a notification in the inbox of an expert's user profile.
+     *
+     * @param expertId the expert ID
+     * @param notification the notification to store
+     * @return the ID of the expert's user profile, empty if the expert is unknown
+     */
+    private Optional<UUID> storeForExpert(UUID expertId, NotificationDTO notification) {
+        Optional<UUID> userId = expertRepository.findUserProfileIdById(expertId);
+        userId.ifPresentOrElse(id -> store(id, notification),
+                () -> log.warn("Not storing notification for unknown expert {}", expertId));
+        return userId;
+    }
+
+    /**
+     * Checks the user's preferences for a notification type on a channel.
+     *
+     * @param userId the user ID
+     * @param type the notification type
+     * @param channel the delivery channel
+     * @return true if the notification should be delivered on the channel
+     */
+    private boolean wants(UUID userId, NotificationType type, NotificationChannel channel) {
+        return preferenceService.isEnabled(userId, convertNotificationType(type), channel);
+    }
+
+    /**
+     * Parses the ticket ID carried by a notification. A malformed ID is dropped rather than failing the caller.
+     *
+     * @param ticketId the ticket ID, may be null
+     * @return the parsed ID, or null
+     */
+    private UUID parseTicketId(String ticketId) {
+        if (ticketId == null || ticketId.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(ticketId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed ticket ID on notification: {}", ticketId);
+            return null;
+        }
+    }
+
+    /**
+     * Converts a Notification entity to a NotificationDTO.
+     *
+     * @param notification the notification entity
+     * @return the notification DTO
+     */
+    private NotificationDTO toDTO(Notification notification) {
+        return NotificationDTO.builder()
+                .id(notification.getId())
+                .userId(notification.getUser().getId())
+                .title(notification.getTitle())
+                .content(notification.getContent())
+                .type(notification.getNotificationType())
+                .read(notification.isRead())
+                .timestamp(notification.getCreatedAt())
+                .entityId(notification.getReferenceId())
+                .entityType(notification.getReferenceType())
+                .ticketId(notification.getTicketId() != null ? notification.getTicketId().toString() : null)
+                .build();
+    }
+
+    /**
+     * Builds the content of a bulk change notification, listing at most a handful of ticket numbers.
+     *
+     * @param change a description of the change
+     * @param ticketNumbers the numbers of the changed tickets
+     * @return the notification content
+     */
+    private String describeBulkChange(String change, List<String> ticketNumbers) {
+        int listed = Math.min(ticketNumbers.size(), BULK_TICKETS_LISTED);
+        StringBuilder content = new StringBuilder(change)
+                .append(" on ").append(ticketNumbers.size())
+                .append(ticketNumbers.size() == 1 ? " ticket: " : " tickets: ")
+                .append(String.join(", ", ticketNumbers.subList(0, listed)));
+        if (ticketNumbers.size() > listed) {
+            content.append(" and ").append(ticketNumbers.size() - listed).append(" more");
+        }
+        return content.toString();
     }
 
     /**
@@ -0,0 +1,255 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.config.aws.S3Service;
+import com.planb.supportticket.config.gcp.GCSService;
+import com.planb.supportticket.dto.StorageCleanupBacklog;
+import com.planb.supportticket.entity.StorageDeletion;
+import com.planb.supportticket.entity.enums.StorageProvider;
+import com.planb.supportticket.repository.StorageDeletionRepository;
+import com.planb.supportticket.service.StorageCleanupService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the StorageCleanupService interface.
+ *
+ * Each batch is handled in three steps: a short transaction leases the due rows (moving their
+ * next attempt past the lease time so other workers skip them), the files are deleted with one
+ * batch call per storage provider outside of any transaction, and a second short transaction
+ * removes the deleted rows and reschedules failures with exponential backoff.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageCleanupServiceImpl implements StorageCleanupService {
+
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final GCSService gcsService;
+    private final S3Service s3Service;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${storage.cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.cleanup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${storage.cleanup.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${storage.cleanup.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${storage.cleanup.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${storage.cleanup.backlog-warn-threshold:10000}")
+    private long backlogWarnThreshold;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (batchSize < 1) {
+            throw new IllegalStateException("storage.cleanup.batch-size must be positive");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void scheduleDeletion(StorageProvider provider, Collection<String> objectKeys) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StorageDeletion> deletions = objectKeys.stream()
+                .filter(key -> key != null && !key.isBlank())
+                .distinct()
+                .map(key -> StorageDeletion.builder()
+                        .storageProvider(provider)
+                        .objectKey(key)
+                        .nextAttemptAt(now)
+                        .build())
+                .collect(Collectors.toList());
+
+        if (!deletions.isEmpty()) {
+            storageDeletionRepository.saveAll(deletions);
+            log.debug("Scheduled {} {} objects for deletion", deletions.size(), provider);
+        }
+    }
+
+    /**
+     * Drains the outbox on the configured schedule.
+     */
+    @Scheduled(fixedDelayString = "${storage.cleanup.poll-interval-ms:10000}")
+    public void scheduledDrain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            drain();
+        } catch (Exception e) {
+            log.error("Error draining storage deletion outbox: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int drain() {
+        int deleted = 0;
+        while (true) {
+            List<StorageDeletion> batch = transactionTemplate.execute(status -> leaseBatch());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+
+            Set<UUID> succeeded = new HashSet<>();
+            Map<UUID, String> failed = new HashMap<>();
+            batch.stream()
+                    .collect(Collectors.groupingBy(StorageDeletion::getStorageProvider))
+                    .forEach((provider, deletions) -> deleteObjects(provider, deletions, succeeded, failed));
+
+            transactionTemplate.executeWithoutResult(status -> complete(succeeded, failed));
+            deleted += succeeded.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("Deleted {} files from the storage deletion outbox", deleted);
+        }
+        warnOnBacklog();
+        return deleted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StorageCleanupBacklog getBacklog() {
+        return StorageCleanupBacklog.builder()
+                .pending(storageDeletionRepository.count())
+                .retrying(storageDeletionRepository.countByAttemptsGreaterThan(0))
+                .oldestScheduledAt(storageDeletionRepository.findFirstByOrderByCreatedAtAsc()
+                        .map(StorageDeletion::getCreatedAt)
+                        .orElse(null))
+                .build();
+    }
+
+    /**
+     * Locks the next due batch and leases it to this worker.
+     *
+     * @return the leased deletions
+     */
+    private List<StorageDeletion> leaseBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StorageDeletion> batch = storageDeletionRepository.lockDueBatch(now, batchSize);
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        batch.forEach(deletion -> deletion.setNextAttemptAt(leaseUntil));
+        return batch;
+    }
+
+    /**
+     * Deletes the files of one provider with a single batch call and sorts the outcome.
+     *
+     * @param provider the storage provider
+     * @param deletions the deletions for this provider
+     * @param succeeded collects the IDs of deleted files
+     * @param failed collects the IDs and errors of files that could not be deleted
+     */
+    private void deleteObjects(StorageProvider provider, List<StorageDeletion> deletions,
+                               Set<UUID> succeeded, Map<UUID, String> failed) {
+        List<String> keys = deletions.stream()
+                .map(StorageDeletion::getObjectKey)
+                .collect(Collectors.toList());
+        try {
+            Set<String> failedKeys = new HashSet<>();
+            if (provider == StorageProvider.S3) {
+                // DeleteObjects fails as a whole if any key fails; deleting again is harmless
+                s3Service.deleteFiles(keys);
+            } else {
+                failedKeys.addAll(gcsService.deleteFiles(keys));
+            }
+
+            for (StorageDeletion deletion : deletions) {
+                if (failedKeys.contains(deletion.getObjectKey())) {
+                    failed.put(deletion.getId(), "Object could not be deleted");
+                } else {
+                    succeeded.add(deletion.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Batch deletion of {} {} objects failed: {}", keys.size(), provider, e.getMessage());
+            deletions.forEach(deletion -> failed.put(deletion.getId(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Removes deleted files from the outbox and reschedules failed ones.
+     *
+     * @param succeeded the IDs of deleted files
+     * @param failed the IDs and errors of failed files
+     */
+    private void complete(Set<UUID> succeeded, Map<UUID, String> failed) {
+        if (!succeeded.isEmpty()) {
+            storageDeletionRepository.deleteAllByIdInBatch(succeeded);
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StorageDeletion> retries = new ArrayList<>(storageDeletionRepository.findAllById(failed.keySet()));
+        for (StorageDeletion deletion : retries) {
+            int attempts = deletion.getAttempts() + 1;
+            deletion.setAttempts(attempts);
+            deletion.setLastError(truncate(failed.get(deletion.getId())));
+            deletion.setNextAttemptAt(now.plus(backoff(attempts)));
+        }
+        log.warn("Rescheduled {} failed storage deletions", retries.size());
+    }
+
+    /**
+     * Computes the delay before the next attempt: doubling from the initial backoff, capped at the maximum.
+     *
+     * @param attempts the number of failed attempts so far
+     * @return the delay
+     */
+    private Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+    }
+
+    /**
+     * Logs a warning when the backlog is larger than the configured threshold.
+     */
+    private void warnOnBacklog() {
+        long pending = storageDeletionRepository.count();
+        if (pending > backlogWarnThreshold) {
+            log.warn("Storage deletion backlog is {} files (threshold {})", pending, backlogWarnThreshold);
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= 1000) {
+            return message;
+        }
+        return message.substring(0, 1000);
+    }
+}
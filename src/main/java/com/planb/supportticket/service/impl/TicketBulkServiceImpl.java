@@ -0,0 +1,265 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.dto.BulkTicketOperationRequest;
+import com.planb.supportticket.dto.BulkTicketOperationResponse;
+import com.planb.supportticket.entity.Expert;
+import com.planb.supportticket.entity.Ticket;
+import com.planb.supportticket.exception.ResourceNotFoundException;
+import com.planb.supportticket.repository.ExpertRepository;
+import com.planb.supportticket.repository.TicketRepository;
+import com.planb.supportticket.service.NotificationService;
+import com.planb.supportticket.service.TicketBulkService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the TicketBulkService interface.
+ * Each chunk loads its tickets with their participants in one query and lets the changes
+ * flush at commit, where Hibernate sends the UPDATEs as JDBC batches
+ * (see spring.jpa.properties.hibernate.jdbc.batch_size). The chunk's notifications are recorded in
+ * the notification outbox in the same transaction, coalesced per recipient across chunks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketBulkServiceImpl implements TicketBulkService {
+
+    private final TicketRepository ticketRepository;
+    private final ExpertRepository expertRepository;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${ticket.bulk.max-tickets:5000}")
+    private int maxTickets;
+
+    @Value("${ticket.bulk.chunk-size:200}")
+    private int chunkSize;
+
+    private TransactionTemplate chunkTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (chunkSize < 1) {
+            throw new IllegalStateException("ticket.bulk.chunk-size must be positive");
+        }
+        chunkTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public BulkTicketOperationResponse applyBulkOperation(BulkTicketOperationRequest request) {
+        if (!request.hasChanges()) {
+            throw new IllegalArgumentException("No changes requested");
+        }
+        if (request.getExpertId() != null && Boolean.TRUE.equals(request.getUnassign())) {
+            throw new IllegalArgumentException("expertId and unassign cannot be combined");
+        }
+
+        List<UUID> ticketIds = request.getTicketIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (ticketIds.size() > maxTickets) {
+            throw new IllegalArgumentException("At most " + maxTickets + " tickets can be changed at once");
+        }
+
+        String expertName = request.getExpertId() != null ? findExpertName(request.getExpertId()) : null;
+        String change = describeChange(request, expertName);
+
+        BulkTicketOperationResponse response = BulkTicketOperationResponse.builder()
+                .requested(ticketIds.size())
+                .build();
+        // Lets the outbox merge each recipient's notifications from all chunks into one message
+        String operationId = UUID.randomUUID().toString();
+
+        for (int from = 0; from < ticketIds.size(); from += chunkSize) {
+            List<UUID> chunk = ticketIds.subList(from, Math.min(from + chunkSize, ticketIds.size()));
+            try {
+                chunkTemplate.executeWithoutResult(status -> applyChunk(chunk, request, response, change, operationId));
+            } catch (RuntimeException e) {
+                log.warn("Bulk ticket chunk of {} tickets failed: {}", chunk.size(), e.getMessage());
+                response.getFailed().addAll(chunk);
+            }
+        }
+
+        log.info("Bulk ticket operation: {} requested, {} updated, {} unchanged, {} not found, {} failed",
+                response.getRequested(), response.getUpdated(), response.getUnchanged(),
+                response.getNotFound().size(), response.getFailed().size());
+        return response;
+    }
+
+    /**
+     * Applies the changes to one chunk of tickets, and records their notifications, within the
+     * current transaction.
+     *
+     * @param chunk the ticket IDs of the chunk
+     * @param request the bulk operation
+     * @param response the response to record the outcome in
+     * @param change the change description for owners
+     * @param operationId the bulk operation ID, under which notifications are coalesced
+     */
+    private void applyChunk(List<UUID> chunk, BulkTicketOperationRequest request,
+                            BulkTicketOperationResponse response, String change, String operationId) {
+        BulkNotifications notifications = new BulkNotifications();
+        List<Ticket> tickets = ticketRepository.findAllWithParticipantsByIdIn(chunk);
+        Expert expert = request.getExpertId() != null
+                ? expertRepository.getReferenceById(request.getExpertId())
+                : null;
+
+        int updated = 0;
+        int unchanged = 0;
+        Set<UUID> found = new HashSet<>();
+        for (Ticket ticket : tickets) {
+            found.add(ticket.getId());
+            if (applyChanges(ticket, request, expert, notifications)) {
+                updated++;
+            } else {
+                unchanged++;
+            }
+        }
+
+        // Flush inside the callback so a failure is reported for this chunk rather than at commit
+        ticketRepository.flush();
+        // Recorded with the changes, so they are announced if and only if the changes commit
+        notifications.send(notificationService, change, operationId);
+
+        response.setUpdated(response.getUpdated() + updated);
+        response.setUnchanged(response.getUnchanged() + unchanged);
+        chunk.stream()
+                .filter(id -> !found.contains(id))
+                .forEach(response.getNotFound()::add);
+    }
+
+    /**
+     * Applies the requested changes to one ticket.
+     *
+     * @param ticket the managed ticket
+     * @param request the bulk operation
+     * @param expert the expert to assign, or null
+     * @param notifications the notifications to record the change in
+     * @return true if the ticket was changed
+     */
+    private boolean applyChanges(Ticket ticket, BulkTicketOperationRequest request, Expert expert,
+                                 BulkNotifications notifications) {
+        boolean changed = false;
+        String ticketNumber = ticket.getTicketNumber() != null ? ticket.getTicketNumber() : ticket.getId().toString();
+
+        if (request.getStatus() != null && ticket.getStatus() != request.getStatus()) {
+            ticket.changeStatus(request.getStatus());
+            changed = true;
+        }
+
+        if (request.getPriority() != null && ticket.getPriority() != request.getPriority()) {
+            ticket.setPriority(request.getPriority());
+            changed = true;
+        }
+
+        Expert previousExpert = ticket.getAssignedExpert();
+        if (expert != null && (previousExpert == null || !previousExpert.getId().equals(expert.getId()))) {
+            ticket.setAssignedExpert(expert);
+            notifications.expertAssigned(expert.getId(), ticketNumber);
+            if (previousExpert != null) {
+                notifications.expertUnassigned(previousExpert.getId(), ticketNumber);
+            }
+            changed = true;
+        } else if (Boolean.TRUE.equals(request.getUnassign()) && previousExpert != null) {
+            ticket.setAssignedExpert(null);
+            notifications.expertUnassigned(previousExpert.getId(), ticketNumber);
+            changed = true;
+        }
+
+        if (changed) {
+            notifications.ownerChanged(ticket.getUser().getId(), ticketNumber);
+        }
+        return changed;
+    }
+
+    /**
+     * Looks up the display name of the expert to assign.
+     *
+     * @param expertId the expert ID
+     * @return the expert's display name
+     */
+    private String findExpertName(UUID expertId) {
+        return chunkTemplate.execute(status -> expertRepository.findById(expertId)
+                .map(expert -> expert.getUserProfile().getDisplayName())
+                .orElseThrow(() -> new ResourceNotFoundException("Expert not found with id: " + expertId)));
+    }
+
+    /**
+     * Describes the requested changes for ticket owners.
+     *
+     * @param request the bulk operation
+     * @param expertName the name of the expert to assign, or null
+     * @return the change description
+     */
+    private String describeChange(BulkTicketOperationRequest request, String expertName) {
+        List<String> parts = new ArrayList<>();
+        if (request.getStatus() != null) {
+            parts.add("status changed to " + request.getStatus());
+        }
+        if (request.getPriority() != null) {
+            parts.add("priority changed to " + request.getPriority());
+        }
+        if (expertName != null) {
+            parts.add("assigned to " + expertName);
+        } else if (Boolean.TRUE.equals(request.getUnassign())) {
+            parts.add("unassigned");
+        }
+
+        String change = String.join(", ", parts);
+        return Character.toUpperCase(change.charAt(0)) + change.substring(1);
+    }
+
+    /**
+     * Changed ticket numbers grouped by the user or expert to notify.
+     */
+    private static final class BulkNotifications {
+        private final Map<UUID, Set<String>> owners = new LinkedHashMap<>();
+        private final Map<UUID, Set<String>> assignedExperts = new LinkedHashMap<>();
+        private final Map<UUID, Set<String>> unassignedExperts = new LinkedHashMap<>();
+
+        private void ownerChanged(UUID userId, String ticketNumber) {
+            owners.computeIfAbsent(userId, id -> new LinkedHashSet<>()).add(ticketNumber);
+        }
+
+        private void expertAssigned(UUID expertId, String ticketNumber) {
+            assignedExperts.computeIfAbsent(expertId, id -> new LinkedHashSet<>()).add(ticketNumber);
+        }
+
+        private void expertUnassigned(UUID expertId, String ticketNumber) {
+            unassignedExperts.computeIfAbsent(expertId, id -> new LinkedHashSet<>()).add(ticketNumber);
+        }
+
+        /**
+         * Records one notification per owner and per expert in the current transaction.
+         *
+         * @param notificationService the notification service
+         * @param change the change description for owners
+         * @param operationId the bulk operation ID, under which notifications are coalesced
+         */
+        private void send(NotificationService notificationService, String change, String operationId) {
+            owners.forEach((userId, numbers) -> notificationService.sendBulkTicketUpdateNotification(
+                    userId, change, new ArrayList<>(numbers), operationId));
+            assignedExperts.forEach((expertId, numbers) -> notificationService.sendBulkExpertTicketNotification(
+                    expertId, "Assigned to you", new ArrayList<>(numbers), operationId));
+            unassignedExperts.forEach((expertId, numbers) -> notificationService.sendBulkExpertTicketNotification(
+                    expertId, "Unassigned from you", new ArrayList<>(numbers), operationId));
+        }
+    }
+}
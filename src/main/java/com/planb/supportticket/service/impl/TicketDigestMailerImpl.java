@@ -0,0 +1,141 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.entity.Ticket;
+import com.planb.supportticket.entity.UserProfile;
+import com.planb.supportticket.entity.enums.NotificationChannel;
+import com.planb.supportticket.repository.NotificationRepository;
+import com.planb.supportticket.repository.NotificationRepository.DigestEntry;
+import com.planb.supportticket.repository.TicketRepository;
+import com.planb.supportticket.repository.UserProfileRepository;
+import com.planb.supportticket.service.NotificationPreferenceService;
+import com.planb.supportticket.service.NotificationService;
+import com.planb.supportticket.service.TicketDigestMailer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of the TicketDigestMailer interface.
+ *
+ * Only notifications older than {@code notifications.digest.min-age-minutes} are included, so
+ * updates the user already saw in the app are not mailed. A ticket is listed if at least one of its
+ * notifications has a type the user receives by email. Each notification is covered by at most one
+ * digest. Users are processed in ID order, one short transaction each, and the email goes through
+ * the notification outbox with the rest of that transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketDigestMailerImpl implements TicketDigestMailer {
+    private final NotificationRepository notificationRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final TicketRepository ticketRepository;
+    private final NotificationService notificationService;
+    private final NotificationPreferenceService preferenceService;
+    private final PlatformTransactionManager transactionManager;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Value("${notifications.digest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${notifications.digest.min-age-minutes:15}")
+    private long minAgeMinutes;
+
+    @Value("${notifications.digest.batch-size:200}")
+    private int batchSize;
+
+    private TransactionTemplate userTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (batchSize < 1) {
+            throw new IllegalStateException("notifications.digest.batch-size must be positive");
+        }
+        userTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sends the digests on the configured schedule.
+     */
+    @Scheduled(cron = "${notifications.digest.cron:0 0 * * * *}")
+    public void scheduledDigest() {
+        if (enabled) {
+            sendDigests();
+        }
+    }
+
+    @Override
+    public int sendDigests() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(minAgeMinutes);
+        UUID afterId = FIRST_ID;
+        int sent = 0;
+
+        while (true) {
+            List<UUID> userIds = notificationRepository.findUserIdsAwaitingDigest(
+                    afterId, cutoff, PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            for (UUID userId : userIds) {
+                try {
+                    Boolean digested = userTemplate.execute(status -> sendDigest(userId, cutoff));
+                    if (Boolean.TRUE.equals(digested)) {
+                        sent++;
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to send ticket digest to user {}: {}", userId, e.getMessage());
+                }
+            }
+            afterId = userIds.get(userIds.size() - 1);
+        }
+
+        if (sent > 0) {
+            log.info("Sent {} ticket digest emails", sent);
+        }
+        return sent;
+    }
+
+    /**
+     * Sends one user's digest and marks the notifications it covers.
+     *
+     * @param userId the user ID
+     * @param cutoff only notifications created at or before this time are included
+     * @return true if an email was queued
+     */
+    private boolean sendDigest(UUID userId, LocalDateTime cutoff) {
+        Set<UUID> ticketIds = new HashSet<>();
+        for (DigestEntry entry : notificationRepository.findDigestEntries(userId, cutoff)) {
+            if (preferenceService.isEnabled(userId, entry.getNotificationType(), NotificationChannel.EMAIL)) {
+                ticketIds.add(entry.getTicketId());
+            }
+        }
+        UserProfile user = userProfileRepository.findById(userId).orElse(null);
+        List<Ticket> tickets = ticketRepository.findAllById(ticketIds).stream()
+                .sorted(Comparator.comparing(Ticket::getCreatedAt).reversed())
+                .toList();
+
+        // Marked even when nothing is sent, so opted-out types, deleted tickets or missing addresses
+        // are not retried forever
+        notificationRepository.markDigested(userId, cutoff, LocalDateTime.now());
+
+        if (user == null || user.getEmail() == null || tickets.isEmpty()) {
+            return false;
+        }
+        notificationService.sendTicketSummaryEmail(user, tickets);
+        return true;
+    }
+}
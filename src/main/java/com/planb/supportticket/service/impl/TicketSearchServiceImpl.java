@@ -0,0 +1,73 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.dto.TicketSearchHit;
+import com.planb.supportticket.dto.TicketSearchResult;
+import com.planb.supportticket.dto.TicketSearchResult.MatchType;
+import com.planb.supportticket.repository.TicketRepository;
+import com.planb.supportticket.service.TicketSearchService;
+import com.planb.supportticket.util.FullTextQueries;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the TicketSearchService interface.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TicketSearchServiceImpl implements TicketSearchService {
+
+    private final TicketRepository ticketRepository;
+
+    @Override
+    public Page<TicketSearchResult> search(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+
+        // Ranking defines the order, so drop any client-supplied sort
+        Pageable page = pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
+        String term = query.trim();
+
+        String tsQuery = FullTextQueries.toPrefixQuery(term);
+        if (!tsQuery.isEmpty()) {
+            Page<TicketSearchHit> hits = ticketRepository.searchByFullText(tsQuery, page);
+            if (hits.getTotalElements() > 0) {
+                return hits.map(hit -> toResult(hit, MatchType.FULL_TEXT));
+            }
+        }
+
+        log.debug("No full-text matches for '{}', falling back to similarity search", term);
+        return ticketRepository.searchBySimilarity(term, page)
+                .map(hit -> toResult(hit, MatchType.FUZZY));
+    }
+
+    /**
+     * Converts a search hit to a search result.
+     *
+     * @param hit the search hit
+     * @param matchType how the hit was matched
+     * @return the search result
+     */
+    private TicketSearchResult toResult(TicketSearchHit hit, MatchType matchType) {
+        return TicketSearchResult.builder()
+                .id(hit.getId())
+                .ticketNumber(hit.getTicketNumber())
+                .title(hit.getTitle())
+                .status(hit.getStatus())
+                .priority(hit.getPriority())
+                .createdAt(hit.getCreatedAt())
+                .rank(hit.getRank() != null ? hit.getRank() : 0)
+                .snippet(FullTextQueries.toHtmlSnippet(hit.getSnippet()))
+                .matchType(matchType)
+                .build();
+    }
+}
@@ -1,29 +1,41 @@
 package com.planb.supportticket.service.impl;
 
-import com.planb.supportticket.config.gcp.GCSService;
+import com.planb.supportticket.dto.StoredFile;
 import com.planb.supportticket.dto.TicketDTO;
 import com.planb.supportticket.dto.TicketCommentDTO;
+import com.planb.supportticket.dto.TicketCursor;
+import com.planb.supportticket.dto.TicketFilter;
+import com.planb.supportticket.dto.TicketResponse;
 import com.planb.supportticket.entity.*;
+import com.planb.supportticket.entity.enums.StorageProvider;
 import com.planb.supportticket.entity.enums.TicketStatus;
 import com.planb.supportticket.entity.enums.TicketPriority;
 import com.planb.supportticket.exception.ResourceNotFoundException;
 import com.planb.supportticket.exception.UnauthorizedException;
 import com.planb.supportticket.repository.*;
+import com.planb.supportticket.service.AttachmentUploadService;
 import com.planb.supportticket.service.NotificationService;
+import com.planb.supportticket.service.StorageCleanupService;
 import com.planb.supportticket.service.TicketNumberService;
 import com.planb.supportticket.service.TicketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the TicketService interface.
@@ -40,9 +52,11 @@ public class TicketServiceImpl implements TicketService {
     private final ExpertRepository expertRepository;
     private final TicketCommentRepository commentRepository;
     private final AttachmentRepository attachmentRepository;
-    private final GCSService gcsService;
     private final NotificationService notificationService;
     private final TicketNumberService ticketNumberService;
+    private final AttachmentUploadService attachmentUploadService;
+    private final StorageCleanupService storageCleanupService;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public Ticket createTicket(TicketDTO ticketDTO, UUID userId) {
@@ -155,15 +169,8 @@ public class TicketServiceImpl implements TicketService {
     public void deleteTicket(UUID id) {
         Ticket ticket = getTicketById(id);
 
-        // Delete attachments from GCS
-        for (Attachment attachment : ticket.getAttachments()) {
-            try {
-                gcsService.deleteFile(attachment.getS3Key());
-            } catch (Exception e) {
-                log.error("Error deleting attachment from GCS: {}", e.getMessage());
-                // Continue with deletion even if S3 deletion fails
-            }
-        }
+        // Files of the ticket and of its comments are purged in the background once this commits
+        storageCleanupService.scheduleDeletion(StorageProvider.GCS, attachmentRepository.findObjectKeysByTicketId(id));
 
         ticketRepository.delete(ticket);
     }
@@ -218,18 +225,27 @@ public class TicketServiceImpl implements TicketService {
         return ticketRepository.findByPriorityOrderByCreatedAtDesc(priority, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TicketResponse> filterTickets(TicketFilter filter, Pageable pageable) {
+        return ticketRepository.findTicketSummaries(TicketSpecifications.fromFilter(filter), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TicketResponse> getTicketsAfterCursor(TicketFilter filter, TicketCursor cursor, int size) {
+        Specification<Ticket> spec = TicketSpecifications.fromFilter(filter);
+        if (cursor != null) {
+            spec = spec.and(TicketSpecifications.afterCursor(cursor));
+        }
+        return ticketRepository.findTicketSummarySlice(spec, size);
+    }
+
     @Override
     public Ticket updateTicketStatus(UUID id, TicketStatus status) {
         Ticket ticket = getTicketById(id);
         TicketStatus oldStatus = ticket.getStatus();
-        ticket.setStatus(status);
-
-        // Set resolved or closed time if applicable
-        if (status == TicketStatus.RESOLVED && ticket.getResolvedAt() == null) {
-            ticket.setResolvedAt(LocalDateTime.now());
-        } else if (status == TicketStatus.CLOSED && ticket.getClosedAt() == null) {
-            ticket.setClosedAt(LocalDateTime.now());
-        }
+        ticket.changeStatus(status);
 
         Ticket updatedTicket = ticketRepository.save(ticket);
 
@@ -303,6 +319,7 @@ public class TicketServiceImpl implements TicketService {
 
         // Add comment to ticket
         ticket.addComment(savedComment);
+        ticketRepository.adjustCommentCount(ticket.getId(), 1);
 
         // Send notification
         notificationService.sendCommentAddedNotification(savedComment);
@@ -336,17 +353,15 @@ public class TicketServiceImpl implements TicketService {
     public void deleteComment(UUID commentId) {
         TicketComment comment = getCommentById(commentId);
 
-        // Delete attachments from GCS
-        for (Attachment attachment : comment.getAttachments()) {
-            try {
-                gcsService.deleteFile(attachment.getS3Key());
-            } catch (Exception e) {
-                log.error("Error deleting attachment from GCS: {}", e.getMessage());
-                // Continue with deletion even if S3 deletion fails
-            }
-        }
+        // Files of the comment and of its replies are purged in the background once this commits
+        storageCleanupService.scheduleDeletion(StorageProvider.GCS,
+                attachmentRepository.findObjectKeysByCommentThread(commentId));
 
+        UUID ticketId = comment.getTicket().getId();
         commentRepository.delete(comment);
+
+        // Replies are removed along with the comment, so recount rather than decrement
+        ticketRepository.recountCounters(ticketId);
     }
 
     @Override
@@ -366,6 +381,7 @@ public class TicketServiceImpl implements TicketService {
 
         // Add reply to parent comment
         parentComment.addReply(savedReply);
+        ticketRepository.adjustCommentCount(parentComment.getTicket().getId(), 1);
 
         // Send notification
         notificationService.sendReplyAddedNotification(savedReply);
@@ -374,35 +390,26 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Attachment addAttachment(UUID ticketId, MultipartFile file, UUID userId) {
-        Ticket ticket = getTicketById(ticketId);
-        UserProfile user = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        if (!ticketRepository.existsById(ticketId)) {
+            throw new ResourceNotFoundException("Ticket not found with id: " + ticketId);
+        }
+        requireUserExists(userId);
 
-        try {
-            // Upload file to GCS
-            String s3Key = gcsService.uploadFile(file, "tickets/" + ticketId);
-
-            // Create attachment
-            Attachment attachment = new Attachment();
-            attachment.setFileName(file.getOriginalFilename());
-            attachment.setFileSize(file.getSize());
-            attachment.setContentType(file.getContentType());
-            attachment.setS3Key(s3Key);
-            attachment.setUser(user);
-            attachment.setTicket(ticket);
-            attachment.setPublic(true);
+        StoredFile storedFile = uploadAttachment(file, "tickets/" + ticketId);
 
-            Attachment savedAttachment = attachmentRepository.save(attachment);
+        return inTransactionOrDiscard(List.of(storedFile), () -> {
+            Ticket ticket = getTicketById(ticketId);
+            Attachment attachment = saveAttachment(storedFile, userId);
+            attachment.setTicket(ticket);
 
             // Add attachment to ticket
-            ticket.addAttachment(savedAttachment);
+            ticket.addAttachment(attachment);
+            ticketRepository.adjustAttachmentCount(ticket.getId(), 1);
 
-            return savedAttachment;
-        } catch (Exception e) {
-            log.error("Error uploading file to GCS: {}", e.getMessage());
-            throw new RuntimeException("Error uploading file", e);
-        }
+            return attachment;
+        });
     }
 
     @Override
@@ -421,47 +428,36 @@ public class TicketServiceImpl implements TicketService {
     public void deleteAttachment(UUID attachmentId) {
         Attachment attachment = getAttachmentById(attachmentId);
 
-        // Delete from GCS
-        try {
-            gcsService.deleteFile(attachment.getS3Key());
-        } catch (Exception e) {
-            log.error("Error deleting attachment from GCS: {}", e.getMessage());
-            // Continue with deletion even if S3 deletion fails
-        }
+        // The file is purged in the background once this commits
+        storageCleanupService.scheduleDeletion(StorageProvider.GCS, List.of(attachment.getS3Key()));
 
         attachmentRepository.delete(attachment);
+
+        if (attachment.getTicket() != null) {
+            ticketRepository.adjustAttachmentCount(attachment.getTicket().getId(), -1);
+        }
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Attachment addCommentAttachment(UUID commentId, MultipartFile file, UUID userId) {
-        TicketComment comment = getCommentById(commentId);
-        UserProfile user = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        if (!commentRepository.existsById(commentId)) {
+            throw new ResourceNotFoundException("Comment not found with id: " + commentId);
+        }
+        requireUserExists(userId);
 
-        try {
-            // Upload file to GCS
-            String s3Key = gcsService.uploadFile(file, "comments/" + commentId);
-
-            // Create attachment
-            Attachment attachment = new Attachment();
-            attachment.setFileName(file.getOriginalFilename());
-            attachment.setFileSize(file.getSize());
-            attachment.setContentType(file.getContentType());
-            attachment.setS3Key(s3Key);
-            attachment.setUser(user);
-            attachment.setComment(comment);
-            attachment.setPublic(true);
+        StoredFile storedFile = uploadAttachment(file, "comments/" + commentId);
 
-            Attachment savedAttachment = attachmentRepository.save(attachment);
+        return inTransactionOrDiscard(List.of(storedFile), () -> {
+            TicketComment comment = getCommentById(commentId);
+            Attachment attachment = saveAttachment(storedFile, userId);
+            attachment.setComment(comment);
 
             // Add attachment to comment
-            comment.addAttachment(savedAttachment);
+            comment.addAttachment(attachment);
 
-            return savedAttachment;
-        } catch (Exception e) {
-            log.error("Error uploading file to GCS: {}", e.getMessage());
-            throw new RuntimeException("Error uploading file", e);
-        }
+            return attachment;
+        });
     }
 
     @Override
@@ -542,50 +538,101 @@ public class TicketServiceImpl implements TicketService {
 
     @Override
     public Page<Ticket> searchTickets(String keyword, Pageable pageable) {
-        return ticketRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                keyword, keyword, pageable);
+        return ticketRepository.findAll(TicketSpecifications.keywordMatches(keyword), pageable);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Ticket updateTicketWithAttachments(String ticketNumber, TicketDTO ticketData, List<MultipartFile> attachments, UUID userId) {
-        // First update the ticket data
-        Ticket ticket = updateTicketByNumber(ticketNumber, ticketData);
+        UUID ticketId = getTicketByNumber(ticketNumber).getId();
+        requireUserExists(userId);
 
-        // Get the user
-        UserProfile user = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        // Upload before opening the transaction so no connection is held during object-store I/O.
+        // Files that fail to upload are skipped, as before.
+        List<StoredFile> storedFiles = attachmentUploadService.uploadAll(attachments, "tickets/" + ticketId);
 
-        // Process attachments if any
-        if (attachments != null && !attachments.isEmpty()) {
-            for (MultipartFile file : attachments) {
-                if (file != null && !file.isEmpty()) {
-                    try {
-                        // Upload file to GCS
-                        String s3Key = gcsService.uploadFile(file, "tickets/" + ticket.getId());
-
-                        // Create attachment
-                        Attachment attachment = new Attachment();
-                        attachment.setFileName(file.getOriginalFilename());
-                        attachment.setFileSize(file.getSize());
-                        attachment.setContentType(file.getContentType());
-                        attachment.setS3Key(s3Key);
-                        attachment.setUser(user);
-                        attachment.setTicket(ticket);
-                        attachment.setPublic(true);
-
-                        Attachment savedAttachment = attachmentRepository.save(attachment);
-
-                        // Add attachment to ticket
-                        ticket.addAttachment(savedAttachment);
-                    } catch (Exception e) {
-                        log.error("Error uploading file to GCS: {}", e.getMessage());
-                        // Continue with other attachments even if one fails
-                    }
-                }
+        return inTransactionOrDiscard(storedFiles, () -> {
+            Ticket ticket = updateTicketByNumber(ticketNumber, ticketData);
+
+            for (StoredFile storedFile : storedFiles) {
+                Attachment attachment = saveAttachment(storedFile, userId);
+                attachment.setTicket(ticket);
+
+                // Add attachment to ticket
+                ticket.addAttachment(attachment);
+            }
+            if (!storedFiles.isEmpty()) {
+                ticketRepository.adjustAttachmentCount(ticket.getId(), storedFiles.size());
             }
+
+            return ticket;
+        });
+    }
+
+    /**
+     * Uploads a single attachment file, outside of any transaction.
+     *
+     * @param file the file to upload
+     * @param folder the storage folder
+     * @return the stored file
+     */
+    private StoredFile uploadAttachment(MultipartFile file, String folder) {
+        try {
+            return attachmentUploadService.upload(file, folder);
+        } catch (Exception e) {
+            log.error("Error uploading file to GCS: {}", e.getMessage());
+            throw new RuntimeException("Error uploading file", e);
         }
+    }
 
-        return ticket;
+    /**
+     * Creates and saves the attachment row for a stored file. Must run inside a transaction.
+     *
+     * @param storedFile the stored file
+     * @param userId the ID of the uploading user
+     * @return the saved attachment, not yet linked to a ticket or comment
+     */
+    private Attachment saveAttachment(StoredFile storedFile, UUID userId) {
+        Attachment attachment = new Attachment();
+        attachment.setFileName(storedFile.getFileName());
+        attachment.setFileSize(storedFile.getFileSize());
+        attachment.setContentType(storedFile.getContentType());
+        attachment.setS3Key(storedFile.getObjectName());
+        attachment.setUser(userProfileRepository.getReferenceById(userId));
+        attachment.setPublic(true);
+        return attachmentRepository.save(attachment);
+    }
+
+    /**
+     * Records uploaded files in a short transaction of its own. If the transaction fails,
+     * the uploaded objects are deleted again so they do not linger without metadata.
+     *
+     * @param storedFiles the files uploaded for this operation
+     * @param work the database work
+     * @return the result of the work
+     */
+    private <T> T inTransactionOrDiscard(List<StoredFile> storedFiles, Supplier<T> work) {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> work.get());
+        } catch (RuntimeException e) {
+            if (!storedFiles.isEmpty()) {
+                log.error("Error recording {} attachments, deleting uploaded files: {}", storedFiles.size(), e.getMessage());
+                attachmentUploadService.discard(storedFiles);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks that a user profile exists.
+     *
+     * @param userId the user ID
+     * @throws ResourceNotFoundException if it does not
+     */
+    private void requireUserExists(UUID userId) {
+        if (!userProfileRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
     }
 
     /**
@@ -8,7 +8,11 @@ import com.planb.supportticket.repository.UserProfileRepository;
 import com.planb.supportticket.service.WebSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -18,15 +22,31 @@ import java.util.UUID;
 /**
  * Implementation of the WebSocketService interface.
  * Handles real-time messaging and notifications via WebSocket.
+ *
+ * Role notifications are published once to the role's broker topic. Where clients only listen on
+ * their own queue ({@code websocket.role-fanout.per-user}), the members of the role are walked in
+ * batches of IDs straight from the role index and each batch is sent on a small fan-out pool.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketServiceImpl implements WebSocketService {
 
+    private static final String ROLE_TOPIC_PREFIX = "/topic/role/";
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
     private final SimpMessagingTemplate messagingTemplate;
     private final UserProfileRepository userProfileRepository;
 
+    @Qualifier("roleFanoutExecutor")
+    private final ThreadPoolTaskExecutor fanoutExecutor;
+
+    @Value("${websocket.role-fanout.per-user:false}")
+    private boolean roleFanoutPerUser;
+
+    @Value("${websocket.role-fanout.batch-size:1000}")
+    private int roleFanoutBatchSize;
+
     @Override
     public void sendNotificationToUser(UUID userId, NotificationDTO notification) {
         // Set timestamp if not already set
@@ -54,21 +74,65 @@ public class WebSocketServiceImpl implements WebSocketService {
 
     @Override
     public void sendNotificationToRole(String role, NotificationDTO notification) {
+        UserRole userRole;
         try {
-            // Convert string role to UserRole enum
-            UserRole userRole = UserRole.valueOf(role);
+            userRole = UserRole.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid role: {}", role);
+            return;
+        }
+
+        if (notification.getTimestamp() == null) {
+            notification.setTimestamp(LocalDateTime.now());
+        }
+        if (notification.getId() == null) {
+            notification.setId(UUID.randomUUID());
+        }
 
-            // Find all users with the specified role
-            List<UserProfile> users = userProfileRepository.findByRolesContaining(userRole);
+        if (!roleFanoutPerUser) {
+            // One message to the broker, which delivers it to every subscriber of the role topic
+            messagingTemplate.convertAndSend(ROLE_TOPIC_PREFIX + userRole.name(), notification);
+            log.debug("Published notification to role topic {}: {}", userRole, notification.getTitle());
+            return;
+        }
 
-            // Send notification to each user
-            for (UserProfile user : users) {
-                sendNotificationToUser(user.getId(), notification);
+        int dispatched = 0;
+        UUID afterId = FIRST_ID;
+        while (true) {
+            List<UUID> userIds = userProfileRepository.findIdBatchByRoleAfter(
+                    userRole.name(), afterId, roleFanoutBatchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            // Runs on the caller when all fan-out threads are busy, which throttles the ID walk
+            fanoutExecutor.execute(() -> sendToUsers(userIds, notification));
+            dispatched += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+            if (userIds.size() < roleFanoutBatchSize) {
+                break;
             }
+        }
 
-            log.debug("Sent notification to {} users with role {}: {}", users.size(), role, notification.getTitle());
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid role: {}", role);
+        log.debug("Dispatched notification to {} users with role {}: {}", dispatched, role, notification.getTitle());
+    }
+
+    /**
+     * Sends a notification to each user of a batch, each with its own copy addressed to that user.
+     *
+     * @param userIds the user IDs
+     * @param notification the notification to send
+     */
+    private void sendToUsers(List<UUID> userIds, NotificationDTO notification) {
+        for (UUID userId : userIds) {
+            try {
+                messagingTemplate.convertAndSendToUser(
+                        userId.toString(),
+                        "/queue/notifications",
+                        notification.toBuilder().userId(userId).build()
+                );
+            } catch (MessagingException e) {
+                log.warn("Failed to send role notification to user {}: {}", userId, e.getMessage());
+            }
         }
     }
 
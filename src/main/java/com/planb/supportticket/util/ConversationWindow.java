@@ -0,0 +1,238 @@
+package com.planb.supportticket.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Sliding window over a conversation, bounded by an approximate token count.
+ * Messages are counted once when added and the window is trimmed from the oldest end as new ones
+ * arrive, so each turn costs the size of the new message rather than a pass over the whole
+ * conversation. The window always starts with a user message, as some providers require. Messages
+ * trimmed off can be kept for folding into a rolling summary, which is counted against the same
+ * budget. Clearing the window starts a new generation, and a summary of messages taken before that
+ * is discarded when it arrives.
+ */
+public final class ConversationWindow {
+
+    // Rough cost of the role and separators each message adds to a request
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private final int tokenBudget;
+    private final boolean keepTrimmed;
+    private final int maxTrimmedTokens;
+    private final Deque<Turn> turns = new ArrayDeque<>();
+    private final Deque<Turn> trimmed = new ArrayDeque<>();
+    private int turnTokens;
+    private int trimmedTokens;
+    private String summary;
+    private int summaryTokens;
+    private boolean summarizing;
+    private long generation;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param tokenBudget the most tokens the messages and summary may take together
+     * @param keepTrimmed whether to keep trimmed messages for {@link #takeTrimmed(int)}
+     * @param maxTrimmedTokens the most tokens of trimmed messages to keep; older ones are dropped
+     */
+    public ConversationWindow(int tokenBudget, boolean keepTrimmed, int maxTrimmedTokens) {
+        if (tokenBudget <= 0) {
+            throw new IllegalArgumentException("Token budget must be positive");
+        }
+        this.tokenBudget = tokenBudget;
+        this.keepTrimmed = keepTrimmed;
+        this.maxTrimmedTokens = maxTrimmedTokens;
+    }
+
+    /**
+     * Estimates the tokens of a text, at about four characters per token for English prose.
+     *
+     * @param text the text
+     * @return the estimated token count
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    /**
+     * Adds a message and trims the oldest ones until the window fits its budget. The newest message
+     * is kept even if it alone exceeds the budget.
+     *
+     * @param role the role, such as "user" or "assistant"
+     * @param content the content
+     */
+    public synchronized void add(String role, String content) {
+        Turn turn = new Turn(role, content, estimateTokens(content) + MESSAGE_OVERHEAD_TOKENS);
+        turns.addLast(turn);
+        turnTokens += turn.tokens;
+
+        while (turns.size() > 1
+                && (turnTokens + summaryTokens > tokenBudget || !"user".equals(turns.peekFirst().role))) {
+            trim(turns.pollFirst());
+        }
+    }
+
+    /**
+     * Gets the messages in the window, oldest first.
+     *
+     * @return a copy of the messages
+     */
+    public synchronized List<Turn> getTurns() {
+        return new ArrayList<>(turns);
+    }
+
+    /**
+     * Gets the summary of the messages trimmed so far.
+     *
+     * @return the summary, or null if there is none
+     */
+    public synchronized String getSummary() {
+        return summary;
+    }
+
+    /**
+     * Gets the estimated tokens of the messages and summary in the window.
+     *
+     * @return the token count
+     */
+    public synchronized int getTokens() {
+        return turnTokens + summaryTokens;
+    }
+
+    /**
+     * Takes the trimmed messages for summarizing, if there are enough of them and no summary is
+     * being made. Unless empty, must be followed by {@link #setSummary} or {@link #summaryFailed}.
+     *
+     * @param minTokens the fewest tokens worth summarizing
+     * @return the trimmed messages, possibly none
+     */
+    public synchronized Trimmed takeTrimmed(int minTokens) {
+        if (summarizing || trimmedTokens < Math.max(minTokens, 1)) {
+            return new Trimmed(List.of(), generation);
+        }
+        List<Turn> taken = new ArrayList<>(trimmed);
+        trimmed.clear();
+        trimmedTokens = 0;
+        summarizing = true;
+        return new Trimmed(taken, generation);
+    }
+
+    /**
+     * Replaces the summary with one that also covers the messages taken. Ignored if the window was
+     * cleared since they were taken.
+     *
+     * @param taken the messages returned by {@link #takeTrimmed}
+     * @param summary the new summary
+     */
+    public synchronized void setSummary(Trimmed taken, String summary) {
+        if (taken.generation != generation) {
+            return;
+        }
+        this.summary = summary;
+        this.summaryTokens = estimateTokens(summary) + MESSAGE_OVERHEAD_TOKENS;
+        this.summarizing = false;
+        while (turns.size() > 1 && turnTokens + summaryTokens > tokenBudget) {
+            trim(turns.pollFirst());
+        }
+    }
+
+    /**
+     * Returns messages taken for summarizing after the summary could not be made. Ignored if the
+     * window was cleared since they were taken.
+     *
+     * @param taken the messages returned by {@link #takeTrimmed}
+     */
+    public synchronized void summaryFailed(Trimmed taken) {
+        if (taken.generation != generation) {
+            return;
+        }
+        summarizing = false;
+        List<Turn> turnsTaken = taken.turns;
+        for (int i = turnsTaken.size() - 1; i >= 0; i--) {
+            trimmed.addFirst(turnsTaken.get(i));
+            trimmedTokens += turnsTaken.get(i).tokens;
+        }
+        dropExcessTrimmed();
+    }
+
+    /**
+     * Empties the window, its summary and the trimmed messages. A summary still being made is
+     * discarded when it arrives.
+     */
+    public synchronized void clear() {
+        generation++;
+        summarizing = false;
+        turns.clear();
+        trimmed.clear();
+        turnTokens = 0;
+        trimmedTokens = 0;
+        summary = null;
+        summaryTokens = 0;
+    }
+
+    private void trim(Turn turn) {
+        turnTokens -= turn.tokens;
+        if (keepTrimmed) {
+            trimmed.addLast(turn);
+            trimmedTokens += turn.tokens;
+            dropExcessTrimmed();
+        }
+    }
+
+    private void dropExcessTrimmed() {
+        while (trimmedTokens > maxTrimmedTokens && !trimmed.isEmpty()) {
+            trimmedTokens -= trimmed.pollFirst().tokens;
+        }
+    }
+
+    /**
+     * Messages taken for summarizing, with the generation of the window they were taken from.
+     */
+    public static final class Trimmed {
+        private final List<Turn> turns;
+        private final long generation;
+
+        private Trimmed(List<Turn> turns, long generation) {
+            this.turns = turns;
+            this.generation = generation;
+        }
+
+        public List<Turn> getTurns() {
+            return turns;
+        }
+
+        public boolean isEmpty() {
+            return turns.isEmpty();
+        }
+    }
+
+    /**
+     * A message in the window with its estimated token count.
+     */
+    public static final class Turn {
+        private final String role;
+        private final String content;
+        private final int tokens;
+
+        private Turn(String role, String content, int tokens) {
+            this.role = role;
+            this.content = content;
+            this.tokens = tokens;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public int getTokens() {
+            return tokens;
+        }
+    }
+}
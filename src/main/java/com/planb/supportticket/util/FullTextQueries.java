@@ -0,0 +1,62 @@
+package com.planb.supportticket.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for building Postgres full-text search queries from user input.
+ */
+public final class FullTextQueries {
+
+    /**
+     * Marks the start of a matched term in ts_headline output. A private-use character, removed
+     * from the text before highlighting, so stored content can never produce one.
+     */
+    public static final String HIGHLIGHT_START = "\uE000";
+
+    /**
+     * Marks the end of a matched term in ts_headline output.
+     */
+    public static final String HIGHLIGHT_STOP = "\uE001";
+
+    private FullTextQueries() {
+    }
+
+    /**
+     * Converts free text into a to_tsquery expression where every term must match as a prefix,
+     * e.g. "reset pass" becomes {@code reset:* & pass:*}. Everything except letters and digits is
+     * treated as a separator, so user input can never produce tsquery syntax errors.
+     *
+     * @param text the user input
+     * @return the tsquery expression, or an empty string if the input has no searchable terms
+     */
+    public static String toPrefixQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    /**
+     * Converts ts_headline output delimited with {@link #HIGHLIGHT_START} and {@link #HIGHLIGHT_STOP}
+     * into HTML: the text is escaped and only the matched terms are wrapped in &lt;mark&gt; tags.
+     *
+     * @param headline the ts_headline output, may be null
+     * @return the HTML snippet, or null if the headline is null
+     */
+    public static String toHtmlSnippet(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline, StandardCharsets.UTF_8.name())
+                .replace(HIGHLIGHT_START, "<mark>")
+                .replace(HIGHLIGHT_STOP, "</mark>");
+    }
+}
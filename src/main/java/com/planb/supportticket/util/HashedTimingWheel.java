@@ -0,0 +1,165 @@
+package com.planb.supportticket.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel for large numbers of one-shot timers.
+ * Timers are hashed into a ring of buckets by their deadline tick; one thread advances the ring a
+ * bucket per tick and fires what is due there, so scheduling and cancelling are O(1) whatever the
+ * number of pending timers. Deadlines are rounded up to the tick, which suits timers measured in
+ * minutes or hours. Tasks run on the wheel thread and should hand real work to an executor.
+ */
+@Slf4j
+public final class HashedTimingWheel {
+
+    private final long tickNanos;
+    private final List<List<Timer>> buckets;
+    private final int mask;
+    private final Queue<Timer> added = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Creates a wheel and starts its thread.
+     *
+     * @param tickDuration the tick length
+     * @param unit the unit of the tick length
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     * @param threadName the name of the wheel thread
+     */
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        if (tickDuration <= 0 || wheelSize < 1) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run once after a delay.
+     *
+     * @param task the task
+     * @param delay the delay, run on the next tick if not positive
+     * @param unit the unit of the delay
+     * @return a handle to cancel the task
+     */
+    public Timer schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(unit.toNanos(delay), 0);
+        Timer timer = new Timer(task, deadline);
+        added.add(timer);
+        return timer;
+    }
+
+    /**
+     * Stops the wheel thread. Pending tasks are dropped.
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = tickNanos * (tick + 1) - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+            }
+            transferAdded();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    /**
+     * Moves newly scheduled timers into their buckets. Only called from the wheel thread.
+     */
+    private void transferAdded() {
+        Timer timer;
+        while ((timer = added.poll()) != null) {
+            if (timer.cancelled) {
+                continue;
+            }
+            long deadlineTick = (timer.deadline + tickNanos - 1) / tickNanos;
+            // Anything already overdue goes into the current bucket
+            long targetTick = Math.max(deadlineTick, tick);
+            timer.remainingRounds = (targetTick - tick) / buckets.size();
+            buckets.get((int) (targetTick & mask)).add(timer);
+        }
+    }
+
+    private void expire(List<Timer> bucket) {
+        Iterator<Timer> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timer timer = it.next();
+            if (timer.cancelled) {
+                it.remove();
+            } else if (timer.remainingRounds <= 0) {
+                it.remove();
+                try {
+                    timer.task.run();
+                } catch (RuntimeException e) {
+                    // One failing task must not stop the wheel
+                    log.error("Timing wheel task failed", e);
+                }
+            } else {
+                timer.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timer {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timer(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet. The timer is dropped from its bucket lazily.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Checks whether the task was cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
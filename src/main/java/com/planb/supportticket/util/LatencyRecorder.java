@@ -0,0 +1,52 @@
+package com.planb.supportticket.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count, total and maximum of recorded durations, for the stats endpoints.
+ * Safe for concurrent use; recording never blocks.
+ */
+public final class LatencyRecorder {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     *
+     * @return the mean in milliseconds, or 0 if nothing was recorded
+     */
+    public double getAverageMillis() {
+        long n = count.sum();
+        return n > 0 ? toMillis(totalNanos.sum()) / n : 0;
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @return the maximum in milliseconds, or 0 if nothing was recorded
+     */
+    public double getMaxMillis() {
+        return toMillis(maxNanos.get());
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
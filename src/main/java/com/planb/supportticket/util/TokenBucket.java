@@ -0,0 +1,67 @@
+package com.planb.supportticket.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe token bucket rate limiter.
+ * Tokens refill continuously at a fixed rate up to the capacity, so short bursts up to the
+ * capacity go out at once while the long-run rate never exceeds the refill rate.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a bucket that starts full.
+     *
+     * @param ratePerSecond the refill rate, must be positive
+     * @param capacity the maximum burst, at least 1
+     */
+    public TokenBucket(double ratePerSecond, double capacity) {
+        if (ratePerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Rate must be positive and capacity at least 1");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one token, waiting for it to refill if the bucket is empty.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Empties the bucket, e.g. after the remote side reported a rate limit, so every caller
+     * backs off until tokens refill.
+     */
+    public synchronized void drain() {
+        refill();
+        tokens = 0;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
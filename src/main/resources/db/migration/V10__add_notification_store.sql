@@ -0,0 +1,34 @@
+-- Persistent notification inbox.
+-- Brings the notifications table from V1 in line with BaseEntity and adds the columns the API returns.
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS reference_type VARCHAR(50);
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS ticket_id UUID;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS read_at TIMESTAMP;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS created_by VARCHAR(255);
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS updated_by VARCHAR(255);
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS version BIGINT;
+
+-- A boolean index is never selective enough to be used, and the user index cannot serve ordered listings.
+DROP INDEX IF EXISTS idx_notifications_read;
+DROP INDEX IF EXISTS idx_notifications_user_id;
+
+-- Keyset listing of a user's inbox, newest first
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created
+    ON notifications(user_id, created_at DESC, id DESC);
+
+-- Unread notifications only: stays small however large the inbox grows, and serves both the
+-- unread listing and mark-all-read, which look up a user's rows WHERE read = false
+CREATE INDEX IF NOT EXISTS idx_notifications_unread
+    ON notifications(user_id, created_at DESC, id DESC)
+    WHERE read = false;
+
+-- Per-user unread counter, maintained in the same transaction as every notification write,
+-- so the badge count is a primary key lookup instead of a count over the inbox
+CREATE TABLE IF NOT EXISTS notification_unread_counts (
+    user_id UUID PRIMARY KEY REFERENCES user_profiles(id) ON DELETE CASCADE,
+    unread_count INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT INTO notification_unread_counts (user_id, unread_count)
+SELECT user_id, count(*) FROM notifications WHERE read = false GROUP BY user_id
+ON CONFLICT (user_id) DO UPDATE SET unread_count = EXCLUDED.unread_count;
@@ -0,0 +1,7 @@
+-- Coalescing of bursty notifications.
+-- WebSocket updates about the same ticket for the same recipient share a coalesce key and are
+-- delivered as one merged message per window.
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS coalesce_key VARCHAR(512);
+
+-- Ticket notifications already covered by an email digest
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS digested_at TIMESTAMP;
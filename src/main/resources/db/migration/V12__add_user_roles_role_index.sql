@@ -0,0 +1,9 @@
+-- Role membership lives in user_roles (UserProfile.roles), which earlier migrations never created.
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id UUID NOT NULL REFERENCES user_profiles(id) ON DELETE CASCADE,
+    role VARCHAR(50) NOT NULL
+);
+
+-- Lets role fan-out walk the members of a role in user ID order straight from the index,
+-- without touching user_profiles.
+CREATE INDEX IF NOT EXISTS idx_user_roles_role_user_id ON user_roles(role, user_id);
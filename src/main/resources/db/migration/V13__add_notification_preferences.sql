@@ -0,0 +1,16 @@
+-- Per-user notification channel preferences.
+-- A row overrides the default (enabled) for one notification type on one channel;
+-- types and channels without a row are delivered as before.
+CREATE TABLE IF NOT EXISTS notification_preferences (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES user_profiles(id) ON DELETE CASCADE,
+    notification_type VARCHAR(50) NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT uk_notification_preferences_user_type_channel UNIQUE (user_id, notification_type, channel)
+);
@@ -0,0 +1,18 @@
+-- One row per consultation reminder that was sent.
+-- Inserting the row claims the reminder, so when several nodes have the same reminder on their
+-- timing wheel only the one whose insert succeeds sends it. scheduled_at is part of the key so a
+-- rescheduled consultation gets its reminders again.
+CREATE TABLE IF NOT EXISTS consultation_reminders (
+    id UUID PRIMARY KEY,
+    consultation_id UUID NOT NULL,
+    offset_minutes INTEGER NOT NULL,
+    scheduled_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT uk_consultation_reminders_slot UNIQUE (consultation_id, offset_minutes, scheduled_at)
+);
+
+CREATE INDEX IF NOT EXISTS idx_consultation_reminders_scheduled_at ON consultation_reminders(scheduled_at);
@@ -0,0 +1,34 @@
+-- AI chat conversations, so they survive restarts and can be continued on any node.
+-- session_id is the AI session ID used by AIServiceImpl; room_id maps a chat room back to it.
+CREATE TABLE IF NOT EXISTS ai_conversations (
+    id UUID PRIMARY KEY,
+    session_id VARCHAR(64) NOT NULL,
+    room_id VARCHAR(64),
+    user_id VARCHAR(255),
+    model_id VARCHAR(50) NOT NULL,
+    last_activity_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT uk_ai_conversations_session UNIQUE (session_id),
+    CONSTRAINT uk_ai_conversations_room UNIQUE (room_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_conversations_last_activity ON ai_conversations(last_activity_at);
+
+CREATE TABLE IF NOT EXISTS ai_conversation_messages (
+    id UUID PRIMARY KEY,
+    session_id VARCHAR(64) NOT NULL REFERENCES ai_conversations(session_id) ON DELETE CASCADE,
+    role VARCHAR(20) NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT
+);
+
+-- Restoring a session reads its latest messages
+CREATE INDEX IF NOT EXISTS idx_ai_conversation_messages_session ON ai_conversation_messages(session_id, created_at);
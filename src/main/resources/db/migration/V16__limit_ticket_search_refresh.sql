@@ -0,0 +1,30 @@
+-- Only rebuild a ticket's search document when a searchable column actually changes.
+-- Hibernate writes every column on update, so "UPDATE OF <columns>" alone fired on every status
+-- change or assignment and re-aggregated all of the ticket's comments each time.
+DROP TRIGGER IF EXISTS tickets_search_vector_update ON tickets;
+
+CREATE TRIGGER tickets_search_vector_insert
+    BEFORE INSERT ON tickets
+    FOR EACH ROW EXECUTE FUNCTION tickets_search_vector_trigger();
+
+CREATE TRIGGER tickets_search_vector_update
+    BEFORE UPDATE OF ticket_number, title, description, detailed_description ON tickets
+    FOR EACH ROW
+    WHEN (OLD.ticket_number IS DISTINCT FROM NEW.ticket_number
+          OR OLD.title IS DISTINCT FROM NEW.title
+          OR OLD.description IS DISTINCT FROM NEW.description
+          OR OLD.detailed_description IS DISTINCT FROM NEW.detailed_description)
+    EXECUTE FUNCTION tickets_search_vector_trigger();
+
+-- Same for comments: edits that leave the content and ticket alone do not touch the document
+DROP TRIGGER IF EXISTS ticket_comments_search_vector_update ON ticket_comments;
+
+CREATE TRIGGER ticket_comments_search_vector_insert_delete
+    AFTER INSERT OR DELETE ON ticket_comments
+    FOR EACH ROW EXECUTE FUNCTION ticket_comments_search_vector_trigger();
+
+CREATE TRIGGER ticket_comments_search_vector_update
+    AFTER UPDATE OF content, ticket_id ON ticket_comments
+    FOR EACH ROW
+    WHEN (OLD.content IS DISTINCT FROM NEW.content OR OLD.ticket_id IS DISTINCT FROM NEW.ticket_id)
+    EXECUTE FUNCTION ticket_comments_search_vector_trigger();
@@ -0,0 +1,3 @@
+-- Leasing locks all due rows of a coalesce key together, looked up by key
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_coalesce_key ON notification_outbox(coalesce_key)
+    WHERE failed_at IS NULL AND coalesce_key IS NOT NULL;
@@ -0,0 +1,7 @@
+-- Native sequence backend for ticket numbers (ticket.number.backend=sequence)
+CREATE SEQUENCE IF NOT EXISTS ticket_number_seq START WITH 1 INCREMENT BY 1;
+
+-- Continue from the current high-water mark of the table-based generator
+SELECT setval('ticket_number_seq',
+              COALESCE((SELECT next_value FROM sequence_generators WHERE sequence_name = 'TICKET_SEQUENCE'), 1),
+              false);
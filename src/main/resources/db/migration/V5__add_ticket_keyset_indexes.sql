@@ -0,0 +1,8 @@
+-- Composite indexes backing keyset pagination on ticket listings.
+-- Each one matches an "equality filter + ORDER BY created_at DESC, id DESC" query,
+-- so Postgres can seek directly to the cursor position instead of scanning an OFFSET.
+CREATE INDEX IF NOT EXISTS idx_tickets_created_at_id ON tickets(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tickets_status_created_at_id ON tickets(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tickets_user_created_at_id ON tickets(user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tickets_expert_created_at_id ON tickets(assigned_expert_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tickets_priority_created_at_id ON tickets(priority, created_at, id);
@@ -0,0 +1,59 @@
+-- Full-text search over tickets and their comments, plus trigram indexes for fuzzy matching
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Weighted search document: number/title (A), description (B), detailed description (C), comments (D)
+CREATE OR REPLACE FUNCTION ticket_search_document(p_ticket_id UUID, p_ticket_number TEXT, p_title TEXT,
+                                                  p_description TEXT, p_detailed_description TEXT)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('english', coalesce(p_ticket_number, '') || ' ' || coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(p_description, '')), 'B')
+        || setweight(to_tsvector('english', coalesce(p_detailed_description, '')), 'C')
+        || setweight(to_tsvector('english', coalesce(
+               (SELECT string_agg(c.content, ' ') FROM ticket_comments c WHERE c.ticket_id = p_ticket_id), '')), 'D');
+$$ LANGUAGE sql STABLE;
+
+-- Keep the document current when searchable ticket fields change
+CREATE OR REPLACE FUNCTION tickets_search_vector_trigger() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := ticket_search_document(NEW.id, NEW.ticket_number, NEW.title,
+                                                NEW.description, NEW.detailed_description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tickets_search_vector_update ON tickets;
+CREATE TRIGGER tickets_search_vector_update
+    BEFORE INSERT OR UPDATE OF ticket_number, title, description, detailed_description ON tickets
+    FOR EACH ROW EXECUTE FUNCTION tickets_search_vector_trigger();
+
+-- Refresh the owning ticket's document when its comments change
+CREATE OR REPLACE FUNCTION ticket_comments_search_vector_trigger() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE tickets t
+        SET search_vector = ticket_search_document(t.id, t.ticket_number, t.title, t.description, t.detailed_description)
+        WHERE t.id = OLD.ticket_id;
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.ticket_id IS DISTINCT FROM OLD.ticket_id) THEN
+        UPDATE tickets t
+        SET search_vector = ticket_search_document(t.id, t.ticket_number, t.title, t.description, t.detailed_description)
+        WHERE t.id = NEW.ticket_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS ticket_comments_search_vector_update ON ticket_comments;
+CREATE TRIGGER ticket_comments_search_vector_update
+    AFTER INSERT OR UPDATE OF content, ticket_id OR DELETE ON ticket_comments
+    FOR EACH ROW EXECUTE FUNCTION ticket_comments_search_vector_trigger();
+
+-- Backfill existing tickets
+UPDATE tickets t
+SET search_vector = ticket_search_document(t.id, t.ticket_number, t.title, t.description, t.detailed_description);
+
+CREATE INDEX IF NOT EXISTS idx_tickets_search_vector ON tickets USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_tickets_ticket_number_trgm ON tickets USING GIN (ticket_number gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_tickets_title_trgm ON tickets USING GIN (title gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- Denormalized comment and attachment counters on tickets.
+-- Maintained by TicketServiceImpl in the same transaction as the comment/attachment change
+-- and repaired periodically by TicketCounterReconciler, replacing the per-row count subquery.
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS attachment_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE tickets t
+SET comment_count = (SELECT count(*) FROM ticket_comments c WHERE c.ticket_id = t.id),
+    attachment_count = (SELECT count(*) FROM attachments a WHERE a.ticket_id = t.id);
@@ -0,0 +1,18 @@
+-- Deletion outbox for object-store files.
+-- Deleting a ticket, comment or attachment records the files to purge here in the same transaction;
+-- StorageCleanupService deletes them in batches in the background and retries failures with backoff.
+CREATE TABLE IF NOT EXISTS storage_deletion_outbox (
+    id UUID PRIMARY KEY,
+    storage_provider VARCHAR(20) NOT NULL,
+    object_key VARCHAR(1024) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_storage_deletion_next_attempt ON storage_deletion_outbox(next_attempt_at);
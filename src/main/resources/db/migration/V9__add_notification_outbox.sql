@@ -0,0 +1,24 @@
+-- Outbox for user notifications.
+-- NotificationService records each WebSocket message, email and SMS here in the caller's transaction;
+-- NotificationOutboxService delivers them after commit and retries failures with backoff.
+-- Rows are deleted once delivered; rows that run out of attempts keep failed_at set for inspection.
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id UUID PRIMARY KEY,
+    channel VARCHAR(20) NOT NULL,
+    recipient VARCHAR(512) NOT NULL,
+    subject VARCHAR(255),
+    payload TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    failed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT
+);
+
+-- Only undelivered rows are polled, so keep dead rows out of the index
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due ON notification_outbox(next_attempt_at)
+    WHERE failed_at IS NULL;
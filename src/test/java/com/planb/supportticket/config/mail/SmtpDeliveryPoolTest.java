@@ -0,0 +1,105 @@
+package com.planb.supportticket.config.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs SmtpDeliveryPool against an in-process GreenMail SMTP server.
+ */
+class SmtpDeliveryPoolTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SmtpDeliveryPool pool;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        pool = new SmtpDeliveryPool(mailSender);
+        ReflectionTestUtils.setField(pool, "connections", 1);
+        ReflectionTestUtils.setField(pool, "queueCapacity", 100);
+        ReflectionTestUtils.setField(pool, "submitTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 100);
+        ReflectionTestUtils.setField(pool, "idleTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(pool, "ratePerSecond", 0.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void messagesReuseThePooledConnection() throws Exception {
+        pool.init();
+
+        sendAll(10);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(10);
+        assertThat(pool.getStats().getConnectionsOpened()).isEqualTo(1);
+        assertThat(pool.getStats().getSent()).isEqualTo(10);
+    }
+
+    @Test
+    void reconnectsAfterTheMessagesPerConnectionCap() throws Exception {
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 4);
+        pool.init();
+
+        sendAll(10);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(10);
+        assertThat(pool.getStats().getConnectionsOpened()).isEqualTo(3);
+    }
+
+    @Test
+    void reconnectsWhenTheServerClosesThePooledConnection() throws Exception {
+        pool.init();
+        sendAll(1);
+
+        // Restarting the server drops the connection the worker is holding on to
+        greenMail.reset();
+        sendAll(2);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(pool.getStats().getConnectionsOpened()).isEqualTo(2);
+        assertThat(pool.getStats().getFailed()).isZero();
+    }
+
+    private void sendAll(int count) throws Exception {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(pool.submit(message("Message " + i)));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    }
+
+    private MimeMessage message(String subject) throws MessagingException {
+        MimeMessage message = pool.createMimeMessage();
+        message.setFrom(new InternetAddress("support@example.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("customer@example.com"));
+        message.setSubject(subject);
+        message.setText("Hello");
+        return message;
+    }
+}
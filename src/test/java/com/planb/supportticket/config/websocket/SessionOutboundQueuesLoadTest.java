@@ -0,0 +1,340 @@
+package com.planb.supportticket.config.websocket;
+
+import com.planb.supportticket.config.ExecutorConfig;
+import com.planb.supportticket.dto.WebSocketOutboundStats;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives SessionOutboundQueues with clients that stop reading: their sends block until the session
+ * is closed, as a write to a full socket does. Checks that the send time limit closes them, that
+ * thousands of them go through each degradation step, and that the other clients still get every
+ * message they cannot do without.
+ */
+@Slf4j
+class SessionOutboundQueuesLoadTest {
+    private static final int SENDER_THREADS = 4;
+    private static final int SLOW_CLIENTS = 8;
+    private static final int FAST_CLIENTS = 40;
+    private static final int MESSAGES_PER_CLIENT = 200;
+    private static final long SEND_TIME_LIMIT_MS = 300;
+
+    private static final int CROWD_SENDER_THREADS = 16;
+    private static final int CROWD_STALLED_CLIENTS = 2000;
+    private static final int CROWD_FAST_CLIENTS = 200;
+    private static final int ROUNDS = 100;
+    private static final int HIGH_WATER = 50;
+    private static final int MAX_MESSAGES = 200;
+    private static final int MAX_BYTES = 65_536;
+    private static final int LARGE_FRAME_BYTES = 4096;
+
+    private static final String TICKET = "/topic/ticket/";
+    private static final String TYPING = "/topic/room/7/typing";
+    private static final String PRESENCE = "/topic/events";
+
+    private final Map<String, WebSocketSession> connected = new ConcurrentHashMap<>();
+
+    private ThreadPoolTaskExecutor senderExecutor;
+    private ScheduledExecutorService watchdog;
+    private SessionOutboundQueues queues;
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        senderExecutor = new ExecutorConfig().webSocketOutboundExecutor(SENDER_THREADS);
+        senderExecutor.initialize();
+
+        queues = new SessionOutboundQueues(senderExecutor);
+        ReflectionTestUtils.setField(queues, "enabled", true);
+        ReflectionTestUtils.setField(queues, "highWaterMessages", 200);
+        ReflectionTestUtils.setField(queues, "maxMessages", 1000);
+        ReflectionTestUtils.setField(queues, "maxBytes", 1_048_576);
+        ReflectionTestUtils.setField(queues, "drainBatchSize", 50);
+        ReflectionTestUtils.setField(queues, "sendTimeLimitMs", SEND_TIME_LIMIT_MS);
+        ReflectionTestUtils.setField(queues, "droppableDestinations", List.of("/topic/room/*/typing"));
+        ReflectionTestUtils.setField(queues, "coalesceDestinations", List.of("/topic/events"));
+        queues.init();
+
+        handler = queues.decorate(new TextWebSocketHandler() {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) {
+                connected.put(session.getId(), session);
+            }
+        });
+
+        // Stands in for the @Scheduled check
+        watchdog = Executors.newSingleThreadScheduledExecutor();
+        watchdog.scheduleWithFixedDelay(queues::closeStalledSessions, 50, 50, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchdog.shutdownNow();
+        senderExecutor.shutdown();
+    }
+
+    @Test
+    void stalledClientsAreClosedAndOthersStillReceiveEverything() throws Exception {
+        List<Client> slow = new ArrayList<>();
+        List<Client> fast = new ArrayList<>();
+        // Slow clients connect first so they take every sender thread before anyone else
+        for (int i = 0; i < SLOW_CLIENTS; i++) {
+            slow.add(connect("slow-" + i, true));
+        }
+        for (int i = 0; i < FAST_CLIENTS; i++) {
+            fast.add(connect("fast-" + i, false));
+        }
+
+        long started = System.nanoTime();
+        for (int n = 0; n < MESSAGES_PER_CLIENT; n++) {
+            for (Client client : slow) {
+                client.queued.sendMessage(frame("/topic/ticket/" + n));
+            }
+            for (Client client : fast) {
+                client.queued.sendMessage(frame("/topic/ticket/" + n));
+            }
+        }
+
+        for (Client client : fast) {
+            assertThat(client.allReceived.await(10, TimeUnit.SECONDS)).as(client.id).isTrue();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        for (Client client : slow) {
+            assertThat(client.closed.await(5, TimeUnit.SECONDS)).as(client.id).isTrue();
+        }
+
+        // Let the last sends finish recording before reading the counters
+        senderExecutor.getThreadPoolExecutor().shutdown();
+        assertThat(senderExecutor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        WebSocketOutboundStats stats = queues.getStats();
+        log.info("{} fast clients got {} messages each in {} ms next to {} stalled clients; stats {}",
+                FAST_CLIENTS, MESSAGES_PER_CLIENT, elapsedMs, SLOW_CLIENTS, stats);
+
+        for (Client client : slow) {
+            assertThat(client.closeStatus.get()).isEqualTo(CloseStatus.SESSION_NOT_RELIABLE);
+            assertThat(client.received.get()).isZero();
+        }
+        for (Client client : fast) {
+            assertThat(client.received.get()).isEqualTo(MESSAGES_PER_CLIENT);
+            assertThat(client.closeStatus.get()).isNull();
+        }
+        assertThat(stats.getSlowConsumersDisconnected()).isEqualTo(SLOW_CLIENTS);
+        assertThat(stats.getDestinations().get("/topic/ticket/*").getSent())
+                .isEqualTo((long) FAST_CLIENTS * MESSAGES_PER_CLIENT);
+    }
+
+    @Test
+    void thousandsOfStalledClientsDegradeInStepsWhileOthersKeepUp() throws Exception {
+        tearDown();
+        senderExecutor = new ExecutorConfig().webSocketOutboundExecutor(CROWD_SENDER_THREADS);
+        senderExecutor.initialize();
+        ReflectionTestUtils.setField(queues, "senderExecutor", senderExecutor);
+        ReflectionTestUtils.setField(queues, "highWaterMessages", HIGH_WATER);
+        ReflectionTestUtils.setField(queues, "maxMessages", MAX_MESSAGES);
+        ReflectionTestUtils.setField(queues, "maxBytes", MAX_BYTES);
+        // Long enough that only the queue limits close anyone here
+        ReflectionTestUtils.setField(queues, "sendTimeLimitMs", 60_000L);
+        queues.init();
+
+        List<Client> stalled = new ArrayList<>();
+        List<Client> fast = new ArrayList<>();
+        // Stalled clients connect first, so their drains hold every sender thread ahead of the others
+        for (int i = 0; i < CROWD_STALLED_CLIENTS; i++) {
+            stalled.add(connect("stalled-" + i, true));
+        }
+        for (int i = 0; i < CROWD_FAST_CLIENTS; i++) {
+            fast.add(connect("fast-" + i, false));
+        }
+
+        // Broadcast traffic: past the high-water mark, but under the hard limits for anyone
+        long started = System.nanoTime();
+        for (int n = 0; n < ROUNDS; n++) {
+            for (Client client : stalled) {
+                sendRound(client, n);
+            }
+            for (Client client : fast) {
+                sendRound(client, n);
+            }
+        }
+
+        WebSocketOutboundStats degraded = queues.getStats();
+        assertThat(degraded.getSlowConsumersDisconnected()).isZero();
+        assertThat(degraded.getMaxSessionQueueDepth()).isBetween(HIGH_WATER, MAX_MESSAGES - 1);
+        // Every typing and presence frame past the high-water mark was dropped or coalesced
+        assertThat(degraded.getDestinations().get("/topic/room/*/typing").getDropped())
+                .isGreaterThanOrEqualTo((long) CROWD_STALLED_CLIENTS * (ROUNDS - HIGH_WATER));
+        assertThat(degraded.getDestinations().get(PRESENCE).getCoalesced())
+                .isGreaterThanOrEqualTo((long) CROWD_STALLED_CLIENTS * (ROUNDS - HIGH_WATER));
+        // Nothing else is dropped
+        degraded.getDestinations().forEach((pattern, destination) -> {
+            if (!pattern.equals("/topic/room/*/typing")) {
+                assertThat(destination.getDropped()).as(pattern).isZero();
+            }
+        });
+
+        // Per-client traffic on top: half the stalled clients hit the message limit, half the byte limit
+        String large = "x".repeat(LARGE_FRAME_BYTES);
+        for (int i = 0; i < stalled.size(); i++) {
+            Client client = stalled.get(i);
+            boolean bytes = i % 2 == 1;
+            int sent = 0;
+            while (client.closed.getCount() > 0 && sent <= MAX_MESSAGES) {
+                client.queued.sendMessage(frame(TICKET + "own", bytes ? large : "{}"));
+                sent++;
+            }
+            assertThat(client.closed.getCount()).as(client.id).isZero();
+            if (bytes) {
+                assertThat(sent).as(client.id).isLessThanOrEqualTo(MAX_BYTES / LARGE_FRAME_BYTES);
+            } else {
+                assertThat(sent).as(client.id).isBetween(MAX_MESSAGES - ROUNDS * 2, MAX_MESSAGES - ROUNDS);
+            }
+        }
+
+        for (Client client : fast) {
+            assertThat(client.ticketsReceived.await(30, TimeUnit.SECONDS)).as(client.id).isTrue();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        senderExecutor.getThreadPoolExecutor().shutdown();
+        assertThat(senderExecutor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        WebSocketOutboundStats stats = queues.getStats();
+        log.info("{} clients got {} rounds in {} ms next to {} stalled clients on {} threads; stats {}",
+                CROWD_FAST_CLIENTS, ROUNDS, elapsedMs, CROWD_STALLED_CLIENTS, CROWD_SENDER_THREADS, stats);
+
+        for (Client client : stalled) {
+            assertThat(client.closeStatus.get()).as(client.id).isEqualTo(CloseStatus.SESSION_NOT_RELIABLE);
+            assertThat(client.received.get()).as(client.id).isZero();
+        }
+        for (Client client : fast) {
+            assertThat(client.closeStatus.get()).as(client.id).isNull();
+            assertThat(client.tickets.get()).as(client.id).isEqualTo(ROUNDS);
+            // Coalescing keeps the newest presence event, which is sent before the last ticket
+            assertThat(client.lastPresence.get()).as(client.id).isEqualTo(ROUNDS - 1);
+        }
+        assertThat(stats.getSlowConsumersDisconnected()).isEqualTo(CROWD_STALLED_CLIENTS);
+        assertThat(stats.getSessions()).isEqualTo(CROWD_STALLED_CLIENTS + CROWD_FAST_CLIENTS);
+        assertThat(stats.getQueuedMessages()).isZero();
+    }
+
+    @Test
+    void failedSendClosesTheSession() throws Exception {
+        WebSocketSession raw = mock(WebSocketSession.class);
+        when(raw.getId()).thenReturn("broken");
+        doAnswer(invocation -> {
+            throw new IOException("Broken pipe");
+        }).when(raw).sendMessage(any());
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicReference<CloseStatus> closeStatus = new AtomicReference<>();
+        doAnswer(invocation -> {
+            closeStatus.set(invocation.getArgument(0));
+            closed.countDown();
+            return null;
+        }).when(raw).close(any(CloseStatus.class));
+
+        handler.afterConnectionEstablished(raw);
+        WebSocketSession queued = connected.get("broken");
+        queued.sendMessage(frame("/topic/ticket/1"));
+
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(closeStatus.get()).isEqualTo(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(queues.getStats().getQueuedMessages()).isZero();
+    }
+
+    private Client connect(String id, boolean stalled) throws Exception {
+        Client client = new Client(id);
+        WebSocketSession raw = mock(WebSocketSession.class);
+        when(raw.getId()).thenReturn(id);
+        doAnswer(invocation -> {
+            if (stalled) {
+                // Blocks like a write to a client that stopped reading, until the socket is closed
+                client.closed.await();
+                throw new IOException("Connection closed");
+            }
+            client.received.incrementAndGet();
+            client.allReceived.countDown();
+            String payload = ((TextMessage) invocation.getArgument(0)).getPayload();
+            if (payload.contains("destination:" + TICKET)) {
+                client.tickets.incrementAndGet();
+                client.ticketsReceived.countDown();
+            } else if (payload.contains("destination:" + PRESENCE)) {
+                client.lastPresence.set(Integer.parseInt(payload.substring(payload.indexOf("\n\n") + 2,
+                        payload.length() - 1)));
+            }
+            return null;
+        }).when(raw).sendMessage(any(WebSocketMessage.class));
+        doAnswer(invocation -> {
+            client.closeStatus.compareAndSet(null, invocation.getArgument(0));
+            client.closed.countDown();
+            return null;
+        }).when(raw).close(any(CloseStatus.class));
+
+        handler.afterConnectionEstablished(raw);
+        client.queued = connected.get(id);
+        return client;
+    }
+
+    /**
+     * Sends one round of broadcast traffic: a typing indicator, a presence event carrying the round,
+     * then a ticket update.
+     */
+    private static void sendRound(Client client, int round) throws IOException {
+        client.queued.sendMessage(frame(TYPING, "{}"));
+        client.queued.sendMessage(frame(PRESENCE, Integer.toString(round)));
+        client.queued.sendMessage(frame(TICKET + round, "{}"));
+    }
+
+    private static TextMessage frame(String destination) {
+        return frame(destination, "{}");
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n\n"
+                + body + "\0");
+    }
+
+    private static final class Client {
+        private final String id;
+        private final AtomicInteger received = new AtomicInteger();
+        private final CountDownLatch allReceived = new CountDownLatch(MESSAGES_PER_CLIENT);
+        private final AtomicInteger tickets = new AtomicInteger();
+        private final CountDownLatch ticketsReceived = new CountDownLatch(ROUNDS);
+        private final AtomicInteger lastPresence = new AtomicInteger(-1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final AtomicReference<CloseStatus> closeStatus = new AtomicReference<>();
+        private WebSocketSession queued;
+
+        private Client(String id) {
+            this.id = id;
+        }
+    }
+}
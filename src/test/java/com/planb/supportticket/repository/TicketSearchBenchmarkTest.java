@@ -0,0 +1,162 @@
+package com.planb.supportticket.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmarks ticket full-text search against a real Postgres, using the triggers from V6 and V16 on
+ * a scratch schema seeded with {@code BENCHMARK_TICKETS} tickets (default 1,000,000).
+ *
+ * Only runs when {@code BENCHMARK_JDBC_URL} (with BENCHMARK_JDBC_USER and BENCHMARK_JDBC_PASSWORD) points
+ * at a database the user may create schemas and the pg_trgm extension in, e.g.
+ * {@code BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/benchmark mvn test -Dtest=TicketSearchBenchmarkTest}.
+ */
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_JDBC_URL", matches = ".+")
+class TicketSearchBenchmarkTest {
+    private static final String SCHEMA = "ticket_search_benchmark";
+    private static final String SEARCH_INDEX = "idx_tickets_search_vector";
+
+    private Connection connection;
+
+    @BeforeAll
+    void seed() throws Exception {
+        connection = DriverManager.getConnection(System.getenv("BENCHMARK_JDBC_URL"),
+                System.getenv("BENCHMARK_JDBC_USER"), System.getenv("BENCHMARK_JDBC_PASSWORD"));
+        int tickets = Integer.parseInt(System.getenv().getOrDefault("BENCHMARK_TICKETS", "1000000"));
+
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute("CREATE SCHEMA " + SCHEMA);
+        execute("SET search_path TO " + SCHEMA + ", public");
+        // Only the columns the search triggers read
+        execute("CREATE TABLE tickets (id UUID PRIMARY KEY, ticket_number VARCHAR(20) NOT NULL UNIQUE, "
+                + "title VARCHAR(255) NOT NULL, description TEXT NOT NULL, detailed_description TEXT, "
+                + "status VARCHAR(20) NOT NULL, assigned_to UUID)");
+        execute("CREATE TABLE ticket_comments (id UUID PRIMARY KEY, ticket_id UUID NOT NULL REFERENCES tickets(id), "
+                + "content TEXT NOT NULL, is_internal BOOLEAN NOT NULL DEFAULT FALSE)");
+        execute("CREATE INDEX idx_ticket_comments_ticket ON ticket_comments(ticket_id)");
+        execute(migration("V6__add_ticket_search.sql"));
+        execute(migration("V16__limit_ticket_search_refresh.sql"));
+
+        long started = System.nanoTime();
+        execute("INSERT INTO tickets (id, ticket_number, title, description, status) "
+                + "SELECT gen_random_uuid(), 'TK-' || g, "
+                + "w[1 + g % 40] || ' ' || w[1 + (g / 40) % 40] || ' fails on ' || w[1 + (g / 1600) % 40], "
+                + "'Customer reports that ' || w[1 + (g / 7) % 40] || ' and ' || w[1 + (g / 11) % 40] "
+                + "|| ' stopped working after the ' || w[1 + (g / 13) % 40] || ' upgrade', 'OPEN' "
+                + "FROM generate_series(1, " + tickets + ") g, (SELECT ARRAY['login', 'invoice', 'export', "
+                + "'report', 'password', 'payment', 'upload', 'dashboard', 'printer', 'email', 'calendar', 'sync', "
+                + "'search', 'backup', 'license', 'network', 'vpn', 'database', 'timeout', 'certificate', 'widget', "
+                + "'api', 'webhook', 'mobile', 'browser', 'cache', 'session', 'token', 'import', 'schedule', "
+                + "'notification', 'profile', 'billing', 'refund', 'shipping', 'inventory', 'catalog', 'cart', "
+                + "'checkout', 'coupon'] w) words");
+        // One comment on every tenth ticket, each refreshing its ticket's document
+        execute("INSERT INTO ticket_comments (id, ticket_id, content) "
+                + "SELECT gen_random_uuid(), id, 'Reproduced with build ' || ticket_number || ', escalating' "
+                + "FROM tickets WHERE ticket_number LIKE '%0'");
+        execute("ANALYZE tickets");
+        execute("ANALYZE ticket_comments");
+        log.info("Seeded {} tickets in {} ms", tickets, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @AfterAll
+    void dropSchema() throws SQLException {
+        if (connection != null) {
+            execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            connection.close();
+        }
+    }
+
+    @Test
+    void rankedSearchUsesTheSearchIndex() throws SQLException {
+        String plan = explain("SELECT t.id, ts_rank_cd(t.search_vector, q) AS rank "
+                + "FROM tickets t, to_tsquery('english', 'invoic:* & export:*') q "
+                + "WHERE t.search_vector @@ q ORDER BY rank DESC LIMIT 20");
+
+        assertThat(plan).contains(SEARCH_INDEX);
+    }
+
+    @Test
+    void filterPredicateUsesTheSearchIndex() throws SQLException {
+        // The SQL rendered for SearchFunctionContributor.TICKET_FTS_MATCH
+        String plan = explain("SELECT t.id, t.title FROM tickets t "
+                + "WHERE t.status = 'OPEN' AND (t.id IN (SELECT fts.id FROM tickets fts "
+                + "WHERE fts.search_vector @@ to_tsquery('english', 'printer:* & escal:*'))) LIMIT 20");
+
+        assertThat(plan).contains(SEARCH_INDEX);
+    }
+
+    @Test
+    void fullRowUpdatesOnlyRebuildTheDocumentWhenSearchableColumnsChange() throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            execute("SET LOCAL track_functions = 'all'");
+
+            // What Hibernate sends for a status change: every column, unchanged ones included
+            long started = System.nanoTime();
+            int updated = update("UPDATE tickets SET status = 'IN_PROGRESS', title = title, "
+                    + "description = description, detailed_description = detailed_description, "
+                    + "ticket_number = ticket_number WHERE ticket_number LIKE '%00'");
+            log.info("{} full-row status updates in {} ms", updated, (System.nanoTime() - started) / 1_000_000);
+            assertThat(documentRebuilds()).isZero();
+
+            int retitled = update("UPDATE tickets SET title = title || ' (urgent)' WHERE ticket_number LIKE '%000'");
+            assertThat(documentRebuilds()).isEqualTo(retitled);
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private long documentRebuilds() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT coalesce(sum(calls), 0) FROM pg_stat_xact_user_functions "
+                     + "WHERE schemaname = '" + SCHEMA + "' AND funcname = 'tickets_search_vector_trigger'")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        log.info("Plan:\n{}", plan);
+        return plan.toString();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int update(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(sql);
+        }
+    }
+
+    private static String migration(String name) throws Exception {
+        return new ClassPathResource("db/migration/" + name).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
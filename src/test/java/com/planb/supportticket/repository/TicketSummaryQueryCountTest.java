@@ -0,0 +1,165 @@
+package com.planb.supportticket.repository;
+
+import com.planb.supportticket.dto.TicketFilter;
+import com.planb.supportticket.dto.TicketResponse;
+import com.planb.supportticket.entity.BaseEntity;
+import com.planb.supportticket.entity.Expert;
+import com.planb.supportticket.entity.Ticket;
+import com.planb.supportticket.entity.TicketComment;
+import com.planb.supportticket.entity.UserProfile;
+import com.planb.supportticket.entity.enums.ExpertAvailability;
+import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.entity.enums.TicketStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements a ticket list page costs with Hibernate statistics. The count must not
+ * grow with the page size, however many comments, creators and experts the tickets have.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TicketSummaryQueryCountTest {
+    private static final int TICKETS = 60;
+    private static final int COMMENTS_PER_TICKET = 3;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // The migrations give the counter columns a default, the generated test schema does not
+        entityManager.getEntityManager()
+                .createNativeQuery("ALTER TABLE tickets ALTER COLUMN comment_count SET DEFAULT 0")
+                .executeUpdate();
+        entityManager.getEntityManager()
+                .createNativeQuery("ALTER TABLE tickets ALTER COLUMN attachment_count SET DEFAULT 0")
+                .executeUpdate();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < TICKETS; i++) {
+            UserProfile creator = persist(UserProfile.builder()
+                    .firebaseUid("uid-" + i)
+                    .email("user" + i + "@example.com")
+                    .displayName("User " + i)
+                    .build(), now);
+            UserProfile expertProfile = persist(UserProfile.builder()
+                    .firebaseUid("expert-uid-" + i)
+                    .email("expert" + i + "@example.com")
+                    .displayName("Expert " + i)
+                    .build(), now);
+            Expert expert = persist(Expert.builder()
+                    .userProfile(expertProfile)
+                    .availability(ExpertAvailability.AVAILABLE)
+                    .build(), now);
+            Ticket ticket = persist(Ticket.builder()
+                    .ticketNumber("TK-" + i)
+                    .title("Ticket " + i)
+                    .description("Description " + i)
+                    .status(TicketStatus.OPEN)
+                    .priority(TicketPriority.MEDIUM)
+                    .classification("General")
+                    .user(creator)
+                    .assignedExpert(expert)
+                    .build(), now.minusMinutes(i));
+            for (int j = 0; j < COMMENTS_PER_TICKET; j++) {
+                persist(TicketComment.builder()
+                        .content("Comment " + j)
+                        .ticket(ticket)
+                        .user(creator)
+                        .build(), now);
+            }
+            entityManager.flush();
+            ticketRepository.adjustCommentCount(ticket.getId(), COMMENTS_PER_TICKET);
+        }
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pageCostsTheSameStatementsWhateverItsSize() {
+        long small = statementsFor(5);
+        long large = statementsFor(50);
+
+        // The rows, and the total for a page that is full
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void sliceCostsOneStatementWhateverItsSize() {
+        assertThat(sliceStatementsFor(5)).isEqualTo(1);
+        assertThat(sliceStatementsFor(50)).isEqualTo(1);
+    }
+
+    private long statementsFor(int pageSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        Page<TicketResponse> page = ticketRepository.findTicketSummaries(
+                TicketSpecifications.fromFilter(new TicketFilter()), PageRequest.of(0, pageSize));
+
+        assertThat(page.getContent()).hasSize(pageSize)
+                .allSatisfy(ticket -> {
+                    assertThat(ticket.getCommentCount()).isEqualTo(COMMENTS_PER_TICKET);
+                    assertThat(ticket.getUserName()).startsWith("User ");
+                    assertThat(ticket.getExpertName()).startsWith("Expert ");
+                });
+        assertThat(page.getTotalElements()).isEqualTo(TICKETS);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long sliceStatementsFor(int size) {
+        entityManager.clear();
+        statistics.clear();
+
+        Slice<TicketResponse> slice = ticketRepository.findTicketSummarySlice(
+                TicketSpecifications.fromFilter(new TicketFilter()), size);
+
+        assertThat(slice.getContent()).hasSize(size);
+        assertThat(slice.hasNext()).isTrue();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private <T extends BaseEntity> T persist(T entity, LocalDateTime createdAt) {
+        entity.setCreatedAt(createdAt);
+        return entityManager.persist(entity);
+    }
+
+    /**
+     * Replaces the application configuration, whose component scan would load every bean.
+     */
+    @Configuration
+    @EntityScan(basePackageClasses = Ticket.class)
+    @EnableJpaRepositories(basePackageClasses = TicketRepository.class, includeFilters =
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = TicketRepository.class))
+    static class Config {
+    }
+}
@@ -0,0 +1,126 @@
+package com.planb.supportticket.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks what {@link AIResponseCache} entries match: the same user, model and temperature, and the
+ * same prompt from the first message to the last, with opening questions shared across users only
+ * when that is enabled.
+ */
+class AIResponseCacheTest {
+    private static final String MODEL = "gpt-4";
+
+    private AIResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AIResponseCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "expireAfterWriteMinutes", 60L);
+        ReflectionTestUtils.setField(cache, "disabledModels", Set.of());
+        ReflectionTestUtils.setField(cache, "similarityEnabled", true);
+        ReflectionTestUtils.setField(cache, "similarityThreshold", 0.5);
+        ReflectionTestUtils.setField(cache, "dimensions", 512);
+        cache.init();
+    }
+
+    @Test
+    void answersTheSameUserForTheSamePrompt() {
+        List<String> conversation = List.of("user: My order 1234 is late", "assistant: Sorry", "user: What now?");
+        cache.put("alice", MODEL, 0.7, conversation, "We will refund order 1234");
+
+        assertThat(cache.get("alice", MODEL, 0.7,
+                List.of("user: my order 1234 is  late", "assistant: sorry", "user: what now")))
+                .contains("We will refund order 1234");
+    }
+
+    @Test
+    void neverAnswersAnotherUser() {
+        cache.put("alice", MODEL, 0.7, List.of("user: What is my account number?"), "It is 998877");
+
+        assertThat(cache.get("bob", MODEL, 0.7, List.of("user: What is my account number?"))).isEmpty();
+        assertThat(cache.get("bob", MODEL, 0.7, List.of("user: What is my account number"))).isEmpty();
+        assertThat(cache.get(null, MODEL, 0.7, List.of("user: What is my account number?"))).isEmpty();
+    }
+
+    @Test
+    void missesWhenAnEarlierMessageOrTheSummaryDiffers() {
+        List<String> conversation = List.of(
+                "user: Summary of the earlier conversation: the printer is a P100\n\nIt jams",
+                "assistant: Open tray 2",
+                "user: Then what?",
+                "assistant: Remove the paper",
+                "user: Then what?");
+        cache.put("alice", MODEL, 0.7, conversation, "Close tray 2");
+
+        // Same later messages, different start
+        assertThat(cache.get("alice", MODEL, 0.7, List.of(
+                "user: My laptop will not boot",
+                "assistant: Open tray 2",
+                "user: Then what?",
+                "assistant: Remove the paper",
+                "user: Then what?"))).isEmpty();
+        // Same turns, different summary
+        assertThat(cache.get("alice", MODEL, 0.7, List.of(
+                "user: Summary of the earlier conversation: the printer is a Z900\n\nIt jams",
+                "assistant: Open tray 2",
+                "user: Then what?",
+                "assistant: Remove the paper",
+                "user: Then what?"))).isEmpty();
+        assertThat(cache.get("alice", MODEL, 0.7, conversation)).contains("Close tray 2");
+    }
+
+    @Test
+    void sharesOpeningQuestionsAcrossUsersWhenEnabled() {
+        ReflectionTestUtils.setField(cache, "sharedOpeningQuestions", true);
+        List<String> question = List.of("user: How do I reset my password?");
+        cache.put(cache.scopeOf("alice", question, false), MODEL, 0.7, question, "Use the reset link");
+
+        assertThat(cache.get(cache.scopeOf("bob", question, false), MODEL, 0.7, question))
+                .contains("Use the reset link");
+        List<String> reworded = List.of("user: how do i reset my password please");
+        assertThat(cache.get(cache.scopeOf("carol", reworded, false), MODEL, 0.7, reworded))
+                .contains("Use the reset link");
+        // Per model
+        assertThat(cache.get(cache.scopeOf("bob", question, false), "gpt-3.5-turbo", 0.7, question)).isEmpty();
+        // Not with earlier context, and not without a user
+        assertThat(cache.get(cache.scopeOf("bob", question, true), MODEL, 0.7, question)).isEmpty();
+        assertThat(cache.scopeOf(null, question, false)).isNull();
+    }
+
+    @Test
+    void keepsLaterTurnsPerUserWhenSharingOpeningQuestions() {
+        ReflectionTestUtils.setField(cache, "sharedOpeningQuestions", true);
+        List<String> conversation = List.of("user: My order 1234 is late", "assistant: Sorry", "user: What now?");
+        cache.put(cache.scopeOf("alice", conversation, false), MODEL, 0.7, conversation, "We will refund order 1234");
+
+        assertThat(cache.scopeOf("alice", conversation, false)).isEqualTo("alice");
+        assertThat(cache.get(cache.scopeOf("bob", conversation, false), MODEL, 0.7, conversation)).isEmpty();
+        assertThat(cache.get(cache.scopeOf("alice", conversation, false), MODEL, 0.7, conversation))
+                .contains("We will refund order 1234");
+    }
+
+    @Test
+    void keepsOpeningQuestionsPerUserByDefault() {
+        List<String> question = List.of("user: How do I reset my password?");
+        cache.put(cache.scopeOf("alice", question, false), MODEL, 0.7, question, "Use the reset link");
+
+        assertThat(cache.scopeOf("alice", question, false)).isEqualTo("alice");
+        assertThat(cache.get(cache.scopeOf("bob", question, false), MODEL, 0.7, question)).isEmpty();
+    }
+
+    @Test
+    void skipsCachingWithoutAScope() {
+        cache.put(null, MODEL, 0.7, List.of("user: Hello"), "Hi");
+
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+}
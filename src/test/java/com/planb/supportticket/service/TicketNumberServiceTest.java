@@ -0,0 +1,295 @@
+package com.planb.supportticket.service;
+
+import com.planb.supportticket.config.ExecutorConfig;
+import com.planb.supportticket.entity.SequenceGenerator;
+import com.planb.supportticket.repository.SequenceGeneratorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency tests for the block backend of {@link TicketNumberService}, with the
+ * sequence_generators row, and where needed the connection pool and database round trips,
+ * simulated in memory.
+ */
+@Slf4j
+class TicketNumberServiceTest {
+    private static final int WRITERS = 64;
+    private static final int TICKETS_PER_WRITER = 500;
+    private static final int BLOCK_SIZE = 100;
+    private static final int TIMED_TICKETS_PER_WRITER = 8;
+    private static final long ROUND_TRIP_MS = 1;
+
+    private SequenceGeneratorRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private SequenceGenerator row;
+    private ReentrantLock rowLock;
+    private AtomicInteger reservations;
+    private long roundTripMs;
+    private final List<ThreadPoolTaskExecutor> reservationExecutors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        row = new SequenceGenerator("TICKET_SEQUENCE", 1L);
+        rowLock = new ReentrantLock();
+        reservations = new AtomicInteger();
+
+        // SELECT ... FOR UPDATE takes the row lock, which is held until the transaction ends
+        repository = mock(SequenceGeneratorRepository.class);
+        when(repository.findBySequenceName(anyString())).thenAnswer(invocation -> {
+            rowLock.lock();
+            reservations.incrementAndGet();
+            roundTrip(1);
+            return Optional.of(new SequenceGenerator(row.getSequenceName(), row.getNextValue()));
+        });
+        when(repository.save(any(SequenceGenerator.class))).thenAnswer(invocation -> {
+            SequenceGenerator saved = invocation.getArgument(0);
+            row.setNextValue(saved.getNextValue());
+            roundTrip(1);
+            return saved;
+        });
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        doAnswer(invocation -> {
+            rowLock.unlock();
+            return null;
+        }).when(transactionManager).commit(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationExecutors.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @Test
+    void concurrentWritersGetUniqueContiguousNumbers() throws Exception {
+        TicketNumberService service = newService();
+
+        Set<String> numbers = generateConcurrently(List.of(service));
+
+        int total = WRITERS * TICKETS_PER_WRITER;
+        Set<String> expected = new HashSet<>();
+        for (long n = 1; n <= total; n++) {
+            expected.add("TK-" + n);
+        }
+        assertThat(numbers).isEqualTo(expected);
+        // One reservation per block, not per ticket, plus the block after the last one, which may
+        // still be under way
+        assertThat(reservations.get()).isBetween(total / BLOCK_SIZE, total / BLOCK_SIZE + 1);
+    }
+
+    @Test
+    void nodesSharingTheSequenceRowNeverHandOutTheSameNumber() throws Exception {
+        List<TicketNumberService> nodes = List.of(newService(), newService(), newService(), newService());
+
+        Set<String> numbers = generateConcurrently(nodes);
+
+        assertThat(numbers).hasSize(WRITERS * TICKETS_PER_WRITER);
+        assertThat(row.getNextValue()).isEqualTo(1L + (long) reservations.get() * BLOCK_SIZE);
+    }
+
+    @Test
+    void blockBoundaryDoesNotNeedASecondConnectionFromAFullPool() throws Exception {
+        // Five pooled connections, as in application.yml. Every writer holds one for its whole
+        // ticket transaction; a reservation that cannot get one in time fails like Hikari would.
+        Semaphore connections = new Semaphore(5, true);
+        doAnswer(invocation -> {
+            if (!connections.tryAcquire(2, TimeUnit.SECONDS)) {
+                throw new CannotCreateTransactionException("Connection is not available, request timed out");
+            }
+            return null;
+        }).when(transactionManager).getTransaction(any());
+        doAnswer(invocation -> {
+            rowLock.unlock();
+            connections.release();
+            return null;
+        }).when(transactionManager).commit(any());
+
+        TicketNumberService service = newService();
+        // Numbers are handed out once the reservation started on startup is done
+        service.generateTicketNumber();
+
+        int writers = 16;
+        int ticketsPerWriter = 50;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                results.add(pool.submit(() -> {
+                    for (int j = 0; j < ticketsPerWriter; j++) {
+                        connections.acquire();
+                        try {
+                            numbers.add(service.generateTicketNumber());
+                            Thread.sleep(1);
+                        } finally {
+                            connections.release();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(numbers).hasSize(writers * ticketsPerWriter);
+    }
+
+    @Test
+    void blockAllocatorOutrunsTheRowLockAt64Writers() throws Exception {
+        roundTripMs = ROUND_TRIP_MS;
+
+        // The previous implementation: the row is locked by the caller's ticket transaction and
+        // stays locked until that transaction commits
+        double rowLockRate = ticketsPerSecond(() -> {
+            SequenceGenerator sequence = repository.findBySequenceName("TICKET_SEQUENCE").orElseThrow();
+            long value = sequence.getNextValue();
+            sequence.setNextValue(value + 1);
+            repository.save(sequence);
+            insertTicketAndCommit();
+            rowLock.unlock();
+            return "TK-" + value;
+        });
+
+        TicketNumberService service = newService();
+        double blockRate = ticketsPerSecond(() -> {
+            String number = service.generateTicketNumber();
+            insertTicketAndCommit();
+            return number;
+        });
+
+        log.info("{} writers, {} ms round trips: row lock {} tickets/s, blocks of {} {} tickets/s",
+                WRITERS, ROUND_TRIP_MS, Math.round(rowLockRate), BLOCK_SIZE, Math.round(blockRate));
+        assertThat(blockRate).isGreaterThan(rowLockRate * 10);
+    }
+
+    private TicketNumberService newService() {
+        ThreadPoolTaskExecutor reservationExecutor = new ExecutorConfig().ticketNumberExecutor();
+        reservationExecutor.initialize();
+        reservationExecutors.add(reservationExecutor);
+
+        TicketNumberService service = new TicketNumberService(repository, transactionManager, reservationExecutor);
+        ReflectionTestUtils.setField(service, "backend", "block");
+        ReflectionTestUtils.setField(service, "blockSize", BLOCK_SIZE);
+        ReflectionTestUtils.setField(service, "prefetchThreshold", 0.8);
+        service.init();
+        return service;
+    }
+
+    /**
+     * Creates tickets on {@link #WRITERS} threads, each {@link #TIMED_TICKETS_PER_WRITER} of them.
+     *
+     * @param createTicket creates one ticket and returns its number
+     * @return the tickets created per second
+     */
+    private double ticketsPerSecond(Supplier<String> createTicket) throws Exception {
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        long started;
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                results.add(writers.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < TIMED_TICKETS_PER_WRITER; j++) {
+                        numbers.add(createTicket.get());
+                    }
+                    return null;
+                }));
+            }
+            started = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        assertThat(numbers).hasSize(WRITERS * TIMED_TICKETS_PER_WRITER);
+        return numbers.size() / seconds;
+    }
+
+    // The ticket INSERT and the COMMIT of the caller's transaction
+    private void insertTicketAndCommit() {
+        roundTrip(2);
+    }
+
+    private void roundTrip(int count) {
+        if (roundTripMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(roundTripMs * count);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs {@link #WRITERS} threads, spread over the given nodes, that all start at once and each
+     * generate {@link #TICKETS_PER_WRITER} numbers.
+     */
+    private Set<String> generateConcurrently(List<TicketNumberService> nodes) throws Exception {
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                TicketNumberService node = nodes.get(i % nodes.size());
+                results.add(writers.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < TICKETS_PER_WRITER; j++) {
+                        if (!numbers.add(node.generateTicketNumber())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        assertThat(duplicates.get()).isZero();
+        return numbers;
+    }
+}
@@ -0,0 +1,101 @@
+package com.planb.supportticket.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planb.supportticket.dto.websocket.AIModelType;
+import com.planb.supportticket.service.AIConversationStore;
+import com.planb.supportticket.service.AIResponseCache;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An in-process HTTP server standing in for an OpenAI-compatible provider. Each test sets the
+ * handler; request bodies are kept for inspection. Requests are handled on a thread each, so a
+ * handler may take its time without holding up the others.
+ */
+class AIProviderStub implements AutoCloseable {
+    static final String PATH = "/v1/chat/completions";
+    // Exchange attribute holding the request body, which the stub has already read
+    static final String REQUEST_BODY = "requestBody";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private volatile HttpHandler handler;
+
+    AIProviderStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.createContext(PATH, exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(body);
+            exchange.setAttribute(REQUEST_BODY, body);
+            handler.handle(exchange);
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    void handle(HttpHandler handler) {
+        this.handler = handler;
+    }
+
+    Queue<String> requests() {
+        return requests;
+    }
+
+    /**
+     * Creates a service with this stub as its only provider, answering as GPT-3.5 without streaming.
+     * Tests adjust the settings they exercise, then call {@code init()}.
+     */
+    AIServiceImpl newService(SimpMessagingTemplate messagingTemplate, AIResponseCache responseCache,
+                             AIConversationStore conversationStore, ThreadPoolTaskExecutor httpExecutor) {
+        AIServiceImpl service = new AIServiceImpl();
+        ReflectionTestUtils.setField(service, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "responseCache", responseCache);
+        ReflectionTestUtils.setField(service, "conversationStore", conversationStore);
+        ReflectionTestUtils.setField(service, "httpExecutor", httpExecutor);
+        ReflectionTestUtils.setField(service, "aiEnabled", true);
+        ReflectionTestUtils.setField(service, "defaultModelId", AIModelType.GPT_3_5.getModelId());
+        ReflectionTestUtils.setField(service, "aiTimeout", 5000);
+        ReflectionTestUtils.setField(service, "maxTokens", 1000);
+        ReflectionTestUtils.setField(service, "temperature", 0.7);
+        ReflectionTestUtils.setField(service, "streamingEnabled", false);
+        ReflectionTestUtils.setField(service, "streamFlushIntervalMs", 0L);
+        ReflectionTestUtils.setField(service, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(service, "sessionsMaximumSize", 10_000L);
+        ReflectionTestUtils.setField(service, "sessionIdleTimeoutMinutes", 30L);
+        ReflectionTestUtils.setField(service, "openaiApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "openaiEndpoint",
+                "http://localhost:" + server.getAddress().getPort() + PATH);
+        ReflectionTestUtils.setField(service, "anthropicApiKey", "");
+        ReflectionTestUtils.setField(service, "googleApiKey", "");
+        ReflectionTestUtils.setField(service, "deepseekApiKey", "");
+        return service;
+    }
+
+    /**
+     * Writes part of a response and sends it right away.
+     */
+    static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
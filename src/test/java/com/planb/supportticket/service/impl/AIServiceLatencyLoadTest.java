@@ -0,0 +1,163 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.config.ExecutorConfig;
+import com.planb.supportticket.dto.websocket.AIModelType;
+import com.planb.supportticket.dto.websocket.ChatMessage;
+import com.planb.supportticket.service.AIConversationStore;
+import com.planb.supportticket.service.AIResponseCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sends many AI requests at once to a stub provider that takes its time to answer, with far fewer
+ * HTTP client threads than requests. Requests in flight must not hold a thread, so they all wait on
+ * the provider together, and one that outlasts the timeout must fail on its own.
+ */
+@Slf4j
+class AIServiceLatencyLoadTest {
+    private static final int HTTP_THREADS = 2;
+    private static final int REQUESTS = 200;
+    private static final long PROVIDER_LATENCY_MS = 500;
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private AIProviderStub provider;
+    private ThreadPoolTaskExecutor httpExecutor;
+    private AIServiceImpl aiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        provider = new AIProviderStub();
+        httpExecutor = new ExecutorConfig().aiHttpExecutor(HTTP_THREADS);
+        httpExecutor.initialize();
+
+        aiService = provider.newService(messagingTemplate, mock(AIResponseCache.class),
+                mock(AIConversationStore.class), httpExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+        httpExecutor.shutdown();
+    }
+
+    @Test
+    void requestsWaitOnASlowProviderTogether() throws Exception {
+        aiService.init();
+        provider.handle(exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(PROVIDER_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            byte[] body = "{\"choices\":[{\"message\":{\"content\":\"Hello\"}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+
+        long started = System.nanoTime();
+        List<CompletableFuture<ChatMessage>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(aiService.processMessageAsync(request("room-" + i), "session-" + i));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("{} requests with {} ms provider latency on {} HTTP threads: {} ms, up to {} in flight",
+                REQUESTS, PROVIDER_LATENCY_MS, HTTP_THREADS, elapsedMs, maxInFlight.get());
+
+        Set<String> rooms = new HashSet<>();
+        for (CompletableFuture<ChatMessage> response : responses) {
+            assertThat(response.get().getContent()).isEqualTo("Hello");
+            rooms.add(response.get().getRoomId());
+        }
+        assertThat(rooms).hasSize(REQUESTS);
+        // A thread per request would need REQUESTS / HTTP_THREADS round trips
+        assertThat(maxInFlight.get()).isGreaterThan(HTTP_THREADS * 10);
+        assertThat(elapsedMs).isLessThan(PROVIDER_LATENCY_MS * REQUESTS / HTTP_THREADS / 10);
+    }
+
+    @Test
+    void aRequestThatOutlastsTheTimeoutFailsWithoutHoldingUpOthers() throws Exception {
+        aiService.init();
+        CountDownLatch release = new CountDownLatch(1);
+        provider.handle(exchange -> {
+            if (((String) exchange.getAttribute(AIProviderStub.REQUEST_BODY)).contains("stuck")) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "{\"choices\":[{\"message\":{\"content\":\"Hello\"}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+
+        // The first request pays for setting up the client, so it runs before the timeout is shortened
+        aiService.processMessageAsync(request("room-warm-up"), "session-warm-up").get(5, TimeUnit.SECONDS);
+        ReflectionTestUtils.setField(aiService, "aiTimeout", 300);
+
+        try {
+            CompletableFuture<ChatMessage> stuck = aiService.processMessageAsync(
+                    request("room-stuck", "stuck"), "session-stuck");
+            ChatMessage answered = aiService.processMessageAsync(request("room-ok"), "session-ok")
+                    .get(2, TimeUnit.SECONDS);
+            assertThat(answered.getContent()).isEqualTo("Hello");
+
+            assertThatThrownBy(() -> stuck.get(2, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    // Whichever of the request timeout and the response deadline fires first
+                    .rootCause()
+                    .isInstanceOfAny(TimeoutException.class, HttpTimeoutException.class);
+            verify(messagingTemplate, timeout(1000)).convertAndSend(eq("/topic/room/room-stuck"),
+                    argThat((Object message) -> message instanceof ChatMessage chat
+                            && chat.getType() == ChatMessage.MessageType.ERROR));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static ChatMessage request(String roomId) {
+        return request(roomId, "Say hello");
+    }
+
+    private static ChatMessage request(String roomId, String content) {
+        return ChatMessage.createAIRequestMessage(roomId, "user-1", content, AIModelType.GPT_3_5);
+    }
+}
@@ -0,0 +1,115 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.config.ExecutorConfig;
+import com.planb.supportticket.dto.websocket.AIModelType;
+import com.planb.supportticket.dto.websocket.ChatMessage;
+import com.planb.supportticket.entity.AIConversation;
+import com.planb.supportticket.exception.UnauthorizedException;
+import com.planb.supportticket.service.AIConversationStore;
+import com.planb.supportticket.service.AIResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a chat room's AI session is only used by the user it belongs to, and that a room
+ * whose session another node created first ends up with that one.
+ */
+class AIServiceRoomSessionTest {
+    private static final String MODEL_ID = AIModelType.GPT_3_5.getModelId();
+
+    private final AIConversationStore conversationStore = mock(AIConversationStore.class);
+
+    private AIProviderStub provider;
+    private ThreadPoolTaskExecutor httpExecutor;
+    private AIServiceImpl aiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        provider = new AIProviderStub();
+        httpExecutor = new ExecutorConfig().aiHttpExecutor(1);
+        httpExecutor.initialize();
+        when(conversationStore.createForRoom(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> conversation(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2)));
+
+        aiService = provider.newService(mock(SimpMessagingTemplate.class), mock(AIResponseCache.class),
+                conversationStore, httpExecutor);
+        aiService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+        httpExecutor.shutdown();
+    }
+
+    @Test
+    void roomSessionIsOnlyUsedByItsOwner() {
+        String sessionId = aiService.getOrCreateRoomSession("room-1", "alice", AIModelType.GPT_3_5);
+
+        assertThat(aiService.getOrCreateRoomSession("room-1", "alice", AIModelType.GPT_3_5)).isEqualTo(sessionId);
+        assertThat(aiService.findSessionByRoom("room-1", "alice")).contains(sessionId);
+        assertThatThrownBy(() -> aiService.getOrCreateRoomSession("room-1", "bob", AIModelType.GPT_3_5))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(aiService.findSessionByRoom("room-1", "bob")).isEmpty();
+    }
+
+    @Test
+    void storedRoomSessionIsOnlyUsedByItsOwner() {
+        when(conversationStore.findByRoom("room-1")).thenReturn(Optional.of(conversation("stored", "room-1", "alice")));
+
+        assertThatThrownBy(() -> aiService.getOrCreateRoomSession("room-1", "bob", AIModelType.GPT_3_5))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(aiService.findSessionByRoom("room-1", "bob")).isEmpty();
+        assertThat(aiService.getOrCreateRoomSession("room-1", "alice", AIModelType.GPT_3_5)).isEqualTo("stored");
+        verify(conversationStore, never()).createForRoom(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void roomAdoptsTheSessionAnotherNodeCreatedFirst() {
+        when(conversationStore.createForRoom(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(conversation("other-node", "room-1", "alice"));
+
+        assertThat(aiService.getOrCreateRoomSession("room-1", "alice", AIModelType.GPT_3_5)).isEqualTo("other-node");
+        assertThat(aiService.findSessionByRoom("room-1", "alice")).contains("other-node");
+    }
+
+    @Test
+    void restoredSessionRefusesAnotherUser() {
+        when(conversationStore.load("stored")).thenReturn(Optional.of(new AIConversationStore.StoredConversation(
+                conversation("stored", "room-1", "alice"), List.of())));
+
+        ChatMessage message = ChatMessage.createAIRequestMessage("room-2", "bob", "Hello", AIModelType.GPT_3_5);
+
+        assertThatThrownBy(() -> aiService.processMessageAsync(message, "stored").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(UnauthorizedException.class);
+        verify(conversationStore, never()).append(anyString(), anyString(), anyString());
+        assertThat(provider.requests()).isEmpty();
+    }
+
+    private static AIConversation conversation(String sessionId, String roomId, String userId) {
+        return AIConversation.builder()
+                .sessionId(sessionId)
+                .roomId(roomId)
+                .userId(userId)
+                .modelId(MODEL_ID)
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.config.ExecutorConfig;
+import com.planb.supportticket.dto.websocket.AIModelType;
+import com.planb.supportticket.dto.websocket.ChatMessage;
+import com.planb.supportticket.service.AIConversationStore;
+import com.planb.supportticket.service.AIResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.planb.supportticket.service.impl.AIProviderStub.write;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Streams responses from a stub provider that sends server-sent events the way providers do:
+ * events split across writes and over several data lines, comments, a closing [DONE], or a
+ * connection that drops halfway.
+ */
+class AIServiceStreamingTest {
+    private static final String ROOM = "/topic/room/room-1";
+
+    private final Queue<ChatMessage> roomMessages = new ConcurrentLinkedQueue<>();
+    private final AIResponseCache responseCache = mock(AIResponseCache.class);
+    private final AIConversationStore conversationStore = mock(AIConversationStore.class);
+
+    private AIProviderStub provider;
+    private ThreadPoolTaskExecutor httpExecutor;
+    private AIServiceImpl aiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        provider = new AIProviderStub();
+        httpExecutor = new ExecutorConfig().aiHttpExecutor(2);
+        httpExecutor.initialize();
+
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        doAnswer(invocation -> {
+            if (ROOM.equals(invocation.getArgument(0))) {
+                roomMessages.add(invocation.getArgument(1));
+            }
+            return null;
+        }).when(messagingTemplate).convertAndSend(anyString(), any(Object.class));
+
+        // Per-user scopes, as configured by default
+        when(responseCache.scopeOf(any(), anyList(), anyBoolean())).thenCallRealMethod();
+
+        aiService = provider.newService(messagingTemplate, responseCache, conversationStore, httpExecutor);
+        ReflectionTestUtils.setField(aiService, "streamingEnabled", true);
+        aiService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+        httpExecutor.shutdown();
+    }
+
+    @Test
+    void assemblesEventsSplitAcrossWritesAndDataLines() throws Exception {
+        provider.handle(exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                // One data line delivered in two writes
+                write(out, "data: {\"choices\":[{\"delta\":{\"content\":\"Hel");
+                pause();
+                write(out, "lo\"}}]}\n\n");
+                write(out, ": keep-alive\n\n");
+                // One event over two data lines, joined with a newline
+                write(out, "event: message\ndata: {\"choices\":[{\"delta\":\n");
+                write(out, "data: {\"content\":\" world\"}}]}\n\n");
+                write(out, "data: [DONE]\n\n");
+            }
+        });
+
+        ChatMessage response = aiService.processMessageAsync(request(), "session-1").get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getType()).isEqualTo(ChatMessage.MessageType.AI_RESPONSE);
+        assertThat(response.getContent()).isEqualTo("Hello world");
+        assertThat(provider.requests()).singleElement().asString().contains("\"stream\":true");
+
+        List<ChatMessage> sent = List.copyOf(roomMessages);
+        assertThat(sent).last().isSameAs(response);
+        List<ChatMessage> deltas = sent.subList(0, sent.size() - 1);
+        assertThat(deltas).isNotEmpty()
+                .allMatch(message -> message.getType() == ChatMessage.MessageType.AI_RESPONSE_DELTA);
+        assertThat(deltas.stream().map(ChatMessage::getContent).reduce("", String::concat))
+                .isEqualTo("Hello world");
+        verify(responseCache).put(eq("user-1"), eq(AIModelType.GPT_3_5.getModelId()), anyDouble(), anyList(),
+                eq("Hello world"));
+        verify(conversationStore).append("session-1", "assistant", "Hello world");
+    }
+
+    @Test
+    void failsWhenTheConnectionDropsMidStream() throws Exception {
+        provider.handle(exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            write(out, "data: {\"choices\":[{\"delta\":{\"content\":\"Partial\"}}]}\n\n");
+            pause();
+            // The stub server drops the connection when a handler throws, without ending the body
+            throw new IllegalStateException("provider went away");
+        });
+
+        assertThatThrownBy(() -> aiService.processMessageAsync(request(), "session-1").get(3, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+
+        assertThat(roomMessages).extracting(ChatMessage::getType)
+                .containsExactly(ChatMessage.MessageType.AI_RESPONSE_DELTA, ChatMessage.MessageType.ERROR);
+        verify(responseCache, never()).put(anyString(), anyString(), anyDouble(), anyList(), anyString());
+        verify(conversationStore, never()).append(eq("session-1"), eq("assistant"), anyString());
+    }
+
+    private static ChatMessage request() {
+        ChatMessage message = ChatMessage.createAIRequestMessage("room-1", "user-1", "Say hello", AIModelType.GPT_3_5);
+        message.setId("request-1");
+        return message;
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
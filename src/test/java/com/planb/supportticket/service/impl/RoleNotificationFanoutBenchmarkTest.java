@@ -0,0 +1,146 @@
+package com.planb.supportticket.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planb.supportticket.config.ExecutorConfig;
+import com.planb.supportticket.dto.NotificationDTO;
+import com.planb.supportticket.enums.NotificationType;
+import com.planb.supportticket.repository.UserProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fans a role notification out to 100,000 users, per user and through the role topic, with the
+ * real message conversion and the fan-out pool from ExecutorConfig, and checks that every user gets
+ * exactly one complete copy addressed to them. The broker is replaced by a channel that records
+ * the messages, so the figures logged cover the application side only.
+ */
+@Slf4j
+class RoleNotificationFanoutBenchmarkTest {
+    private static final int RECIPIENTS = 100_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int FANOUT_THREADS = 4;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Queue<SentMessage> sent = new ConcurrentLinkedQueue<>();
+    private final NavigableSet<UUID> agents = new TreeSet<>();
+
+    private ThreadPoolTaskExecutor fanoutExecutor;
+    private WebSocketServiceImpl webSocketService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= RECIPIENTS; i++) {
+            agents.add(new UUID(0L, i));
+        }
+        UserProfileRepository userProfileRepository = mock(UserProfileRepository.class);
+        when(userProfileRepository.findIdBatchByRoleAfter(eq("SUPPORT"), any(UUID.class), anyInt()))
+                .thenAnswer(invocation -> agents.tailSet(invocation.getArgument(1), false).stream()
+                        .limit(invocation.<Integer>getArgument(2))
+                        .toList());
+
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> {
+            sent.add(new SentMessage(SimpMessageHeaderAccessor.getDestination(message.getHeaders()),
+                    (byte[]) message.getPayload()));
+            return true;
+        });
+        messagingTemplate.setMessageConverter(converter);
+
+        fanoutExecutor = new ExecutorConfig().roleFanoutExecutor(FANOUT_THREADS);
+        fanoutExecutor.initialize();
+
+        webSocketService = new WebSocketServiceImpl(messagingTemplate, userProfileRepository, fanoutExecutor);
+        ReflectionTestUtils.setField(webSocketService, "roleFanoutBatchSize", BATCH_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanoutExecutor.shutdown();
+    }
+
+    @Test
+    void perUserFanoutSendsEveryUserOneCompleteCopy() throws Exception {
+        ReflectionTestUtils.setField(webSocketService, "roleFanoutPerUser", true);
+
+        long started = System.nanoTime();
+        webSocketService.sendNotificationToRole("SUPPORT", notification());
+        fanoutExecutor.getThreadPoolExecutor().shutdown();
+        assertThat(fanoutExecutor.getThreadPoolExecutor().awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Per-user fan-out to {} users: {} ms, {} messages/s",
+                RECIPIENTS, elapsedMs, RECIPIENTS * 1000L / Math.max(elapsedMs, 1));
+
+        assertThat(sent).hasSize(RECIPIENTS);
+        List<UUID> recipients = new ArrayList<>(RECIPIENTS);
+        for (SentMessage message : sent) {
+            JsonNode payload = objectMapper.readTree(message.payload());
+            UUID userId = UUID.fromString(payload.get("userId").asText());
+            assertThat(message.destination()).isEqualTo("/user/" + userId + "/queue/notifications");
+            assertThat(payload.get("email").asText()).isEqualTo("agents@example.com");
+            assertThat(payload.get("emailEnabled").asBoolean()).isTrue();
+            assertThat(payload.get("ticketId").asText()).isEqualTo("TK-42");
+            recipients.add(userId);
+        }
+        assertThat(recipients).doesNotHaveDuplicates();
+        assertThat(new HashSet<>(recipients)).isEqualTo(agents);
+    }
+
+    @Test
+    void roleTopicSendsOneMessage() {
+        ReflectionTestUtils.setField(webSocketService, "roleFanoutPerUser", false);
+
+        long started = System.nanoTime();
+        webSocketService.sendNotificationToRole("SUPPORT", notification());
+        log.info("Role topic publish for {} users: {} microseconds",
+                RECIPIENTS, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+
+        assertThat(sent).singleElement()
+                .extracting(SentMessage::destination)
+                .isEqualTo("/topic/role/SUPPORT");
+    }
+
+    private static NotificationDTO notification() {
+        return NotificationDTO.builder()
+                .type(NotificationType.TICKET_ASSIGNED)
+                .title("Ticket assigned")
+                .content("TK-42 needs an agent")
+                .timestamp(LocalDateTime.now())
+                .entityType("TICKET")
+                .data(Map.of("priority", "HIGH"))
+                .email("agents@example.com")
+                .emailEnabled(true)
+                .ticketId("TK-42")
+                .build();
+    }
+
+    private record SentMessage(String destination, byte[] payload) {
+    }
+}
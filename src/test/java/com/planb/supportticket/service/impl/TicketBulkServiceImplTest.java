@@ -0,0 +1,143 @@
+package com.planb.supportticket.service.impl;
+
+import com.planb.supportticket.dto.BulkTicketOperationRequest;
+import com.planb.supportticket.dto.BulkTicketOperationResponse;
+import com.planb.supportticket.entity.Ticket;
+import com.planb.supportticket.entity.UserProfile;
+import com.planb.supportticket.entity.enums.TicketPriority;
+import com.planb.supportticket.entity.enums.TicketStatus;
+import com.planb.supportticket.repository.ExpertRepository;
+import com.planb.supportticket.repository.TicketRepository;
+import com.planb.supportticket.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a bulk operation records each chunk's notifications in that chunk's transaction,
+ * under one coalesce key for the whole operation.
+ */
+class TicketBulkServiceImplTest {
+    private static final int CHUNK_SIZE = 2;
+
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Map<UUID, Ticket> tickets = new HashMap<>();
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final List<String> committedChunks = new ArrayList<>();
+    private final List<String> chunkNotifications = new ArrayList<>();
+
+    private TicketBulkServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            chunkNotifications.clear();
+            return mock(TransactionStatus.class);
+        });
+        doAnswer(invocation -> {
+            inTransaction.set(false);
+            committedChunks.addAll(chunkNotifications);
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        when(ticketRepository.findAllWithParticipantsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(tickets::get).toList();
+        });
+        doAnswer(invocation -> {
+            assertThat(inTransaction).isTrue();
+            chunkNotifications.add(invocation.getArgument(3));
+            return null;
+        }).when(notificationService).sendBulkTicketUpdateNotification(any(), anyString(), anyList(), anyString());
+
+        service = new TicketBulkServiceImpl(ticketRepository, mock(ExpertRepository.class), notificationService,
+                transactionManager);
+        ReflectionTestUtils.setField(service, "maxTickets", 100);
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK_SIZE);
+        service.init();
+    }
+
+    @Test
+    void notificationsAreRecordedInEachChunkTransactionUnderOneOperation() {
+        UserProfile owner = owner();
+        List<UUID> ids = List.of(ticket(owner), ticket(owner), ticket(owner), ticket(owner), ticket(owner));
+
+        BulkTicketOperationResponse response = service.applyBulkOperation(request(ids));
+
+        assertThat(response.getUpdated()).isEqualTo(5);
+        // One notification per chunk for the owner, all carrying the same operation
+        assertThat(committedChunks).hasSize(3).containsOnly(committedChunks.get(0));
+    }
+
+    @Test
+    void failedChunkRecordsNoNotifications() {
+        UserProfile owner = owner();
+        List<UUID> ids = List.of(ticket(owner), ticket(owner), ticket(owner), ticket(owner));
+        AtomicInteger flushes = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (flushes.incrementAndGet() == 2) {
+                throw new QueryTimeoutException("Lock wait timeout");
+            }
+            return null;
+        }).when(ticketRepository).flush();
+
+        BulkTicketOperationResponse response = service.applyBulkOperation(request(ids));
+
+        assertThat(response.getUpdated()).isEqualTo(2);
+        assertThat(response.getFailed()).containsExactlyElementsOf(ids.subList(2, 4));
+        assertThat(committedChunks).hasSize(1);
+    }
+
+    private BulkTicketOperationRequest request(List<UUID> ids) {
+        return BulkTicketOperationRequest.builder()
+                .ticketIds(ids)
+                .priority(TicketPriority.HIGH)
+                .build();
+    }
+
+    private static UserProfile owner() {
+        UserProfile owner = new UserProfile();
+        owner.setId(UUID.randomUUID());
+        return owner;
+    }
+
+    private UUID ticket(UserProfile owner) {
+        Ticket ticket = Ticket.builder()
+                .ticketNumber("TK-" + (tickets.size() + 1))
+                .status(TicketStatus.OPEN)
+                .priority(TicketPriority.LOW)
+                .user(owner)
+                .build();
+        ticket.setId(UUID.randomUUID());
+        tickets.put(ticket.getId(), ticket);
+        return ticket.getId();
+    }
+}
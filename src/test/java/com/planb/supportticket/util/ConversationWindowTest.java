@@ -0,0 +1,69 @@
+package com.planb.supportticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that clearing a {@link ConversationWindow} while a summary is being made leaves the
+ * cleared conversation out of the new one.
+ */
+class ConversationWindowTest {
+
+    @Test
+    void summaryOfAClearedConversationIsDiscarded() {
+        ConversationWindow window = windowWithTrimmedMessages();
+        ConversationWindow.Trimmed taken = window.takeTrimmed(1);
+        assertThat(taken.isEmpty()).isFalse();
+
+        window.clear();
+        window.setSummary(taken, "The customer's card number is 4111");
+
+        assertThat(window.getSummary()).isNull();
+        assertThat(window.getTokens()).isZero();
+    }
+
+    @Test
+    void failedSummaryOfAClearedConversationIsDiscarded() {
+        ConversationWindow window = windowWithTrimmedMessages();
+        ConversationWindow.Trimmed taken = window.takeTrimmed(1);
+
+        window.clear();
+        window.summaryFailed(taken);
+        fill(window, "Refund");
+
+        assertThat(window.takeTrimmed(1).getTurns())
+                .isNotEmpty()
+                .allSatisfy(turn -> assertThat(turn.getContent()).startsWith("Refund"));
+    }
+
+    @Test
+    void clearingAllowsANewSummaryWhileTheOldOneIsPending() {
+        ConversationWindow window = windowWithTrimmedMessages();
+        ConversationWindow.Trimmed old = window.takeTrimmed(1);
+        assertThat(window.takeTrimmed(1).isEmpty()).isTrue();
+
+        window.clear();
+        fill(window, "Refund");
+        ConversationWindow.Trimmed current = window.takeTrimmed(1);
+        assertThat(current.isEmpty()).isFalse();
+
+        window.setSummary(old, "Old conversation");
+        window.setSummary(current, "New conversation");
+
+        assertThat(window.getSummary()).isEqualTo("New conversation");
+    }
+
+    private static ConversationWindow windowWithTrimmedMessages() {
+        ConversationWindow window = new ConversationWindow(50, true, 1000);
+        fill(window, "Damaged");
+        return window;
+    }
+
+    private static void fill(ConversationWindow window, String topic) {
+        for (int i = 0; i < 10; i++) {
+            window.add("user", topic + " question " + i + " about the order");
+            window.add("assistant", topic + " answer " + i + " with the next steps");
+        }
+    }
+}
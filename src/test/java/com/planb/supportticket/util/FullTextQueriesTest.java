@@ -0,0 +1,35 @@
+package com.planb.supportticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import static com.planb.supportticket.util.FullTextQueries.HIGHLIGHT_START;
+import static com.planb.supportticket.util.FullTextQueries.HIGHLIGHT_STOP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that search snippets only ever contain the &lt;mark&gt; tags added for matched terms.
+ */
+class FullTextQueriesTest {
+
+    @Test
+    void escapesStoredMarkupAndMarksMatchedTerms() {
+        String headline = "<img src=x onerror=alert(1)> the " + HIGHLIGHT_START + "printer" + HIGHLIGHT_STOP
+                + " & <mark>scanner</mark>";
+
+        assertThat(FullTextQueries.toHtmlSnippet(headline)).isEqualTo(
+                "&lt;img src=x onerror=alert(1)&gt; the <mark>printer</mark> &amp; &lt;mark&gt;scanner&lt;/mark&gt;");
+    }
+
+    @Test
+    void keepsTextOutsideTheMarkupCharactersAsIs() {
+        assertThat(FullTextQueries.toHtmlSnippet("Drucker d\u00e9fekt " + HIGHLIGHT_START + "gr\u00f6\u00dfer" + HIGHLIGHT_STOP))
+                .isEqualTo("Drucker d\u00e9fekt <mark>gr\u00f6\u00dfer</mark>");
+        assertThat(FullTextQueries.toHtmlSnippet(null)).isNull();
+    }
+
+    @Test
+    void prefixQueryDropsEverythingButLettersAndDigits() {
+        assertThat(FullTextQueries.toPrefixQuery("Reset pass' | !word")).isEqualTo("reset:* & pass:* & word:*");
+        assertThat(FullTextQueries.toPrefixQuery("&|!")).isEmpty();
+    }
+}